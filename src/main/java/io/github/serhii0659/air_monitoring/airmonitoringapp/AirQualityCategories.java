@@ -0,0 +1,108 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.scene.paint.Color;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Air quality categories per measured unit, loaded once from Category / Optimal_Value.
+ * Bands of a unit are sorted by bottom border; index 0 is the cleanest category.
+ */
+public final class AirQualityCategories {
+    private static final Color[] PALETTE = {
+            Color.web("#00e400"), Color.web("#ffff00"), Color.web("#ff7e00"),
+            Color.web("#ff0000"), Color.web("#8f3f97"), Color.web("#7e0023")
+    };
+    private static final Color NO_CATEGORY = Color.web("#5a6478");
+
+    private final Map<String, List<Band>> bandsByUnit;
+
+    AirQualityCategories(Map<String, List<Band>> bandsByUnit) {
+        this.bandsByUnit = bandsByUnit;
+    }
+
+    public static AirQualityCategories load(Connection conn) throws SQLException {
+        String sql = """
+            SELECT ov.ID_Measured_Unit, c.Designation, ov.Bottom_Border, ov.Upper_Border
+            FROM Optimal_Value ov
+            JOIN Category c ON c.ID_Category = ov.ID_Category
+            ORDER BY ov.ID_Measured_Unit, ov.Bottom_Border
+            """;
+        Map<String, List<Band>> bands = new HashMap<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                String unitId = rs.getString(1).trim();
+                String designation = rs.getString(2);
+                double bottom = rs.getDouble(3);
+                double upper = rs.getDouble(4);
+                if (rs.wasNull()) upper = Double.POSITIVE_INFINITY;
+                bands.computeIfAbsent(unitId, k -> new ArrayList<>()).add(new Band(designation, bottom, upper));
+            }
+        }
+        return new AirQualityCategories(bands);
+    }
+
+    public static class Band {
+        private final String designation;
+        private final double bottom;
+        private final double upper;
+
+        public Band(String designation, double bottom, double upper) {
+            this.designation = designation;
+            this.bottom = bottom;
+            this.upper = upper;
+        }
+
+        public String getDesignation() { return designation; }
+        public double getBottom() { return bottom; }
+        public double getUpper() { return upper; }
+    }
+
+    public Set<String> getUnitIds() {
+        return bandsByUnit.keySet();
+    }
+
+    public List<Band> getBands(String unitId) {
+        return bandsByUnit.getOrDefault(unitId, Collections.emptyList());
+    }
+
+    /**
+     * Index of the band containing value (bottom inclusive, upper exclusive), or -1.
+     * Values above the last band count as the last band.
+     */
+    public int indexOf(String unitId, double value) {
+        List<Band> bands = getBands(unitId);
+        for (int i = 0; i < bands.size(); i++) {
+            Band b = bands.get(i);
+            if (value >= b.bottom && value < b.upper) return i;
+        }
+        if (!bands.isEmpty() && value >= bands.get(bands.size() - 1).upper) return bands.size() - 1;
+        return -1;
+    }
+
+    public String designationOf(String unitId, double value) {
+        int index = indexOf(unitId, value);
+        return index >= 0 ? getBands(unitId).get(index).designation : "";
+    }
+
+    /**
+     * Category color of a value: the unit's categories are spread over a green..maroon
+     * palette (3 categories -> green, orange, maroon); grey when no category matches
+     */
+    public Color colorOf(String unitId, double value) {
+        int index = indexOf(unitId, value);
+        if (index < 0) return NO_CATEGORY;
+        int bands = getBands(unitId).size();
+        int colorIndex = bands < 2 ? 0 : Math.round((float) index * (PALETTE.length - 1) / (bands - 1));
+        return PALETTE[colorIndex];
+    }
+}
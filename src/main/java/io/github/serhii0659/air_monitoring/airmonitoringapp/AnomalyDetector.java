@@ -0,0 +1,348 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spike detection over Measurment per (station, unit) with EWMA z-scores.
+ *
+ * Each series keeps an exponentially weighted mean and mean absolute deviation; a value
+ * whose deviation exceeds anomaly.threshold robust sigmas is flagged, and is clipped to
+ * that bound before updating the state so one spike doesn't drag the baseline.
+ *
+ * Runs are incremental: the detector state of every series and the global watermark
+ * (max ID_Measurment processed) are stored in the app data dir, and a run only reads rows
+ * above the watermark. Series are processed in parallel, one worker and one dedicated
+ * connection per core. State and watermark are saved only when all series succeeded.
+ */
+public final class AnomalyDetector {
+    private static final int MAGIC = 0x414E4F4D; // "ANOM"
+    private static final int VERSION = 1;
+    private static final int FETCH_SIZE = 10_000;
+    private static final int MAX_EVENTS = 50_000;
+    private static final long RESET_GAP_MILLIS = 24 * 3_600_000L;
+    private static final double MAD_TO_SIGMA = 1.2533; // sqrt(pi / 2) for normal data
+
+    private static Map<String, SeriesState> states;
+    private static List<Event> events;
+    private static long watermark;
+    private static String loadedDb;
+
+    private AnomalyDetector() {}
+
+    /**
+     * EWMA state of one series; also used directly by tests
+     */
+    public static class SeriesState {
+        double mean;
+        double deviation;
+        long count;
+        long lastTime = Long.MIN_VALUE;
+
+        SeriesState copy() {
+            SeriesState s = new SeriesState();
+            s.mean = mean;
+            s.deviation = deviation;
+            s.count = count;
+            s.lastTime = lastTime;
+            return s;
+        }
+
+        /**
+         * Feed one value; returns the z-score if it is an anomaly, otherwise NaN
+         */
+        public double update(long time, double value, Settings settings) {
+            if (lastTime != Long.MIN_VALUE && time - lastTime > RESET_GAP_MILLIS) count = 0; // sensor was off
+            lastTime = Math.max(lastTime, time);
+
+            if (count == 0) {
+                mean = value;
+                deviation = 0;
+                count = 1;
+                return Double.NaN;
+            }
+
+            double sigma = Math.max(deviation * MAD_TO_SIGMA, 1e-6 + 0.01 * Math.abs(mean));
+            double z = (value - mean) / sigma;
+            boolean anomaly = count >= settings.warmup && Math.abs(z) > settings.threshold;
+
+            double clipped = anomaly ? mean + Math.signum(z) * settings.threshold * sigma : value;
+            double diff = clipped - mean;
+            mean += settings.alpha * diff;
+            deviation += settings.alpha * (Math.abs(diff) - deviation);
+            count++;
+            return anomaly ? z : Double.NaN;
+        }
+
+        public double getMean() { return mean; }
+    }
+
+    /**
+     * Sensitivity from config.properties: anomaly.threshold, anomaly.alpha, anomaly.warmup
+     */
+    public static class Settings {
+        final double threshold;
+        final double alpha;
+        final int warmup;
+
+        public Settings(double threshold, double alpha, int warmup) {
+            this.threshold = threshold;
+            this.alpha = alpha;
+            this.warmup = warmup;
+        }
+
+        public static Settings fromConfig() {
+            return new Settings(ConfigManager.getDoubleProperty("anomaly.threshold", 5),
+                    ConfigManager.getDoubleProperty("anomaly.alpha", 0.02),
+                    ConfigManager.getIntProperty("anomaly.warmup", 60));
+        }
+    }
+
+    public static class Event {
+        private final String stationId;
+        private final String unitId;
+        private final long id;
+        private final long time;
+        private final double value;
+        private final double expected;
+        private final double score;
+
+        public Event(String stationId, String unitId, long id, long time, double value, double expected, double score) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.id = id;
+            this.time = time;
+            this.value = value;
+            this.expected = expected;
+            this.score = score;
+        }
+
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public long getId() { return id; }
+        public long getTime() { return time; }
+        public double getValue() { return value; }
+        public double getExpected() { return expected; }
+        public double getScore() { return score; }
+        public boolean isSpikeUp() { return score > 0; }
+    }
+
+    public static class RunResult {
+        private final int series;
+        private final long rows;
+        private final int newEvents;
+        private final long elapsedMillis;
+
+        RunResult(int series, long rows, int newEvents, long elapsedMillis) {
+            this.series = series;
+            this.rows = rows;
+            this.newEvents = newEvents;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getSeries() { return series; }
+        public long getRows() { return rows; }
+        public int getNewEvents() { return newEvents; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    /**
+     * Process rows that arrived since the last run (the whole table on the first run)
+     */
+    public static synchronized RunResult detect() throws Exception {
+        ensureLoaded();
+        long started = System.currentTimeMillis();
+        Settings settings = Settings.fromConfig();
+
+        // Snapshot the upper bound first; rows inserted during the run are left for the next one
+        long from = watermark;
+        long to;
+        List<String[]> series = new ArrayList<>();
+        try (Connection conn = DbManager.openDedicatedConnection();
+             Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(ID_Measurment), 0) FROM Measurment")) {
+                rs.next();
+                to = rs.getLong(1);
+            }
+            if (to < from) {
+                // Table was recreated - start over
+                states.clear();
+                events.clear();
+                from = 0;
+            }
+            if (to == from) {
+                return new RunResult(0, 0, 0, System.currentTimeMillis() - started);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT DISTINCT ID_Station, ID_Measured_Unit FROM Measurment " +
+                    "WHERE ID_Measurment > ? AND ID_Measurment <= ?")) {
+                ps.setLong(1, from);
+                ps.setLong(2, to);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) series.add(new String[] { rs.getString(1), rs.getString(2) });
+                }
+            }
+        }
+
+        Map<String, SeriesState> updated = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<Event> found = new ConcurrentLinkedQueue<>();
+        LongAdder rows = new LongAdder();
+        long lower = from;
+        long upper = to;
+
+        int workers = ParallelWorkers.run("anomaly", series.size(), (conn, i) -> {
+            String[] next = series.get(i);
+            String key = next[0].trim() + "|" + next[1].trim();
+            SeriesState previous = states.get(key);
+            SeriesState state = previous != null ? previous.copy() : new SeriesState();
+            rows.add(scanSeries(conn, next[0], next[1], lower, upper, state, settings, found));
+            updated.put(key, state);
+        });
+
+        states.putAll(updated);
+        List<Event> sorted = new ArrayList<>(found);
+        sorted.sort((a, b) -> Long.compare(a.time, b.time));
+        events.addAll(sorted);
+        if (events.size() > MAX_EVENTS) {
+            events = new ArrayList<>(events.subList(events.size() - MAX_EVENTS, events.size()));
+        }
+        watermark = upper;
+        save();
+
+        long elapsed = System.currentTimeMillis() - started;
+        System.out.println(String.format("Виявлення аномалій: %d рядів, %,d рядків, %d подій, %d потоків, %d мс",
+                series.size(), rows.sum(), sorted.size(), workers, elapsed));
+        return new RunResult(series.size(), rows.sum(), sorted.size(), elapsed);
+    }
+
+    private static long scanSeries(Connection conn, String stationId, String unitId, long from, long to,
+                                  SeriesState state, Settings settings,
+                                  ConcurrentLinkedQueue<Event> found) throws SQLException {
+        String sql = "SELECT ID_Measurment, Time, Value FROM Measurment " +
+                "WHERE ID_Station = ? AND ID_Measured_Unit = ? AND ID_Measurment > ? AND ID_Measurment <= ? " +
+                "AND Value IS NOT NULL ORDER BY Time, ID_Measurment";
+        long count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, stationId);
+            ps.setString(2, unitId);
+            ps.setLong(3, from);
+            ps.setLong(4, to);
+            ps.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                String station = stationId.trim();
+                String unit = unitId.trim();
+                while (rs.next()) {
+                    long time = rs.getTimestamp(2).getTime();
+                    double value = rs.getDouble(3);
+                    double expected = state.mean;
+                    double z = state.update(time, value, settings);
+                    if (!Double.isNaN(z)) {
+                        found.add(new Event(station, unit, rs.getLong(1), time, value, expected, z));
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stored events, newest last
+     */
+    public static synchronized List<Event> getEvents() {
+        ensureLoaded();
+        return Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * Forget all state; the next run starts from the beginning of the table
+     */
+    public static synchronized void reset() {
+        ensureLoaded();
+        states.clear();
+        events.clear();
+        watermark = 0;
+        save();
+    }
+
+    private static void ensureLoaded() {
+        String db = String.valueOf(ConfigManager.getDbName());
+        if (db.equals(loadedDb)) return;
+        loadedDb = db;
+        states = new HashMap<>();
+        events = new ArrayList<>();
+        watermark = 0;
+
+        try {
+            StateFile.read(StateFile.forDatabase("anomalies"), MAGIC, VERSION, AnomalyDetector::readState);
+        } catch (IOException e) {
+            System.err.println("Стан детектора аномалій пошкоджено, буде створено заново: " + e.getMessage());
+            states.clear();
+            events.clear();
+            watermark = 0;
+        }
+    }
+
+    private static void readState(DataInputStream in) throws IOException {
+        watermark = in.readLong();
+        int stateCount = in.readInt();
+        for (int i = 0; i < stateCount; i++) {
+            String key = in.readUTF();
+            SeriesState s = new SeriesState();
+            s.mean = in.readDouble();
+            s.deviation = in.readDouble();
+            s.count = in.readLong();
+            s.lastTime = in.readLong();
+            states.put(key, s);
+        }
+        int eventCount = in.readInt();
+        for (int i = 0; i < eventCount; i++) {
+            events.add(new Event(in.readUTF(), in.readUTF(), in.readLong(), in.readLong(),
+                    in.readDouble(), in.readDouble(), in.readDouble()));
+        }
+    }
+
+    private static void save() {
+        try {
+            StateFile.write(StateFile.forDatabase("anomalies"), MAGIC, VERSION, AnomalyDetector::writeState);
+        } catch (IOException e) {
+            System.err.println("Помилка збереження стану детектора аномалій: " + e.getMessage());
+        }
+    }
+
+    private static void writeState(DataOutputStream out) throws IOException {
+        out.writeLong(watermark);
+        out.writeInt(states.size());
+        for (Map.Entry<String, SeriesState> e : states.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeDouble(e.getValue().mean);
+            out.writeDouble(e.getValue().deviation);
+            out.writeLong(e.getValue().count);
+            out.writeLong(e.getValue().lastTime);
+        }
+        out.writeInt(events.size());
+        for (Event event : events) {
+            out.writeUTF(event.stationId);
+            out.writeUTF(event.unitId);
+            out.writeLong(event.id);
+            out.writeLong(event.time);
+            out.writeDouble(event.value);
+            out.writeDouble(event.expected);
+            out.writeDouble(event.score);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * List of measurement anomalies found by AnomalyDetector, newest first.
+ * "Detect" only processes rows added since the previous run.
+ */
+public class AnomalyViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> stationCombo;
+    @FXML private TableView<AnomalyRow> dataTable;
+    @FXML private TableColumn<AnomalyRow, String> stationColumn;
+    @FXML private TableColumn<AnomalyRow, String> unitColumn;
+    @FXML private TableColumn<AnomalyRow, String> timeColumn;
+    @FXML private TableColumn<AnomalyRow, String> valueColumn;
+    @FXML private TableColumn<AnomalyRow, String> expectedColumn;
+    @FXML private TableColumn<AnomalyRow, String> scoreColumn;
+    @FXML private TableColumn<AnomalyRow, String> typeColumn;
+    @FXML private Label infoLabel;
+
+    private static final String ALL_STATIONS = "";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final ObservableList<AnomalyRow> dataList = FXCollections.observableArrayList();
+    private final Map<String, String> stationNames = new HashMap<>();
+    private final Map<String, String> unitTitles = new HashMap<>();
+    private boolean running;
+
+    @FXML
+    private void initialize() {
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        unitColumn.setCellValueFactory(new PropertyValueFactory<>("unit"));
+        timeColumn.setCellValueFactory(new PropertyValueFactory<>("time"));
+        valueColumn.setCellValueFactory(new PropertyValueFactory<>("value"));
+        expectedColumn.setCellValueFactory(new PropertyValueFactory<>("expected"));
+        scoreColumn.setCellValueFactory(new PropertyValueFactory<>("score"));
+        typeColumn.setCellValueFactory(new PropertyValueFactory<>("type"));
+        dataTable.setItems(dataList);
+        stationCombo.valueProperty().addListener((obs, o, n) -> showEvents());
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Аномалії вимірювань", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                ObservableList<TimeSeriesViewController.Option> stations = FXCollections.observableArrayList();
+                stations.add(new TimeSeriesViewController.Option(ALL_STATIONS, "Усі станції"));
+                Map<String, String> names = new HashMap<>();
+                Map<String, String> titles = new HashMap<>();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        String id = rs.getString("ID_Station").trim();
+                        String name = rs.getString("Name") + " (" + rs.getString("City") + ")";
+                        names.put(id, name);
+                        stations.add(new TimeSeriesViewController.Option(id, name));
+                    }
+                }
+                try (Statement st = DbManager.getConnection().createStatement();
+                     ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+                    while (rs.next()) titles.put(rs.getString(1).trim(), rs.getString(2));
+                }
+                Platform.runLater(() -> {
+                    stationNames.putAll(names);
+                    unitTitles.putAll(titles);
+                    stationCombo.setItems(stations);
+                    stationCombo.getSelectionModel().selectFirst();
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження станцій: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onDetect() {
+        if (running) return;
+        running = true;
+        infoLabel.setText("⏳ Пошук аномалій у нових вимірюваннях...");
+        new Thread(() -> {
+            try {
+                AnomalyDetector.RunResult result = AnomalyDetector.detect();
+                Platform.runLater(() -> {
+                    running = false;
+                    showEvents();
+                    infoLabel.setText(String.format("✓ Оброблено %,d нових вимірювань у %d рядах │ нових аномалій: %d │ %d мс",
+                            result.getRows(), result.getSeries(), result.getNewEvents(), result.getElapsedMillis()));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    running = false;
+                    infoLabel.setText("❌ Помилка: " + e.getMessage());
+                });
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onReset() {
+        if (running) return;
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+                "Скинути стан детектора? Наступний пошук пройде по всій таблиці вимірювань.",
+                ButtonType.YES, ButtonType.NO);
+        alert.setTitle("Скидання стану");
+        alert.setHeaderText(null);
+        alert.initOwner(titleBar.getScene().getWindow());
+        if (alert.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) return;
+        AnomalyDetector.reset();
+        dataList.clear();
+        infoLabel.setText("Стан детектора скинуто");
+    }
+
+    private void showEvents() {
+        TimeSeriesViewController.Option station = stationCombo.getValue();
+        String filter = station == null ? ALL_STATIONS : station.getId();
+        List<AnomalyDetector.Event> events = AnomalyDetector.getEvents();
+
+        ObservableList<AnomalyRow> rows = FXCollections.observableArrayList();
+        for (int i = events.size() - 1; i >= 0; i--) {
+            AnomalyDetector.Event event = events.get(i);
+            if (!filter.equals(ALL_STATIONS) && !filter.equals(event.getStationId())) continue;
+            rows.add(new AnomalyRow(event, stationNames.getOrDefault(event.getStationId(), event.getStationId()),
+                    unitTitles.getOrDefault(event.getUnitId(), event.getUnitId())));
+        }
+        dataList.setAll(rows);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class AnomalyRow {
+        private final String station;
+        private final String unit;
+        private final String time;
+        private final String value;
+        private final String expected;
+        private final String score;
+        private final String type;
+
+        public AnomalyRow(AnomalyDetector.Event event, String station, String unit) {
+            this.station = station;
+            this.unit = unit;
+            this.time = TIME_FORMAT.format(Instant.ofEpochMilli(event.getTime()).atZone(ZoneId.systemDefault()));
+            this.value = String.format("%.2f", event.getValue());
+            this.expected = String.format("%.2f", event.getExpected());
+            this.score = String.format("%.1f", event.getScore());
+            this.type = event.isSpikeUp() ? "⬆ Сплеск" : "⬇ Провал";
+        }
+
+        public String getStation() { return station; }
+        public String getUnit() { return unit; }
+        public String getTime() { return time; }
+        public String getValue() { return value; }
+        public String getExpected() { return expected; }
+        public String getScore() { return score; }
+        public String getType() { return type; }
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Air Quality Index per station and hour from Optimal_Value breakpoints.
+ *
+ * Category k of a pollutant covers the index range [k * INDEX_STEP, (k + 1) * INDEX_STEP];
+ * a concentration is interpolated linearly between the category's Bottom_Border and
+ * Upper_Border, and the open-ended top category continues with the width of the one below.
+ * Without an open-ended category, values above the last one extrapolate with its slope.
+ * The AQI of an hour is the maximum sub-index over all pollutants (the dominant one).
+ *
+ * Breakpoints are copied once into flat primitive arrays; hourly aggregates are streamed
+ * from the server sorted by (station, hour) and folded without per-row objects or boxing.
+ */
+public final class AqiEngine {
+    public static final double INDEX_STEP = 50;
+
+    private final String[] unitIds;
+    private final int[] bandStart;     // bands of unit u: bandStart[u] .. bandStart[u + 1] - 1
+    private final double[] lower;
+    private final double[] upper;
+    private final AirQualityCategories categories;
+
+    private AqiEngine(AirQualityCategories categories) {
+        this.categories = categories;
+        this.unitIds = categories.getUnitIds().toArray(new String[0]);
+        Arrays.sort(unitIds);
+        this.bandStart = new int[unitIds.length + 1];
+        int total = 0;
+        for (int u = 0; u < unitIds.length; u++) {
+            bandStart[u] = total;
+            total += categories.getBands(unitIds[u]).size();
+        }
+        bandStart[unitIds.length] = total;
+
+        this.lower = new double[total];
+        this.upper = new double[total];
+        for (int u = 0; u < unitIds.length; u++) {
+            List<AirQualityCategories.Band> bands = categories.getBands(unitIds[u]);
+            for (int k = 0; k < bands.size(); k++) {
+                lower[bandStart[u] + k] = bands.get(k).getBottom();
+                upper[bandStart[u] + k] = bands.get(k).getUpper();
+            }
+        }
+    }
+
+    public static AqiEngine from(AirQualityCategories categories) {
+        return new AqiEngine(categories);
+    }
+
+    public static AqiEngine load(Connection conn) throws SQLException {
+        return new AqiEngine(AirQualityCategories.load(conn));
+    }
+
+    public AirQualityCategories getCategories() {
+        return categories;
+    }
+
+    public int getUnitCount() {
+        return unitIds.length;
+    }
+
+    public String getUnitId(int unit) {
+        return unitIds[unit];
+    }
+
+    /**
+     * Index of a unit with breakpoints, or -1
+     */
+    public int unitIndex(String unitId) {
+        for (int u = 0; u < unitIds.length; u++) {
+            if (unitIds[u].equals(unitId)) return u;
+        }
+        return -1;
+    }
+
+    /**
+     * Sub-index of one pollutant concentration (NaN when the unit has no breakpoints)
+     */
+    public double subIndex(int unit, double concentration) {
+        int first = bandStart[unit];
+        int end = bandStart[unit + 1];
+        if (first == end || Double.isNaN(concentration)) return Double.NaN;
+        if (concentration <= lower[first]) return 0;
+
+        for (int b = first; b < end; b++) {
+            double lo = lower[b];
+            double hi = upper[b];
+            if (Double.isInfinite(hi)) {
+                // Open top category: keep the slope of the category below
+                double width = b > first ? lower[b] - lower[b - 1] : Math.max(lo, 1);
+                return (b - first) * INDEX_STEP + Math.max(0, concentration - lo) / width * INDEX_STEP;
+            }
+            if (concentration < hi) {
+                // Values in a gap between categories start the next category
+                double t = concentration <= lo ? 0 : (concentration - lo) / (hi - lo);
+                return (b - first + t) * INDEX_STEP;
+            }
+        }
+        // Above the last closed category: continue with that category's slope
+        double hi = upper[end - 1];
+        double width = hi > lower[end - 1] ? hi - lower[end - 1] : Math.max(hi, 1);
+        return (end - first) * INDEX_STEP + (concentration - hi) / width * INDEX_STEP;
+    }
+
+    /**
+     * Hourly AQI for one station (or all stations when stationId is null) within [from, to).
+     * Hourly averages of a long period can be millions of rows, so conn must have autocommit
+     * off for PostgreSQL to hand them out through a cursor.
+     */
+    public HourlyAqi computeHourly(Connection conn, String stationId, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        String sql = "SELECT ID_Station, date_trunc('hour', Time) AS hour, ID_Measured_Unit, AVG(Value) " +
+                "FROM Measurment " +
+                "WHERE Time >= ? AND Time < ? AND ID_Measured_Unit = ANY(?)" +
+                (stationId != null ? " AND ID_Station = ?" : "") +
+                " GROUP BY ID_Station, date_trunc('hour', Time), ID_Measured_Unit" +
+                " ORDER BY ID_Station, hour";
+
+        HourlyAqi result = new HourlyAqi();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            ps.setArray(3, conn.createArrayOf("varchar", unitIds));
+            if (stationId != null) ps.setString(4, stationId);
+            ps.setFetchSize(50_000);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                String currentStation = null;
+                int station = -1;
+                long hour = Long.MIN_VALUE;
+                double best = Double.NaN;
+                int bestUnit = -1;
+                String lastUnitId = null;
+                int lastUnit = -1;
+
+                while (rs.next()) {
+                    String rowStation = rs.getString(1);
+                    long rowHour = rs.getTimestamp(2).getTime();
+
+                    if (!rowStation.equals(currentStation) || rowHour != hour) {
+                        if (bestUnit >= 0) result.add(station, hour, best, bestUnit);
+                        if (!rowStation.equals(currentStation)) {
+                            currentStation = rowStation;
+                            station = result.addStation(rowStation.trim());
+                        }
+                        hour = rowHour;
+                        best = Double.NaN;
+                        bestUnit = -1;
+                    }
+
+                    String rowUnitId = rs.getString(3);
+                    if (!rowUnitId.equals(lastUnitId)) {
+                        lastUnitId = rowUnitId;
+                        lastUnit = unitIndex(rowUnitId.trim());
+                    }
+                    if (lastUnit < 0) continue;
+
+                    double sub = subIndex(lastUnit, rs.getDouble(4));
+                    if (!Double.isNaN(sub) && (bestUnit < 0 || sub > best)) {
+                        best = sub;
+                        bestUnit = lastUnit;
+                    }
+                }
+                if (bestUnit >= 0) result.add(station, hour, best, bestUnit);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Column-oriented result: one entry per (station, hour) with data, sorted by station and hour
+     */
+    public static class HourlyAqi {
+        private final List<String> stationIds = new ArrayList<>();
+        private int[] station = new int[1024];
+        private long[] hour = new long[1024];
+        private double[] aqi = new double[1024];
+        private int[] dominantUnit = new int[1024];
+        private int size;
+
+        int addStation(String stationId) {
+            stationIds.add(stationId);
+            return stationIds.size() - 1;
+        }
+
+        void add(int stationIndex, long hourMillis, double value, int unit) {
+            if (size == station.length) {
+                int capacity = size * 2;
+                station = Arrays.copyOf(station, capacity);
+                hour = Arrays.copyOf(hour, capacity);
+                aqi = Arrays.copyOf(aqi, capacity);
+                dominantUnit = Arrays.copyOf(dominantUnit, capacity);
+            }
+            station[size] = stationIndex;
+            hour[size] = hourMillis;
+            aqi[size] = value;
+            dominantUnit[size] = unit;
+            size++;
+        }
+
+        public int size() { return size; }
+        public List<String> getStationIds() { return stationIds; }
+        public int getStation(int i) { return station[i]; }
+        public long getHour(int i) { return hour[i]; }
+        public double getAqi(int i) { return aqi[i]; }
+        public int getDominantUnit(int i) { return dominantUnit[i]; }
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AQI of all stations over a period: mean / max of the hourly index and the pollutant
+ * that dominates most often. Hourly values come from AqiEngine in one streamed query.
+ */
+public class AqiViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private TableView<StationAqi> dataTable;
+    @FXML private TableColumn<StationAqi, String> stationColumn;
+    @FXML private TableColumn<StationAqi, Long> meanColumn;
+    @FXML private TableColumn<StationAqi, Long> maxColumn;
+    @FXML private TableColumn<StationAqi, String> categoryColumn;
+    @FXML private TableColumn<StationAqi, String> dominantColumn;
+    @FXML private TableColumn<StationAqi, Integer> hoursColumn;
+    @FXML private BarChart<String, Number> barChart;
+    @FXML private CategoryAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private Label infoLabel;
+
+    private final ObservableList<StationAqi> dataList = FXCollections.observableArrayList();
+
+    @FXML
+    private void initialize() {
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("stationName"));
+        meanColumn.setCellValueFactory(new PropertyValueFactory<>("meanAqi"));
+        maxColumn.setCellValueFactory(new PropertyValueFactory<>("maxAqi"));
+        categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
+        dominantColumn.setCellValueFactory(new PropertyValueFactory<>("dominant"));
+        hoursColumn.setCellValueFactory(new PropertyValueFactory<>("hours"));
+        dataTable.setItems(dataList);
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusYears(1));
+
+        xAxis.setLabel("Станція");
+        yAxis.setLabel("AQI");
+        barChart.setTitle("Середній та максимальний погодинний AQI");
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Індекс якості повітря (AQI)", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+    }
+
+    @FXML
+    private void onLoadData() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Розрахунок AQI...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try (Connection conn = DbManager.openDedicatedConnection()) {
+                conn.setAutoCommit(false);
+                AqiEngine engine = AqiEngine.load(conn);
+
+                Map<String, String> unitTitles = new HashMap<>();
+                Map<String, String> stationNames = new HashMap<>();
+                try (Statement st = conn.createStatement()) {
+                    try (ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+                        while (rs.next()) unitTitles.put(rs.getString(1).trim(), rs.getString(2));
+                    }
+                    try (ResultSet rs = st.executeQuery("SELECT ID_Station, Name, City FROM Station")) {
+                        while (rs.next()) stationNames.put(rs.getString(1).trim(), rs.getString(2) + " (" + rs.getString(3) + ")");
+                    }
+                }
+
+                AqiEngine.HourlyAqi aqi = engine.computeHourly(conn, null,
+                        startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+                conn.commit();
+                long elapsed = System.currentTimeMillis() - started;
+
+                // Per-station fold over the column arrays
+                int stations = aqi.getStationIds().size();
+                double[] sum = new double[stations];
+                double[] max = new double[stations];
+                int[] hours = new int[stations];
+                int[][] dominantCounts = new int[stations][engine.getUnitCount()];
+                for (int i = 0; i < aqi.size(); i++) {
+                    int s = aqi.getStation(i);
+                    sum[s] += aqi.getAqi(i);
+                    max[s] = Math.max(max[s], aqi.getAqi(i));
+                    hours[s]++;
+                    dominantCounts[s][aqi.getDominantUnit(i)]++;
+                }
+
+                ObservableList<StationAqi> rows = FXCollections.observableArrayList();
+                for (int s = 0; s < stations; s++) {
+                    if (hours[s] == 0) continue;
+                    int dominant = 0;
+                    for (int u = 1; u < engine.getUnitCount(); u++) {
+                        if (dominantCounts[s][u] > dominantCounts[s][dominant]) dominant = u;
+                    }
+                    String unitId = engine.getUnitId(dominant);
+                    double mean = sum[s] / hours[s];
+                    String id = aqi.getStationIds().get(s);
+                    rows.add(new StationAqi(stationNames.getOrDefault(id, id), Math.round(mean), Math.round(max[s]),
+                            ReportGenerator.aqiCategory(engine, unitId, mean),
+                            unitTitles.getOrDefault(unitId, unitId), hours[s]));
+                }
+                rows.sort((a, b) -> Long.compare(b.getMeanAqi(), a.getMeanAqi()));
+
+                Platform.runLater(() -> {
+                    dataList.setAll(rows);
+                    updateChart();
+                    infoLabel.setText(String.format("✓ AQI: %,d погодинних значень, %d станцій │ %d мс",
+                            aqi.size(), rows.size(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void updateChart() {
+        barChart.getData().clear();
+        XYChart.Series<String, Number> mean = new XYChart.Series<>();
+        mean.setName("Середній AQI");
+        XYChart.Series<String, Number> max = new XYChart.Series<>();
+        max.setName("Максимальний AQI");
+        for (StationAqi row : dataList) {
+            mean.getData().add(new XYChart.Data<>(row.getStationName(), row.getMeanAqi()));
+            max.getData().add(new XYChart.Data<>(row.getStationName(), row.getMaxAqi()));
+        }
+        barChart.getData().add(mean);
+        barChart.getData().add(max);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class StationAqi {
+        private final String stationName;
+        private final long meanAqi;
+        private final long maxAqi;
+        private final String category;
+        private final String dominant;
+        private final int hours;
+
+        public StationAqi(String stationName, long meanAqi, long maxAqi, String category, String dominant, int hours) {
+            this.stationName = stationName;
+            this.meanAqi = meanAqi;
+            this.maxAqi = maxAqi;
+            this.category = category;
+            this.dominant = dominant;
+            this.hours = hours;
+        }
+
+        public String getStationName() { return stationName; }
+        public long getMeanAqi() { return meanAqi; }
+        public long getMaxAqi() { return maxAqi; }
+        public String getCategory() { return category; }
+        public String getDominant() { return dominant; }
+        public int getHours() { return hours; }
+    }
+}
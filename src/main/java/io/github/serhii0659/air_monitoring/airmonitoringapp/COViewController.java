@@ -12,6 +12,8 @@ import javafx.stage.Stage;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
 
 public class COViewController {
     @FXML private CustomTitleBar titleBar;
@@ -24,6 +26,11 @@ public class COViewController {
 
     private ObservableList<CategoryData> dataList = FXCollections.observableArrayList();
 
+    // Category borders of the loaded unit, parallel to dataList (for live updates)
+    private final LiveUpdateListener.Subscriber liveSubscriber = this::onLiveMeasurements;
+    private String liveUnitId;
+    private List<double[]> borders = new ArrayList<>();
+
     @FXML
     private void initialize() {
         System.out.println("COViewController.initialize() викликано");
@@ -44,6 +51,9 @@ public class COViewController {
                 if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
                     Stage stage = (Stage) titleBar.getScene().getWindow();
                     titleBar.init("Візуалізація: Чадний газ (CO)", stage, true, true); // Дозволяємо максимізацію
+                    LiveUpdateListener.subscribe(liveSubscriber);
+                    stage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN,
+                            e -> LiveUpdateListener.unsubscribe(liveSubscriber));
                     System.out.println("Title bar ініціалізовано успішно");
                 } else {
                     System.err.println("Title bar або scene ще не готові");
@@ -100,55 +110,102 @@ public class COViewController {
             throw new Exception("Не знайдено параметр CO у базі даних");
         }
 
-        // Тепер отримуємо категорії та підраховуємо вимірювання
-        String sql = """
-            SELECT 
-                c.Designation AS category,
-                ov.Bottom_Border,
-                ov.Upper_Border,
-                COUNT(m.ID_Measurment) AS measurement_count
-            FROM Category c
-            JOIN Optimal_Value ov ON c.ID_Category = ov.ID_Category
-            LEFT JOIN Measurment m ON m.ID_Measured_Unit = ov.ID_Measured_Unit
-                AND m.Value >= ov.Bottom_Border
-                AND (ov.Upper_Border IS NULL OR m.Value < ov.Upper_Border)
-            WHERE ov.ID_Measured_Unit = ?
-            GROUP BY c.ID_Category, c.Designation, ov.Bottom_Border, ov.Upper_Border
-            ORDER BY ov.Bottom_Border
-            """;
-
         ObservableList<CategoryData> newData = FXCollections.observableArrayList();
-
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, coId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String category = rs.getString("category");
-                    double bottomBorder = rs.getDouble("Bottom_Border");
-                    Double upperBorder = rs.getDouble("Upper_Border");
-                    if (rs.wasNull()) upperBorder = null;
-                    int count = rs.getInt("measurement_count");
-
-                    // Форматуємо діапазон
-                    String range;
-                    if (upperBorder == null) {
-                        range = String.format("%.0f+", bottomBorder);
-                    } else {
-                        range = String.format("%.0f-%.0f", bottomBorder, upperBorder);
+        List<double[]> newBorders = new ArrayList<>();
+
+        if (MeasurementCube.isEnabled()) {
+            // Category counts are kept per day in the cube, no scan of Measurment
+            MeasurementCube cube = MeasurementCube.current();
+            MeasurementCube.Aggregate total = cube.aggregate(cube.select(null, null, coId, null, null));
+            List<MeasurementCube.Band> bands = cube.bands(coId);
+            for (int i = 0; i < bands.size(); i++) {
+                MeasurementCube.Band band = bands.get(i);
+                String range = Double.isInfinite(band.getUpper())
+                        ? String.format("%.0f+", band.getBottom())
+                        : String.format("%.0f-%.0f", band.getBottom(), band.getUpper());
+                newData.add(new CategoryData(band.getDesignation(), range, total.getBandCount(i)));
+                newBorders.add(new double[] { band.getBottom(), band.getUpper() });
+            }
+        } else {
+            // Тепер отримуємо категорії та підраховуємо вимірювання
+            String sql = """
+                SELECT 
+                    c.Designation AS category,
+                    ov.Bottom_Border,
+                    ov.Upper_Border,
+                    COUNT(m.ID_Measurment) AS measurement_count
+                FROM Category c
+                JOIN Optimal_Value ov ON c.ID_Category = ov.ID_Category
+                LEFT JOIN Measurment m ON m.ID_Measured_Unit = ov.ID_Measured_Unit
+                    AND m.Value >= ov.Bottom_Border
+                    AND (ov.Upper_Border IS NULL OR m.Value < ov.Upper_Border)
+                WHERE ov.ID_Measured_Unit = ?
+                GROUP BY c.ID_Category, c.Designation, ov.Bottom_Border, ov.Upper_Border
+                ORDER BY ov.Bottom_Border
+                """;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, coId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String category = rs.getString("category");
+                        double bottomBorder = rs.getDouble("Bottom_Border");
+                        Double upperBorder = rs.getDouble("Upper_Border");
+                        if (rs.wasNull()) upperBorder = null;
+                        int count = rs.getInt("measurement_count");
+
+                        // Форматуємо діапазон
+                        String range;
+                        if (upperBorder == null) {
+                            range = String.format("%.0f+", bottomBorder);
+                        } else {
+                            range = String.format("%.0f-%.0f", bottomBorder, upperBorder);
+                        }
+
+                        newData.add(new CategoryData(category, range, count));
+                        newBorders.add(new double[] { bottomBorder, upperBorder == null ? Double.POSITIVE_INFINITY : upperBorder });
                     }
-
-                    newData.add(new CategoryData(category, range, count));
                 }
             }
         }
 
+        String unitId = coId.trim();
         Platform.runLater(() -> {
             dataList.clear();
             dataList.addAll(newData);
+            borders = newBorders;
+            liveUnitId = unitId;
         });
     }
 
+    /**
+     * Count newly inserted values into their categories
+     */
+    private void onLiveMeasurements(List<LiveUpdateListener.Measurement> rows) {
+        if (liveUnitId == null) return;
+        boolean changed = false;
+
+        for (LiveUpdateListener.Measurement m : rows) {
+            if (!liveUnitId.equals(m.getUnitId())) continue;
+            for (int i = 0; i < borders.size() && i < dataList.size(); i++) {
+                double[] b = borders.get(i);
+                if (m.getValue() >= b[0] && m.getValue() < b[1]) {
+                    CategoryData old = dataList.get(i);
+                    dataList.set(i, new CategoryData(old.getCategory(), old.range, old.getCount() + 1));
+                    changed = true;
+                    break;
+                }
+            }
+        }
+
+        if (changed) {
+            updateChart();
+            int total = dataList.stream().mapToInt(CategoryData::getCount).sum();
+            infoLabel.setText("⚡ Live: " + total + " вимірювань");
+        }
+    }
+
     private void updateChart() {
         ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
 
@@ -0,0 +1,212 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Calendar heatmap (weeks x weekdays per station and year) of daily values against a threshold.
+ *
+ * Only the station/year blocks inside the viewport are drawn on a viewport-sized Canvas,
+ * so multi-year calendars of all stations scroll at constant cost. Hover lookup is
+ * arithmetic on the block layout, with one shared Tooltip.
+ */
+public final class CalendarHeatmapView extends Pane {
+    private static final double LEFT = 40;
+    private static final double LABEL_HEIGHT = 22;
+    private static final double BLOCK_GAP = 12;
+    private static final double MAX_CELL = 14;
+    private static final int WEEKS = 54;
+    private static final Color BACKGROUND = Color.web("#1a1f3a");
+    private static final Color TEXT = Color.web("#a8b2c1");
+    private static final Color NO_DATA = Color.web("#262c4a");
+    private static final Color LOW = Color.web("#00e400");
+    private static final Color MID = Color.web("#ffff00");
+    private static final Color HIGH = Color.web("#ff7e00");
+    private static final Color SEVERE = Color.web("#7e0023");
+    private static final String[] WEEKDAYS = { "Пн", "", "Ср", "", "Пт", "", "Нд" };
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar scrollBar = new ScrollBar();
+    private final Tooltip tooltip = new Tooltip();
+
+    private String[] stationNames = new String[0];
+    private double[][] daily = new double[0][];  // station -> day index from origin, NaN = no data
+    private LocalDate origin = LocalDate.now();
+    private int firstYear;
+    private int years;
+    private double threshold = 1;
+    private String unitLabel = "";
+    private String hoverKey;
+
+    public CalendarHeatmapView() {
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.valueProperty().addListener((obs, o, n) -> redraw());
+        getChildren().addAll(canvas, scrollBar);
+
+        canvas.setOnScroll(e -> scrollBar.setValue(clamp(scrollBar.getValue() - e.getDeltaY(), 0, scrollBar.getMax())));
+        canvas.setOnMouseMoved(e -> onHover(e.getX(), e.getY(), e.getScreenX(), e.getScreenY()));
+        canvas.setOnMouseExited(e -> {
+            hoverKey = null;
+            tooltip.hide();
+        });
+    }
+
+    /**
+     * @param daily per station, values for consecutive days starting at origin (NaN = no data)
+     */
+    public void setData(String[] stationNames, double[][] daily, LocalDate origin, LocalDate end,
+                        double threshold, String unitLabel) {
+        this.stationNames = stationNames;
+        this.daily = daily;
+        this.origin = origin;
+        this.firstYear = origin.getYear();
+        this.years = end.getYear() - origin.getYear() + 1;
+        this.threshold = threshold;
+        this.unitLabel = unitLabel;
+        scrollBar.setValue(0);
+        updateScrollRange();
+        redraw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double barWidth = scrollBar.prefWidth(-1);
+        scrollBar.resizeRelocate(getWidth() - barWidth, 0, barWidth, getHeight());
+        double w = Math.max(0, getWidth() - barWidth);
+        if (canvas.getWidth() != w || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(w);
+            canvas.setHeight(getHeight());
+            updateScrollRange();
+            redraw();
+        }
+    }
+
+    private double cellSize() {
+        return Math.max(4, Math.min(MAX_CELL, (canvas.getWidth() - LEFT - 10) / WEEKS));
+    }
+
+    private double blockHeight() {
+        return LABEL_HEIGHT + 7 * cellSize() + BLOCK_GAP;
+    }
+
+    private void updateScrollRange() {
+        double content = stationNames.length * years * blockHeight();
+        double max = Math.max(0, content - canvas.getHeight());
+        scrollBar.setMax(max);
+        scrollBar.setVisibleAmount(canvas.getHeight());
+        scrollBar.setUnitIncrement(blockHeight() / 2);
+        scrollBar.setBlockIncrement(canvas.getHeight());
+        if (scrollBar.getValue() > max) scrollBar.setValue(max);
+    }
+
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, w, h);
+        if (stationNames.length == 0 || years <= 0) return;
+
+        double cell = cellSize();
+        double blockH = blockHeight();
+        double offset = scrollBar.getValue();
+        int firstBlock = (int) (offset / blockH);
+        int lastBlock = Math.min(stationNames.length * years - 1, (int) ((offset + h) / blockH));
+
+        gc.setFont(Font.font(11));
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            int station = block / years;
+            int year = firstYear + block % years;
+            double top = block * blockH - offset;
+
+            gc.setFill(TEXT);
+            gc.setTextAlign(TextAlignment.LEFT);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(stationNames[station] + " — " + year, LEFT, top + LABEL_HEIGHT / 2);
+            gc.setTextAlign(TextAlignment.RIGHT);
+            for (int d = 0; d < 7; d++) {
+                if (!WEEKDAYS[d].isEmpty()) gc.fillText(WEEKDAYS[d], LEFT - 6, top + LABEL_HEIGHT + (d + 0.5) * cell);
+            }
+
+            LocalDate jan1 = LocalDate.of(year, 1, 1);
+            int jan1Weekday = jan1.getDayOfWeek().getValue() - 1;
+            int daysInYear = jan1.lengthOfYear();
+            long firstIndex = ChronoUnit.DAYS.between(origin, jan1);
+            double[] values = daily[station];
+
+            for (int doy = 0; doy < daysInYear; doy++) {
+                long index = firstIndex + doy;
+                int slot = jan1Weekday + doy;
+                double x = LEFT + (slot / 7) * cell;
+                double y = top + LABEL_HEIGHT + (slot % 7) * cell;
+                double v = index >= 0 && index < values.length ? values[(int) index] : Double.NaN;
+                gc.setFill(colorOf(v));
+                gc.fillRect(x, y, cell - 1, cell - 1);
+            }
+        }
+    }
+
+    /**
+     * Green..yellow up to the threshold, orange..maroon above it (maroon at 3x threshold)
+     */
+    private Color colorOf(double value) {
+        if (Double.isNaN(value)) return NO_DATA;
+        double ratio = value / threshold;
+        if (ratio <= 1) return LOW.interpolate(MID, Math.max(0, ratio));
+        return HIGH.interpolate(SEVERE, Math.min(1, (ratio - 1) / 2));
+    }
+
+    private void onHover(double x, double y, double screenX, double screenY) {
+        if (stationNames.length == 0 || years <= 0) return;
+        double cell = cellSize();
+        double blockH = blockHeight();
+        double contentY = y + scrollBar.getValue();
+        int block = (int) (contentY / blockH);
+        double inBlockY = contentY - block * blockH - LABEL_HEIGHT;
+        int week = (int) Math.floor((x - LEFT) / cell);
+        int weekday = (int) Math.floor(inBlockY / cell);
+
+        LocalDate day = null;
+        int station = block / years;
+        if (block < stationNames.length * years && week >= 0 && week < WEEKS && weekday >= 0 && weekday < 7) {
+            int year = firstYear + block % years;
+            LocalDate jan1 = LocalDate.of(year, 1, 1);
+            int doy = week * 7 + weekday - (jan1.getDayOfWeek().getValue() - 1);
+            if (doy >= 0 && doy < jan1.lengthOfYear()) day = jan1.plusDays(doy);
+        }
+
+        String key = day == null ? null : station + "|" + day;
+        if (key == null) {
+            hoverKey = null;
+            tooltip.hide();
+            return;
+        }
+        if (key.equals(hoverKey)) return;
+        hoverKey = key;
+
+        long index = ChronoUnit.DAYS.between(origin, day);
+        double[] values = daily[station];
+        double v = index >= 0 && index < values.length ? values[(int) index] : Double.NaN;
+        tooltip.setText(stationNames[station] + "\n" + DAY_FORMAT.format(day) + "\n"
+                + (Double.isNaN(v) ? "немає даних"
+                    : String.format("Макс. %s: %.1f%s", unitLabel, v, v > threshold ? " ⚠ шкідливий рівень" : "")));
+        tooltip.show(canvas, screenX + 12, screenY + 12);
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
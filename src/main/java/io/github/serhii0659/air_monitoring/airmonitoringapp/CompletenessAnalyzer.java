@@ -0,0 +1,358 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completeness of Measurment per (station, unit): expected sampling interval, gaps and
+ * duplicate timestamps, found in one pass over rows ordered by (station, unit, time).
+ *
+ * The expected interval is the most frequent spacing (mode of the deltas, in seconds).
+ * Intervals longer than 1.5x the mode seen so far are kept as gap candidates (pruned again
+ * whenever the mode grows) and the final list keeps those longer than completeness.gap.factor
+ * x the final mode. Memory per series is bounded by the number of days, distinct spacings and
+ * gaps - not by the row count.
+ *
+ * Series that reported in the LOOKBACK_DAYS before the period but not within it are listed
+ * too, with the whole period as one gap.
+ */
+public final class CompletenessAnalyzer {
+    private static final int FETCH_SIZE = 50_000;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final int MAX_DISTINCT_DELTAS = 4096;
+    private static final int EARLY_DELTAS = 100; // every interval is a candidate until the mode settles
+    private static final double CANDIDATE_FACTOR = 1.5;
+    private static final int LOOKBACK_DAYS = 30;
+
+    private CompletenessAnalyzer() {}
+
+    public static class Gap {
+        private final String stationId;
+        private final String unitId;
+        private final long start;
+        private final long end;
+        private final long missingSamples;
+
+        public Gap(String stationId, String unitId, long start, long end, long missingSamples) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.start = start;
+            this.end = end;
+            this.missingSamples = missingSamples;
+        }
+
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public long getStart() { return start; }
+        public long getEnd() { return end; }
+        public long getDurationMillis() { return end - start; }
+        public long getMissingSamples() { return missingSamples; }
+    }
+
+    public static class SeriesSummary {
+        private final String stationId;
+        private final String unitId;
+        private final long expectedMillis;
+        private final long rows;
+        private final long duplicates;
+        private final int gaps;
+        private final long missingSamples;
+        private final int[] dailyCounts;
+
+        SeriesSummary(String stationId, String unitId, long expectedMillis, long rows, long duplicates,
+                      int gaps, long missingSamples, int[] dailyCounts) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.expectedMillis = expectedMillis;
+            this.rows = rows;
+            this.duplicates = duplicates;
+            this.gaps = gaps;
+            this.missingSamples = missingSamples;
+            this.dailyCounts = dailyCounts;
+        }
+
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public long getExpectedMillis() { return expectedMillis; }
+        public long getRows() { return rows; }
+        public long getDuplicates() { return duplicates; }
+        public int getGaps() { return gaps; }
+        public long getMissingSamples() { return missingSamples; }
+
+        /**
+         * Share of expected samples present on a day, 0..1 (NaN without an expected interval)
+         */
+        public double dayCompleteness(int day) {
+            if (expectedMillis <= 0) return Double.NaN;
+            return Math.min(1.0, dailyCounts[day] * (double) expectedMillis / DAY_MILLIS);
+        }
+
+        /**
+         * Unique samples / (unique samples + missing samples)
+         */
+        public double getCompleteness() {
+            long unique = rows - duplicates;
+            return unique + missingSamples == 0 ? 0 : unique / (double) (unique + missingSamples);
+        }
+    }
+
+    public static class Result {
+        private final LocalDate origin;
+        private final int days;
+        private final List<SeriesSummary> series = new ArrayList<>();
+        private final List<Gap> gaps = new ArrayList<>();
+
+        Result(LocalDate origin, int days) {
+            this.origin = origin;
+            this.days = days;
+        }
+
+        public LocalDate getOrigin() { return origin; }
+        public int getDays() { return days; }
+        public List<SeriesSummary> getSeries() { return series; }
+        public List<Gap> getGaps() { return gaps; }
+    }
+
+    public static double gapFactor() {
+        return Math.max(1.5, ConfigManager.getDoubleProperty("completeness.gap.factor", 3));
+    }
+
+    /**
+     * Analyze [startDate, endDate] of one station (or all stations when stationId is null).
+     * The end of the period is capped at now, so a station that stopped reporting ends with a gap.
+     * Timestamps are consumed one by one while gaps are tracked; conn needs autocommit off so
+     * the driver does not load every timestamp of the period up front.
+     */
+    public static Result analyze(Connection conn, String stationId, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        long fromMillis = Timestamp.valueOf(from).getTime();
+        long toMillis = Math.min(Timestamp.valueOf(to).getTime(), System.currentTimeMillis());
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        Result result = new Result(startDate, days);
+        double factor = gapFactor();
+
+        Map<String, Long> silent = knownSeries(conn, stationId, from);
+        String sql = "SELECT ID_Station, ID_Measured_Unit, Time FROM Measurment " +
+                "WHERE Time >= ? AND Time < ?" +
+                (stationId != null ? " AND ID_Station = ?" : "") +
+                " ORDER BY ID_Station, ID_Measured_Unit, Time";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            if (stationId != null) ps.setString(3, stationId);
+            ps.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                String currentStation = null;
+                String currentUnit = null;
+                Accumulator acc = null;
+                while (rs.next()) {
+                    String rowStation = rs.getString(1);
+                    String rowUnit = rs.getString(2);
+                    if (!rowStation.equals(currentStation) || !rowUnit.equals(currentUnit)) {
+                        if (acc != null) acc.finish(result, toMillis, factor);
+                        currentStation = rowStation;
+                        currentUnit = rowUnit;
+                        acc = new Accumulator(rowStation.trim(), rowUnit.trim(), fromMillis, days);
+                        silent.remove(rowStation.trim() + "|" + rowUnit.trim());
+                    }
+                    acc.add(rs.getTimestamp(3).getTime());
+                }
+                if (acc != null) acc.finish(result, toMillis, factor);
+            }
+        }
+        for (Map.Entry<String, Long> e : silent.entrySet()) {
+            String[] key = e.getKey().split("\\|", 2);
+            addSilentSeries(result, key[0], key[1], fromMillis, toMillis, e.getValue());
+        }
+        result.gaps.sort((a, b) -> Long.compare(b.getDurationMillis(), a.getDurationMillis()));
+        return result;
+    }
+
+    /**
+     * (station|unit) series with rows in the LOOKBACK_DAYS before the period, with their mean
+     * spacing there as the expected interval
+     */
+    private static Map<String, Long> knownSeries(Connection conn, String stationId, LocalDateTime from)
+            throws SQLException {
+        String sql = "SELECT ID_Station, ID_Measured_Unit, COUNT(*) FROM Measurment " +
+                "WHERE Time >= ? AND Time < ?" +
+                (stationId != null ? " AND ID_Station = ?" : "") +
+                " GROUP BY ID_Station, ID_Measured_Unit ORDER BY ID_Station, ID_Measured_Unit";
+        Map<String, Long> series = new LinkedHashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from.minusDays(LOOKBACK_DAYS)));
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            if (stationId != null) ps.setString(3, stationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    series.put(rs.getString(1).trim() + "|" + rs.getString(2).trim(),
+                            LOOKBACK_DAYS * DAY_MILLIS / Math.max(1, rs.getLong(3)));
+                }
+            }
+        }
+        return series;
+    }
+
+    /**
+     * A known series without rows in the period: no samples, the whole period is one gap
+     */
+    static void addSilentSeries(Result result, String stationId, String unitId, long fromMillis,
+                                long toMillis, long expectedMillis) {
+        int gaps = 0;
+        long missing = 0;
+        if (toMillis > fromMillis) {
+            missing = expectedMillis > 0 ? Math.max(1, Math.round((toMillis - fromMillis) / (double) expectedMillis)) : 0;
+            result.gaps.add(new Gap(stationId, unitId, fromMillis, toMillis, missing));
+            gaps = 1;
+        }
+        result.series.add(new SeriesSummary(stationId, unitId, expectedMillis, 0, 0, gaps, missing,
+                new int[result.days]));
+    }
+
+    /**
+     * Per-series state of the streaming pass; also used directly by tests
+     */
+    static class Accumulator {
+        private final String stationId;
+        private final String unitId;
+        private final long fromMillis;
+        private final int[] daily;
+        private final Map<Long, Integer> deltaCounts = new HashMap<>();
+        private long modeSeconds = -1;
+        private int modeCount;
+        private long deltas;
+        private long rows;
+        private long duplicates;
+        private long first = Long.MIN_VALUE;
+        private long previous = Long.MIN_VALUE;
+        private long[] candidates = new long[32]; // (start, end) pairs
+        private int candidateCount;
+
+        Accumulator(String stationId, String unitId, long fromMillis, int days) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.fromMillis = fromMillis;
+            this.daily = new int[days];
+        }
+
+        void add(long time) {
+            rows++;
+            long delta = previous == Long.MIN_VALUE ? -1 : time - previous;
+            if (delta == 0) {
+                duplicates++;
+                return;
+            }
+            int day = (int) Math.floorDiv(time - fromMillis, DAY_MILLIS);
+            if (day >= 0 && day < daily.length) daily[day]++;
+
+            if (previous == Long.MIN_VALUE) {
+                first = previous = time;
+                return;
+            }
+            previous = time;
+
+            long seconds = Math.max(1, Math.round(delta / 1000.0));
+            Integer count = deltaCounts.get(seconds);
+            boolean modeGrew = false;
+            if (count != null || deltaCounts.size() < MAX_DISTINCT_DELTAS) {
+                int updated = count == null ? 1 : count + 1;
+                deltaCounts.put(seconds, updated);
+                if (updated > modeCount) {
+                    modeGrew = seconds > modeSeconds;
+                    modeCount = updated;
+                    modeSeconds = seconds;
+                }
+            }
+            deltas++;
+            if (deltas <= EARLY_DELTAS || seconds > CANDIDATE_FACTOR * modeSeconds) {
+                addCandidate(time - delta, time);
+            }
+            if (deltas == EARLY_DELTAS || (modeGrew && deltas > EARLY_DELTAS)) pruneCandidates();
+        }
+
+        /**
+         * Drop candidates no longer than CANDIDATE_FACTOR x the current mode
+         */
+        private void pruneCandidates() {
+            int kept = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                long start = candidates[i * 2];
+                long end = candidates[i * 2 + 1];
+                if (Math.max(1, Math.round((end - start) / 1000.0)) <= CANDIDATE_FACTOR * modeSeconds) continue;
+                candidates[kept * 2] = start;
+                candidates[kept * 2 + 1] = end;
+                kept++;
+            }
+            candidateCount = kept;
+        }
+
+        int candidateCount() {
+            return candidateCount;
+        }
+
+        private void addCandidate(long start, long end) {
+            if (candidateCount * 2 == candidates.length) candidates = Arrays.copyOf(candidates, candidates.length * 2);
+            candidates[candidateCount * 2] = start;
+            candidates[candidateCount * 2 + 1] = end;
+            candidateCount++;
+        }
+
+        long expectedMillis() {
+            return modeSeconds > 0 ? modeSeconds * 1000 : 0;
+        }
+
+        void finish(Result result, long periodEnd, double factor) {
+            long expected = expectedMillis();
+            int gapCount = 0;
+            long missing = 0;
+            if (expected > 0) {
+                long threshold = (long) (factor * expected);
+                // Leading and trailing gaps against the period bounds
+                if (first - fromMillis > threshold) addCandidate(fromMillis, first);
+                if (periodEnd - previous > threshold) addCandidate(previous, periodEnd);
+
+                for (int i = 0; i < candidateCount; i++) {
+                    long start = candidates[i * 2];
+                    long end = candidates[i * 2 + 1];
+                    if (end - start <= threshold) continue;
+                    long gapMissing = Math.max(1, Math.round((end - start) / (double) expected) - 1);
+                    result.gaps.add(new Gap(stationId, unitId, start, end, gapMissing));
+                    gapCount++;
+                    missing += gapMissing;
+                }
+            }
+            result.series.add(new SeriesSummary(stationId, unitId, expected, rows, duplicates,
+                    gapCount, missing, daily));
+        }
+    }
+
+    /**
+     * "2 д 3 год 15 хв" style duration
+     */
+    public static String formatDuration(long millis) {
+        if (millis < 60_000) return (millis / 1000) + " с";
+        long minutes = millis / 60_000;
+        long days = minutes / 1440;
+        long hours = minutes % 1440 / 60;
+        StringBuilder sb = new StringBuilder();
+        if (days > 0) sb.append(days).append(" д ");
+        if (days > 0 || hours > 0) sb.append(hours).append(" год ");
+        sb.append(minutes % 60).append(" хв");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,319 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data completeness of all stations: station x day matrix, gap list and per-series summary.
+ * Everything comes from one CompletenessAnalyzer pass; the gap list can be exported.
+ */
+public class CompletenessViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private HeatmapView heatmap;
+    @FXML private TableView<GapRow> gapTable;
+    @FXML private TableColumn<GapRow, String> gapStationColumn;
+    @FXML private TableColumn<GapRow, String> gapUnitColumn;
+    @FXML private TableColumn<GapRow, String> gapStartColumn;
+    @FXML private TableColumn<GapRow, String> gapEndColumn;
+    @FXML private TableColumn<GapRow, String> gapDurationColumn;
+    @FXML private TableColumn<GapRow, Long> gapMissingColumn;
+    @FXML private TableView<SeriesRow> seriesTable;
+    @FXML private TableColumn<SeriesRow, String> seriesStationColumn;
+    @FXML private TableColumn<SeriesRow, String> seriesUnitColumn;
+    @FXML private TableColumn<SeriesRow, String> seriesIntervalColumn;
+    @FXML private TableColumn<SeriesRow, Long> seriesRowsColumn;
+    @FXML private TableColumn<SeriesRow, Long> seriesDuplicatesColumn;
+    @FXML private TableColumn<SeriesRow, Integer> seriesGapsColumn;
+    @FXML private TableColumn<SeriesRow, String> seriesCompletenessColumn;
+    @FXML private Label infoLabel;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final Color EMPTY = Color.web("#ff0000");
+    private static final Color HALF = Color.web("#ffff00");
+    private static final Color FULL = Color.web("#00e400");
+
+    private final ObservableList<GapRow> gapList = FXCollections.observableArrayList();
+    private final ObservableList<SeriesRow> seriesList = FXCollections.observableArrayList();
+    private String loadedPeriod = "";
+
+    @FXML
+    private void initialize() {
+        gapStationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        gapUnitColumn.setCellValueFactory(new PropertyValueFactory<>("unit"));
+        gapStartColumn.setCellValueFactory(new PropertyValueFactory<>("start"));
+        gapEndColumn.setCellValueFactory(new PropertyValueFactory<>("end"));
+        gapDurationColumn.setCellValueFactory(new PropertyValueFactory<>("duration"));
+        gapMissingColumn.setCellValueFactory(new PropertyValueFactory<>("missing"));
+        gapTable.setItems(gapList);
+
+        seriesStationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        seriesUnitColumn.setCellValueFactory(new PropertyValueFactory<>("unit"));
+        seriesIntervalColumn.setCellValueFactory(new PropertyValueFactory<>("interval"));
+        seriesRowsColumn.setCellValueFactory(new PropertyValueFactory<>("rows"));
+        seriesDuplicatesColumn.setCellValueFactory(new PropertyValueFactory<>("duplicates"));
+        seriesGapsColumn.setCellValueFactory(new PropertyValueFactory<>("gaps"));
+        seriesCompletenessColumn.setCellValueFactory(new PropertyValueFactory<>("completeness"));
+        seriesTable.setItems(seriesList);
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusDays(90));
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Повнота даних", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+    }
+
+    @FXML
+    private void onLoadData() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Аналіз повноти даних...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try (Connection conn = DbManager.openDedicatedConnection()) {
+                conn.setAutoCommit(false);
+                Map<String, String> stationNames = new LinkedHashMap<>();
+                Map<String, String> unitTitles = new LinkedHashMap<>();
+                try (Statement st = conn.createStatement()) {
+                    try (ResultSet rs = st.executeQuery("SELECT ID_Station, Name, City FROM Station ORDER BY Name")) {
+                        while (rs.next()) stationNames.put(rs.getString(1).trim(), rs.getString(2) + " (" + rs.getString(3) + ")");
+                    }
+                    try (ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+                        while (rs.next()) unitTitles.put(rs.getString(1).trim(), rs.getString(2));
+                    }
+                }
+                CompletenessAnalyzer.Result result = CompletenessAnalyzer.analyze(conn, null, startDate, endDate);
+                conn.commit();
+                long elapsed = System.currentTimeMillis() - started;
+
+                Matrix matrix = buildMatrix(result, stationNames);
+                ObservableList<GapRow> gaps = FXCollections.observableArrayList();
+                for (CompletenessAnalyzer.Gap gap : result.getGaps()) {
+                    gaps.add(new GapRow(gap, stationNames.getOrDefault(gap.getStationId(), gap.getStationId()),
+                            unitTitles.getOrDefault(gap.getUnitId(), gap.getUnitId())));
+                }
+                ObservableList<SeriesRow> series = FXCollections.observableArrayList();
+                long rows = 0;
+                for (CompletenessAnalyzer.SeriesSummary s : result.getSeries()) {
+                    series.add(new SeriesRow(s, stationNames.getOrDefault(s.getStationId(), s.getStationId()),
+                            unitTitles.getOrDefault(s.getUnitId(), s.getUnitId())));
+                    rows += s.getRows();
+                }
+                long totalRows = rows;
+
+                Platform.runLater(() -> {
+                    LocalDate origin = result.getOrigin();
+                    heatmap.setData(matrix.stations.length, result.getDays(), matrix.argb, matrix.stations,
+                            c -> DAY_FORMAT.format(origin.plusDays(c)).substring(0, 5), 7,
+                            (r, c) -> {
+                                double v = matrix.values[r * result.getDays() + c];
+                                if (Double.isNaN(v)) return matrix.stations[r] + "\n" + DAY_FORMAT.format(origin.plusDays(c))
+                                        + "\nнемає даних";
+                                return matrix.stations[r] + "\n" + DAY_FORMAT.format(origin.plusDays(c))
+                                        + String.format("\nПовнота: %.0f%%", v * 100);
+                            });
+                    gapList.setAll(gaps);
+                    seriesList.setAll(series);
+                    loadedPeriod = startDate.format(DAY_FORMAT) + " - " + endDate.format(DAY_FORMAT);
+                    infoLabel.setText(String.format("✓ %,d вимірювань, %d рядів, розривів: %d │ %d мс",
+                            totalRows, series.size(), gaps.size(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    /**
+     * Station x day cells: mean completeness over the station's series, no-data days transparent
+     */
+    private Matrix buildMatrix(CompletenessAnalyzer.Result result, Map<String, String> stationNames) {
+        Map<String, List<CompletenessAnalyzer.SeriesSummary>> byStation = new LinkedHashMap<>();
+        for (String id : stationNames.keySet()) byStation.put(id, new ArrayList<>());
+        for (CompletenessAnalyzer.SeriesSummary s : result.getSeries()) {
+            byStation.computeIfAbsent(s.getStationId(), k -> new ArrayList<>()).add(s);
+        }
+
+        int days = result.getDays();
+        Matrix matrix = new Matrix();
+        matrix.stations = new String[byStation.size()];
+        matrix.values = new double[byStation.size() * days];
+        matrix.argb = new int[byStation.size() * days];
+        int r = 0;
+        for (Map.Entry<String, List<CompletenessAnalyzer.SeriesSummary>> entry : byStation.entrySet()) {
+            matrix.stations[r] = stationNames.getOrDefault(entry.getKey(), entry.getKey());
+            for (int d = 0; d < days; d++) {
+                double sum = 0;
+                int count = 0;
+                for (CompletenessAnalyzer.SeriesSummary s : entry.getValue()) {
+                    double v = s.dayCompleteness(d);
+                    if (!Double.isNaN(v)) {
+                        sum += v;
+                        count++;
+                    }
+                }
+                int cell = r * days + d;
+                // Stations without any series in the period show as missing, not as empty
+                matrix.values[cell] = count == 0 ? (entry.getValue().isEmpty() ? Double.NaN : 0) : sum / count;
+                if (!Double.isNaN(matrix.values[cell])) {
+                    matrix.argb[cell] = HeatmapViewController.toArgb(colorOf(matrix.values[cell]));
+                }
+            }
+            r++;
+        }
+        return matrix;
+    }
+
+    private static Color colorOf(double completeness) {
+        return completeness < 0.5
+                ? EMPTY.interpolate(HALF, completeness * 2)
+                : HALF.interpolate(FULL, (completeness - 0.5) * 2);
+    }
+
+    @FXML
+    private void onExportGaps() {
+        if (gapList.isEmpty()) {
+            infoLabel.setText("❌ Немає розривів для експорту");
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Зберегти список розривів");
+        fileChooser.setInitialFileName("gaps_" + System.currentTimeMillis());
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"));
+        File file = fileChooser.showSaveDialog(titleBar.getScene().getWindow());
+        if (file == null) return;
+
+        ReportGenerator.ReportData data = new ReportGenerator.ReportData();
+        data.title = "Розриви у вимірюваннях\nПеріод: " + loadedPeriod;
+        data.headers.addAll(List.of("Станція", "Параметр", "Початок розриву", "Кінець розриву",
+                "Тривалість", "Пропущено вимірювань"));
+        for (GapRow gap : gapList) {
+            data.rows.add(new ArrayList<>(List.of(gap.getStation(), gap.getUnit(), gap.getStart(), gap.getEnd(),
+                    gap.getDuration(), String.valueOf(gap.getMissing()))));
+        }
+
+        new Thread(() -> {
+            try {
+                String path = file.getAbsolutePath();
+                if (!path.toLowerCase().endsWith(".xlsx")) path += ".xlsx";
+                ReportGenerator.export(data, ReportGenerator.FORMAT_EXCEL, path);
+                String saved = path;
+                Platform.runLater(() -> infoLabel.setText("✓ Збережено: " + saved));
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка експорту: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    private static String formatTime(long millis) {
+        return TIME_FORMAT.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+    }
+
+    private static class Matrix {
+        String[] stations;
+        double[] values;
+        int[] argb;
+    }
+
+    public static class GapRow {
+        private final String station;
+        private final String unit;
+        private final String start;
+        private final String end;
+        private final String duration;
+        private final long missing;
+
+        public GapRow(CompletenessAnalyzer.Gap gap, String station, String unit) {
+            this.station = station;
+            this.unit = unit;
+            this.start = formatTime(gap.getStart());
+            this.end = formatTime(gap.getEnd());
+            this.duration = CompletenessAnalyzer.formatDuration(gap.getDurationMillis());
+            this.missing = gap.getMissingSamples();
+        }
+
+        public String getStation() { return station; }
+        public String getUnit() { return unit; }
+        public String getStart() { return start; }
+        public String getEnd() { return end; }
+        public String getDuration() { return duration; }
+        public long getMissing() { return missing; }
+    }
+
+    public static class SeriesRow {
+        private final String station;
+        private final String unit;
+        private final String interval;
+        private final long rows;
+        private final long duplicates;
+        private final int gaps;
+        private final String completeness;
+
+        public SeriesRow(CompletenessAnalyzer.SeriesSummary summary, String station, String unit) {
+            this.station = station;
+            this.unit = unit;
+            this.interval = summary.getExpectedMillis() > 0
+                    ? CompletenessAnalyzer.formatDuration(summary.getExpectedMillis())
+                    : "-";
+            this.rows = summary.getRows();
+            this.duplicates = summary.getDuplicates();
+            this.gaps = summary.getGaps();
+            this.completeness = String.format("%.1f%%", summary.getCompleteness() * 100);
+        }
+
+        public String getStation() { return station; }
+        public String getUnit() { return unit; }
+        public String getInterval() { return interval; }
+        public long getRows() { return rows; }
+        public long getDuplicates() { return duplicates; }
+        public int getGaps() { return gaps; }
+        public String getCompleteness() { return completeness; }
+    }
+}
@@ -105,6 +105,42 @@ public final class ConfigManager {
             getDbHost(), getDbPort(), getDbName());
     }
 
+    public static String getProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static double getDoubleProperty(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Directory for local application data (scheduled jobs, caches).
+     * Defaults to ~/.air_monitoring, can be overridden with app.data.dir
+     */
+    public static java.io.File getAppDataDir() {
+        String custom = getProperty("app.data.dir", null);
+        java.io.File dir = custom != null
+                ? new java.io.File(custom)
+                : new java.io.File(System.getProperty("user.home"), ".air_monitoring");
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return dir;
+    }
+
     public static String getLastError() {
         return lastError;
     }
@@ -0,0 +1,176 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pairwise Pearson correlations between units, accumulated as mergeable co-moments.
+ *
+ * Measurements are aligned on a time grid (bucket averages computed by the server), and each
+ * grid cell updates count / means / M2 / co-moment of every unit pair present in it (Welford),
+ * so missing units only reduce the count of their own pairs. Partial matrices of different
+ * stations or time ranges combine exactly with merge() (Chan et al.).
+ */
+public final class CorrelationMatrix {
+    private final int size;
+    private final long[] n;
+    private final double[] meanX;
+    private final double[] meanY;
+    private final double[] m2x;
+    private final double[] m2y;
+    private final double[] cxy;
+
+    public CorrelationMatrix(int size) {
+        this.size = size;
+        int pairs = size * size;
+        n = new long[pairs];
+        meanX = new double[pairs];
+        meanY = new double[pairs];
+        m2x = new double[pairs];
+        m2y = new double[pairs];
+        cxy = new double[pairs];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * One grid cell: values[u] of every unit, NaN where the unit has no data
+     */
+    public void add(double[] values) {
+        for (int i = 0; i < size; i++) {
+            double x = values[i];
+            if (Double.isNaN(x)) continue;
+            for (int j = i; j < size; j++) {
+                double y = values[j];
+                if (Double.isNaN(y)) continue;
+                int p = i * size + j;
+                long count = ++n[p];
+                double dx = x - meanX[p];
+                meanX[p] += dx / count;
+                double dy = y - meanY[p];
+                meanY[p] += dy / count;
+                m2x[p] += dx * (x - meanX[p]);
+                m2y[p] += dy * (y - meanY[p]);
+                cxy[p] += dx * (y - meanY[p]);
+            }
+        }
+    }
+
+    public void merge(CorrelationMatrix other) {
+        for (int p = 0; p < n.length; p++) {
+            long nb = other.n[p];
+            if (nb == 0) continue;
+            long na = n[p];
+            long total = na + nb;
+            double dx = other.meanX[p] - meanX[p];
+            double dy = other.meanY[p] - meanY[p];
+            double w = (double) na * nb / total;
+            meanX[p] += dx * nb / total;
+            meanY[p] += dy * nb / total;
+            m2x[p] += other.m2x[p] + dx * dx * w;
+            m2y[p] += other.m2y[p] + dy * dy * w;
+            cxy[p] += other.cxy[p] + dx * dy * w;
+            n[p] = total;
+        }
+    }
+
+    /**
+     * Number of grid cells where both units have data
+     */
+    public long count(int i, int j) {
+        return n[Math.min(i, j) * size + Math.max(i, j)];
+    }
+
+    /**
+     * Pearson r, or NaN with fewer than 3 common cells or a constant series
+     */
+    public double correlation(int i, int j) {
+        int p = Math.min(i, j) * size + Math.max(i, j);
+        if (n[p] < 3 || m2x[p] <= 0 || m2y[p] <= 0) return Double.NaN;
+        return Math.max(-1, Math.min(1, cxy[p] / Math.sqrt(m2x[p] * m2y[p])));
+    }
+
+    /**
+     * Correlations of one station: a single pass over bucket averages ordered by time.
+     * conn belongs to the caller and must have autocommit off: the bucket averages are read
+     * through a server-side cursor and the transaction is left for the caller to end.
+     */
+    public static CorrelationMatrix compute(Connection conn, String stationId, String[] unitIds,
+                                            ReportGenerator.TimeBucket bucket,
+                                            LocalDateTime from, LocalDateTime to) throws SQLException {
+        CorrelationMatrix matrix = new CorrelationMatrix(unitIds.length);
+        String sql = "SELECT date_trunc('" + bucket.sqlUnit + "', Time) AS bucket, ID_Measured_Unit, AVG(Value) " +
+                "FROM Measurment WHERE ID_Station = ? AND Time >= ? AND Time < ? AND ID_Measured_Unit = ANY(?) " +
+                "GROUP BY 1, 2 ORDER BY 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, stationId);
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            ps.setArray(4, conn.createArrayOf("varchar", unitIds));
+            ps.setFetchSize(10_000);
+
+            double[] cell = new double[unitIds.length];
+            Arrays.fill(cell, Double.NaN);
+            long current = Long.MIN_VALUE;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long time = rs.getTimestamp(1).getTime();
+                    if (time != current) {
+                        if (current != Long.MIN_VALUE) matrix.add(cell);
+                        Arrays.fill(cell, Double.NaN);
+                        current = time;
+                    }
+                    String unitId = rs.getString(2).trim();
+                    for (int u = 0; u < unitIds.length; u++) {
+                        if (unitIds[u].equals(unitId)) {
+                            cell[u] = rs.getDouble(3);
+                            break;
+                        }
+                    }
+                }
+            }
+            if (current != Long.MIN_VALUE) matrix.add(cell);
+        }
+        return matrix;
+    }
+
+    /**
+     * Correlations of every station on ParallelWorkers (one station per task).
+     * Keys keep the order of stationIds.
+     */
+    public static Map<String, CorrelationMatrix> computeAll(List<String> stationIds, String[] unitIds,
+                                                            ReportGenerator.TimeBucket bucket,
+                                                            LocalDateTime from, LocalDateTime to) throws Exception {
+        CorrelationMatrix[] results = new CorrelationMatrix[stationIds.size()];
+        ParallelWorkers.run("correlation", results.length, (conn, i) -> {
+            try {
+                results[i] = compute(conn, stationIds.get(i), unitIds, bucket, from, to);
+            } catch (SQLException e) {
+                throw new SQLException("Станція " + stationIds.get(i) + ": " + e.getMessage(), e);
+            }
+        });
+
+        Map<String, CorrelationMatrix> byStation = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) byStation.put(stationIds.get(i), results[i]);
+        return byStation;
+    }
+
+    /**
+     * Sum of all partial matrices
+     */
+    public static CorrelationMatrix mergeAll(Iterable<CorrelationMatrix> parts, int size) {
+        CorrelationMatrix total = new CorrelationMatrix(size);
+        for (CorrelationMatrix part : parts) total.merge(part);
+        return total;
+    }
+}
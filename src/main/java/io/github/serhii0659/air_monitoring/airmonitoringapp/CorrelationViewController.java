@@ -0,0 +1,240 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.paint.Color;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pollutant correlation matrix per station. All stations are computed in parallel
+ * (CorrelationMatrix.computeAll) and merged for the "all stations" entry, so switching
+ * the station doesn't query again.
+ */
+public class CorrelationViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private ComboBox<ReportGenerator.TimeBucket> bucketCombo;
+    @FXML private ComboBox<TimeSeriesViewController.Option> stationCombo;
+    @FXML private HeatmapView heatmap;
+    @FXML private TableView<PairRow> pairTable;
+    @FXML private TableColumn<PairRow, String> pairColumn;
+    @FXML private TableColumn<PairRow, String> correlationColumn;
+    @FXML private TableColumn<PairRow, Long> countColumn;
+    @FXML private Label infoLabel;
+
+    private static final String ALL_STATIONS = "";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final Color NEGATIVE = Color.web("#2f6bff");
+    private static final Color NEUTRAL = Color.web("#262c4a");
+    private static final Color POSITIVE = Color.web("#ff4b2b");
+
+    private final ObservableList<PairRow> pairList = FXCollections.observableArrayList();
+    private final Map<String, CorrelationMatrix> matrices = new HashMap<>();
+    private List<String> unitTitles = new ArrayList<>();
+    private String loadedDescription = "";
+
+    @FXML
+    private void initialize() {
+        pairColumn.setCellValueFactory(new PropertyValueFactory<>("pair"));
+        correlationColumn.setCellValueFactory(new PropertyValueFactory<>("correlation"));
+        countColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
+        pairTable.setItems(pairList);
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusDays(90));
+        bucketCombo.setItems(FXCollections.observableArrayList(ReportGenerator.TimeBucket.values()));
+        bucketCombo.getSelectionModel().select(ReportGenerator.TimeBucket.HOUR);
+        stationCombo.valueProperty().addListener((obs, o, n) -> showMatrix());
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Кореляція забруднювачів", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+    }
+
+    @FXML
+    private void onLoadData() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        ReportGenerator.TimeBucket bucket = bucketCombo.getValue();
+        if (startDate == null || endDate == null || bucket == null) {
+            infoLabel.setText("❌ Оберіть обидві дати та крок сітки");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Розрахунок кореляцій по всіх станціях...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try {
+                List<String> unitIds = new ArrayList<>();
+                List<String> titles = new ArrayList<>();
+                try (Statement st = DbManager.getConnection().createStatement();
+                     ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+                    while (rs.next()) {
+                        unitIds.add(rs.getString(1).trim());
+                        titles.add(rs.getString(2));
+                    }
+                }
+                Map<String, String> stationNames = new LinkedHashMap<>();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        stationNames.put(rs.getString("ID_Station").trim(), rs.getString("Name") + " (" + rs.getString("City") + ")");
+                    }
+                }
+
+                List<String> stationIds = new ArrayList<>(stationNames.keySet());
+                Map<String, CorrelationMatrix> byStation = CorrelationMatrix.computeAll(stationIds,
+                        unitIds.toArray(new String[0]), bucket, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+                CorrelationMatrix merged = CorrelationMatrix.mergeAll(byStation.values(), unitIds.size());
+                long elapsed = System.currentTimeMillis() - started;
+
+                ObservableList<TimeSeriesViewController.Option> stations = FXCollections.observableArrayList();
+                stations.add(new TimeSeriesViewController.Option(ALL_STATIONS, "Усі станції (об'єднано)"));
+                for (String id : stationIds) stations.add(new TimeSeriesViewController.Option(id, stationNames.get(id)));
+
+                Platform.runLater(() -> {
+                    matrices.clear();
+                    matrices.putAll(byStation);
+                    matrices.put(ALL_STATIONS, merged);
+                    unitTitles = titles;
+                    loadedDescription = bucket.toString() + ", " + startDate.format(DAY_FORMAT) + " - " + endDate.format(DAY_FORMAT);
+                    TimeSeriesViewController.Option selected = stationCombo.getValue();
+                    stationCombo.setItems(stations);
+                    stations.stream().filter(o -> selected != null && o.getId().equals(selected.getId())).findFirst()
+                            .ifPresentOrElse(stationCombo::setValue, () -> stationCombo.getSelectionModel().selectFirst());
+                    showMatrix();
+                    infoLabel.setText(String.format("✓ %d станцій × %d параметрів, паралельно │ %d мс",
+                            stationIds.size(), titles.size(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void showMatrix() {
+        TimeSeriesViewController.Option station = stationCombo.getValue();
+        CorrelationMatrix matrix = station == null ? null : matrices.get(station.getId());
+        if (matrix == null) return;
+
+        List<Integer> present = new ArrayList<>();
+        for (int u = 0; u < matrix.size(); u++) {
+            if (matrix.count(u, u) > 0) present.add(u);
+        }
+        int k = present.size();
+        String[] labels = new String[k];
+        int[] argb = new int[k * k];
+        ObservableList<PairRow> pairs = FXCollections.observableArrayList();
+        for (int a = 0; a < k; a++) {
+            int i = present.get(a);
+            labels[a] = unitTitles.get(i);
+            for (int b = 0; b < k; b++) {
+                int j = present.get(b);
+                double r = matrix.correlation(i, j);
+                argb[a * k + b] = Double.isNaN(r) ? 0 : HeatmapViewController.toArgb(colorOf(r));
+                if (b > a) pairs.add(new PairRow(unitTitles.get(i) + " ↔ " + unitTitles.get(j), r, matrix.count(i, j)));
+            }
+        }
+        pairs.sort((x, y) -> Double.compare(Math.abs(y.value), Math.abs(x.value)));
+        pairList.setAll(pairs);
+
+        heatmap.setData(k, k, argb, labels, c -> labels[c], 1, (r, c) -> {
+            int i = present.get(r);
+            int j = present.get(c);
+            double value = matrix.correlation(i, j);
+            return labels[r] + " ↔ " + labels[c] + "\n"
+                    + (Double.isNaN(value) ? "недостатньо даних" : String.format("r = %.3f", value))
+                    + "\nСпільних інтервалів: " + matrix.count(i, j);
+        });
+    }
+
+    /**
+     * Blue for negative, red for positive correlation, dark for none
+     */
+    private static Color colorOf(double r) {
+        return r < 0 ? NEUTRAL.interpolate(NEGATIVE, -r) : NEUTRAL.interpolate(POSITIVE, r);
+    }
+
+    @FXML
+    private void onExport() {
+        TimeSeriesViewController.Option station = stationCombo.getValue();
+        CorrelationMatrix matrix = station == null ? null : matrices.get(station.getId());
+        if (matrix == null) {
+            infoLabel.setText("❌ Спочатку розрахуйте кореляції");
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Зберегти матрицю кореляцій");
+        fileChooser.setInitialFileName("correlation_" + System.currentTimeMillis());
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"));
+        File file = fileChooser.showSaveDialog(titleBar.getScene().getWindow());
+        if (file == null) return;
+
+        ReportGenerator.ReportData data = ReportGenerator.correlationTable(matrix, unitTitles);
+        data.title = "Кореляція забруднювачів\nСтанція: " + station.getLabel() + "\nСітка, період: " + loadedDescription;
+        new Thread(() -> {
+            try {
+                String path = file.getAbsolutePath();
+                if (!path.toLowerCase().endsWith(".xlsx")) path += ".xlsx";
+                ReportGenerator.export(data, ReportGenerator.FORMAT_EXCEL, path);
+                String saved = path;
+                Platform.runLater(() -> infoLabel.setText("✓ Збережено: " + saved));
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка експорту: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class PairRow {
+        private final String pair;
+        private final double value;
+        private final String correlation;
+        private final long count;
+
+        public PairRow(String pair, double value, long count) {
+            this.pair = pair;
+            this.value = Double.isNaN(value) ? 0 : value;
+            this.correlation = Double.isNaN(value) ? "-" : String.format("%.3f", value);
+            this.count = count;
+        }
+
+        public String getPair() { return pair; }
+        public String getCorrelation() { return correlation; }
+        public long getCount() { return count; }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming CSV export of whole tables and of the data browser's current view.
+ * Uses PostgreSQL COPY ... TO STDOUT on a dedicated connection, so rows go from
+ * the server straight into a buffered (optionally gzip-compressed) file.
+ */
+public final class CsvExporter {
+    private static final int BUFFER_SIZE = 1 << 20; // 1 MiB write buffer
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000L;
+
+    private CsvExporter() {}
+
+    /**
+     * Receives export progress (called from the export thread, at most 4 times per second)
+     */
+    public interface ProgressListener {
+        void onProgress(long rows, long bytes, double rowsPerSecond);
+    }
+
+    public static long exportTable(String tableName, File file, ProgressListener listener,
+                                   BooleanSupplier cancelled) throws SQLException, IOException {
+        if (!isName(tableName)) throw new SQLException("Неприпустима назва таблиці");
+        return copyOut("COPY " + tableName + " TO STDOUT WITH (FORMAT csv, HEADER)", file, listener, cancelled);
+    }
+
+    /**
+     * Export the given columns of a table (all when empty), one page of them when limit > 0.
+     * COPY takes no bind parameters, so the query is built only from checked names and numbers.
+     */
+    public static long exportQuery(String tableName, List<String> columns, int limit, int offset, File file,
+                                   ProgressListener listener, BooleanSupplier cancelled) throws SQLException, IOException {
+        return copyOut("COPY (" + buildQuery(tableName, columns, limit, offset) + ") TO STDOUT WITH (FORMAT csv, HEADER)",
+                file, listener, cancelled);
+    }
+
+    static String buildQuery(String tableName, List<String> columns, int limit, int offset) throws SQLException {
+        if (!isName(tableName)) throw new SQLException("Неприпустима назва таблиці");
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (columns == null || columns.isEmpty()) {
+            sql.append('*');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                String column = columns.get(i);
+                if (!isName(column)) throw new SQLException("Неприпустима назва колонки: " + column);
+                if (i > 0) sql.append(", ");
+                sql.append('"').append(column).append('"');
+            }
+        }
+        sql.append(" FROM ").append(tableName);
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+            if (offset > 0) sql.append(" OFFSET ").append(offset);
+        }
+        return sql.toString();
+    }
+
+    private static boolean isName(String name) {
+        return name != null && name.matches("[A-Za-z0-9_]+");
+    }
+
+    /**
+     * True if file name asks for gzip compression (*.gz)
+     */
+    public static boolean isGzip(File file) {
+        return file.getName().toLowerCase().endsWith(".gz");
+    }
+
+    private static long copyOut(String copySql, File file, ProgressListener listener,
+                                BooleanSupplier cancelled) throws SQLException, IOException {
+        long started = System.nanoTime();
+        long lastReport = started;
+        long rows = 0;
+        long bytes = 0;
+        boolean completed = false;
+
+        try (Connection conn = DbManager.openDedicatedConnection();
+             OutputStream out = openOutput(file)) {
+            CopyOut copy = conn.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql);
+            try {
+                byte[] buf;
+                // Every CopyData message is exactly one CSV line (the first one is the header)
+                while ((buf = copy.readFromCopy()) != null) {
+                    out.write(buf);
+                    rows++;
+                    bytes += buf.length;
+
+                    long now = System.nanoTime();
+                    if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                        lastReport = now;
+                        if (cancelled.getAsBoolean()) {
+                            copy.cancelCopy();
+                            return -1;
+                        }
+                        if (listener != null) {
+                            listener.onProgress(Math.max(0, rows - 1), bytes, rowsPerSecond(rows - 1, now - started));
+                        }
+                    }
+                }
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+            completed = true;
+        } finally {
+            if (!completed && file.exists()) {
+                file.delete(); // Don't leave a truncated export behind
+            }
+        }
+
+        long dataRows = Math.max(0, rows - 1);
+        if (listener != null) {
+            listener.onProgress(dataRows, bytes, rowsPerSecond(dataRows, System.nanoTime() - started));
+        }
+        System.out.printf("CSV експорт: %,d рядків, %,d байт за %d мс%n",
+                dataRows, bytes, (System.nanoTime() - started) / 1_000_000);
+        return dataRows;
+    }
+
+    private static OutputStream openOutput(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        if (isGzip(file)) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+}
@@ -0,0 +1,297 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.TileBuilder;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live dashboard: one spark line tile per station and parameter (PM2.5, PM10, SO2, CO).
+ *
+ * Every spark line shows 96 fifteen-minute means covering 24 hours. The poller thread only
+ * queues rows per tile; an AnimationTimer drains the queues once per pulse, folds the rows
+ * into the tile's buckets (the current bucket is updated, a new one is appended, empty ones
+ * repeat the previous mean) and redraws each changed tile once, however many rows arrived.
+ */
+public class DashboardController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private FlowPane tilesPane;
+    @FXML private Label infoLabel;
+
+    private static final int HISTORY_HOURS = 24;
+    private static final int SPARK_POINTS = 96;  // 15-minute points for 24 hours
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    private final Map<String, Tile> tiles = new HashMap<>();
+    private final Map<String, SparkSeries> series = new HashMap<>();
+    private final Map<String, Queue<LiveUpdateListener.Measurement>> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private Map<String, String> unitTitles = new LinkedHashMap<>();
+    private Map<String, String> unitNames = new HashMap<>();
+    private Map<String, String> stationNames = new HashMap<>();
+    private AirQualityCategories categories;
+    private MeasurementPoller poller;
+    private long updatesApplied;
+    private boolean closed;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (dirty.getAndSet(false)) applyPending();
+        }
+    };
+
+    @FXML
+    private void initialize() {
+        infoLabel.setText("⏳ Завантаження останніх " + HISTORY_HOURS + " год...");
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Live-панель станцій", stage, true, true);
+                    stage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN, e -> shutdown());
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(this::loadInitialData, "dashboard-load").start();
+    }
+
+    private void loadInitialData() {
+        try {
+            Connection conn = DbManager.getConnection();
+            if (conn == null) throw new Exception("Немає з'єднання з БД");
+
+            Map<String, String> titles = new LinkedHashMap<>();
+            Map<String, String> units = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT ID_Measured_Unit, Title, Unit FROM Measured_Unit " +
+                    "WHERE Title IN ('PM2.5', 'PM10') OR Title LIKE '%SO2%' OR Title LIKE '%SO₂%' " +
+                    "OR (Title LIKE '%CO%' AND Title NOT LIKE '%CO2%') ORDER BY Title");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String id = rs.getString(1).trim();
+                    titles.put(id, rs.getString(2));
+                    units.put(id, rs.getString(3) != null ? rs.getString(3) : "");
+                }
+            }
+            if (titles.isEmpty()) throw new Exception("Не знайдено параметрів PM2.5/PM10/SO2/CO");
+
+            Map<String, String> stations = new HashMap<>();
+            try (ResultSet rs = DbManager.getAllStations()) {
+                while (rs.next()) {
+                    stations.put(rs.getString("ID_Station").trim(), rs.getString("Name") + " (" + rs.getString("City") + ")");
+                }
+            }
+            AirQualityCategories loadedCategories = AirQualityCategories.load(conn);
+
+            MeasurementPoller newPoller = new MeasurementPoller(titles.keySet(), this::onPolledRows);
+            List<LiveUpdateListener.Measurement> history = newPoller.seed(HISTORY_HOURS);
+
+            Platform.runLater(() -> {
+                if (closed) {
+                    newPoller.close();
+                    return;
+                }
+                unitTitles = titles;
+                unitNames = units;
+                stationNames = stations;
+                categories = loadedCategories;
+                buildTiles(history);
+
+                poller = newPoller;
+                poller.start(POLL_INTERVAL_MS);
+                pulse.start();
+                infoLabel.setText(String.format("✓ %d плиток │ оновлення кожну %d с", tiles.size(), POLL_INTERVAL_MS / 1000));
+            });
+        } catch (Exception e) {
+            Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Seed spark lines with 15-minute means of the history window, all ending at the bucket
+     * of the newest measurement
+     */
+    private void buildTiles(List<LiveUpdateListener.Measurement> history) {
+        Map<String, LiveUpdateListener.Measurement> latest = new TreeMap<>();
+        LocalDateTime newest = null;
+        for (LiveUpdateListener.Measurement m : history) {
+            latest.put(key(m), m);
+            if (newest == null || m.getTime().isAfter(newest)) newest = m.getTime();
+        }
+        if (newest == null) return;
+        for (LiveUpdateListener.Measurement m : history) {
+            series.computeIfAbsent(key(m), k -> new SparkSeries()).add(m.getTime(), m.getValue(), newest);
+        }
+        for (Map.Entry<String, LiveUpdateListener.Measurement> e : latest.entrySet()) {
+            render(tileFor(e.getValue()), series.get(e.getKey()), e.getValue().getUnitId());
+        }
+    }
+
+    private void onPolledRows(List<LiveUpdateListener.Measurement> rows) {
+        // Poller thread: queue rows per tile until the next pulse
+        for (LiveUpdateListener.Measurement m : rows) {
+            pending.computeIfAbsent(key(m), k -> new ConcurrentLinkedQueue<>()).add(m);
+        }
+        dirty.set(true);
+    }
+
+    private void applyPending() {
+        int applied = 0;
+        for (Map.Entry<String, Queue<LiveUpdateListener.Measurement>> e : pending.entrySet()) {
+            LiveUpdateListener.Measurement m;
+            LiveUpdateListener.Measurement last = null;
+            while ((m = e.getValue().poll()) != null) {
+                SparkSeries s = series.computeIfAbsent(e.getKey(), k -> new SparkSeries());
+                s.add(m.getTime(), m.getValue(), m.getTime());
+                last = m;
+                applied++;
+            }
+            if (last != null) render(tileFor(last), series.get(e.getKey()), last.getUnitId());
+        }
+        if (applied > 0) {
+            updatesApplied += applied;
+            infoLabel.setText(String.format("⚡ %d плиток │ оновлень: %,d │ %s",
+                    tiles.size(), updatesApplied, LocalTime.now().withNano(0)));
+        }
+    }
+
+    /**
+     * Replace the tile's points with the series; the value property ignores a value equal to
+     * the current one, so a repeated mean is pushed one ulp higher to still add its point
+     */
+    private void render(Tile tile, SparkSeries s, String unitId) {
+        double[] means = s.means();
+        tile.clearData();
+        for (double mean : means) {
+            tile.setValue(mean == tile.getValue() ? Math.nextUp(mean) : mean);
+        }
+        applyCategory(tile, unitId, means[means.length - 1]);
+    }
+
+    private Tile tileFor(LiveUpdateListener.Measurement m) {
+        return tiles.computeIfAbsent(key(m), k -> {
+            Tile tile = TileBuilder.create()
+                    .skinType(Tile.SkinType.SPARK_LINE)
+                    .prefSize(240, 180)
+                    .title(stationNames.getOrDefault(m.getStationId(), m.getStationId()))
+                    .description(unitTitles.getOrDefault(m.getUnitId(), m.getUnitId()))
+                    .unit(unitNames.getOrDefault(m.getUnitId(), ""))
+                    .averagingPeriod(SPARK_POINTS)
+                    .decimals(1)
+                    .textVisible(true)
+                    .smoothing(true)
+                    .animated(false)
+                    .build();
+            tilesPane.getChildren().add(tile);
+            return tile;
+        });
+    }
+
+    private void applyCategory(Tile tile, String unitId, double value) {
+        int index = categories.indexOf(unitId, value);
+        if (index < 0) {
+            tile.setText("");
+            return;
+        }
+        Color color = categories.colorOf(unitId, value);
+        tile.setBarColor(color);
+        tile.setValueColor(color);
+        tile.setText(categories.designationOf(unitId, value));
+    }
+
+    private static String key(LiveUpdateListener.Measurement m) {
+        return m.getStationId() + "|" + m.getUnitId();
+    }
+
+    /**
+     * SPARK_POINTS fifteen-minute buckets of one tile ending at the newest bucket
+     */
+    private static class SparkSeries {
+        private final double[] sums = new double[SPARK_POINTS];
+        private final long[] counts = new long[SPARK_POINTS];
+        private LocalDateTime newestBucket;
+
+        private static LocalDateTime bucketOf(LocalDateTime time) {
+            return time.truncatedTo(ChronoUnit.HOURS).plusMinutes(time.getMinute() / 15 * 15L);
+        }
+
+        /**
+         * Add a value; the window first moves forward to the bucket of {@code now} if it is newer
+         */
+        void add(LocalDateTime time, double value, LocalDateTime now) {
+            LocalDateTime head = bucketOf(now);
+            if (newestBucket == null) newestBucket = head;
+            long shift = ChronoUnit.MINUTES.between(newestBucket, head) / 15;
+            if (shift > 0) {
+                int kept = (int) Math.max(0, SPARK_POINTS - shift);
+                System.arraycopy(sums, SPARK_POINTS - kept, sums, 0, kept);
+                System.arraycopy(counts, SPARK_POINTS - kept, counts, 0, kept);
+                Arrays.fill(sums, kept, SPARK_POINTS, 0);
+                Arrays.fill(counts, kept, SPARK_POINTS, 0);
+                newestBucket = head;
+            }
+            int index = SPARK_POINTS - 1 - (int) (ChronoUnit.MINUTES.between(bucketOf(time), newestBucket) / 15);
+            if (index < 0 || index >= SPARK_POINTS) return; // older than the window (or a clock in the future)
+            sums[index] += value;
+            counts[index]++;
+        }
+
+        /**
+         * Bucket means; an empty bucket repeats the previous mean (leading ones the first mean)
+         */
+        double[] means() {
+            double[] means = new double[SPARK_POINTS];
+            int first = 0;
+            while (first < SPARK_POINTS - 1 && counts[first] == 0) first++;
+            double previous = counts[first] > 0 ? sums[first] / counts[first] : 0;
+            for (int i = 0; i < SPARK_POINTS; i++) {
+                if (counts[i] > 0) previous = sums[i] / counts[i];
+                means[i] = previous;
+            }
+            return means;
+        }
+    }
+
+    private void shutdown() {
+        closed = true;
+        pulse.stop();
+        if (poller != null) {
+            poller.close();
+            poller = null;
+        }
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+}
@@ -3,6 +3,7 @@ package io.github.serhii0659.air_monitoring.airmonitoringapp;
 import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -15,6 +16,8 @@ public class DataLoadTask extends Task<DataLoadResult> {
     private final int offset;
     private final int totalCount;
 
+    private static final int SPILL_FETCH_SIZE = 5000;
+
     public DataLoadTask(String tableName, int limit, int totalCount) {
         this(tableName, limit, 0, totalCount);
     }
@@ -33,6 +36,11 @@ public class DataLoadTask extends Task<DataLoadResult> {
 
         if (isCancelled()) return null;
 
+        int expectedRows = limit > 0 ? Math.min(limit, totalCount) : totalCount;
+        if (expectedRows >= SpilledRows.getThreshold()) {
+            return loadSpilled(expectedRows);
+        }
+
         DataLoadResult result = new DataLoadResult();
 
         try (ResultSet rs = DbManager.fetchTable(tableName, limit, offset)) {
@@ -51,7 +59,6 @@ public class DataLoadTask extends Task<DataLoadResult> {
 
             result.data = FXCollections.observableArrayList();
             int rowCount = 0;
-            int expectedRows = limit > 0 ? Math.min(limit, totalCount) : totalCount;
 
             while (rs.next()) {
                 if (isCancelled()) {
@@ -84,6 +91,66 @@ public class DataLoadTask extends Task<DataLoadResult> {
 
         return result;
     }
+
+    /**
+     * Large result: stream rows through a cursor on a dedicated connection into a
+     * memory-mapped spill file, so neither the driver nor the table keeps them on the heap
+     */
+    private DataLoadResult loadSpilled(int expectedRows) throws Exception {
+        DataLoadResult result = new DataLoadResult();
+
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try (ResultSet rs = DbManager.fetchTable(conn, tableName, limit, offset, SPILL_FETCH_SIZE)) {
+                ResultSetMetaData md = rs.getMetaData();
+                int colCount = md.getColumnCount();
+
+                result.columnNames = new ArrayList<>();
+                for (int i = 1; i <= colCount; i++) {
+                    result.columnNames.add(md.getColumnLabel(i));
+                }
+
+                updateProgress(10, 100);
+                updateMessage("Читання записів у тимчасовий файл...");
+
+                try (SpilledRows.Writer writer = new SpilledRows.Writer(colCount)) {
+                    String[] cells = new String[colCount];
+                    int rowCount = 0;
+
+                    while (rs.next()) {
+                        if (isCancelled()) {
+                            updateMessage("Скасовано користувачем");
+                            return null;
+                        }
+
+                        for (int i = 1; i <= colCount; i++) {
+                            Object val = rs.getObject(i);
+                            cells[i - 1] = val == null ? "" : val.toString();
+                        }
+                        writer.add(cells);
+                        rowCount++;
+
+                        if (rowCount % 1000 == 0 || rowCount == expectedRows) {
+                            double progress = Math.min(90, 10 + (80.0 * rowCount / expectedRows));
+                            updateProgress(progress, 100);
+                            updateMessage(String.format("Завантажено %,d з %,d записів (тимчасовий файл)",
+                                    rowCount, expectedRows));
+                        }
+                    }
+
+                    result.data = writer.finish();
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            updateMessage("Помилка: " + e.getMessage());
+            throw e;
+        }
+
+        updateProgress(100, 100);
+        updateMessage("Завантаження завершено");
+        return result;
+    }
 }
 
 class DataLoadResult {
@@ -53,12 +53,19 @@ public class DataViewController {
     @FXML private Button cancelButton;
 
     private Task<DataLoadResult> currentTask;
+    private Task<Long> exportTask;
+    private Task<MeasurementImporter.ImportResult> importTask;
 
     // Pagination state
     private int currentPage = 1;
     private int totalRecords = 0;
     private int recordsPerPage = 500;
 
+    // Currently displayed table, for live updates
+    private final LiveUpdateListener.Subscriber liveSubscriber = this::onLiveMeasurements;
+    private String displayedTable;
+    private List<String> displayedColumns;
+
     // Previous state for cancellation
     private DataLoadResult previousResult;
     private TableInfo previousTable;
@@ -167,6 +174,7 @@ public class DataViewController {
         }
 
         limitSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 10000, 500, 50));
+        LiveUpdateListener.subscribe(liveSubscriber);
 
         // Disable spinner when "Show All" is checked
         showAllCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
@@ -251,7 +259,7 @@ public class DataViewController {
         try {
             javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(
                 getClass().getResource("reports-view.fxml"));
-            javafx.scene.Scene scene = new javafx.scene.Scene(loader.load(), 600, 600);
+            javafx.scene.Scene scene = new javafx.scene.Scene(loader.load(), 600, 720);
 
             String css = getClass().getResource("styles.css").toExternalForm();
             scene.getStylesheets().add(css);
@@ -288,6 +296,144 @@ public class DataViewController {
         }
     }
 
+    @FXML
+    private void onExportCsv() {
+        TableInfo tableInfo = tablesBox.getValue();
+        if (tableInfo == null) return;
+        if (exportTask != null && exportTask.isRunning()) return;
+
+        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+        fileChooser.setTitle("Експорт таблиці у CSV");
+        fileChooser.setInitialFileName(tableInfo.originalName + "_" + System.currentTimeMillis() + ".csv");
+        fileChooser.getExtensionFilters().addAll(
+                new javafx.stage.FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new javafx.stage.FileChooser.ExtensionFilter("CSV + gzip", "*.csv.gz"));
+
+        java.io.File file = fileChooser.showSaveDialog(tableView.getScene().getWindow());
+        if (file == null) return;
+
+        // Add .gz if the gzip filter was chosen but the name doesn't end with it
+        javafx.stage.FileChooser.ExtensionFilter filter = fileChooser.getSelectedExtensionFilter();
+        if (filter != null && filter.getDescription().contains("gzip") && !CsvExporter.isGzip(file)) {
+            file = new java.io.File(file.getParentFile(), file.getName() + ".gz");
+        }
+
+        // Export what the browser shows: its columns and, unless "show all" is on, the current page
+        final java.io.File target = file;
+        final String table = tableInfo.originalName;
+        final List<String> columns = table.equals(displayedTable) && displayedColumns != null
+                ? new ArrayList<>(displayedColumns) : List.of();
+        final int limit = showAllCheckBox.isSelected() ? 0 : recordsPerPage;
+        final int offset = limit > 0 ? (currentPage - 1) * recordsPerPage : 0;
+        final long expectedRows = limit > 0 ? Math.max(0, Math.min(limit, totalRecords - offset)) : totalRecords;
+
+        exportTask = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                updateMessage("Експорт таблиці " + table + "...");
+                updateProgress(-1, 1);
+                return CsvExporter.exportQuery(table, columns, limit, offset, target, (rows, bytes, rowsPerSecond) -> {
+                    updateMessage(String.format("Експортовано %,d записів (%.1f МБ) • %,.0f записів/с",
+                            rows, bytes / (1024.0 * 1024.0), rowsPerSecond));
+                    if (expectedRows > 0) updateProgress(Math.min(rows, expectedRows), expectedRows);
+                }, this::isCancelled);
+            }
+        };
+
+        showFileTaskOverlay(exportTask);
+
+        exportTask.setOnSucceeded(e -> {
+            hideLoadingOverlay();
+            Long rows = exportTask.getValue();
+            infoLabel.setText(rows != null && rows >= 0
+                    ? String.format("✓ Експортовано %,d записів у %s", rows, target.getName())
+                    : "⚠ Експорт скасовано");
+        });
+
+        exportTask.setOnFailed(e -> {
+            hideLoadingOverlay();
+            Throwable ex = exportTask.getException();
+            infoLabel.setText("❌ Помилка експорту: " + ex.getMessage());
+            ex.printStackTrace();
+        });
+
+        exportTask.setOnCancelled(e -> hideLoadingOverlay());
+
+        Thread thread = new Thread(exportTask);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void onImport() {
+        if (importTask != null && importTask.isRunning()) return;
+
+        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+        fileChooser.setTitle("Імпорт вимірювань");
+        fileChooser.getExtensionFilters().addAll(
+                new javafx.stage.FileChooser.ExtensionFilter("CSV / журнали станцій", "*.csv", "*.log", "*.txt"),
+                new javafx.stage.FileChooser.ExtensionFilter("Всі файли", "*.*"));
+
+        java.io.File file = fileChooser.showOpenDialog(tableView.getScene().getWindow());
+        if (file == null) return;
+
+        importTask = new Task<>() {
+            @Override
+            protected MeasurementImporter.ImportResult call() throws Exception {
+                updateMessage("Імпорт " + file.getName() + "...");
+                updateProgress(-1, 1);
+                return MeasurementImporter.importFile(file, progress -> {
+                    updateMessage(String.format("Рядків: %,d • додано %,d • дублікатів %,d • відхилено %,d • %,.0f записів/с",
+                            progress.getLinesRead(), progress.getInserted(), progress.getDuplicates(),
+                            progress.getRejected(), progress.getRowsPerSecond()));
+                }, this::isCancelled);
+            }
+        };
+
+        showFileTaskOverlay(importTask);
+
+        importTask.setOnSucceeded(e -> {
+            hideLoadingOverlay();
+            MeasurementImporter.ImportResult result = importTask.getValue();
+            String text = String.format("✓ Імпорт %s: додано %,d, дублікатів %,d, відхилено %,d",
+                    file.getName(), result.getInserted(), result.getDuplicates(), result.getRejected());
+            if (result.getResumedFromLine() > 0) {
+                text += String.format(" (продовжено з рядка %,d)", result.getResumedFromLine());
+            }
+            if (result.getRejectFile() != null) {
+                text += " • відхилені рядки: " + result.getRejectFile().getName();
+            }
+            infoLabel.setText(text);
+            onRefresh();
+        });
+
+        importTask.setOnFailed(e -> {
+            hideLoadingOverlay();
+            Throwable ex = importTask.getException();
+            infoLabel.setText("❌ Помилка імпорту: " + ex.getMessage());
+            ex.printStackTrace();
+        });
+
+        importTask.setOnCancelled(e -> hideLoadingOverlay());
+
+        Thread thread = new Thread(importTask);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Show loading overlay bound to an export/import task
+     */
+    private void showFileTaskOverlay(Task<?> task) {
+        showLoadingOverlay();
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressLabel.textProperty().bind(task.messageProperty());
+        task.progressProperty().addListener((obs, oldVal, newVal) -> {
+            int percent = (int) (Math.max(0, newVal.doubleValue()) * 100);
+            progressPercent.setText(percent + "%");
+        });
+    }
+
     @FXML
     private void onVisualization() {
         try {
@@ -328,6 +474,14 @@ public class DataViewController {
             currentTask.cancel();
         }
 
+        // Drop spill files of large results
+        ObservableList<ObservableList<String>> shown = tableView.getItems();
+        tableView.setItems(javafx.collections.FXCollections.observableArrayList());
+        DataLoadResult previous = previousResult;
+        previousResult = null;
+        releaseSpill(shown);
+        if (previous != null) releaseSpill(previous.data);
+
         // Save window state before disconnecting
         Stage stage = HelloApplication.getPrimaryStage();
         if (stage != null) {
@@ -338,6 +492,9 @@ public class DataViewController {
             HelloApplication.setWasMaximized(isMaximized);
         }
 
+        ReportScheduler.stop();
+        LiveUpdateListener.unsubscribe(liveSubscriber);
+        LiveUpdateListener.stop();
         DbManager.disconnect();
 
         // Use new window system to avoid resize animation
@@ -370,6 +527,21 @@ public class DataViewController {
 
     @FXML
     private void onCancelLoad() {
+        if (exportTask != null && exportTask.isRunning()) {
+            exportTask.cancel();
+            hideLoadingOverlay();
+            infoLabel.setText("⚠ Експорт скасовано");
+            return;
+        }
+
+        if (importTask != null && importTask.isRunning()) {
+            // Importer stops after the current batch; committed batches stay, checkpoint allows resume
+            importTask.cancel();
+            hideLoadingOverlay();
+            infoLabel.setText("⚠ Імпорт зупинено - повторний імпорт того ж файлу продовжить з контрольної точки");
+            return;
+        }
+
         if (currentTask != null && currentTask.isRunning()) {
             currentTask.cancel();
             hideLoadingOverlay();
@@ -412,10 +584,30 @@ public class DataViewController {
         }
     }
 
+    /**
+     * Rows for the cancel-restore snapshot. A spilled result is referenced, not copied.
+     */
+    private ObservableList<ObservableList<String>> snapshotRows(ObservableList<ObservableList<String>> rows) {
+        if (rows instanceof SpilledRows) return rows;
+        return javafx.collections.FXCollections.observableArrayList(rows);
+    }
+
+    /**
+     * Delete spill file of rows that are neither displayed nor kept as previous state
+     */
+    private void releaseSpill(ObservableList<ObservableList<String>> rows) {
+        if (rows instanceof SpilledRows
+                && tableView.getItems() != rows
+                && (previousResult == null || previousResult.data != rows)) {
+            ((SpilledRows) rows).close();
+        }
+    }
+
     private void saveCurrentState() {
         if (tableView.getItems() != null && !tableView.getItems().isEmpty()) {
+            DataLoadResult oldPrevious = previousResult;
             previousResult = new DataLoadResult();
-            previousResult.data = javafx.collections.FXCollections.observableArrayList(tableView.getItems());
+            previousResult.data = snapshotRows(tableView.getItems());
             previousResult.columnNames = new java.util.ArrayList<>();
             for (TableColumn<ObservableList<String>, ?> col : tableView.getColumns()) {
                 previousResult.columnNames.add(col.getText());
@@ -424,13 +616,15 @@ public class DataViewController {
             previousTotalRecords = totalRecords;
             previousShowAllState = showAllCheckBox.isSelected();
             previousPage = currentPage;
+            if (oldPrevious != null) releaseSpill(oldPrevious.data);
         }
     }
 
     private void saveCurrentStateWithCheckbox(boolean checkboxState) {
         if (tableView.getItems() != null && !tableView.getItems().isEmpty()) {
+            DataLoadResult oldPrevious = previousResult;
             previousResult = new DataLoadResult();
-            previousResult.data = javafx.collections.FXCollections.observableArrayList(tableView.getItems());
+            previousResult.data = snapshotRows(tableView.getItems());
             previousResult.columnNames = new java.util.ArrayList<>();
             for (TableColumn<ObservableList<String>, ?> col : tableView.getColumns()) {
                 previousResult.columnNames.add(col.getText());
@@ -439,13 +633,15 @@ public class DataViewController {
             previousTotalRecords = totalRecords;
             previousShowAllState = checkboxState; // Use the provided checkbox state
             previousPage = currentPage;
+            if (oldPrevious != null) releaseSpill(oldPrevious.data);
         }
     }
 
     private void saveCurrentStateWithTable(TableInfo table) {
         if (tableView.getItems() != null && !tableView.getItems().isEmpty() && table != null) {
+            DataLoadResult oldPrevious = previousResult;
             previousResult = new DataLoadResult();
-            previousResult.data = javafx.collections.FXCollections.observableArrayList(tableView.getItems());
+            previousResult.data = snapshotRows(tableView.getItems());
             previousResult.columnNames = new java.util.ArrayList<>();
             for (TableColumn<ObservableList<String>, ?> col : tableView.getColumns()) {
                 previousResult.columnNames.add(col.getText());
@@ -454,6 +650,7 @@ public class DataViewController {
             previousTotalRecords = totalRecords;
             previousShowAllState = showAllCheckBox.isSelected();
             previousPage = currentPage;
+            if (oldPrevious != null) releaseSpill(oldPrevious.data);
         }
     }
 
@@ -628,9 +825,11 @@ public class DataViewController {
             return;
         }
 
-        // Clear any existing data and columns
-        tableView.getItems().clear();
+        // Clear any existing data and columns (spilled rows are read-only, so replace the list)
+        ObservableList<ObservableList<String>> oldItems = tableView.getItems();
+        tableView.setItems(javafx.collections.FXCollections.observableArrayList());
         tableView.getColumns().clear();
+        if (oldItems != result.data) releaseSpill(oldItems);
 
         // Clear any pending UI updates
         tableView.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
@@ -679,6 +878,8 @@ public class DataViewController {
 
         // Set data
         tableView.setItems(result.data);
+        displayedTable = table;
+        displayedColumns = result.columnNames;
 
         // Additional protections for large datasets
         if (isLargeDataset) {
@@ -703,9 +904,46 @@ public class DataViewController {
         String sortingInfo = getSortingStatusInfo(result.data.size(), totalRecords);
         String info = String.format("✓ Таблиця: %s │ Показано: %,d з %,d записів%s",
             table, result.data.size(), totalRecords, sortingInfo);
+        if (result.data instanceof SpilledRows) {
+            info += String.format(" │ 💾 тимчасовий файл %.1f МБ",
+                ((SpilledRows) result.data).getFileSize() / (1024.0 * 1024.0));
+        }
         infoLabel.setText(info);
     }
 
+    /**
+     * New Measurment rows: bump the record count and append them in "Show all" mode
+     */
+    private void onLiveMeasurements(List<LiveUpdateListener.Measurement> rows) {
+        if (displayedTable == null || !displayedTable.equalsIgnoreCase("Measurment")) return;
+        if (currentTask != null && currentTask.isRunning()) return;
+
+        totalRecords += rows.size();
+        updatePaginationUI();
+
+        ObservableList<ObservableList<String>> items = tableView.getItems();
+        boolean append = showAllCheckBox.isSelected() && !(items instanceof SpilledRows);
+        if (append) {
+            for (LiveUpdateListener.Measurement m : rows) {
+                ObservableList<String> row = javafx.collections.FXCollections.observableArrayList();
+                for (String column : displayedColumns) {
+                    switch (column.toLowerCase()) {
+                        case "id_measurment" -> row.add(String.valueOf(m.getId()));
+                        case "id_station" -> row.add(m.getStationId());
+                        case "id_measured_unit" -> row.add(m.getUnitId());
+                        case "time" -> row.add(java.sql.Timestamp.valueOf(m.getTime()).toString());
+                        case "value" -> row.add(m.getValueText());
+                        default -> row.add("");
+                    }
+                }
+                items.add(row);
+            }
+        }
+
+        infoLabel.setText(String.format("✓ Таблиця: %s │ Показано: %,d з %,d записів │ ⚡ +%d нових",
+            displayedTable, items.size(), totalRecords, rows.size()));
+    }
+
     private void blockHeaderInteractions(TableView<?> table) {
         // Method 1: Block at skin level
         table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
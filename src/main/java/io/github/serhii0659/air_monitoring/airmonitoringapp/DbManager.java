@@ -5,8 +5,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 public final class DbManager {
+    public static final String ALL_STATIONS = "*"; // watermark scope for caches covering every station
     private static Connection connection; // active connection
     private static String lastError;
+    private static String connectedUser;     // kept for dedicated connections (exports, listeners)
+    private static String connectedPassword;
 
     private DbManager() {}
 
@@ -16,6 +19,8 @@ public final class DbManager {
             Class.forName("org.postgresql.Driver");
             String url = ConfigManager.getDbUrl();
             connection = DriverManager.getConnection(url, user, password);
+            connectedUser = user;
+            connectedPassword = password;
             return true;
         } catch (Exception e) {
             lastError = e.getMessage();
@@ -29,6 +34,19 @@ public final class DbManager {
             try { connection.close(); } catch (SQLException ignored) {}
             connection = null;
         }
+        connectedUser = null;
+        connectedPassword = null;
+    }
+
+    /**
+     * Open a separate connection with the same credentials for long-running work
+     * (streaming exports etc.), so it doesn't block the shared connection. Caller closes it.
+     * PostgreSQL only fetches through a cursor (setFetchSize) inside a transaction, so
+     * streaming readers turn autocommit off on it first.
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        return DriverManager.getConnection(ConfigManager.getDbUrl(), connectedUser, connectedPassword);
     }
 
     public static boolean isConnected() { return connection != null; }
@@ -68,6 +86,15 @@ public final class DbManager {
      */
     public static ResultSet fetchTable(String tableName, int limit, int offset) throws SQLException {
         if (!isConnected()) throw new SQLException("Not connected");
+        return fetchTable(connection, tableName, limit, offset, 0);
+    }
+
+    /**
+     * Fetch table data on the given connection; with fetchSize > 0 and autocommit off
+     * rows are streamed through a cursor instead of being buffered by the driver
+     */
+    public static ResultSet fetchTable(Connection conn, String tableName, int limit, int offset,
+                                       int fetchSize) throws SQLException {
         if (!tableName.matches("[A-Za-z0-9_]+")) throw new SQLException("Неприпустима назва таблиці");
 
         StringBuilder sql = new StringBuilder("SELECT * FROM ").append(tableName);
@@ -78,7 +105,8 @@ public final class DbManager {
             }
         }
 
-        Statement st = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        Statement st = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        if (fetchSize > 0) st.setFetchSize(fetchSize);
         return st.executeQuery(sql.toString());
     }
 
@@ -121,6 +149,171 @@ public final class DbManager {
         return ps.executeQuery();
     }
 
+    /**
+     * Get report data: per-bucket statistics with regulatory percentiles (P50/P95/P98)
+     * for a station within time period. Aggregated on the server, raw rows are not transferred.
+     *
+     * @param bucket date_trunc unit: hour, day or week
+     * @param labelFormat to_char format for bucket label
+     */
+    public static ResultSet getTimeSeriesStatisticsReport(String stationId, String startDate, String endDate,
+                                                          String bucket, String labelFormat) throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        if (!stationId.matches("[A-Za-z0-9_-]+")) throw new SQLException("Неприпустимий ID станції");
+        if (!bucket.matches("hour|day|week")) throw new SQLException("Неприпустимий інтервал групування");
+
+        String bucketExpr = "date_trunc('" + bucket + "', m.Time)";
+        String sql = "SELECT " +
+                "to_char(" + bucketExpr + ", ?) AS \"Період\", " +
+                "mu.Title AS \"Назва параметру\", " +
+                "mu.Unit AS \"Одиниця виміру\", " +
+                "ROUND(AVG(m.Value)::numeric, 2) AS \"Середнє\", " +
+                "ROUND(MIN(m.Value)::numeric, 2) AS \"Мінімальне\", " +
+                "ROUND(MAX(m.Value)::numeric, 2) AS \"Максимальне\", " +
+                "COUNT(*) AS \"Кількість вимірювань\", " +
+                "ROUND(percentile_cont(0.50) WITHIN GROUP (ORDER BY m.Value)::numeric, 2) AS \"P50\", " +
+                "ROUND(percentile_cont(0.95) WITHIN GROUP (ORDER BY m.Value)::numeric, 2) AS \"P95\", " +
+                "ROUND(percentile_cont(0.98) WITHIN GROUP (ORDER BY m.Value)::numeric, 2) AS \"P98\" " +
+                "FROM Measurment m " +
+                "JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit " +
+                "WHERE m.ID_Station = ? " +
+                "AND m.Time >= ?::timestamp " +
+                "AND m.Time <= ?::timestamp " +
+                "GROUP BY " + bucketExpr + ", mu.Title, mu.Unit " +
+                "ORDER BY " + bucketExpr + ", mu.Title";
+
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setString(1, labelFormat);
+        ps.setString(2, stationId);
+        ps.setString(3, startDate);
+        ps.setString(4, endDate);
+        return ps.executeQuery();
+    }
+
+    /**
+     * Get per-station, per-parameter aggregates for several stations in one grouped query
+     */
+    public static ResultSet getStationComparisonData(List<String> stationIds,
+                                                     String startDate, String endDate) throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        for (String id : stationIds) {
+            if (!id.matches("[A-Za-z0-9_-]+")) throw new SQLException("Неприпустимий ID станції");
+        }
+
+        String sql = "SELECT " +
+                "m.ID_Station AS station_id, st.Name AS station_name, st.City AS city, " +
+                "mu.Title AS title, mu.Unit AS unit, " +
+                "AVG(m.Value) AS avg_value, MIN(m.Value) AS min_value, MAX(m.Value) AS max_value, " +
+                "COUNT(*) AS cnt " +
+                "FROM Measurment m " +
+                "JOIN Station st ON m.ID_Station = st.ID_Station " +
+                "JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit " +
+                "WHERE m.ID_Station = ANY(?) " +
+                "AND m.Time >= ?::timestamp " +
+                "AND m.Time <= ?::timestamp " +
+                "GROUP BY m.ID_Station, st.Name, st.City, mu.Title, mu.Unit " +
+                "ORDER BY mu.Title, st.Name";
+
+        PreparedStatement ps = connection.prepareStatement(sql);
+        ps.setArray(1, connection.createArrayOf("varchar", stationIds.toArray()));
+        ps.setString(2, startDate);
+        ps.setString(3, endDate);
+        return ps.executeQuery();
+    }
+
+    /**
+     * Get per-station, per-parameter aggregates of a current and a reference period in one grouped
+     * query; the period label ('current' / 'reference') is part of the grouping key. The reference
+     * period must end before the current one starts. Null stationIds means all stations.
+     */
+    public static ResultSet getPeriodComparisonData(List<String> stationIds,
+                                                    String currentStart, String currentEnd,
+                                                    String referenceStart, String referenceEnd) throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        if (stationIds != null) {
+            for (String id : stationIds) {
+                if (!id.matches("[A-Za-z0-9_-]+")) throw new SQLException("Неприпустимий ID станції");
+            }
+        }
+
+        String sql = "SELECT " +
+                "m.ID_Station AS station_id, st.Name AS station_name, st.City AS city, " +
+                "mu.Title AS title, mu.Unit AS unit, " +
+                "CASE WHEN m.Time >= ?::timestamp THEN 'current' ELSE 'reference' END AS period, " +
+                "AVG(m.Value) AS avg_value, MIN(m.Value) AS min_value, MAX(m.Value) AS max_value, " +
+                "COUNT(*) AS cnt " +
+                "FROM Measurment m " +
+                "JOIN Station st ON m.ID_Station = st.ID_Station " +
+                "JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit " +
+                "WHERE ((m.Time >= ?::timestamp AND m.Time <= ?::timestamp) " +
+                "OR (m.Time >= ?::timestamp AND m.Time <= ?::timestamp)) " +
+                (stationIds != null ? "AND m.ID_Station = ANY(?) " : "") +
+                "GROUP BY m.ID_Station, st.Name, st.City, mu.Title, mu.Unit, period " +
+                "ORDER BY st.Name, mu.Title";
+
+        PreparedStatement ps = connection.prepareStatement(sql);
+        ps.setString(1, currentStart);
+        ps.setString(2, currentStart);
+        ps.setString(3, currentEnd);
+        ps.setString(4, referenceStart);
+        ps.setString(5, referenceEnd);
+        if (stationIds != null) ps.setArray(6, connection.createArrayOf("varchar", stationIds.toArray()));
+        return ps.executeQuery();
+    }
+
+    /**
+     * Get station watermark: {max ID_Measurment, max Time as epoch millis}.
+     * ALL_STATIONS gives the watermark of the whole table.
+     */
+    public static long[] getStationWatermark(String stationId) throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        return getStationWatermark(connection, stationId);
+    }
+
+    /**
+     * Station watermark read on the given connection (e.g. a worker's own connection)
+     */
+    public static long[] getStationWatermark(Connection conn, String stationId) throws SQLException {
+        boolean all = ALL_STATIONS.equals(stationId);
+        String sql = "SELECT COALESCE(MAX(ID_Measurment), 0), MAX(Time) FROM Measurment"
+                + (all ? "" : " WHERE ID_Station = ?");
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (!all) ps.setString(1, stationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                Timestamp maxTime = rs.getTimestamp(2);
+                return new long[] { rs.getLong(1), maxTime != null ? maxTime.getTime() : 0 };
+            }
+        }
+    }
+
+    /**
+     * Check whether station got measurements with ID above afterId inside the period
+     */
+    public static boolean hasMeasurementsAfter(String stationId, long afterId,
+                                               String startDate, String endDate) throws SQLException {
+        if (!isConnected()) throw new SQLException("Not connected");
+        return hasMeasurementsAfter(connection, stationId, afterId, startDate, endDate);
+    }
+
+    public static boolean hasMeasurementsAfter(Connection conn, String stationId, long afterId,
+                                               String startDate, String endDate) throws SQLException {
+        boolean all = ALL_STATIONS.equals(stationId);
+        String sql = "SELECT EXISTS (SELECT 1 FROM Measurment " +
+                "WHERE " + (all ? "" : "ID_Station = ? AND ") + "ID_Measurment > ? " +
+                "AND Time >= ?::timestamp AND Time <= ?::timestamp)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (!all) ps.setString(i++, stationId);
+            ps.setLong(i++, afterId);
+            ps.setString(i++, startDate);
+            ps.setString(i, endDate);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
     /**
      * Get list of all stations for combobox
      */
@@ -0,0 +1,215 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Number of distinct PM2.5 exceedance days per station, counted incrementally.
+ *
+ * Every station keeps one 31-bit day mask per month (bit d - 1 set when day d exceeded the
+ * threshold), so any range of months, including the whole history, is an exact sum of bit
+ * counts at 4 bytes per station-month. refresh() feeds only measurements above the stored ID
+ * watermark; masks are stored in the app data dir. Rows updated in place are not seen
+ * until reset().
+ */
+public final class ExceedanceDays {
+    private static final int MAGIC = 0x45584459; // "EXDY"
+    private static final int VERSION = 1;
+    private static final int FETCH_SIZE = 10_000;
+
+    private static Map<String, StationDays> stations;
+    private static long watermark;
+    private static double loadedThreshold = Double.NaN;
+    private static String loadedDb;
+
+    private ExceedanceDays() {}
+
+    /**
+     * Exceedance days of one station as a day mask per epoch month
+     */
+    static class StationDays {
+        private final TreeMap<Integer, Integer> months = new TreeMap<>();
+
+        void add(long epochDay) {
+            LocalDate day = LocalDate.ofEpochDay(epochDay);
+            months.merge(epochMonth(YearMonth.from(day)), 1 << (day.getDayOfMonth() - 1), (a, b) -> a | b);
+        }
+
+        /** Days within the months [from, to]; null bounds are open */
+        int count(YearMonth from, YearMonth to) {
+            int lo = from != null ? epochMonth(from) : Integer.MIN_VALUE;
+            int hi = to != null ? epochMonth(to) : Integer.MAX_VALUE;
+            int days = 0;
+            for (int mask : months.subMap(lo, true, hi, true).values()) days += Integer.bitCount(mask);
+            return days;
+        }
+    }
+
+    public static class RefreshResult {
+        private final long rows;
+        private final long elapsedMillis;
+
+        RefreshResult(long rows, long elapsedMillis) {
+            this.rows = rows;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** (station, day) pairs read from the database by this refresh */
+        public long getRows() { return rows; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    /**
+     * Add exceedance days of PM2.5 rows inserted since the previous refresh. A different
+     * threshold than the stored one rebuilds the masks from the whole table.
+     */
+    public static synchronized RefreshResult refresh(double threshold) throws Exception {
+        ensureLoaded();
+        long started = System.currentTimeMillis();
+        if (Double.compare(threshold, loadedThreshold) != 0) {
+            clear();
+            loadedThreshold = threshold;
+        }
+
+        long rows = 0;
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            long newest;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(ID_Measurment), 0) FROM Measurment")) {
+                rs.next();
+                newest = rs.getLong(1);
+            }
+            if (newest <= watermark) return new RefreshResult(0, System.currentTimeMillis() - started);
+
+            String sql = "SELECT m.ID_Station, DATE(m.Time) FROM Measurment m " +
+                    "JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit " +
+                    "WHERE mu.Title = 'PM2.5' AND m.Value > ? AND m.ID_Measurment > ? AND m.ID_Measurment <= ? " +
+                    "GROUP BY 1, 2";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setDouble(1, threshold);
+                ps.setLong(2, watermark);
+                ps.setLong(3, newest);
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        add(rs.getString(1).trim(), rs.getDate(2).toLocalDate().toEpochDay());
+                        rows++;
+                    }
+                }
+            }
+            conn.commit();
+            watermark = newest;
+        }
+        save();
+
+        long elapsed = System.currentTimeMillis() - started;
+        System.out.println(String.format("Дні перевищень: %,d нових пар станція/день, %d мс", rows, elapsed));
+        return new RefreshResult(rows, elapsed);
+    }
+
+    static void add(String stationId, long epochDay) {
+        stations.computeIfAbsent(stationId, k -> new StationDays()).add(epochDay);
+    }
+
+    /**
+     * Exceedance days per station (one station when stationId is not null) within the months
+     * [from, to]; null bounds mean no limit on that side. Stations without days are left out.
+     */
+    public static synchronized Map<String, Integer> countDays(String stationId, YearMonth from, YearMonth to) {
+        ensureLoaded();
+        Map<String, Integer> result = new HashMap<>();
+        String only = stationId != null ? stationId.trim() : null;
+        for (Map.Entry<String, StationDays> e : stations.entrySet()) {
+            if (only != null && !only.equals(e.getKey())) continue;
+            int days = e.getValue().count(from, to);
+            if (days > 0) result.put(e.getKey(), days);
+        }
+        return result;
+    }
+
+    /**
+     * Forget all masks; the next refresh reads the whole table again
+     */
+    public static synchronized void reset() {
+        ensureLoaded();
+        clear();
+        save();
+    }
+
+    private static void clear() {
+        stations.clear();
+        watermark = 0;
+        loadedThreshold = Double.NaN;
+    }
+
+    static int epochMonth(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static void ensureLoaded() {
+        String db = String.valueOf(ConfigManager.getDbName());
+        if (db.equals(loadedDb)) return;
+        loadedDb = db;
+        stations = new HashMap<>();
+        watermark = 0;
+        loadedThreshold = Double.NaN;
+
+        try {
+            StateFile.read(StateFile.forDatabase("exceedance-days"), MAGIC, VERSION, ExceedanceDays::readState);
+        } catch (IOException e) {
+            System.err.println("Файл днів перевищень пошкоджено, буде створено заново: " + e.getMessage());
+            clear();
+        }
+    }
+
+    private static void readState(DataInputStream in) throws IOException {
+        double threshold = in.readDouble();
+        long mark = in.readLong();
+        int count = in.readInt();
+        for (int s = 0; s < count; s++) {
+            String stationId = in.readUTF();
+            StationDays days = new StationDays();
+            int months = in.readInt();
+            for (int i = 0; i < months; i++) {
+                int month = in.readInt();
+                days.months.put(month, in.readInt());
+            }
+            stations.put(stationId, days);
+        }
+        loadedThreshold = threshold;
+        watermark = mark;
+    }
+
+    private static void save() {
+        try {
+            StateFile.write(StateFile.forDatabase("exceedance-days"), MAGIC, VERSION, ExceedanceDays::writeState);
+        } catch (IOException e) {
+            System.err.println("Помилка збереження днів перевищень: " + e.getMessage());
+        }
+    }
+
+    private static void writeState(DataOutputStream out) throws IOException {
+        out.writeDouble(loadedThreshold);
+        out.writeLong(watermark);
+        out.writeInt(stations.size());
+        for (Map.Entry<String, StationDays> e : stations.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue().months.size());
+            for (Map.Entry<Integer, Integer> month : e.getValue().months.entrySet()) {
+                out.writeInt(month.getKey());
+                out.writeInt(month.getValue());
+            }
+        }
+    }
+}
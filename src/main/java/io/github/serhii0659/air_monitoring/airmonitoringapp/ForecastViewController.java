@@ -0,0 +1,263 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Next-24-hours outlook of one unit for every station. "Update" feeds only the hours that
+ * arrived since the previous run into the stored Holt-Winters models; the chart shows the
+ * last three days of hourly means with the forecast and its 95% band.
+ */
+public class ForecastViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> unitCombo;
+    @FXML private TableView<ForecastRow> dataTable;
+    @FXML private TableColumn<ForecastRow, String> stationColumn;
+    @FXML private TableColumn<ForecastRow, String> lastHourColumn;
+    @FXML private TableColumn<ForecastRow, String> averageColumn;
+    @FXML private TableColumn<ForecastRow, String> maxColumn;
+    @FXML private TableColumn<ForecastRow, String> statusColumn;
+    @FXML private LineChart<Number, Number> lineChart;
+    @FXML private NumberAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private Label infoLabel;
+
+    private static final int HORIZON = 24;
+    private static final int HISTORY_HOURS = 72;
+    private static final DateTimeFormatter TICK_FORMAT = DateTimeFormatter.ofPattern("dd.MM HH:mm");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final ObservableList<ForecastRow> dataList = FXCollections.observableArrayList();
+    private final Map<String, String> stationNames = new HashMap<>();
+    private boolean running;
+
+    @FXML
+    private void initialize() {
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        lastHourColumn.setCellValueFactory(new PropertyValueFactory<>("lastHour"));
+        averageColumn.setCellValueFactory(new PropertyValueFactory<>("average"));
+        maxColumn.setCellValueFactory(new PropertyValueFactory<>("max"));
+        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        dataTable.setItems(dataList);
+        dataTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> showForecast(n));
+        unitCombo.valueProperty().addListener((obs, o, n) -> showForecasts());
+
+        xAxis.setForceZeroInRange(false);
+        xAxis.setLabel("Час");
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number value) {
+                return TICK_FORMAT.format(Instant.ofEpochMilli(value.longValue()).atZone(ZoneId.systemDefault()));
+            }
+
+            @Override
+            public Number fromString(String s) {
+                return 0;
+            }
+        });
+        yAxis.setLabel("Середнє за годину");
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Прогноз на 24 години", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                Map<String, String> names = new HashMap<>();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        names.put(rs.getString("ID_Station").trim(), rs.getString("Name") + " (" + rs.getString("City") + ")");
+                    }
+                }
+                ObservableList<TimeSeriesViewController.Option> units = FXCollections.observableArrayList();
+                try (Statement st = DbManager.getConnection().createStatement();
+                     ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+                    while (rs.next()) {
+                        units.add(new TimeSeriesViewController.Option(rs.getString(1).trim(), rs.getString(2)));
+                    }
+                }
+                Platform.runLater(() -> {
+                    stationNames.putAll(names);
+                    unitCombo.setItems(units);
+                    units.stream().filter(o -> o.getLabel().replace(" ", "").toUpperCase().contains("PM2.5"))
+                            .findFirst()
+                            .ifPresentOrElse(unitCombo::setValue, () -> unitCombo.getSelectionModel().selectFirst());
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження параметрів: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onUpdate() {
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        if (unit == null || running) return;
+        running = true;
+        infoLabel.setText("⏳ Оновлення моделей новими годинами...");
+        new Thread(() -> {
+            try {
+                Forecaster.RunResult result = Forecaster.update(unit.getId());
+                Platform.runLater(() -> {
+                    running = false;
+                    showForecasts();
+                    infoLabel.setText(String.format("✓ %s: оновлено %d моделей, %,d нових годин │ %d мс",
+                            unit.getLabel(), result.getSeries(), result.getHours(), result.getElapsedMillis()));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    running = false;
+                    infoLabel.setText("❌ Помилка: " + e.getMessage());
+                });
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onReset() {
+        if (running) return;
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+                "Скинути моделі прогнозу? Наступне оновлення навчить їх заново на історії.",
+                ButtonType.YES, ButtonType.NO);
+        alert.setTitle("Скидання моделей");
+        alert.setHeaderText(null);
+        alert.initOwner(titleBar.getScene().getWindow());
+        if (alert.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) return;
+        Forecaster.reset();
+        dataList.clear();
+        lineChart.getData().clear();
+        infoLabel.setText("Моделі прогнозу скинуто");
+    }
+
+    private void showForecasts() {
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        if (unit == null) return;
+        RollingWindow.Standard standard = RollingWindow.standards().stream()
+                .filter(s -> unit.getLabel().replace(" ", "").equalsIgnoreCase(s.getUnitTitle()))
+                .findFirst().orElse(null);
+
+        List<Forecaster.Forecast> forecasts = Forecaster.forecast(unit.getId(), HORIZON);
+        ObservableList<ForecastRow> rows = FXCollections.observableArrayList();
+        for (Forecaster.Forecast forecast : forecasts) {
+            rows.add(new ForecastRow(stationNames.getOrDefault(forecast.getStationId(), forecast.getStationId()),
+                    forecast, standard));
+        }
+        rows.sort((a, b) -> Double.compare(b.forecast.getMax(), a.forecast.getMax()));
+        dataList.setAll(rows);
+        if (rows.isEmpty()) {
+            lineChart.getData().clear();
+        } else {
+            dataTable.getSelectionModel().selectFirst();
+        }
+    }
+
+    private void showForecast(ForecastRow row) {
+        lineChart.getData().clear();
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        if (row == null || unit == null) return;
+        Forecaster.Forecast forecast = row.forecast;
+        long fromHour = forecast.getFirstHour() - HISTORY_HOURS;
+
+        new Thread(() -> {
+            try {
+                double[] actual = Forecaster.hourlyMeans(forecast.getStationId(), unit.getId(), fromHour, HISTORY_HOURS);
+                XYChart.Series<Number, Number> actualSeries = new XYChart.Series<>();
+                actualSeries.setName("Фактичні середні");
+                for (int i = 0; i < actual.length; i++) {
+                    if (!Double.isNaN(actual[i])) {
+                        actualSeries.getData().add(new XYChart.Data<>(Forecaster.hourToMillis(fromHour + i), actual[i]));
+                    }
+                }
+                XYChart.Series<Number, Number> mean = new XYChart.Series<>();
+                mean.setName("Прогноз");
+                XYChart.Series<Number, Number> lower = new XYChart.Series<>();
+                lower.setName("Нижня межа 95%");
+                XYChart.Series<Number, Number> upper = new XYChart.Series<>();
+                upper.setName("Верхня межа 95%");
+                for (int h = 0; h < HORIZON; h++) {
+                    long time = Forecaster.hourToMillis(forecast.getFirstHour() + h);
+                    mean.getData().add(new XYChart.Data<>(time, forecast.getMean()[h]));
+                    lower.getData().add(new XYChart.Data<>(time, forecast.getLower()[h]));
+                    upper.getData().add(new XYChart.Data<>(time, forecast.getUpper()[h]));
+                }
+                Platform.runLater(() -> {
+                    if (dataTable.getSelectionModel().getSelectedItem() != row) return;
+                    lineChart.getData().setAll(List.of(actualSeries, mean, lower, upper));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження фактичних даних: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class ForecastRow {
+        private final String station;
+        private final String lastHour;
+        private final String average;
+        private final String max;
+        private final String status;
+        private final Forecaster.Forecast forecast;
+
+        public ForecastRow(String station, Forecaster.Forecast forecast, RollingWindow.Standard standard) {
+            this.station = station;
+            this.forecast = forecast;
+            this.lastHour = TIME_FORMAT.format(Instant.ofEpochMilli(Forecaster.hourToMillis(forecast.getFirstHour() - 1))
+                    .atZone(ZoneId.systemDefault()));
+            this.average = String.format("%.2f", forecast.getAverage());
+            this.max = String.format("%.2f", forecast.getMax());
+            this.status = standard == null ? "-" : statusOf(forecast, standard);
+        }
+
+        /**
+         * Mean of the first standard-length hours of the forecast against the limit
+         */
+        private static String statusOf(Forecaster.Forecast forecast, RollingWindow.Standard standard) {
+            int hours = Math.min(standard.getHours(), forecast.getMean().length);
+            double sum = 0;
+            for (int h = 0; h < hours; h++) sum += forecast.getMean()[h];
+            return sum / hours > standard.getLimit()
+                    ? String.format("⚠ Перевищення %s (%.1f)", standard, sum / hours)
+                    : "✓ У межах нормативу";
+        }
+
+        public String getStation() { return station; }
+        public String getLastHour() { return lastHour; }
+        public String getAverage() { return average; }
+        public String getMax() { return max; }
+        public String getStatus() { return status; }
+    }
+}
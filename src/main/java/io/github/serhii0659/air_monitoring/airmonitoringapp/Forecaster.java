@@ -0,0 +1,444 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Short-term forecasts of hourly means per (station, unit) with additive Holt-Winters
+ * (damped trend, 24-hour season).
+ *
+ * Models are updated incrementally: every series remembers the last hour it consumed, and a
+ * run reads only complete hours after the oldest of them (one grouped query for all stations
+ * of the unit, aggregated by the server). An hour counts as complete once the unit has data
+ * forecast.lag.hours newer than it, so rows arriving late within that lag are still consumed. An update is O(1) per new hour, so hundreds of
+ * stations refresh in the time of that query. States are stored in the app data dir.
+ * Missing hours are bridged with the model's own prediction; a long outage restarts the
+ * two-day warmup.
+ */
+public final class Forecaster {
+    private static final int MAGIC = 0x46435354; // "FCST"
+    private static final int VERSION = 1;
+    private static final int FETCH_SIZE = 10_000;
+    private static final int SEASON = 24;
+    private static final int MAX_WARMUP_GAP = 3;  // hours carried forward while warming up
+    private static final int MAX_GAP = 72;        // hours bridged by prediction, then restart
+    private static final double CLIP_SIGMAS = 4;  // outliers are clipped before updating the state
+    private static final double VARIANCE_ALPHA = 0.02;
+    private static final double Z_95 = 1.96;
+
+    private static Map<String, Model> models;
+    private static String loadedDb;
+
+    private Forecaster() {}
+
+    /**
+     * Smoothing from config.properties: forecast.alpha (level), forecast.beta (trend),
+     * forecast.gamma (season), forecast.phi (trend damping)
+     */
+    public static class Settings {
+        final double alpha;
+        final double beta;
+        final double gamma;
+        final double phi;
+
+        public Settings(double alpha, double beta, double gamma, double phi) {
+            this.alpha = alpha;
+            this.beta = beta;
+            this.gamma = gamma;
+            this.phi = phi;
+        }
+
+        public static Settings fromConfig() {
+            return new Settings(ConfigManager.getDoubleProperty("forecast.alpha", 0.2),
+                    ConfigManager.getDoubleProperty("forecast.beta", 0.01),
+                    ConfigManager.getDoubleProperty("forecast.gamma", 0.1),
+                    ConfigManager.getDoubleProperty("forecast.phi", 0.98));
+        }
+    }
+
+    /**
+     * Holt-Winters state of one series; hours are counted from the epoch in local time,
+     * so hour % 24 is the hour of day. Also used directly by tests.
+     */
+    public static class Model {
+        boolean ready;
+        double level;
+        double trend;
+        double[] season = new double[SEASON];
+        double variance;
+        long count;
+        long lastHour = Long.MIN_VALUE;
+        double[] warmup = new double[2 * SEASON];
+        int warmupCount;
+
+        /**
+         * Feed the mean of one hour; hours not after the last consumed one are ignored
+         */
+        public void update(long hour, double value, Settings settings) {
+            if (lastHour != Long.MIN_VALUE) {
+                if (hour <= lastHour) return;
+                if (hour - lastHour > (ready ? MAX_GAP : MAX_WARMUP_GAP)) restart();
+            }
+            for (long h = lastHour + 1; lastHour != Long.MIN_VALUE && h < hour; h++) {
+                if (ready) {
+                    level += settings.phi * trend;
+                    trend *= settings.phi;
+                } else {
+                    addWarmup(h, warmup[warmupCount - 1]);
+                }
+            }
+            if (ready) {
+                observe(hour, value, settings);
+            } else {
+                addWarmup(hour, value);
+            }
+            lastHour = hour;
+        }
+
+        private void restart() {
+            ready = false;
+            warmupCount = 0;
+            count = 0;
+            lastHour = Long.MIN_VALUE;
+        }
+
+        private void addWarmup(long hour, double value) {
+            warmup[warmupCount++] = value;
+            if (warmupCount < warmup.length) return;
+
+            // Two full days: level and trend from the daily means, season from deviations
+            double first = 0;
+            double second = 0;
+            for (int i = 0; i < SEASON; i++) {
+                first += warmup[i];
+                second += warmup[SEASON + i];
+            }
+            first /= SEASON;
+            second /= SEASON;
+            trend = (second - first) / SEASON;
+            level = second + trend * (SEASON - 1) / 2.0;
+            Arrays.fill(season, 0);
+            long start = hour - warmup.length + 1;
+            for (int i = 0; i < warmup.length; i++) {
+                season[(int) Math.floorMod(start + i, (long) SEASON)] += (warmup[i] - (i < SEASON ? first : second)) / 2;
+            }
+            double sse = 0;
+            for (int i = 0; i < warmup.length; i++) {
+                double fitted = (i < SEASON ? first : second) + season[(int) Math.floorMod(start + i, (long) SEASON)];
+                sse += (warmup[i] - fitted) * (warmup[i] - fitted);
+            }
+            variance = Math.max(sse / warmup.length, 1e-6);
+            ready = true;
+            warmupCount = 0;
+        }
+
+        private void observe(long hour, double value, Settings settings) {
+            int index = (int) Math.floorMod(hour, (long) SEASON);
+            double seasonal = season[index];
+            double predicted = level + settings.phi * trend + seasonal;
+            double error = value - predicted;
+            double bound = CLIP_SIGMAS * Math.sqrt(variance);
+            if (Math.abs(error) > bound) {
+                error = Math.signum(error) * bound;
+                value = predicted + error;
+            }
+            variance += VARIANCE_ALPHA * (error * error - variance);
+
+            double previousLevel = level;
+            level = settings.alpha * (value - seasonal) + (1 - settings.alpha) * (level + settings.phi * trend);
+            trend = settings.beta * (level - previousLevel) + (1 - settings.beta) * settings.phi * trend;
+            season[index] = settings.gamma * (value - level) + (1 - settings.gamma) * seasonal;
+            count++;
+        }
+
+        public boolean isReady() { return ready; }
+        public long getLastHour() { return lastHour; }
+
+        /**
+         * Means and 95% bands of the next hours after the last consumed one, clamped at zero
+         */
+        public Forecast forecast(String stationId, String unitId, int horizon, Settings settings) {
+            double[] mean = new double[horizon];
+            double[] lower = new double[horizon];
+            double[] upper = new double[horizon];
+            double damped = 0;
+            double phiPower = 1;
+            double spread = 1; // 1 + sum of squared error weights of the earlier steps
+            for (int h = 1; h <= horizon; h++) {
+                phiPower *= settings.phi;
+                damped += phiPower;
+                double value = level + damped * trend + season[(int) Math.floorMod(lastHour + h, (long) SEASON)];
+                double sd = Math.sqrt(variance * spread);
+                mean[h - 1] = Math.max(0, value);
+                lower[h - 1] = Math.max(0, value - Z_95 * sd);
+                upper[h - 1] = Math.max(0, value + Z_95 * sd);
+                double weight = settings.alpha * (1 + h * settings.beta) + (h % SEASON == 0 ? settings.gamma : 0);
+                spread += weight * weight;
+            }
+            return new Forecast(stationId, unitId, lastHour + 1, mean, lower, upper);
+        }
+    }
+
+    public static class Forecast {
+        private final String stationId;
+        private final String unitId;
+        private final long firstHour;
+        private final double[] mean;
+        private final double[] lower;
+        private final double[] upper;
+
+        public Forecast(String stationId, String unitId, long firstHour, double[] mean, double[] lower, double[] upper) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.firstHour = firstHour;
+            this.mean = mean;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public long getFirstHour() { return firstHour; }
+        public double[] getMean() { return mean; }
+        public double[] getLower() { return lower; }
+        public double[] getUpper() { return upper; }
+
+        public double getMax() {
+            return Arrays.stream(mean).max().orElse(Double.NaN);
+        }
+
+        public double getAverage() {
+            return Arrays.stream(mean).average().orElse(Double.NaN);
+        }
+    }
+
+    public static class RunResult {
+        private final int series;
+        private final long hours;
+        private final long elapsedMillis;
+
+        RunResult(int series, long hours, long elapsedMillis) {
+            this.series = series;
+            this.hours = hours;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getSeries() { return series; }
+        public long getHours() { return hours; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    public static long toHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    public static long hourToMillis(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Consume complete hours of one unit that arrived since the last run: up to the hour of the
+     * newest measurement of the unit minus forecast.lag.hours. The first run reads
+     * forecast.history.days before that.
+     */
+    public static synchronized RunResult update(String unitId) throws Exception {
+        ensureLoaded();
+        long started = System.currentTimeMillis();
+        Settings settings = Settings.fromConfig();
+        String unit = unitId.trim();
+        String suffix = "|" + unit;
+        int historyDays = Math.max(3, ConfigManager.getIntProperty("forecast.history.days", 28));
+        // The hour of the newest row is still filling, so at least that one is left out
+        int lagHours = Math.max(1, ConfigManager.getIntProperty("forecast.lag.hours", 2));
+
+        Map<String, Model> updated = new HashMap<>();
+        long hours = 0;
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            long oldest = Long.MAX_VALUE;
+            for (Map.Entry<String, Model> e : models.entrySet()) {
+                if (e.getKey().endsWith(suffix)) oldest = Math.min(oldest, e.getValue().lastHour);
+            }
+            long toHour;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT MAX(Time) FROM Measurment WHERE ID_Measured_Unit = ?")) {
+                ps.setString(1, unitId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    Timestamp max = rs.getTimestamp(1);
+                    if (max == null) return new RunResult(0, 0, System.currentTimeMillis() - started);
+                    toHour = toHour(max.toLocalDateTime()) - lagHours + 1;
+                }
+            }
+            long fromHour = toHour - historyDays * 24L;
+            if (oldest != Long.MAX_VALUE) fromHour = Math.max(fromHour, oldest + 1);
+
+            String sql = "SELECT ID_Station, date_trunc('hour', Time) AS hour, AVG(Value) FROM Measurment " +
+                    "WHERE ID_Measured_Unit = ? AND Time >= ? AND Time < ? AND Value IS NOT NULL " +
+                    "GROUP BY 1, 2 ORDER BY 1, 2";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, unitId);
+                ps.setTimestamp(2, new Timestamp(hourToMillis(fromHour)));
+                ps.setTimestamp(3, new Timestamp(hourToMillis(toHour)));
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    String currentStation = null;
+                    Model model = null;
+                    while (rs.next()) {
+                        String station = rs.getString(1);
+                        if (!station.equals(currentStation)) {
+                            currentStation = station;
+                            String key = station.trim() + suffix;
+                            Model previous = models.get(key);
+                            model = previous != null ? copy(previous) : new Model();
+                            updated.put(key, model);
+                        }
+                        model.update(toHour(rs.getTimestamp(2).toLocalDateTime()), rs.getDouble(3), settings);
+                        hours++;
+                    }
+                }
+            }
+            conn.commit();
+        }
+        models.putAll(updated);
+        save();
+
+        long elapsed = System.currentTimeMillis() - started;
+        System.out.println(String.format("Прогноз: оновлено %d моделей, %,d годин, %d мс",
+                updated.size(), hours, elapsed));
+        return new RunResult(updated.size(), hours, elapsed);
+    }
+
+    private static Model copy(Model m) {
+        Model c = new Model();
+        c.ready = m.ready;
+        c.level = m.level;
+        c.trend = m.trend;
+        c.season = m.season.clone();
+        c.variance = m.variance;
+        c.count = m.count;
+        c.lastHour = m.lastHour;
+        c.warmup = m.warmup.clone();
+        c.warmupCount = m.warmupCount;
+        return c;
+    }
+
+    /**
+     * Forecasts of every ready model of a unit
+     */
+    public static synchronized List<Forecast> forecast(String unitId, int horizon) {
+        ensureLoaded();
+        Settings settings = Settings.fromConfig();
+        String suffix = "|" + unitId.trim();
+        List<Forecast> result = new ArrayList<>();
+        for (Map.Entry<String, Model> e : models.entrySet()) {
+            if (!e.getKey().endsWith(suffix) || !e.getValue().ready) continue;
+            String stationId = e.getKey().substring(0, e.getKey().length() - suffix.length());
+            result.add(e.getValue().forecast(stationId, unitId.trim(), horizon, settings));
+        }
+        return result;
+    }
+
+    /**
+     * Hourly means of [fromHour, fromHour + count), NaN where the hour has no data
+     */
+    public static double[] hourlyMeans(String stationId, String unitId, long fromHour, int count) throws Exception {
+        double[] values = new double[count];
+        Arrays.fill(values, Double.NaN);
+        String sql = "SELECT date_trunc('hour', Time), AVG(Value) FROM Measurment " +
+                "WHERE ID_Station = ? AND ID_Measured_Unit = ? AND Time >= ? AND Time < ? GROUP BY 1";
+        try (PreparedStatement ps = DbManager.getConnection().prepareStatement(sql)) {
+            ps.setString(1, stationId);
+            ps.setString(2, unitId);
+            ps.setTimestamp(3, new Timestamp(hourToMillis(fromHour)));
+            ps.setTimestamp(4, new Timestamp(hourToMillis(fromHour + count)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long index = toHour(rs.getTimestamp(1).toLocalDateTime()) - fromHour;
+                    if (index >= 0 && index < count) values[(int) index] = rs.getDouble(2);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Forget all models; the next run starts from the history window again
+     */
+    public static synchronized void reset() {
+        ensureLoaded();
+        models.clear();
+        save();
+    }
+
+    private static void ensureLoaded() {
+        String db = String.valueOf(ConfigManager.getDbName());
+        if (db.equals(loadedDb)) return;
+        loadedDb = db;
+        models = new HashMap<>();
+
+        try {
+            StateFile.read(StateFile.forDatabase("forecast"), MAGIC, VERSION, Forecaster::readState);
+        } catch (IOException e) {
+            System.err.println("Стан моделей прогнозу пошкоджено, буде створено заново: " + e.getMessage());
+            models.clear();
+        }
+    }
+
+    private static void readState(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Model m = new Model();
+            m.ready = in.readBoolean();
+            m.level = in.readDouble();
+            m.trend = in.readDouble();
+            for (int s = 0; s < SEASON; s++) m.season[s] = in.readDouble();
+            m.variance = in.readDouble();
+            m.count = in.readLong();
+            m.lastHour = in.readLong();
+            m.warmupCount = in.readInt();
+            for (int w = 0; w < m.warmupCount; w++) m.warmup[w] = in.readDouble();
+            models.put(key, m);
+        }
+    }
+
+    private static void save() {
+        try {
+            StateFile.write(StateFile.forDatabase("forecast"), MAGIC, VERSION, Forecaster::writeState);
+        } catch (IOException e) {
+            System.err.println("Помилка збереження моделей прогнозу: " + e.getMessage());
+        }
+    }
+
+    private static void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(models.size());
+        for (Map.Entry<String, Model> e : models.entrySet()) {
+            Model m = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeBoolean(m.ready);
+            out.writeDouble(m.level);
+            out.writeDouble(m.trend);
+            for (double s : m.season) out.writeDouble(s);
+            out.writeDouble(m.variance);
+            out.writeLong(m.count);
+            out.writeLong(m.lastHour);
+            out.writeInt(m.warmupCount);
+            for (int w = 0; w < m.warmupCount; w++) out.writeDouble(m.warmup[w]);
+        }
+    }
+}
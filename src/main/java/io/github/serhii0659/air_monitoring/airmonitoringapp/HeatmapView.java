@@ -0,0 +1,163 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.IntFunction;
+
+/**
+ * Dense grid heatmap drawn on a Canvas (same approach as WindowIcons, no node per cell).
+ *
+ * Cell colors are written into one ARGB image of cols x rows pixels, which is scaled to the
+ * plot area with a single drawImage call. Hover lookup is pure arithmetic on the regular
+ * grid (the grid is its own spatial index), and one shared Tooltip is moved around.
+ */
+public final class HeatmapView extends Pane {
+    private static final double LEFT = 190;
+    private static final double TOP = 26;
+    private static final double RIGHT = 10;
+    private static final double BOTTOM = 10;
+    private static final Color BACKGROUND = Color.web("#1a1f3a");
+    private static final Color TEXT = Color.web("#a8b2c1");
+
+    /**
+     * Tooltip text of a cell, or null when the cell has no data
+     */
+    public interface CellText {
+        String text(int row, int col);
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+    private int rows;
+    private int cols;
+    private WritableImage image;
+    private String[] rowLabels = new String[0];
+    private IntFunction<String> columnLabel = String::valueOf;
+    private int columnTickStep = 1;
+    private CellText cellText = (r, c) -> null;
+    private long lastRenderNanos;
+    private int hoverRow = -1;
+    private int hoverCol = -1;
+
+    public HeatmapView() {
+        getChildren().add(canvas);
+        canvas.setOnMouseMoved(e -> onHover(e.getX(), e.getY(), e.getScreenX(), e.getScreenY()));
+        canvas.setOnMouseExited(e -> {
+            hoverRow = hoverCol = -1;
+            tooltip.hide();
+        });
+    }
+
+    /**
+     * @param argb        cell colors, row-major (rows x cols); alpha 0 = no data
+     * @param rowLabels   one label per row
+     * @param columnLabel axis label of a column (drawn every columnTickStep columns)
+     */
+    public void setData(int rows, int cols, int[] argb, String[] rowLabels,
+                        IntFunction<String> columnLabel, int columnTickStep, CellText cellText) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowLabels = rowLabels;
+        this.columnLabel = columnLabel;
+        this.columnTickStep = Math.max(1, columnTickStep);
+        this.cellText = cellText;
+
+        if (rows > 0 && cols > 0) {
+            image = new WritableImage(cols, rows);
+            image.getPixelWriter().setPixels(0, 0, cols, rows, PixelFormat.getIntArgbInstance(), argb, 0, cols);
+        } else {
+            image = null;
+        }
+        redraw();
+    }
+
+    public long getLastRenderMillis() {
+        return lastRenderNanos / 1_000_000;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (canvas.getWidth() != getWidth() || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            redraw();
+        }
+    }
+
+    private void redraw() {
+        long started = System.nanoTime();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, w, h);
+        if (image == null || w <= LEFT + RIGHT || h <= TOP + BOTTOM) return;
+
+        double plotW = w - LEFT - RIGHT;
+        double plotH = h - TOP - BOTTOM;
+        double cellW = plotW / cols;
+        double cellH = plotH / rows;
+
+        // Nearest-neighbour when cells are larger than a pixel, averaging when squeezed
+        gc.setImageSmoothing(cellW < 1 || cellH < 1);
+        gc.drawImage(image, LEFT, TOP, plotW, plotH);
+
+        gc.setFont(Font.font(11));
+        gc.setFill(TEXT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        int rowStep = (int) Math.ceil(12 / cellH);
+        for (int r = 0; r < rows; r += rowStep) {
+            gc.fillText(rowLabels[r], LEFT - 6, TOP + (r + 0.5) * cellH, LEFT - 10);
+        }
+
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.BOTTOM);
+        gc.setStroke(TEXT);
+        double lastLabelEnd = -1;
+        for (int c = 0; c < cols; c += columnTickStep) {
+            double x = LEFT + c * cellW;
+            gc.strokeLine(x, TOP - 4, x, TOP);
+            if (x > lastLabelEnd) {
+                String label = columnLabel.apply(c);
+                gc.fillText(label, x + 2, TOP - 4);
+                lastLabelEnd = x + label.length() * 7 + 8;
+            }
+        }
+        lastRenderNanos = System.nanoTime() - started;
+    }
+
+    private void onHover(double x, double y, double screenX, double screenY) {
+        if (image == null) return;
+        double plotW = canvas.getWidth() - LEFT - RIGHT;
+        double plotH = canvas.getHeight() - TOP - BOTTOM;
+        int col = (int) Math.floor((x - LEFT) / plotW * cols);
+        int row = (int) Math.floor((y - TOP) / plotH * rows);
+
+        if (x < LEFT || y < TOP || col >= cols || row >= rows) {
+            hoverRow = hoverCol = -1;
+            tooltip.hide();
+            return;
+        }
+        if (row == hoverRow && col == hoverCol) return;
+        hoverRow = row;
+        hoverCol = col;
+
+        String text = cellText.text(row, col);
+        if (text == null) {
+            tooltip.hide();
+            return;
+        }
+        tooltip.setText(text);
+        tooltip.show(canvas, screenX + 12, screenY + 12);
+    }
+}
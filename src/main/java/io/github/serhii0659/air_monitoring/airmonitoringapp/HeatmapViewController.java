@@ -0,0 +1,206 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Station x hour heatmap of one parameter, colored by Optimal_Value categories.
+ * All cells come from one grouped hourly query and are drawn by HeatmapView.
+ */
+public class HeatmapViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> unitCombo;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private HeatmapView heatmap;
+    @FXML private Label infoLabel;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM");
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:00");
+
+    @FXML
+    private void initialize() {
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusDays(90));
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Теплова карта станція × година", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                ObservableList<TimeSeriesViewController.Option> units = FXCollections.observableArrayList();
+                try (PreparedStatement ps = DbManager.getConnection().prepareStatement(
+                        "SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        units.add(new TimeSeriesViewController.Option(rs.getString(1).trim(), rs.getString(2)));
+                    }
+                }
+                Platform.runLater(() -> {
+                    unitCombo.setItems(units);
+                    units.stream().filter(u -> "PM2.5".equals(u.getLabel())).findFirst()
+                            .ifPresentOrElse(unitCombo::setValue, () -> unitCombo.getSelectionModel().selectFirst());
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження параметрів: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onLoadData() {
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (unit == null || startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть параметр та обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Завантаження даних...");
+        new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                Grid grid = loadGrid(unit.getId(), startDate, endDate);
+                long queryMillis = System.currentTimeMillis() - started;
+
+                Platform.runLater(() -> {
+                    LocalDateTime origin = startDate.atStartOfDay();
+                    heatmap.setData(grid.stations.length, grid.hours, grid.argb, grid.stations,
+                            c -> DAY_FORMAT.format(origin.plusHours(c)), 24,
+                            (r, c) -> {
+                                double v = grid.values[r * grid.hours + c];
+                                if (Double.isNaN(v)) return null;
+                                return grid.stations[r] + "\n" + HOUR_FORMAT.format(origin.plusHours(c))
+                                        + "\n" + unit.getLabel() + ": " + String.format("%.2f", v)
+                                        + "\n" + grid.categories.designationOf(unit.getId(), v);
+                            });
+                    infoLabel.setText(String.format("✓ %d станцій × %d год = %,d клітинок │ запит %d мс │ малювання %d мс",
+                            grid.stations.length, grid.hours, (long) grid.stations.length * grid.hours,
+                            queryMillis, heatmap.getLastRenderMillis()));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private Grid loadGrid(String unitId, LocalDate startDate, LocalDate endDate) throws Exception {
+        Connection conn = DbManager.getConnection();
+        if (conn == null) throw new Exception("Немає з'єднання з БД");
+
+        LocalDateTime origin = startDate.atStartOfDay();
+        int hours = (int) ChronoUnit.HOURS.between(origin, endDate.plusDays(1).atStartOfDay());
+
+        // Station order follows the station list; only stations with data get a row
+        Map<String, String> stationNames = new LinkedHashMap<>();
+        try (ResultSet rs = DbManager.getAllStations()) {
+            while (rs.next()) {
+                stationNames.put(rs.getString("ID_Station").trim(), rs.getString("Name") + " (" + rs.getString("City") + ")");
+            }
+        }
+
+        String sql = """
+            SELECT ID_Station, date_trunc('hour', Time) AS hour, AVG(Value) AS avg_value
+            FROM Measurment
+            WHERE ID_Measured_Unit = ? AND Time >= ? AND Time < ?
+            GROUP BY ID_Station, date_trunc('hour', Time)
+            """;
+        Map<String, double[]> byStation = new LinkedHashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, unitId);
+            ps.setTimestamp(2, Timestamp.valueOf(origin));
+            ps.setTimestamp(3, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double[] row = byStation.computeIfAbsent(rs.getString(1).trim(), k -> {
+                        double[] empty = new double[hours];
+                        Arrays.fill(empty, Double.NaN);
+                        return empty;
+                    });
+                    int col = (int) ChronoUnit.HOURS.between(origin, rs.getTimestamp(2).toLocalDateTime());
+                    if (col >= 0 && col < hours) row[col] = rs.getDouble(3);
+                }
+            }
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (String id : stationNames.keySet()) if (byStation.containsKey(id)) ids.add(id);
+        for (String id : byStation.keySet()) if (!stationNames.containsKey(id)) ids.add(id);
+
+        Grid grid = new Grid();
+        grid.categories = AirQualityCategories.load(conn);
+        grid.hours = hours;
+        grid.stations = new String[ids.size()];
+        grid.values = new double[ids.size() * hours];
+        grid.argb = new int[ids.size() * hours];
+
+        // Colors are resolved once per distinct category, not per cell
+        Map<Color, Integer> argbCache = new LinkedHashMap<>();
+        for (int r = 0; r < ids.size(); r++) {
+            String id = ids.get(r);
+            grid.stations[r] = stationNames.getOrDefault(id, id);
+            double[] row = byStation.get(id);
+            System.arraycopy(row, 0, grid.values, r * hours, hours);
+            for (int c = 0; c < hours; c++) {
+                if (Double.isNaN(row[c])) continue;
+                Color color = grid.categories.colorOf(unitId, row[c]);
+                grid.argb[r * hours + c] = argbCache.computeIfAbsent(color, HeatmapViewController::toArgb);
+            }
+        }
+        return grid;
+    }
+
+    static int toArgb(Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24)
+                | ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8)
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    private static class Grid {
+        String[] stations;
+        int hours;
+        double[] values;
+        int[] argb;
+        AirQualityCategories categories;
+    }
+}
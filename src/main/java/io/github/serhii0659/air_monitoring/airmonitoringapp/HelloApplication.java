@@ -18,6 +18,13 @@ public class HelloApplication extends Application {
         showLoginWindow();
     }
 
+    @Override
+    public void stop() {
+        // Watermarks advanced by cache hits are only marked dirty
+        ReportCache.flush();
+        SeriesCache.flush();
+    }
+
     public static void showLoginWindow() {
         Stage oldStage = primaryStage;
         primaryStage = new Stage();
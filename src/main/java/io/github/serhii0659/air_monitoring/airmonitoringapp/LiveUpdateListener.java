@@ -0,0 +1,185 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes newly inserted Measurment rows to open views.
+ *
+ * A statement-level trigger on Measurment (see README) sends the inserted rows with
+ * pg_notify('measurment_insert', ...) as lines "id,station,unit,yyyy-MM-dd HH:mm:ss,value".
+ * This class LISTENs on a dedicated connection and delivers parsed rows to subscribers
+ * on the JavaFX thread, so views can update their aggregates without re-running queries.
+ */
+public final class LiveUpdateListener {
+    public static final String CHANNEL = "measurment_insert";
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private static Listener listener;
+
+    private LiveUpdateListener() {}
+
+    /**
+     * Receives new rows on the JavaFX thread
+     */
+    public interface Subscriber {
+        void onMeasurements(List<Measurement> rows);
+    }
+
+    public static class Measurement {
+        private final long id;
+        private final String stationId;
+        private final String unitId;
+        private final LocalDateTime time;
+        private final double value;
+        private final String valueText;
+
+        Measurement(long id, String stationId, String unitId, LocalDateTime time, double value, String valueText) {
+            this.id = id;
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.time = time;
+            this.value = value;
+            this.valueText = valueText;
+        }
+
+        public long getId() { return id; }
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public LocalDateTime getTime() { return time; }
+        public double getValue() { return value; }
+        public String getValueText() { return valueText; }
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigManager.getProperty("live.updates.enabled", "true"));
+    }
+
+    public static synchronized void start() {
+        if (listener != null || !isEnabled()) return;
+        listener = new Listener();
+        Thread thread = new Thread(listener, "live-updates");
+        thread.setDaemon(true);
+        listener.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the current listener thread; closing its connection also ends a pending
+     * getNotifications() wait, so a following start() never overlaps with it
+     */
+    public static synchronized void stop() {
+        if (listener != null) {
+            listener.stop();
+            listener = null;
+        }
+    }
+
+    public static void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public static void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * One listener thread with its own running flag and connection
+     */
+    private static class Listener implements Runnable {
+        private volatile boolean running = true;
+        private volatile Connection connection;
+        private Thread thread;
+
+        void stop() {
+            running = false;
+            Connection conn = connection;
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Live-оновлення: помилка закриття з'єднання: " + e.getMessage());
+                }
+            }
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try (Connection conn = DbManager.openDedicatedConnection()) {
+                    connection = conn;
+                    if (!running) break; // stop() came before the connection was published
+                    try (Statement st = conn.createStatement()) {
+                        st.execute("LISTEN " + CHANNEL);
+                    }
+                    PGConnection pg = conn.unwrap(PGConnection.class);
+                    System.out.println("Live-оновлення: підписано на канал " + CHANNEL);
+
+                    while (running) {
+                        PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                        if (!running) break;
+                        if (notifications == null || notifications.length == 0) continue;
+
+                        List<Measurement> rows = new ArrayList<>();
+                        for (PGNotification n : notifications) {
+                            parsePayload(n.getParameter(), rows);
+                        }
+                        if (!rows.isEmpty() && !subscribers.isEmpty()) {
+                            Platform.runLater(() -> {
+                                for (Subscriber s : subscribers) {
+                                    s.onMeasurements(rows);
+                                }
+                            });
+                        }
+                    }
+                } catch (SQLException e) {
+                    if (!running) break;
+                    System.err.println("Live-оновлення: з'єднання втрачено (" + e.getMessage() + "), повтор через "
+                            + RECONNECT_DELAY_MS / 1000 + " с");
+                    try {
+                        Thread.sleep(RECONNECT_DELAY_MS);
+                    } catch (InterruptedException ie) {
+                        break;
+                    }
+                } finally {
+                    connection = null;
+                }
+            }
+        }
+    }
+
+    static void parsePayload(String payload, List<Measurement> out) {
+        if (payload == null) return;
+        for (String line : payload.split("\n")) {
+            String[] parts = line.split(",", -1);
+            if (parts.length < 5) continue;
+            try {
+                String valueText = parts[4].trim();
+                out.add(new Measurement(
+                        Long.parseLong(parts[0].trim()),
+                        parts[1].trim(),
+                        parts[2].trim(),
+                        LocalDateTime.parse(parts[3].trim(), TIME),
+                        Double.parseDouble(valueText),
+                        valueText));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                System.err.println("Live-оновлення: некоректний рядок '" + line + "'");
+            }
+        }
+    }
+}
@@ -89,6 +89,8 @@ public class LoginController {
         statusLabel.getStyleClass().add("label-success");
 
         HelloApplication.setCurrentUsername(userInput);
+        ReportScheduler.start();
+        LiveUpdateListener.start();
         HelloApplication.showDataWindow();
     }
 
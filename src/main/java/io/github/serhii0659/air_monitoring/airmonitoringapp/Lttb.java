@@ -0,0 +1,88 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ *
+ * Keeps the first and last point and, for each of the (threshold - 2) buckets in between,
+ * the point forming the largest triangle with the previously selected point and the
+ * average of the next bucket. Preserves peaks and shape far better than averaging,
+ * at O(n) cost.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Indices of the points to keep from x[from..to) / y[from..to), in ascending order.
+     * x must be sorted ascending. Returns all indices if the range has at most threshold points.
+     */
+    public static int[] downsample(long[] x, double[] y, int from, int to, int threshold) {
+        int n = to - from;
+        if (n <= 0) return new int[0];
+        if (threshold < 3 || n <= threshold) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = from + i;
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+
+        int a = from;
+        selected[count++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = from + 1 + (int) Math.floor((bucket + 1) * bucketSize);
+            int nextEnd = Math.min(from + 1 + (int) Math.floor((bucket + 2) * bucketSize), to);
+            if (nextStart >= to - 1) {
+                nextStart = to - 1;
+                nextEnd = to;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Point of the current bucket with the largest triangle area
+            int start = from + 1 + (int) Math.floor(bucket * bucketSize);
+            int end = from + 1 + (int) Math.floor((bucket + 1) * bucketSize);
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected[count++] = maxIndex;
+            a = maxIndex;
+        }
+
+        selected[count++] = to - 1;
+        return count == selected.length ? selected : java.util.Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * First index in sorted x with x[i] >= value (x.length if none)
+     */
+    public static int lowerBound(long[] x, int length, long value) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (x[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,377 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed block of measurements of one station (used by MeasurementCache).
+ *
+ * Layout: header with row count, min/max time and id, and per-unit count/sum/min/max,
+ * followed by a bit-packed payload:
+ * - ids and times: delta-of-delta, zigzag, variable width buckets (regular series cost 1 bit/row)
+ * - unit ids: dictionary codes of fixed width
+ * - values: Gorilla XOR against the previous value of the same unit
+ *
+ * Aggregates over blocks lying completely inside a period are answered from the header only.
+ */
+public final class MeasurementBlock {
+    public static final int MAX_ROWS = 8192;
+
+    private MeasurementBlock() {}
+
+    /**
+     * Block header: what can be answered without decoding the payload
+     */
+    public static class Header {
+        int rowCount;
+        long minTime;
+        long maxTime;
+        long minId;
+        long maxId;
+        String[] units;
+        int[] unitCount;
+        double[] unitSum;
+        double[] unitMin;
+        double[] unitMax;
+        int payloadOffset;  // absolute position of the payload in the buffer
+        int payloadLength;
+
+        public int getRowCount() { return rowCount; }
+        public long getMinTime() { return minTime; }
+        public long getMaxTime() { return maxTime; }
+        public long getMinId() { return minId; }
+        public long getMaxId() { return maxId; }
+    }
+
+    /**
+     * Decoded columns; arrays are reused between blocks
+     */
+    public static class Columns {
+        long[] ids = new long[MAX_ROWS];
+        long[] times = new long[MAX_ROWS];
+        short[] units = new short[MAX_ROWS];
+        double[] values = new double[MAX_ROWS];
+        int size;
+    }
+
+    /**
+     * Encode rows [offset, offset + count) into a block (without the length prefix)
+     */
+    public static byte[] encode(long[] ids, long[] times, short[] units, double[] values,
+                                List<String> dict, int offset, int count) throws IOException {
+        if (count <= 0 || count > MAX_ROWS) throw new IllegalArgumentException("Неприпустимий розмір блоку: " + count);
+
+        int unitCount = dict.size();
+        int[] unitRows = new int[unitCount];
+        double[] unitSum = new double[unitCount];
+        double[] unitMin = new double[unitCount];
+        double[] unitMax = new double[unitCount];
+        Arrays.fill(unitMin, Double.MAX_VALUE);
+        Arrays.fill(unitMax, -Double.MAX_VALUE);
+
+        long minTime = Long.MAX_VALUE, maxTime = Long.MIN_VALUE;
+        long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE;
+
+        BitWriter bits = new BitWriter(count * 4 + 64);
+        int unitBits = bitsFor(unitCount);
+        long prevId = 0, prevIdDelta = 0;
+        long[] prevTime = new long[unitCount];
+        long[] prevTimeDelta = new long[unitCount];
+        long[] prevValue = new long[unitCount];
+        int[] prevLeading = new int[unitCount];
+        int[] prevTrailing = new int[unitCount];
+        boolean[] seen = new boolean[unitCount];
+        Arrays.fill(prevLeading, -1);
+
+        for (int i = offset; i < offset + count; i++) {
+            long id = ids[i];
+            long time = times[i];
+            int unit = units[i];
+            double value = values[i];
+
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+            unitRows[unit]++;
+            unitSum[unit] += value;
+            unitMin[unit] = Math.min(unitMin[unit], value);
+            unitMax[unit] = Math.max(unitMax[unit], value);
+
+            // Ids (whole block is one sequence)
+            if (i == offset) {
+                bits.write(id, 64);
+            } else {
+                long idDelta = id - prevId;
+                writeDeltaOfDelta(bits, idDelta - prevIdDelta);
+                prevIdDelta = idDelta;
+            }
+            prevId = id;
+
+            // Unit code, then time and value continue the series of the same unit
+            bits.write(unit, unitBits);
+
+            long raw = Double.doubleToRawLongBits(value);
+            if (!seen[unit]) {
+                bits.write(time, 64);
+                bits.write(raw, 64);
+                seen[unit] = true;
+            } else {
+                long timeDelta = time - prevTime[unit];
+                writeDeltaOfDelta(bits, timeDelta - prevTimeDelta[unit]);
+                prevTimeDelta[unit] = timeDelta;
+
+                long xor = raw ^ prevValue[unit];
+                if (xor == 0) {
+                    bits.write(0, 1);
+                } else {
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (prevLeading[unit] >= 0 && leading >= prevLeading[unit] && trailing >= prevTrailing[unit]) {
+                        // Fits into previous meaningful window
+                        bits.write(0b10, 2);
+                        int meaningful = 64 - prevLeading[unit] - prevTrailing[unit];
+                        bits.write(xor >>> prevTrailing[unit], meaningful);
+                    } else {
+                        int meaningful = 64 - leading - trailing;
+                        bits.write(0b11, 2);
+                        bits.write(leading, 5);
+                        bits.write(meaningful - 1, 6);
+                        bits.write(xor >>> trailing, meaningful);
+                        prevLeading[unit] = leading;
+                        prevTrailing[unit] = trailing;
+                    }
+                }
+            }
+            prevTime[unit] = time;
+            prevValue[unit] = raw;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(bits.byteLength() + 64 + unitCount * 40);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(count);
+        out.writeLong(minTime);
+        out.writeLong(maxTime);
+        out.writeLong(minId);
+        out.writeLong(maxId);
+        out.writeShort(unitCount);
+        for (int u = 0; u < unitCount; u++) {
+            byte[] name = dict.get(u).getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeInt(unitRows[u]);
+            out.writeDouble(unitSum[u]);
+            out.writeDouble(unitMin[u]);
+            out.writeDouble(unitMax[u]);
+        }
+        out.writeInt(bits.byteLength());
+        out.write(bits.buffer(), 0, bits.byteLength());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read header of the block starting at position (buffer position is not changed)
+     */
+    public static Header readHeader(ByteBuffer buf, int position) {
+        ByteBuffer b = buf.duplicate();
+        b.position(position);
+        Header h = new Header();
+        h.rowCount = b.getInt();
+        h.minTime = b.getLong();
+        h.maxTime = b.getLong();
+        h.minId = b.getLong();
+        h.maxId = b.getLong();
+        int unitCount = b.getShort();
+        h.units = new String[unitCount];
+        h.unitCount = new int[unitCount];
+        h.unitSum = new double[unitCount];
+        h.unitMin = new double[unitCount];
+        h.unitMax = new double[unitCount];
+        for (int u = 0; u < unitCount; u++) {
+            byte[] name = new byte[b.getShort()];
+            b.get(name);
+            h.units[u] = new String(name, StandardCharsets.UTF_8);
+            h.unitCount[u] = b.getInt();
+            h.unitSum[u] = b.getDouble();
+            h.unitMin[u] = b.getDouble();
+            h.unitMax[u] = b.getDouble();
+        }
+        h.payloadLength = b.getInt();
+        h.payloadOffset = b.position();
+        return h;
+    }
+
+    /**
+     * Total block size in bytes given its header
+     */
+    public static int blockLength(Header h, int blockStart) {
+        return h.payloadOffset + h.payloadLength - blockStart;
+    }
+
+    public static void decode(ByteBuffer buf, Header h, Columns out) {
+        BitReader bits = new BitReader(buf, h.payloadOffset);
+        int unitCount = h.units.length;
+        int unitBits = bitsFor(unitCount);
+        long prevId = 0, prevIdDelta = 0;
+        long[] prevTime = new long[unitCount];
+        long[] prevTimeDelta = new long[unitCount];
+        long[] prevValue = new long[unitCount];
+        int[] prevLeading = new int[unitCount];
+        int[] prevTrailing = new int[unitCount];
+        boolean[] seen = new boolean[unitCount];
+
+        for (int i = 0; i < h.rowCount; i++) {
+            long id;
+            if (i == 0) {
+                id = bits.read(64);
+            } else {
+                prevIdDelta += readDeltaOfDelta(bits);
+                id = prevId + prevIdDelta;
+            }
+            prevId = id;
+
+            int unit = (int) bits.read(unitBits);
+
+            long time;
+            long raw;
+            if (!seen[unit]) {
+                time = bits.read(64);
+                raw = bits.read(64);
+                seen[unit] = true;
+            } else {
+                prevTimeDelta[unit] += readDeltaOfDelta(bits);
+                time = prevTime[unit] + prevTimeDelta[unit];
+                raw = readValue(bits, unit, prevValue, prevLeading, prevTrailing);
+            }
+            prevTime[unit] = time;
+            prevValue[unit] = raw;
+
+            out.ids[i] = id;
+            out.times[i] = time;
+            out.units[i] = (short) unit;
+            out.values[i] = Double.longBitsToDouble(raw);
+        }
+        out.size = h.rowCount;
+    }
+
+    /**
+     * Read Gorilla XOR encoded value of a unit (updates the unit's meaningful window)
+     */
+    private static long readValue(BitReader bits, int unit, long[] prevValue, int[] prevLeading, int[] prevTrailing) {
+        if (bits.read(1) == 0) {
+            return prevValue[unit];
+        }
+        if (bits.read(1) == 0) {
+            int meaningful = 64 - prevLeading[unit] - prevTrailing[unit];
+            return prevValue[unit] ^ (bits.read(meaningful) << prevTrailing[unit]);
+        }
+        int leading = (int) bits.read(5);
+        int meaningful = (int) bits.read(6) + 1;
+        int trailing = 64 - leading - meaningful;
+        prevLeading[unit] = leading;
+        prevTrailing[unit] = trailing;
+        return prevValue[unit] ^ (bits.read(meaningful) << trailing);
+    }
+
+    // ---- Delta-of-delta buckets: 0 | 10+16 | 110+24 | 1110+32 | 1111+64 bits (zigzag) ----
+
+    private static void writeDeltaOfDelta(BitWriter bits, long dod) {
+        long z = (dod << 1) ^ (dod >> 63);
+        if (z == 0) {
+            bits.write(0, 1);
+        } else if (z < (1L << 16)) {
+            bits.write(0b10, 2);
+            bits.write(z, 16);
+        } else if (z < (1L << 24)) {
+            bits.write(0b110, 3);
+            bits.write(z, 24);
+        } else if (z < (1L << 32)) {
+            bits.write(0b1110, 4);
+            bits.write(z, 32);
+        } else {
+            bits.write(0b1111, 4);
+            bits.write(z, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader bits) {
+        long z;
+        if (bits.read(1) == 0) {
+            z = 0;
+        } else if (bits.read(1) == 0) {
+            z = bits.read(16);
+        } else if (bits.read(1) == 0) {
+            z = bits.read(24);
+        } else if (bits.read(1) == 0) {
+            z = bits.read(32);
+        } else {
+            z = bits.read(64);
+        }
+        return (z >>> 1) ^ -(z & 1);
+    }
+
+    private static int bitsFor(int count) {
+        return count <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(count - 1);
+    }
+
+    // ---- Bit streams ----
+
+    private static class BitWriter {
+        private byte[] buf;
+        private long bitPos;
+
+        BitWriter(int initialBytes) {
+            buf = new byte[Math.max(16, initialBytes)];
+        }
+
+        /**
+         * Write the low n bits of value, most significant first
+         */
+        void write(long value, int n) {
+            for (int remaining = n; remaining > 0; ) {
+                int byteIndex = (int) (bitPos >>> 3);
+                if (byteIndex >= buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                int free = 8 - (int) (bitPos & 7);
+                int take = Math.min(free, remaining);
+                int chunk = (int) ((value >>> (remaining - take)) & ((1 << take) - 1));
+                buf[byteIndex] |= (byte) (chunk << (free - take));
+                remaining -= take;
+                bitPos += take;
+            }
+        }
+
+        int byteLength() { return (int) ((bitPos + 7) >>> 3); }
+
+        byte[] buffer() { return buf; }
+    }
+
+    private static class BitReader {
+        private final ByteBuffer buf;
+        private long bitPos;
+
+        BitReader(ByteBuffer buf, int byteOffset) {
+            this.buf = buf;
+            this.bitPos = (long) byteOffset << 3;
+        }
+
+        long read(int n) {
+            long result = 0;
+            for (int remaining = n; remaining > 0; ) {
+                int current = buf.get((int) (bitPos >>> 3)) & 0xFF;
+                int available = 8 - (int) (bitPos & 7);
+                int take = Math.min(available, remaining);
+                int chunk = (current >>> (available - take)) & ((1 << take) - 1);
+                result = (result << take) | chunk;
+                remaining -= take;
+                bitPos += take;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Local per-user cache of Measurment rows.
+ *
+ * Each station has its own file of compressed MeasurementBlock's in
+ * measurement-cache/<db>/ inside the app data dir, read through memory-mapped channels.
+ * A mapping cannot be released explicitly and blocks truncating or deleting the file on
+ * Windows, so sync() reads the watermark with plain channel reads and repairs the file
+ * before anything maps it.
+ * Historical rows never change and ID_Measurment only grows, so sync() only fetches rows with
+ * an id above the station watermark (max ID_Measurment from block headers) and appends them
+ * as new blocks; the id range alone lets PostgreSQL walk the primary key.
+ * Station and unit names are kept in meta.properties so cached data can be analysed
+ * without the database.
+ *
+ * Enabled with measurement.cache.enabled=true in config.properties.
+ */
+public final class MeasurementCache {
+    private static final int MAGIC = 0x4D434F4C; // "MCOL"
+    private static final int VERSION = 2;
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int HEADER_PROBE_BYTES = 4096; // block headers with a few units fit into this
+    private static final int SEGMENT_ROWS = MeasurementBlock.MAX_ROWS;
+    private static final int FETCH_SIZE = 10_000;
+    private static final String META_FILE = "meta.properties";
+
+    private MeasurementCache() {}
+
+    /**
+     * Receives cached rows; unitId strings are shared dictionary entries
+     */
+    public interface RowConsumer {
+        void accept(long id, long time, String unitId, double value);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigManager.getProperty("measurement.cache.enabled", "false"));
+    }
+
+    /**
+     * Fetch rows newer than the station watermark and append them to the station file
+     *
+     * @return number of new rows
+     */
+    public static synchronized int sync(String stationId) throws SQLException, IOException {
+        File file = stationFile(stationId);
+        long watermark = readWatermark(file);
+        long started = System.currentTimeMillis();
+        int total = 0;
+
+        String sql = "SELECT ID_Measurment, ID_Measured_Unit, Time, Value FROM Measurment " +
+                "WHERE ID_Measurment > ? AND ID_Station = ? " +
+                "ORDER BY ID_Measurment";
+
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, watermark);
+                ps.setString(2, stationId);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    Segment segment = new Segment();
+                    while (rs.next()) {
+                        Timestamp time = rs.getTimestamp(3);
+                        if (time == null) continue;
+                        segment.add(rs.getLong(1), time.getTime(), rs.getString(2).trim(), rs.getDouble(4));
+                        if (segment.size == SEGMENT_ROWS) {
+                            total += segment.size;
+                            appendSegment(file, segment);
+                            segment = new Segment();
+                        }
+                    }
+                    if (segment.size > 0) {
+                        total += segment.size;
+                        appendSegment(file, segment);
+                    }
+                }
+            }
+            conn.commit();
+            if (total > 0 || !new File(cacheDir(), META_FILE).exists()) {
+                refreshMetadata(conn);
+            }
+        }
+
+        if (total > 0) {
+            System.out.printf("Кеш вимірювань: станція %s +%,d рядків за %d мс%n",
+                    stationId, total, System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+
+    public static int syncAll(List<String> stationIds) throws SQLException, IOException {
+        int total = 0;
+        for (String stationId : stationIds) {
+            total += sync(stationId);
+        }
+        return total;
+    }
+
+    /**
+     * Read cached rows of a station with fromMillis <= time <= toMillis.
+     * Blocks outside the period are skipped using their headers.
+     */
+    public static void scan(String stationId, long fromMillis, long toMillis, RowConsumer consumer) throws IOException {
+        ByteBuffer buf = mapStationFile(stationFile(stationId));
+        if (buf == null) return;
+
+        MeasurementBlock.Columns columns = new MeasurementBlock.Columns();
+        for (int pos = FILE_HEADER_BYTES; pos + 4 <= buf.limit(); ) {
+            int length = buf.getInt(pos);
+            if (pos + 4 + length > buf.limit()) break;
+            MeasurementBlock.Header header = MeasurementBlock.readHeader(buf, pos + 4);
+            pos += 4 + length;
+
+            if (header.maxTime < fromMillis || header.minTime > toMillis) continue;
+
+            MeasurementBlock.decode(buf, header, columns);
+            for (int i = 0; i < columns.size; i++) {
+                long time = columns.times[i];
+                if (time >= fromMillis && time <= toMillis) {
+                    consumer.accept(columns.ids[i], time, header.units[columns.units[i]], columns.values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-unit count/sum/min/max of a station within the period. Blocks lying completely
+     * inside the period are answered from their headers without decoding.
+     */
+    public static Map<String, UnitStats> aggregate(String stationId, long fromMillis, long toMillis) throws IOException {
+        Map<String, UnitStats> result = new HashMap<>();
+        ByteBuffer buf = mapStationFile(stationFile(stationId));
+        if (buf == null) return result;
+
+        MeasurementBlock.Columns columns = new MeasurementBlock.Columns();
+        for (int pos = FILE_HEADER_BYTES; pos + 4 <= buf.limit(); ) {
+            int length = buf.getInt(pos);
+            if (pos + 4 + length > buf.limit()) break;
+            MeasurementBlock.Header header = MeasurementBlock.readHeader(buf, pos + 4);
+            pos += 4 + length;
+
+            if (header.maxTime < fromMillis || header.minTime > toMillis) continue;
+
+            if (header.minTime >= fromMillis && header.maxTime <= toMillis) {
+                for (int u = 0; u < header.units.length; u++) {
+                    if (header.unitCount[u] == 0) continue;
+                    UnitStats stats = result.computeIfAbsent(header.units[u], k -> new UnitStats());
+                    stats.count += header.unitCount[u];
+                    stats.sum += header.unitSum[u];
+                    stats.min = Math.min(stats.min, header.unitMin[u]);
+                    stats.max = Math.max(stats.max, header.unitMax[u]);
+                }
+                continue;
+            }
+
+            // Block crosses the period boundary - decode it
+            MeasurementBlock.decode(buf, header, columns);
+            for (int i = 0; i < columns.size; i++) {
+                long time = columns.times[i];
+                if (time < fromMillis || time > toMillis) continue;
+                UnitStats stats = result.computeIfAbsent(header.units[columns.units[i]], k -> new UnitStats());
+                double value = columns.values[i];
+                stats.count++;
+                stats.sum += value;
+                stats.min = Math.min(stats.min, value);
+                stats.max = Math.max(stats.max, value);
+            }
+        }
+        return result;
+    }
+
+    public static class UnitStats {
+        private long count;
+        private double sum;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+
+        public long getCount() { return count; }
+        public double getSum() { return sum; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getAverage() { return count > 0 ? sum / count : 0; }
+    }
+
+    /**
+     * Station ids, names, cities and unit titles as of the last sync
+     */
+    public static Properties getMetadata() {
+        Properties props = new Properties();
+        File file = new File(cacheDir(), META_FILE);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("Помилка читання метаданих кешу: " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    public static List<String> getStationIds() {
+        List<String> ids = new ArrayList<>();
+        for (String key : getMetadata().stringPropertyNames()) {
+            if (key.startsWith("station.") && key.endsWith(".name")) {
+                ids.add(key.substring(8, key.length() - 5));
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    public static synchronized void clear() {
+        File[] files = cacheDir().listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            if (!f.delete()) System.err.println("Не вдалося видалити " + f.getName());
+        }
+    }
+
+    // ---- File format ----
+
+    /**
+     * Rows collected for one block. Unit ids are dictionary-coded per block.
+     */
+    private static class Segment {
+        long[] ids = new long[1024];
+        long[] times = new long[1024];
+        short[] units = new short[1024];
+        double[] values = new double[1024];
+        List<String> dict = new ArrayList<>();
+        Map<String, Short> codes = new HashMap<>();
+        int size;
+
+        void add(long id, long time, String unitId, double value) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                times = Arrays.copyOf(times, capacity);
+                units = Arrays.copyOf(units, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            Short code = codes.get(unitId);
+            if (code == null) {
+                code = (short) dict.size();
+                dict.add(unitId);
+                codes.put(unitId, code);
+            }
+            ids[size] = id;
+            times[size] = time;
+            units[size] = code;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    private static void appendSegment(File file, Segment segment) throws IOException {
+        boolean isNew = !file.exists() || file.length() == 0;
+        byte[] block = MeasurementBlock.encode(segment.ids, segment.times, segment.units, segment.values,
+                segment.dict, 0, segment.size);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file, true), 1 << 16))) {
+            if (isNew) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            }
+            out.writeInt(block.length);
+            out.write(block);
+        }
+    }
+
+    /**
+     * Memory-map station file read-only, or null if there is no cache for it.
+     * The file header is checked before mapping, so a file of an old format is never mapped.
+     */
+    private static ByteBuffer mapStationFile(File file) throws IOException {
+        if (!file.exists()) return null;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            checkFileHeader(channel, file);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void checkFileHeader(FileChannel channel, File file) throws IOException {
+        ByteBuffer header = read(channel, 0, FILE_HEADER_BYTES);
+        if (header.limit() < FILE_HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Невідомий формат файлу кешу " + file.getName());
+        }
+    }
+
+    /**
+     * Up to length bytes at position (fewer at the end of the file)
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) break;
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Max ID in the station file, read from block headers only without mapping the file.
+     * A block cut off by a crash is truncated away; files of an old format are dropped.
+     */
+    private static long readWatermark(File file) throws IOException {
+        if (!file.exists()) return 0;
+        long maxId = 0;
+        long validLength = FILE_HEADER_BYTES;
+        long fileLength;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            checkFileHeader(channel, file);
+            fileLength = channel.size();
+            for (long pos = FILE_HEADER_BYTES; pos + 4 <= fileLength; ) {
+                int length = read(channel, pos, 4).getInt(0);
+                if (length < 0 || pos + 4 + length > fileLength) break; // Incomplete last block
+                MeasurementBlock.Header header;
+                try {
+                    header = MeasurementBlock.readHeader(read(channel, pos + 4, Math.min(length, HEADER_PROBE_BYTES)), 0);
+                } catch (BufferUnderflowException e) {
+                    header = MeasurementBlock.readHeader(read(channel, pos + 4, length), 0);
+                }
+                maxId = Math.max(maxId, header.maxId);
+                pos += 4 + length;
+                validLength = pos;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Кеш станції буде завантажено заново: " + e.getMessage());
+            Files.delete(file.toPath());
+            return 0;
+        }
+
+        if (validLength < fileLength) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return maxId;
+    }
+
+    private static void refreshMetadata(Connection conn) throws SQLException {
+        Properties props = new Properties();
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT ID_Station, Name, City FROM Station")) {
+                while (rs.next()) {
+                    String id = rs.getString(1).trim();
+                    props.setProperty("station." + id + ".name", nullToEmpty(rs.getString(2)));
+                    props.setProperty("station." + id + ".city", nullToEmpty(rs.getString(3)));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title, Unit FROM Measured_Unit")) {
+                while (rs.next()) {
+                    String id = rs.getString(1).trim();
+                    props.setProperty("unit." + id + ".title", nullToEmpty(rs.getString(2)));
+                    props.setProperty("unit." + id + ".unit", nullToEmpty(rs.getString(3)));
+                }
+            }
+        }
+        conn.commit();
+
+        try (OutputStream out = new FileOutputStream(new File(cacheDir(), META_FILE))) {
+            props.store(out, "Air Monitoring - measurement cache metadata");
+        } catch (IOException e) {
+            System.err.println("Помилка збереження метаданих кешу: " + e.getMessage());
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static File cacheDir() {
+        File dir = new File(new File(ConfigManager.getAppDataDir(), "measurement-cache"),
+                StateFile.safeName(ConfigManager.getDbName()));
+        if (!dir.exists()) dir.mkdirs();
+        return dir;
+    }
+
+    private static File stationFile(String stationId) {
+        return new File(cacheDir(), StateFile.safeName(stationId.trim()) + ".mcol");
+    }
+}
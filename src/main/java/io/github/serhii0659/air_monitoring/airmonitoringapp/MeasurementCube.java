@@ -0,0 +1,861 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory cube of daily aggregates keyed by station × measured unit × day.
+ *
+ * Every cell holds min / max / sum / count of the day's values and the count of values in
+ * each Optimal_Value category band of the unit. Cells live in primitive arrays sorted by
+ * (day, station, unit), so a period is a contiguous range, and station / unit have bitmap
+ * indexes; a slice is the AND of those bitmaps and roll-ups walk only the selected cells.
+ *
+ * The cube is shared by views and reports. current() loads it with one grouped query on
+ * first use and afterwards returns the published snapshot without touching the database.
+ * A background thread refreshes it every cube.refresh.seconds and on live notifications:
+ * rows above the max ID_Measurment seen are merged into a small "recent" part (the last
+ * days), so the large "history" part is shared between snapshots. Like MeasurementCache the
+ * cube assumes Measurment is insert-only: rows updated or deleted in place are not seen until
+ * the next rebuild, which imports trigger through reload() (and a smaller max id forces).
+ * Disabled with cube.enabled=false (the callers fall back to their SQL queries).
+ */
+public final class MeasurementCube {
+    private static final int FETCH_SIZE = 10_000;
+    private static final int RECENT_DAYS = 7;      // days kept in the recent part after a rebuild
+    private static final int MAX_RECENT_DAYS = 62; // recent part is folded into history beyond this
+    // Cell key: epoch day in the high 32 bits, station ordinal in 20 bits, unit ordinal in 12 bits
+    private static final int STATION_BITS = 20;
+    private static final int UNIT_BITS = 12;
+    // Order of a unit's bands in readDictionaries(); load() numbers them the same way
+    private static final String BAND_ORDER = "ov.Bottom_Border, ov.Upper_Border NULLS LAST, ov.ID_Category";
+
+    private static volatile MeasurementCube current;
+    private static volatile long checkedAt;
+    private static volatile boolean refreshPending;
+    private static final AtomicBoolean refreshing = new AtomicBoolean();
+    private static boolean subscribed;
+
+    public enum Dimension { STATION, CITY, UNIT, DAY }
+
+    // Dictionaries
+    private final List<String> stationIds;
+    private final List<String> stationNames;
+    private final List<String> unitIds;
+    private final List<String> unitTitles;
+    private final List<String> unitNames;
+    private final List<String> cities;
+    private final int[] cityOfStation;
+    private final int[][] stationsOfCity;
+    private final Map<String, Integer> stationIndex = new HashMap<>();
+    private final Map<String, Integer> unitIndex = new HashMap<>();
+    private final Map<String, Integer> cityIndex = new HashMap<>();
+    private final List<List<Band>> bands;
+    private final int bandSlots;
+
+    // Cells: history (days before recentStart) followed by recent
+    private final Part history;
+    private final Part recent;
+    private final int recentStart;
+    private final int size;
+
+    private final String db;
+    private final long watermark;
+
+    /**
+     * Category band of a unit from Optimal_Value, [bottom, upper)
+     */
+    public static class Band {
+        private final String designation;
+        private final double bottom;
+        private final double upper;
+
+        public Band(String designation, double bottom, double upper) {
+            this.designation = designation;
+            this.bottom = bottom;
+            this.upper = upper;
+        }
+
+        public String getDesignation() { return designation; }
+        public double getBottom() { return bottom; }
+        /** POSITIVE_INFINITY for an open band */
+        public double getUpper() { return upper; }
+
+        boolean sameAs(Band other) {
+            return designation.equals(other.designation)
+                    && Double.compare(bottom, other.bottom) == 0 && Double.compare(upper, other.upper) == 0;
+        }
+    }
+
+    /**
+     * Sum of a set of cells
+     */
+    public static class Aggregate {
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private double sum;
+        private long count;
+        private int cells;
+        private final int[] bandCounts;
+
+        Aggregate(int bandSlots) {
+            this.bandCounts = new int[bandSlots];
+        }
+
+        void add(Part part, int cell) {
+            if (part.count[cell] > 0) {
+                min = Double.isNaN(min) ? part.min[cell] : Math.min(min, part.min[cell]);
+                max = Double.isNaN(max) ? part.max[cell] : Math.max(max, part.max[cell]);
+            }
+            sum += part.sum[cell];
+            count += part.count[cell];
+            cells++;
+            int base = cell * bandCounts.length;
+            for (int b = 0; b < bandCounts.length; b++) bandCounts[b] += part.bandCounts[base + b];
+        }
+
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getSum() { return sum; }
+        public long getCount() { return count; }
+        public double getMean() { return count == 0 ? Double.NaN : sum / count; }
+        /** Number of station-unit-days */
+        public int getCells() { return cells; }
+        /** Values in the band with this index of the unit's bands() (meaningful for a single unit) */
+        public int getBandCount(int band) { return band < bandCounts.length ? bandCounts[band] : 0; }
+    }
+
+    /**
+     * Receives selected cells
+     */
+    public interface CellConsumer {
+        void accept(String stationId, String unitId, LocalDate day, double min, double max, double sum, long count);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigManager.getProperty("cube.enabled", "true"));
+    }
+
+    /**
+     * Published cube. Only the first call (and the first after reload() or a database switch)
+     * waits for the load; later calls return at once and schedule a background refresh when
+     * the snapshot is older than cube.refresh.seconds.
+     */
+    public static MeasurementCube current() throws SQLException {
+        MeasurementCube cube = current;
+        if (cube == null || !cube.db.equals(dbName())) return load();
+        long refreshMillis = ConfigManager.getIntProperty("cube.refresh.seconds", 30) * 1000L;
+        if (System.currentTimeMillis() - checkedAt >= refreshMillis) requestRefresh();
+        return cube;
+    }
+
+    /**
+     * Drop the cube; the next current() loads it from scratch. Called after imports, which
+     * may add rows to any day.
+     */
+    public static synchronized void reload() {
+        current = null;
+    }
+
+    private static synchronized MeasurementCube load() throws SQLException {
+        MeasurementCube cube = current;
+        if (cube != null && cube.db.equals(dbName())) return cube;
+        if (!subscribed) {
+            LiveUpdateListener.subscribe(rows -> requestRefresh());
+            subscribed = true;
+        }
+        refresh();
+        return current;
+    }
+
+    /**
+     * Refresh on the "cube-refresh" thread; requests arriving while it runs are coalesced
+     * into one more pass
+     */
+    private static void requestRefresh() {
+        checkedAt = System.currentTimeMillis();
+        refreshPending = true;
+        if (!refreshing.compareAndSet(false, true)) return;
+        Thread thread = new Thread(() -> {
+            boolean failed = false;
+            try {
+                while (refreshPending && !failed) {
+                    refreshPending = false;
+                    try {
+                        update();
+                    } catch (SQLException e) {
+                        System.err.println("Куб вимірювань: помилка оновлення: " + e.getMessage());
+                        failed = true;
+                    }
+                }
+            } finally {
+                refreshing.set(false);
+            }
+            if (refreshPending && !failed) requestRefresh();
+        }, "cube-refresh");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static synchronized void update() throws SQLException {
+        MeasurementCube cube = current;
+        // Nothing published (or another database) - the next reader loads it
+        if (cube != null && cube.db.equals(dbName())) refresh();
+    }
+
+    /**
+     * Bring the published cube up to date; caller holds the class lock
+     */
+    private static void refresh() throws SQLException {
+        String db = dbName();
+        MeasurementCube base = current != null && current.db.equals(db) ? current : null;
+        long started = System.currentTimeMillis();
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            long top = scalar(conn, "SELECT COALESCE(MAX(ID_Measurment), 0) FROM Measurment");
+            checkedAt = System.currentTimeMillis();
+            if (base != null && top == base.watermark) return;
+
+            // Deleted rows or a recreated table - start over
+            if (base != null && top < base.watermark) base = null;
+            Builder builder = base != null ? new Builder(base) : new Builder();
+            builder.readDictionaries(conn);
+            if (base != null && !builder.sameBands(base)) {
+                base = null;
+                builder = new Builder();
+                builder.readDictionaries(conn);
+            }
+            conn.setAutoCommit(false);
+            long rows = builder.load(conn, base != null ? base.watermark : 0, top);
+            conn.commit();
+            current = base != null ? base.append(builder, top) : builder.build(top, db);
+            System.out.println(String.format("Куб вимірювань: %s %,d груп, %,d клітинок, %d мс",
+                    base != null ? "додано" : "завантажено", rows, current.size, System.currentTimeMillis() - started));
+        }
+    }
+
+    private static long scalar(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static String dbName() {
+        return String.valueOf(ConfigManager.getDbName());
+    }
+
+    private MeasurementCube(Builder b, Part history, Part recent, int recentStart,
+                            long watermark, String db) {
+        this.db = db;
+        this.watermark = watermark;
+        this.history = history;
+        this.recent = recent;
+        this.recentStart = recentStart;
+        this.size = history.size + recent.size;
+        this.stationIds = b.stationIds;
+        this.stationNames = b.stationNames;
+        this.unitIds = b.unitIds;
+        this.unitTitles = b.unitTitles;
+        this.unitNames = b.unitNames;
+        this.bands = b.bands;
+        this.bandSlots = b.bandSlots;
+        for (int i = 0; i < stationIds.size(); i++) stationIndex.put(stationIds.get(i), i);
+        for (int i = 0; i < unitIds.size(); i++) unitIndex.put(unitIds.get(i), i);
+
+        this.cities = new ArrayList<>();
+        this.cityOfStation = new int[stationIds.size()];
+        int[] perCity = new int[stationIds.size()];
+        for (int s = 0; s < stationIds.size(); s++) {
+            String city = b.stationCities.get(s);
+            Integer c = cityIndex.get(city);
+            if (c == null) {
+                c = cities.size();
+                cities.add(city);
+                cityIndex.put(city, c);
+            }
+            cityOfStation[s] = c;
+            perCity[c]++;
+        }
+        this.stationsOfCity = new int[cities.size()][];
+        for (int c = 0; c < cities.size(); c++) stationsOfCity[c] = new int[perCity[c]];
+        Arrays.fill(perCity, 0);
+        for (int s = 0; s < stationIds.size(); s++) {
+            int c = cityOfStation[s];
+            stationsOfCity[c][perCity[c]++] = s;
+        }
+    }
+
+    /**
+     * Cube over all cells, split so that the last RECENT_DAYS days form the recent part
+     */
+    private static MeasurementCube split(Builder b, Part all, long watermark, String db) {
+        if (all.size == 0) {
+            return new MeasurementCube(b, all, all, Integer.MIN_VALUE, watermark, db);
+        }
+        int recentStart = all.day(all.size - 1) - RECENT_DAYS + 1;
+        int at = all.lowerBound(recentStart);
+        int stations = b.stationIds.size();
+        int units = b.unitIds.size();
+        return new MeasurementCube(b, all.slice(0, at, stations, units), all.slice(at, all.size, stations, units),
+                recentStart, watermark, db);
+    }
+
+    /**
+     * New snapshot with the builder's cells (rows above this watermark) merged in. Cells of
+     * recent days touch only the recent part; late data or a grown recent part rebuild history.
+     */
+    MeasurementCube append(Builder b, long top) {
+        int stations = b.stationIds.size();
+        int units = b.unitIds.size();
+        Part delta = b.part();
+        if (delta.size == 0) return new MeasurementCube(b, history, recent, recentStart, top, db);
+        if (delta.day(0) >= recentStart) {
+            Part merged = Part.merge(recent, delta, stations, units);
+            if (merged.day(merged.size - 1) - recentStart < MAX_RECENT_DAYS) {
+                return new MeasurementCube(b, history, merged, recentStart, top, db);
+            }
+            return split(b, Part.merge(history, merged, stations, units), top, db);
+        }
+        Part all = Part.merge(Part.merge(history, recent, stations, units), delta, stations, units);
+        return split(b, all, top, db);
+    }
+
+    /**
+     * Cells matching all given filters; null means any (dates are inclusive)
+     */
+    public BitSet select(String stationId, String city, String unitId, LocalDate from, LocalDate to) {
+        int lo = from == null ? 0 : lowerBound((int) from.toEpochDay());
+        int hi = to == null ? size : lowerBound((int) to.toEpochDay() + 1);
+        Integer s = stationId == null ? null : stationIndex.get(stationId.trim());
+        Integer c = city == null ? null : cityIndex.get(city);
+        Integer u = unitId == null ? null : unitIndex.get(unitId.trim());
+        if (lo >= hi || (stationId != null && s == null) || (city != null && c == null)
+                || (unitId != null && u == null)) {
+            return new BitSet();
+        }
+        int[] cityStations = c == null ? null : stationsOfCity[c];
+
+        int h = history.size;
+        BitSet cells = lo < h ? history.select(lo, Math.min(hi, h), s, cityStations, u) : new BitSet(size);
+        if (hi > h) {
+            BitSet tail = recent.select(Math.max(lo, h) - h, hi - h, s, cityStations, u);
+            for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) cells.set(h + i);
+        }
+        return cells;
+    }
+
+    private int lowerBound(int epochDay) {
+        // History holds only days before recentStart
+        if (epochDay <= recentStart) return history.lowerBound(epochDay);
+        return history.size + recent.lowerBound(epochDay);
+    }
+
+    private Part partOf(int cell) {
+        return cell < history.size ? history : recent;
+    }
+
+    private int offset(int cell) {
+        return cell < history.size ? cell : cell - history.size;
+    }
+
+    public Aggregate aggregate(BitSet cells) {
+        Aggregate total = new Aggregate(bandSlots);
+        for (int i = cells.nextSetBit(0); i >= 0; i = cells.nextSetBit(i + 1)) total.add(partOf(i), offset(i));
+        return total;
+    }
+
+    /**
+     * Aggregates of the selected cells grouped by one dimension, keys sorted
+     * (station id, city, unit id or ISO date)
+     */
+    public Map<String, Aggregate> rollUp(BitSet cells, Dimension by) {
+        Map<String, Aggregate> groups = new TreeMap<>();
+        for (int i = cells.nextSetBit(0); i >= 0; i = cells.nextSetBit(i + 1)) {
+            Part part = partOf(i);
+            int cell = offset(i);
+            String key = switch (by) {
+                case STATION -> stationIds.get(part.station(cell));
+                case CITY -> cities.get(cityOfStation[part.station(cell)]);
+                case UNIT -> unitIds.get(part.unit(cell));
+                case DAY -> LocalDate.ofEpochDay(part.day(cell)).toString();
+            };
+            groups.computeIfAbsent(key, k -> new Aggregate(bandSlots)).add(part, cell);
+        }
+        return groups;
+    }
+
+    public void forEach(BitSet cells, CellConsumer consumer) {
+        for (int i = cells.nextSetBit(0); i >= 0; i = cells.nextSetBit(i + 1)) {
+            Part part = partOf(i);
+            int cell = offset(i);
+            consumer.accept(stationIds.get(part.station(cell)), unitIds.get(part.unit(cell)),
+                    LocalDate.ofEpochDay(part.day(cell)),
+                    part.min[cell], part.max[cell], part.sum[cell], part.count[cell]);
+        }
+    }
+
+    /**
+     * Unit ids with this Measured_Unit title
+     */
+    public List<String> unitIdsByTitle(String title) {
+        List<String> ids = new ArrayList<>();
+        for (int u = 0; u < unitIds.size(); u++) {
+            if (title.equals(unitTitles.get(u))) ids.add(unitIds.get(u));
+        }
+        return ids;
+    }
+
+    public List<Band> bands(String unitId) {
+        Integer u = unitIndex.get(unitId.trim());
+        return u == null ? List.of() : bands.get(u);
+    }
+
+    public String stationName(String stationId) {
+        Integer s = stationIndex.get(stationId.trim());
+        return s == null ? stationId : stationNames.get(s);
+    }
+
+    public String stationCity(String stationId) {
+        Integer s = stationIndex.get(stationId.trim());
+        return s == null ? "" : cities.get(cityOfStation[s]);
+    }
+
+    public String unitTitle(String unitId) {
+        Integer u = unitIndex.get(unitId.trim());
+        return u == null ? unitId : unitTitles.get(u);
+    }
+
+    /**
+     * Measured_Unit.Unit, e.g. μg/m³
+     */
+    public String unitName(String unitId) {
+        Integer u = unitIndex.get(unitId.trim());
+        return u == null ? "" : unitNames.get(u);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Per-station labels "Name (City)" in station id order
+     */
+    public Map<String, String> stationLabels() {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (int s = 0; s < stationIds.size(); s++) {
+            String city = cities.get(cityOfStation[s]);
+            labels.put(stationIds.get(s), city.isEmpty() ? stationNames.get(s) : stationNames.get(s) + " (" + city + ")");
+        }
+        return labels;
+    }
+
+    private static long key(int epochDay, int s, int u) {
+        return ((long) epochDay << 32) | ((long) s << UNIT_BITS) | u;
+    }
+
+    /**
+     * Immutable run of cells sorted by key, with station / unit bitmaps over its own positions
+     */
+    static final class Part {
+        private static final BitSet NONE = new BitSet();
+
+        final int size;
+        final long[] key;
+        final double[] min;
+        final double[] max;
+        final double[] sum;
+        final long[] count;
+        final int[] bandCounts; // size * bandSlots
+        final int bandSlots;
+        final BitSet[] byStation;
+        final BitSet[] byUnit;
+
+        Part(int size, long[] key, double[] min, double[] max, double[] sum, long[] count,
+             int[] bandCounts, int bandSlots, int stations, int units) {
+            this.size = size;
+            this.key = key;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+            this.count = count;
+            this.bandCounts = bandCounts;
+            this.bandSlots = bandSlots;
+            byStation = newBitmaps(stations);
+            byUnit = newBitmaps(units);
+            for (int i = 0; i < size; i++) {
+                byStation[station(i)].set(i);
+                byUnit[unit(i)].set(i);
+            }
+        }
+
+        private static BitSet[] newBitmaps(int count) {
+            BitSet[] bitmaps = new BitSet[count];
+            for (int i = 0; i < count; i++) bitmaps[i] = new BitSet();
+            return bitmaps;
+        }
+
+        int day(int i) {
+            return (int) (key[i] >> 32);
+        }
+
+        int station(int i) {
+            return (int) (key[i] >>> UNIT_BITS) & ((1 << STATION_BITS) - 1);
+        }
+
+        int unit(int i) {
+            return (int) key[i] & ((1 << UNIT_BITS) - 1);
+        }
+
+        int lowerBound(int epochDay) {
+            long target = (long) epochDay << 32;
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key[mid] < target) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Positions in [lo, hi) matching the ordinals; null means any
+         */
+        BitSet select(int lo, int hi, Integer s, int[] cityStations, Integer u) {
+            BitSet cells = new BitSet(hi);
+            cells.set(lo, hi);
+            if (s != null) cells.and(bitmap(byStation, s));
+            if (cityStations != null) {
+                BitSet any = new BitSet();
+                for (int cs : cityStations) any.or(bitmap(byStation, cs));
+                cells.and(any);
+            }
+            if (u != null) cells.and(bitmap(byUnit, u));
+            return cells;
+        }
+
+        private static BitSet bitmap(BitSet[] index, int ordinal) {
+            // Stations / units added after this part was built have no cells in it
+            return ordinal < index.length ? index[ordinal] : NONE;
+        }
+
+        Part slice(int from, int to, int stations, int units) {
+            return new Part(to - from, Arrays.copyOfRange(key, from, to),
+                    Arrays.copyOfRange(min, from, to), Arrays.copyOfRange(max, from, to),
+                    Arrays.copyOfRange(sum, from, to), Arrays.copyOfRange(count, from, to),
+                    Arrays.copyOfRange(bandCounts, from * bandSlots, to * bandSlots), bandSlots, stations, units);
+        }
+
+        /**
+         * Linear merge of two parts with the same band layout; equal keys are combined
+         */
+        static Part merge(Part a, Part b, int stations, int units) {
+            int slots = a.bandSlots;
+            int capacity = a.size + b.size;
+            long[] key = new long[capacity];
+            double[] min = new double[capacity];
+            double[] max = new double[capacity];
+            double[] sum = new double[capacity];
+            long[] count = new long[capacity];
+            int[] bandCounts = new int[capacity * slots];
+
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.size || j < b.size) {
+                boolean fromA = j >= b.size || (i < a.size && a.key[i] <= b.key[j]);
+                Part src = fromA ? a : b;
+                int cell = fromA ? i++ : j++;
+                if (n > 0 && key[n - 1] == src.key[cell]) {
+                    int last = n - 1;
+                    min[last] = lower(min[last], src.min[cell]);
+                    max[last] = Double.isNaN(max[last]) ? src.max[cell]
+                            : Double.isNaN(src.max[cell]) ? max[last] : Math.max(max[last], src.max[cell]);
+                    sum[last] += src.sum[cell];
+                    count[last] += src.count[cell];
+                    for (int band = 0; band < slots; band++) {
+                        bandCounts[last * slots + band] += src.bandCounts[cell * slots + band];
+                    }
+                    continue;
+                }
+                key[n] = src.key[cell];
+                min[n] = src.min[cell];
+                max[n] = src.max[cell];
+                sum[n] = src.sum[cell];
+                count[n] = src.count[cell];
+                System.arraycopy(src.bandCounts, cell * slots, bandCounts, n * slots, slots);
+                n++;
+            }
+            if (n < capacity) {
+                key = Arrays.copyOf(key, n);
+                min = Arrays.copyOf(min, n);
+                max = Arrays.copyOf(max, n);
+                sum = Arrays.copyOf(sum, n);
+                count = Arrays.copyOf(count, n);
+                bandCounts = Arrays.copyOf(bandCounts, n * slots);
+            }
+            return new Part(n, key, min, max, sum, count, bandCounts, slots, stations, units);
+        }
+
+        private static double lower(double x, double y) {
+            return Double.isNaN(x) ? y : Double.isNaN(y) ? x : Math.min(x, y);
+        }
+    }
+
+    /**
+     * Growable cell arrays plus dictionaries; also used directly by tests
+     */
+    static class Builder {
+        final List<String> stationIds = new ArrayList<>();
+        final List<String> stationNames = new ArrayList<>();
+        final List<String> stationCities = new ArrayList<>();
+        final List<String> unitIds = new ArrayList<>();
+        final List<String> unitTitles = new ArrayList<>();
+        final List<String> unitNames = new ArrayList<>();
+        final List<List<Band>> bands = new ArrayList<>();
+        final Map<String, Integer> stations = new HashMap<>();
+        final Map<String, Integer> units = new HashMap<>();
+        // Cells that can still receive values; load() clears it when the day changes
+        final Map<Long, Integer> open = new HashMap<>();
+        int bandSlots = 1;
+
+        int size;
+        long[] key = new long[1024];
+        double[] min = new double[1024];
+        double[] max = new double[1024];
+        double[] sum = new double[1024];
+        long[] count = new long[1024];
+        int[] bandCounts = new int[1024];
+
+        Builder() {}
+
+        /**
+         * Builder for cells added on top of base: station and unit ordinals are kept, bands
+         * are re-read by readDictionaries()
+         */
+        Builder(MeasurementCube base) {
+            for (int s = 0; s < base.stationIds.size(); s++) {
+                stationIndex(base.stationIds.get(s), base.stationNames.get(s), base.cities.get(base.cityOfStation[s]));
+            }
+            for (int u = 0; u < base.unitIds.size(); u++) {
+                unitIndex(base.unitIds.get(u), base.unitTitles.get(u), base.unitNames.get(u));
+            }
+        }
+
+        /**
+         * Stations, units and category bands; small and re-read on every refresh, so renamed
+         * stations show up
+         */
+        void readDictionaries(Connection conn) throws SQLException {
+            try (Statement st = conn.createStatement()) {
+                try (ResultSet rs = st.executeQuery("SELECT ID_Station, Name, City FROM Station ORDER BY ID_Station")) {
+                    while (rs.next()) {
+                        stationIndex(rs.getString(1).trim(), rs.getString(2), rs.getString(3));
+                    }
+                }
+                try (ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title, Unit FROM Measured_Unit")) {
+                    while (rs.next()) unitIndex(rs.getString(1).trim(), rs.getString(2), rs.getString(3));
+                }
+                try (ResultSet rs = st.executeQuery(
+                        "SELECT ov.ID_Measured_Unit, c.Designation, ov.Bottom_Border, ov.Upper_Border " +
+                        "FROM Optimal_Value ov JOIN Category c ON c.ID_Category = ov.ID_Category " +
+                        "ORDER BY ov.ID_Measured_Unit, " + BAND_ORDER)) {
+                    while (rs.next()) {
+                        int u = unitIndex(rs.getString(1).trim(), null, null);
+                        double upper = rs.getDouble(4);
+                        if (rs.wasNull()) upper = Double.POSITIVE_INFINITY;
+                        addBand(u, new Band(rs.getString(2), rs.getDouble(3), upper));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Whether the units of base still have the same bands (its band counts stay valid)
+         */
+        boolean sameBands(MeasurementCube base) {
+            if (bandSlots != base.bandSlots) return false;
+            for (int u = 0; u < base.unitIds.size(); u++) {
+                List<Band> before = base.bands.get(u);
+                List<Band> now = bands.get(u);
+                if (before.size() != now.size()) return false;
+                for (int b = 0; b < now.size(); b++) {
+                    if (!now.get(b).sameAs(before.get(b))) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Band of a unit; bands must be added before any cell
+         */
+        void addBand(int u, Band band) {
+            bands.get(u).add(band);
+            if (bands.get(u).size() > bandSlots) {
+                bandSlots = bands.get(u).size();
+                bandCounts = new int[key.length * bandSlots];
+            }
+        }
+
+        int stationIndex(String id, String name, String city) {
+            Integer s = stations.get(id);
+            if (s != null) {
+                if (name != null) stationNames.set(s, name);
+                if (city != null) stationCities.set(s, city);
+                return s;
+            }
+            if (stationIds.size() >= 1 << STATION_BITS) {
+                throw new IllegalStateException("Забагато станцій для куба вимірювань: " + stationIds.size());
+            }
+            stations.put(id, stationIds.size());
+            stationIds.add(id);
+            stationNames.add(name != null ? name : id);
+            stationCities.add(city != null ? city : "");
+            return stationIds.size() - 1;
+        }
+
+        int unitIndex(String id, String title, String unitName) {
+            Integer u = units.get(id);
+            if (u != null) {
+                if (title != null) unitTitles.set(u, title);
+                if (unitName != null) unitNames.set(u, unitName);
+                return u;
+            }
+            if (unitIds.size() >= 1 << UNIT_BITS) {
+                throw new IllegalStateException("Забагато одиниць вимірювання для куба: " + unitIds.size());
+            }
+            units.put(id, unitIds.size());
+            unitIds.add(id);
+            unitTitles.add(title != null ? title : id);
+            unitNames.add(unitName != null ? unitName : "");
+            bands.add(new ArrayList<>());
+            return unitIds.size() - 1;
+        }
+
+        int cell(int epochDay, int s, int u) {
+            long cellKey = key(epochDay, s, u);
+            Integer existing = open.get(cellKey);
+            if (existing != null) return existing;
+            if (size == key.length) {
+                int capacity = size * 2;
+                key = Arrays.copyOf(key, capacity);
+                min = Arrays.copyOf(min, capacity);
+                max = Arrays.copyOf(max, capacity);
+                sum = Arrays.copyOf(sum, capacity);
+                count = Arrays.copyOf(count, capacity);
+                bandCounts = Arrays.copyOf(bandCounts, capacity * bandSlots);
+            }
+            key[size] = cellKey;
+            min[size] = Double.NaN;
+            max[size] = Double.NaN;
+            open.put(cellKey, size);
+            return size++;
+        }
+
+        /**
+         * Merge aggregates of some values of a station-unit-day into its cell
+         */
+        int add(int s, int u, int epochDay, double low, double high, double total, long n) {
+            int cell = cell(epochDay, s, u);
+            min[cell] = Double.isNaN(min[cell]) ? low : Math.min(min[cell], low);
+            max[cell] = Double.isNaN(max[cell]) ? high : Math.max(max[cell], high);
+            sum[cell] += total;
+            count[cell] += n;
+            return cell;
+        }
+
+        void addBandCount(int cell, int band, int n) {
+            bandCounts[cell * bandSlots + band] += n;
+        }
+
+        /**
+         * Merge the daily aggregates of rows with fromId < ID_Measurment <= toId. Each value gets
+         * at most one band (the first matching one in BAND_ORDER, via LIMIT 1), so overlapping or
+         * duplicated Optimal_Value rows cannot count a value twice. Groups come ordered by day,
+         * so only the current day's cells are kept open.
+         */
+        long load(Connection conn, long fromId, long toId) throws SQLException {
+            String sql = "WITH bands AS (SELECT ov.ID_Measured_Unit, ov.Bottom_Border, ov.Upper_Border, " +
+                    "row_number() OVER (PARTITION BY ov.ID_Measured_Unit ORDER BY " + BAND_ORDER + ") - 1 AS band " +
+                    "FROM Optimal_Value ov JOIN Category c ON c.ID_Category = ov.ID_Category) " +
+                    "SELECT m.ID_Station, m.ID_Measured_Unit, DATE(m.Time), b.band, " +
+                    "MIN(m.Value), MAX(m.Value), SUM(m.Value), COUNT(m.Value) " +
+                    "FROM Measurment m " +
+                    "LEFT JOIN LATERAL (SELECT bands.band FROM bands " +
+                    "WHERE bands.ID_Measured_Unit = m.ID_Measured_Unit AND m.Value >= bands.Bottom_Border " +
+                    "AND (bands.Upper_Border IS NULL OR m.Value < bands.Upper_Border) " +
+                    "ORDER BY bands.band LIMIT 1) b ON true " +
+                    "WHERE m.ID_Measurment > ? AND m.ID_Measurment <= ? " +
+                    "GROUP BY 1, 2, 3, 4 ORDER BY 3";
+            long rows = 0;
+            int openDay = Integer.MIN_VALUE;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setLong(1, fromId);
+                ps.setLong(2, toId);
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long n = rs.getLong(8);
+                        if (n == 0) continue;
+                        int day = (int) rs.getDate(3).toLocalDate().toEpochDay();
+                        if (day != openDay) {
+                            open.clear();
+                            openDay = day;
+                        }
+                        int s = stationIndex(rs.getString(1).trim(), null, null);
+                        int u = unitIndex(rs.getString(2).trim(), null, null);
+                        int cell = add(s, u, day, rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), n);
+
+                        int band = rs.getInt(4);
+                        if (!rs.wasNull() && band < bands.get(u).size()) addBandCount(cell, band, (int) n);
+                        rows++;
+                    }
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * Cells sorted by key; keys are unique, so positions come from a sorted copy of them
+         */
+        Part part() {
+            long[] sorted = Arrays.copyOf(key, size);
+            Arrays.sort(sorted);
+            double[] sortedMin = new double[size];
+            double[] sortedMax = new double[size];
+            double[] sortedSum = new double[size];
+            long[] sortedCount = new long[size];
+            int[] sortedBands = new int[size * bandSlots];
+            for (int i = 0; i < size; i++) {
+                int at = Arrays.binarySearch(sorted, key[i]);
+                sortedMin[at] = min[i];
+                sortedMax[at] = max[i];
+                sortedSum[at] = sum[i];
+                sortedCount[at] = count[i];
+                System.arraycopy(bandCounts, i * bandSlots, sortedBands, at * bandSlots, bandSlots);
+            }
+            return new Part(size, sorted, sortedMin, sortedMax, sortedSum, sortedCount, sortedBands, bandSlots,
+                    stationIds.size(), unitIds.size());
+        }
+
+        MeasurementCube build(long watermark) {
+            return build(watermark, "");
+        }
+
+        MeasurementCube build(long watermark, String db) {
+            return split(this, part(), watermark, db);
+        }
+    }
+
+}
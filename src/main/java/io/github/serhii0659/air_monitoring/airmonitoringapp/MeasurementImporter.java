@@ -0,0 +1,422 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bulk import of measurements from CSV or station log files into Measurment.
+ *
+ * CSV: header with ID_Station, ID_Measured_Unit, Time, Value columns (any order, ',' or ';');
+ * fields may be quoted, with "" for a quote inside (a quoted field cannot span lines).
+ * Station log: no ID_Station column - the station is taken from a "# station=ID" line
+ * or from the file name prefix (e.g. ST01_2025-11-20.log).
+ *
+ * Rows are validated against Station / Measured_Unit, sent with COPY FROM STDIN into a
+ * temp staging table and moved to Measurment in batches, skipping rows that already exist
+ * for the same (station, unit, time). Invalid lines go to "<file>.rejected.csv".
+ * After every committed batch a checkpoint (line and reject file length) is saved, so an
+ * interrupted import resumes without repeating rejected lines.
+ */
+public final class MeasurementImporter {
+    private static final int BATCH_ROWS = 50_000;
+    private static final String CHECKPOINT_FILE = "import-checkpoints.properties";
+    private static final DateTimeFormatter STAGING_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final DateTimeFormatter[] TIME_FORMATS = {
+            timeFormat("yyyy-MM-dd HH:mm"),
+            timeFormat("yyyy-MM-dd'T'HH:mm"),
+            timeFormat("dd.MM.yyyy HH:mm")
+    };
+
+    private MeasurementImporter() {}
+
+    /**
+     * Receives import progress (called from the import thread after every batch)
+     */
+    public interface ProgressListener {
+        void onProgress(ImportResult progress);
+    }
+
+    public static class ImportResult {
+        private long linesRead;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+        private long resumedFromLine;
+        private double rowsPerSecond;
+        private File rejectFile;
+
+        public long getLinesRead() { return linesRead; }
+        public long getInserted() { return inserted; }
+        public long getDuplicates() { return duplicates; }
+        public long getRejected() { return rejected; }
+        public long getResumedFromLine() { return resumedFromLine; }
+        public double getRowsPerSecond() { return rowsPerSecond; }
+        public File getRejectFile() { return rejectFile; }
+    }
+
+    public static ImportResult importFile(File file, ProgressListener listener,
+                                          BooleanSupplier cancelled) throws SQLException, IOException {
+        long started = System.nanoTime();
+        ImportResult result = new ImportResult();
+        File rejectFile = new File(file.getParentFile(), file.getName() + ".rejected.csv");
+        String checkpointKey = checkpointKey(file);
+        long[] checkpoint = readCheckpoint(checkpointKey);
+        long resumeLine = checkpoint[0];
+        result.resumedFromLine = resumeLine;
+        if (resumeLine > 0) truncateRejects(rejectFile, checkpoint[1]);
+
+        try (Connection conn = DbManager.openDedicatedConnection();
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+             FileOutputStream rejectOut = new FileOutputStream(rejectFile, resumeLine > 0);
+             BufferedWriter rejects = new BufferedWriter(new OutputStreamWriter(rejectOut, StandardCharsets.UTF_8))) {
+
+            conn.setAutoCommit(false);
+            Set<String> stationIds = loadIds(conn, "SELECT ID_Station FROM Station");
+            Set<String> unitIds = loadIds(conn, "SELECT ID_Measured_Unit FROM Measured_Unit");
+            String insertSql = buildInsertSql(conn);
+
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TEMP TABLE IF NOT EXISTS import_staging ON COMMIT DELETE ROWS AS " +
+                        "SELECT ID_Station, ID_Measured_Unit, Time, Value FROM Measurment WITH NO DATA");
+            }
+            conn.commit();
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            // Header / station detection
+            String header = reader.readLine();
+            if (header == null) throw new IOException("Файл порожній");
+            if (header.startsWith("\uFEFF")) header = header.substring(1); // UTF-8 BOM
+
+            String fileStation = stationFromFileName(file.getName());
+            while (header != null && header.startsWith("#")) {
+                String directive = header.substring(1).trim();
+                if (directive.toLowerCase(Locale.ROOT).startsWith("station=")) {
+                    fileStation = directive.substring("station=".length()).trim();
+                }
+                header = reader.readLine();
+            }
+            if (header == null) throw new IOException("Файл не містить заголовка");
+
+            char delimiter = header.contains(";") ? ';' : ',';
+            String[] columns = splitLine(header, delimiter);
+            int stationCol = columnIndex(columns, "id_station");
+            int unitCol = columnIndex(columns, "id_measured_unit");
+            int timeCol = columnIndex(columns, "time");
+            int valueCol = columnIndex(columns, "value");
+            if (unitCol < 0 || timeCol < 0 || valueCol < 0) {
+                throw new IOException("Заголовок має містити стовпці ID_Measured_Unit, Time, Value");
+            }
+            if (stationCol < 0 && fileStation == null) {
+                throw new IOException("Не вдалося визначити станцію (немає стовпця ID_Station або рядка '# station=')");
+            }
+            if (rejectOut.getChannel().size() == 0) {
+                rejects.write("line,reason,content");
+                rejects.newLine();
+            }
+
+            StringBuilder batch = new StringBuilder(BATCH_ROWS * 48);
+            int batchRows = 0;
+            long lineNo = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo <= resumeLine) continue; // Already committed by a previous run
+                if (line.isBlank() || line.startsWith("#")) continue;
+
+                String[] parts = splitLine(line, delimiter);
+                String reason = null;
+                String station = stationCol >= 0 ? field(parts, stationCol) : fileStation;
+                String unit = field(parts, unitCol);
+                LocalDateTime time = parseTime(field(parts, timeCol));
+                String value = field(parts, valueCol).replace(',', '.');
+
+                if (station.isEmpty() || !stationIds.contains(station)) {
+                    reason = "невідома станція";
+                } else if (unit.isEmpty() || !unitIds.contains(unit)) {
+                    reason = "невідома одиниця вимірювання";
+                } else if (time == null) {
+                    reason = "некоректний час";
+                } else if (!isNumber(value)) {
+                    reason = "некоректне значення";
+                }
+
+                if (reason != null) {
+                    result.rejected++;
+                    rejects.write(lineNo + "," + reason + ",\"" + line.replace("\"", "\"\"") + "\"");
+                    rejects.newLine();
+                    continue;
+                }
+
+                batch.append(station).append(',').append(unit).append(',')
+                        .append(STAGING_TIME.format(time)).append(',').append(value).append('\n');
+                batchRows++;
+
+                if (batchRows >= BATCH_ROWS) {
+                    flushBatch(conn, copyManager, insertSql, batch, batchRows, result);
+                    rejects.flush();
+                    writeCheckpoint(checkpointKey, lineNo, rejectOut.getChannel().size());
+                    batch.setLength(0);
+                    batchRows = 0;
+                    report(result, lineNo, started, listener);
+                    if (cancelled.getAsBoolean()) {
+                        MeasurementCube.reload(); // Committed batches may touch any day
+                        return result;
+                    }
+                }
+            }
+
+            if (batchRows > 0) {
+                flushBatch(conn, copyManager, insertSql, batch, batchRows, result);
+            }
+            report(result, lineNo, started, listener);
+            clearCheckpoint(checkpointKey);
+        }
+
+        if (result.inserted > 0) MeasurementCube.reload();
+        if (result.rejected > 0) {
+            result.rejectFile = rejectFile;
+        } else if (resumeLine == 0) {
+            rejectFile.delete();
+        }
+        System.out.printf("Імпорт %s: додано %,d, дублікатів %,d, відхилено %,d (%.0f записів/с)%n",
+                file.getName(), result.inserted, result.duplicates, result.rejected, result.rowsPerSecond);
+        return result;
+    }
+
+    private static void flushBatch(Connection conn, CopyManager copyManager, String insertSql,
+                                   StringBuilder batch, int batchRows, ImportResult result) throws SQLException, IOException {
+        try {
+            copyManager.copyIn("COPY import_staging (ID_Station, ID_Measured_Unit, Time, Value) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(batch.toString()));
+            int inserted;
+            try (Statement st = conn.createStatement()) {
+                // Serializes importers: the duplicate check and the MAX(ID_Measurment) ids stay valid
+                st.execute("LOCK TABLE Measurment IN SHARE ROW EXCLUSIVE MODE");
+                inserted = st.executeUpdate(insertSql);
+            }
+            conn.commit();
+            result.inserted += inserted;
+            result.duplicates += batchRows - inserted;
+        } catch (SQLException | IOException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * INSERT ... SELECT from staging: one row per (station, unit, time), only if not in Measurment yet.
+     * ID_Measurment is generated by the column default if there is one, otherwise continues from MAX
+     * (safe because flushBatch locks Measurment against concurrent writers first).
+     */
+    private static String buildInsertSql(Connection conn) throws SQLException {
+        boolean hasDefault = false;
+        String sql = "SELECT column_default FROM information_schema.columns " +
+                "WHERE table_schema = 'public' AND lower(table_name) = 'measurment' " +
+                "AND lower(column_name) = 'id_measurment'";
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            if (rs.next()) hasDefault = rs.getString(1) != null;
+        }
+
+        String source = "SELECT DISTINCT ON (s.ID_Station, s.ID_Measured_Unit, s.Time) " +
+                "s.ID_Station, s.ID_Measured_Unit, s.Time, s.Value " +
+                "FROM import_staging s " +
+                "WHERE NOT EXISTS (SELECT 1 FROM Measurment m " +
+                "WHERE m.ID_Station = s.ID_Station AND m.ID_Measured_Unit = s.ID_Measured_Unit AND m.Time = s.Time) " +
+                "ORDER BY s.ID_Station, s.ID_Measured_Unit, s.Time";
+
+        if (hasDefault) {
+            return "INSERT INTO Measurment (ID_Station, ID_Measured_Unit, Time, Value) " + source;
+        }
+        return "INSERT INTO Measurment (ID_Measurment, ID_Station, ID_Measured_Unit, Time, Value) " +
+                "SELECT (SELECT COALESCE(MAX(ID_Measurment), 0) FROM Measurment) + row_number() OVER (), " +
+                "n.ID_Station, n.ID_Measured_Unit, n.Time, n.Value FROM (" + source + ") n";
+    }
+
+    private static Set<String> loadIds(Connection conn, String sql) throws SQLException {
+        Set<String> ids = new HashSet<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) ids.add(rs.getString(1).trim());
+        }
+        return ids;
+    }
+
+    private static void report(ImportResult result, long lineNo, long started, ProgressListener listener) {
+        result.linesRead = lineNo;
+        long elapsed = System.nanoTime() - started;
+        long processed = result.inserted + result.duplicates + result.rejected;
+        result.rowsPerSecond = elapsed > 0 ? processed * 1_000_000_000.0 / elapsed : 0;
+        if (listener != null) listener.onProgress(result);
+    }
+
+    private static int columnIndex(String[] columns, String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].trim().equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    private static String field(String[] parts, int index) {
+        return index < parts.length ? parts[index].trim() : "";
+    }
+
+    /**
+     * Split one CSV line; a field starting with a quote runs to the closing quote, so delimiters
+     * inside it are kept, and "" inside it is a literal quote
+     */
+    static String[] splitLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty()) return false;
+        try {
+            double d = Double.parseDouble(value);
+            return !Double.isNaN(d) && !Double.isInfinite(d);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static LocalDateTime parseTime(String text) {
+        if (text.isEmpty()) return null;
+        for (DateTimeFormatter format : TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        return null;
+    }
+
+    private static DateTimeFormatter timeFormat(String pattern) {
+        return new DateTimeFormatterBuilder()
+                .appendPattern(pattern)
+                .optionalStart().appendLiteral(':').appendValue(ChronoField.SECOND_OF_MINUTE, 2).optionalEnd()
+                .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+                .toFormatter();
+    }
+
+    private static String stationFromFileName(String name) {
+        int end = 0;
+        while (end < name.length() && (Character.isLetterOrDigit(name.charAt(end)) || name.charAt(end) == '-')) {
+            end++;
+        }
+        return end > 0 ? name.substring(0, end) : null;
+    }
+
+    // ---- Checkpoints: last committed line and reject file length per (path, size, modified) ----
+
+    private static String checkpointKey(File file) {
+        return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    /**
+     * {line, reject file length}; the length is -1 when unknown
+     */
+    private static synchronized long[] readCheckpoint(String key) {
+        Properties props = loadCheckpoints();
+        String[] parts = props.getProperty(key, "0").split(",");
+        return new long[] {Long.parseLong(parts[0]), parts.length > 1 ? Long.parseLong(parts[1]) : -1};
+    }
+
+    private static synchronized void writeCheckpoint(String key, long line, long rejectLength) {
+        Properties props = loadCheckpoints();
+        props.setProperty(key, line + "," + rejectLength);
+        saveCheckpoints(props);
+    }
+
+    /**
+     * Drop reject lines written after the checkpoint, since those lines are processed again
+     */
+    private static void truncateRejects(File rejectFile, long length) throws IOException {
+        if (length < 0 || !rejectFile.exists() || rejectFile.length() <= length) return;
+        try (FileChannel channel = FileChannel.open(rejectFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+
+    private static synchronized void clearCheckpoint(String key) {
+        Properties props = loadCheckpoints();
+        if (props.remove(key) != null) saveCheckpoints(props);
+    }
+
+    private static Properties loadCheckpoints() {
+        Properties props = new Properties();
+        File file = new File(ConfigManager.getAppDataDir(), CHECKPOINT_FILE);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("Помилка читання " + CHECKPOINT_FILE + ": " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    private static void saveCheckpoints(Properties props) {
+        File file = new File(ConfigManager.getAppDataDir(), CHECKPOINT_FILE);
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, "Air Monitoring - import checkpoints");
+        } catch (IOException e) {
+            System.err.println("Помилка збереження " + CHECKPOINT_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental Measurment poller for live views.
+ *
+ * seed() loads the last hours of data and the highest ID from one snapshot; afterwards each poll
+ * fetches only rows with a larger ID (index range scan on the primary key) and hands them
+ * to the sink on the poller thread. Uses its own connection, so polling never blocks
+ * queries of other windows.
+ */
+public final class MeasurementPoller implements AutoCloseable {
+    private static final int MAX_ROWS_PER_POLL = 10_000;
+
+    private final String[] unitIds;
+    private final Consumer<List<LiveUpdateListener.Measurement>> sink;
+    private ScheduledExecutorService executor;
+    private Connection connection;
+    private volatile long lastSeenId = -1;
+
+    public MeasurementPoller(Collection<String> unitIds, Consumer<List<LiveUpdateListener.Measurement>> sink) {
+        this.unitIds = unitIds.toArray(new String[0]);
+        this.sink = sink;
+    }
+
+    /**
+     * Rows of the last {@code hours} hours before the newest measurement (not "now",
+     * so historical databases still show data); also sets the poll watermark. Both are read
+     * in one REPEATABLE READ snapshot, so a row committed in between is either in the seed or
+     * above the watermark.
+     */
+    public List<LiveUpdateListener.Measurement> seed(int hours) throws SQLException {
+        String sql = "SELECT ID_Measurment, ID_Station, ID_Measured_Unit, Time, Value FROM Measurment " +
+                "WHERE ID_Measured_Unit = ANY(?) " +
+                "AND Time >= (SELECT MAX(Time) FROM Measurment) - make_interval(hours => ?) " +
+                "ORDER BY Time";
+        List<LiveUpdateListener.Measurement> rows = new ArrayList<>();
+        Connection conn = connection();
+        long top;
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        try {
+            // The first query fixes the snapshot for the whole transaction
+            try (PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(ID_Measurment), 0) FROM Measurment");
+                 ResultSet rs = ps.executeQuery()) {
+                top = rs.next() ? rs.getLong(1) : 0;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setArray(1, unitArray(conn));
+                ps.setInt(2, hours);
+                ps.setFetchSize(10_000);
+                try (ResultSet rs = ps.executeQuery()) {
+                    readRows(rs, rows);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        }
+        lastSeenId = Math.max(lastSeenId, top);
+        return rows;
+    }
+
+    public synchronized void start(long intervalMs) {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "measurement-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::pollSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void pollSafely() {
+        try {
+            List<LiveUpdateListener.Measurement> rows;
+            do {
+                rows = poll();
+                if (!rows.isEmpty()) sink.accept(rows);
+            } while (rows.size() == MAX_ROWS_PER_POLL);
+        } catch (SQLException e) {
+            System.err.println("Опитування вимірювань: " + e.getMessage());
+            closeConnection();
+        }
+    }
+
+    /**
+     * Rows newer than the last seen ID, at most MAX_ROWS_PER_POLL
+     */
+    List<LiveUpdateListener.Measurement> poll() throws SQLException {
+        String sql = "SELECT ID_Measurment, ID_Station, ID_Measured_Unit, Time, Value FROM Measurment " +
+                "WHERE ID_Measurment > ? AND ID_Measured_Unit = ANY(?) " +
+                "ORDER BY ID_Measurment LIMIT " + MAX_ROWS_PER_POLL;
+        List<LiveUpdateListener.Measurement> rows = new ArrayList<>();
+        Connection conn = connection();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, lastSeenId);
+            ps.setArray(2, unitArray(conn));
+            try (ResultSet rs = ps.executeQuery()) {
+                readRows(rs, rows);
+            }
+        }
+        conn.commit();
+        for (LiveUpdateListener.Measurement m : rows) {
+            lastSeenId = Math.max(lastSeenId, m.getId());
+        }
+        return rows;
+    }
+
+    private static void readRows(ResultSet rs, List<LiveUpdateListener.Measurement> out) throws SQLException {
+        while (rs.next()) {
+            String valueText = rs.getString(5);
+            out.add(new LiveUpdateListener.Measurement(
+                    rs.getLong(1),
+                    rs.getString(2).trim(),
+                    rs.getString(3).trim(),
+                    rs.getTimestamp(4).toLocalDateTime(),
+                    rs.getDouble(5),
+                    valueText));
+        }
+    }
+
+    private Array unitArray(Connection conn) throws SQLException {
+        return conn.createArrayOf("varchar", unitIds);
+    }
+
+    private synchronized Connection connection() throws SQLException {
+        if (connection == null) {
+            connection = DbManager.openDedicatedConnection();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+        }
+        return connection;
+    }
+
+    private synchronized void closeConnection() {
+        if (connection != null) {
+            try { connection.close(); } catch (SQLException ignored) {}
+            connection = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        closeConnection();
+    }
+}
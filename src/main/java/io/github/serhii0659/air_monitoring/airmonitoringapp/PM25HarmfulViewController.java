@@ -13,12 +13,27 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PM25HarmfulViewController {
     @FXML private CustomTitleBar titleBar;
     @FXML private ComboBox<StationItem> stationCombo;
+    @FXML private CheckBox monthlyCheck;
+    @FXML private DatePicker monthFromPicker;
+    @FXML private DatePicker monthToPicker;
     @FXML private TableView<HarmfulLevelData> dataTable;
     @FXML private TableColumn<HarmfulLevelData, String> stationColumn;
     @FXML private TableColumn<HarmfulLevelData, Integer> countColumn;
@@ -26,10 +41,23 @@ public class PM25HarmfulViewController {
     @FXML private CategoryAxis xAxis;
     @FXML private NumberAxis yAxis;
     @FXML private Label infoLabel;
+    @FXML private DatePicker calendarStartPicker;
+    @FXML private DatePicker calendarEndPicker;
+    @FXML private CalendarHeatmapView calendarView;
 
     private ObservableList<HarmfulLevelData> dataList = FXCollections.observableArrayList();
     // Harmful level для PM2.5: > 35.4 μg/m³ (EPA standard)
     private static final double PM25_HARMFUL_THRESHOLD = 35.4;
+    private static final String CALENDAR_CACHE_TYPE = "PM2.5 daily max";
+
+    // Harmful day counts of the loaded selection: days before liveFrom are only counted,
+    // days from liveFrom onward are kept so live updates can add new ones
+    private final LiveUpdateListener.Subscriber liveSubscriber = this::onLiveMeasurements;
+    private StationItem loadedStation;
+    private LocalDate liveFrom;
+    private Map<String, Integer> pastCounts = new HashMap<>();
+    private Map<String, Set<LocalDate>> harmfulDays = new HashMap<>();
+    private Set<String> pm25UnitIds = new HashSet<>();
 
     @FXML
     private void initialize() {
@@ -46,6 +74,13 @@ public class PM25HarmfulViewController {
         yAxis.setLabel("Кількість перевищень");
         barChart.setTitle("Кількість днів з шкідливим рівнем PM2.5");
 
+        // Month range applies to the per-month counts; empty pickers mean the whole history
+        monthFromPicker.disableProperty().bind(monthlyCheck.selectedProperty().not());
+        monthToPicker.disableProperty().bind(monthlyCheck.selectedProperty().not());
+
+        calendarEndPicker.setValue(LocalDate.now());
+        calendarStartPicker.setValue(LocalDate.now().withDayOfYear(1).minusYears(1));
+
         // Load stations
         loadStations();
 
@@ -55,6 +90,9 @@ public class PM25HarmfulViewController {
                 if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
                     Stage stage = (Stage) titleBar.getScene().getWindow();
                     titleBar.init("Візуалізація: PM2.5 шкідливий рівень", stage, true, true); // Дозволяємо максимізацію
+                    LiveUpdateListener.subscribe(liveSubscriber);
+                    stage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN,
+                            e -> LiveUpdateListener.unsubscribe(liveSubscriber));
                     System.out.println("Title bar ініціалізовано успішно");
                 } else {
                     System.err.println("Title bar або scene ще не готові");
@@ -108,14 +146,26 @@ public class PM25HarmfulViewController {
             return;
         }
 
+        boolean monthly = monthlyCheck.isSelected();
+        YearMonth fromMonth = monthly && monthFromPicker.getValue() != null ? YearMonth.from(monthFromPicker.getValue()) : null;
+        YearMonth toMonth = monthly && monthToPicker.getValue() != null ? YearMonth.from(monthToPicker.getValue()) : null;
+        if (fromMonth != null && toMonth != null && fromMonth.isAfter(toMonth)) {
+            infoLabel.setText("❌ Початковий місяць не може бути пізніше кінцевого");
+            return;
+        }
         infoLabel.setText("⏳ Завантаження даних...");
 
         new Thread(() -> {
             try {
-                loadDataFromDatabase(selectedStation);
+                if (monthly) {
+                    loadDataFromMonths(selectedStation, fromMonth, toMonth);
+                } else {
+                    loadDataFromDatabase(selectedStation);
+                }
                 Platform.runLater(() -> {
                     updateChart();
-                    infoLabel.setText("✓ Дані завантажено: " + dataList.size() + " станцій");
+                    infoLabel.setText("✓ Дані завантажено: " + dataList.size() + " станцій" + (monthly
+                            ? " (" + monthRange(fromMonth, toMonth) + ")" : ""));
                 });
             } catch (Exception e) {
                 Platform.runLater(() ->
@@ -126,39 +176,39 @@ public class PM25HarmfulViewController {
     }
 
     private void loadDataFromDatabase(StationItem station) throws Exception {
-        String sql;
-
-        if ("ALL".equals(station.getId())) {
-            // All stations
-            sql = """
-                SELECT 
-                    st.Name || ' (' || st.City || ')' AS station_name,
-                    COUNT(DISTINCT DATE(m.Time)) AS harmful_days
-                FROM Measurment m
-                JOIN Station st ON m.ID_Station = st.ID_Station
-                JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit
-                WHERE mu.Title = 'PM2.5'
-                  AND m.Value > ?
-                GROUP BY st.Name, st.City
-                ORDER BY harmful_days DESC
-                """;
-        } else {
-            // Specific station
-            sql = """
-                SELECT 
-                    st.Name || ' (' || st.City || ')' AS station_name,
-                    COUNT(DISTINCT DATE(m.Time)) AS harmful_days
-                FROM Measurment m
-                JOIN Station st ON m.ID_Station = st.ID_Station
-                JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit
-                WHERE mu.Title = 'PM2.5'
-                  AND m.Value > ?
-                  AND m.ID_Station = ?
-                GROUP BY st.Name, st.City
-                """;
+        if (MeasurementCube.isEnabled()) {
+            loadDataFromCube(station);
+            return;
         }
-
-        ObservableList<HarmfulLevelData> newData = FXCollections.observableArrayList();
+        boolean all = "ALL".equals(station.getId());
+        String stationFilter = all ? "" : "  AND m.ID_Station = ?\n";
+
+        // Days before today are counted by the database; only today's are listed
+        String countSql = """
+            SELECT
+                st.ID_Station,
+                st.Name || ' (' || st.City || ')' AS station_name,
+                COUNT(DISTINCT DATE(m.Time)) FILTER (WHERE m.Time < ?) AS harmful_days
+            FROM Measurment m
+            JOIN Station st ON m.ID_Station = st.ID_Station
+            JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit
+            WHERE mu.Title = 'PM2.5'
+              AND m.Value > ?
+            """ + stationFilter + "GROUP BY st.ID_Station, st.Name, st.City";
+        String recentSql = """
+            SELECT DISTINCT m.ID_Station, DATE(m.Time) AS harmful_day
+            FROM Measurment m
+            JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit
+            WHERE mu.Title = 'PM2.5'
+              AND m.Time >= ?
+              AND m.Value > ?
+            """ + stationFilter;
+
+        LocalDate from = LocalDate.now();
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Set<LocalDate>> days = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        Set<String> unitIds = new HashSet<>();
 
         Connection conn = DbManager.getConnection();
         if (conn == null) {
@@ -166,28 +216,273 @@ public class PM25HarmfulViewController {
         }
 
         // НЕ використовуємо try-with-resources для Connection - він керується DbManager
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(countSql)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDouble(2, PM25_HARMFUL_THRESHOLD);
+            if (!all) stmt.setString(3, station.getId());
 
-            stmt.setDouble(1, PM25_HARMFUL_THRESHOLD);
-            if (!"ALL".equals(station.getId())) {
-                stmt.setString(2, station.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String id = rs.getString("ID_Station").trim();
+                    names.put(id, rs.getString("station_name"));
+                    counts.put(id, rs.getInt("harmful_days"));
+                }
             }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(recentSql)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDouble(2, PM25_HARMFUL_THRESHOLD);
+            if (!all) stmt.setString(3, station.getId());
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String stationName = rs.getString("station_name");
-                    int harmfulDays = rs.getInt("harmful_days");
-                    newData.add(new HarmfulLevelData(stationName, harmfulDays));
+                    days.computeIfAbsent(rs.getString(1).trim(), k -> new HashSet<>()).add(rs.getDate(2).toLocalDate());
                 }
             }
         }
 
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT ID_Measured_Unit FROM Measured_Unit WHERE Title = 'PM2.5'");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) unitIds.add(rs.getString(1).trim());
+        }
+
+        showHarmfulDays(station, from, counts, days, names, unitIds);
+    }
+
+    /**
+     * Harmful days are the PM2.5 cells of the cube whose daily maximum is above the threshold
+     */
+    private void loadDataFromCube(StationItem station) throws Exception {
+        MeasurementCube cube = MeasurementCube.current();
+        LocalDate from = LocalDate.now();
+        Map<String, Set<LocalDate>> pastDays = new HashMap<>();
+        Map<String, Set<LocalDate>> days = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        Set<String> unitIds = new HashSet<>(cube.unitIdsByTitle("PM2.5"));
+        String stationId = "ALL".equals(station.getId()) ? null : station.getId();
+        for (String unitId : unitIds) {
+            cube.forEach(cube.select(stationId, null, unitId, null, null), (id, unit, day, min, max, sum, count) -> {
+                if (max <= PM25_HARMFUL_THRESHOLD) return;
+                (day.isBefore(from) ? pastDays : days).computeIfAbsent(id, k -> new HashSet<>()).add(day);
+                names.put(id, cube.stationName(id) + " (" + cube.stationCity(id) + ")");
+            });
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String id : names.keySet()) counts.put(id, pastDays.getOrDefault(id, Set.of()).size());
+        showHarmfulDays(station, from, counts, days, names, unitIds);
+    }
+
+    /**
+     * Harmful days within the months [from, to] from the per-station month masks of
+     * ExceedanceDays; only rows added since the previous refresh are read. Live updates need
+     * the day sets of the exact load, so they are paused until the next one.
+     */
+    private void loadDataFromMonths(StationItem station, YearMonth from, YearMonth to) throws Exception {
+        ExceedanceDays.refresh(PM25_HARMFUL_THRESHOLD);
+        Map<String, Integer> counts = ExceedanceDays.countDays(
+                "ALL".equals(station.getId()) ? null : station.getId(), from, to);
+
+        Platform.runLater(() -> {
+            // Station labels come from the combo, so rows are built on the FX thread
+            ObservableList<HarmfulLevelData> newData = FXCollections.observableArrayList();
+            for (Map.Entry<String, Integer> e : counts.entrySet()) {
+                newData.add(new HarmfulLevelData(e.getKey(), stationLabel(e.getKey()), e.getValue()));
+            }
+            newData.sort((a, b) -> Integer.compare(b.getHarmfulCount(), a.getHarmfulCount()));
+            dataList.setAll(newData);
+            pastCounts = new HashMap<>();
+            harmfulDays = new HashMap<>();
+            loadedStation = null;
+        });
+    }
+
+    /**
+     * Show counts (days before from) plus the listed days from "from" onward
+     */
+    private void showHarmfulDays(StationItem station, LocalDate from, Map<String, Integer> counts,
+                                 Map<String, Set<LocalDate>> days, Map<String, String> names, Set<String> unitIds) {
+        ObservableList<HarmfulLevelData> newData = FXCollections.observableArrayList();
+        for (Map.Entry<String, String> e : names.entrySet()) {
+            int count = counts.getOrDefault(e.getKey(), 0) + days.getOrDefault(e.getKey(), Set.of()).size();
+            if (count > 0) newData.add(new HarmfulLevelData(e.getKey(), e.getValue(), count));
+        }
+        newData.sort((a, b) -> Integer.compare(b.getHarmfulCount(), a.getHarmfulCount()));
+
         Platform.runLater(() -> {
             dataList.clear();
             dataList.addAll(newData);
+            liveFrom = from;
+            pastCounts = counts;
+            harmfulDays = days;
+            pm25UnitIds = unitIds;
+            loadedStation = station;
         });
     }
 
+    /**
+     * Add harmful days from newly inserted PM2.5 values; late rows for days before the load
+     * are already in the counts or are picked up by the next load
+     */
+    private void onLiveMeasurements(List<LiveUpdateListener.Measurement> rows) {
+        if (loadedStation == null) return;
+        boolean changed = false;
+
+        for (LiveUpdateListener.Measurement m : rows) {
+            if (!pm25UnitIds.contains(m.getUnitId()) || m.getValue() <= PM25_HARMFUL_THRESHOLD) continue;
+            if (!"ALL".equals(loadedStation.getId()) && !loadedStation.getId().trim().equals(m.getStationId())) continue;
+            LocalDate day = m.getTime().toLocalDate();
+            if (day.isBefore(liveFrom)) continue;
+
+            Set<LocalDate> days = harmfulDays.computeIfAbsent(m.getStationId(), k -> new HashSet<>());
+            if (!days.add(day)) continue;
+            int count = pastCounts.getOrDefault(m.getStationId(), 0) + days.size();
+
+            int index = -1;
+            for (int i = 0; i < dataList.size(); i++) {
+                if (m.getStationId().equals(dataList.get(i).getStationId())) { index = i; break; }
+            }
+            if (index >= 0) {
+                HarmfulLevelData old = dataList.get(index);
+                dataList.set(index, new HarmfulLevelData(old.getStationId(), old.getStationName(), count));
+            } else {
+                dataList.add(new HarmfulLevelData(m.getStationId(), stationLabel(m.getStationId()), count));
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            FXCollections.sort(dataList, (a, b) -> Integer.compare(b.getHarmfulCount(), a.getHarmfulCount()));
+            updateChart();
+            infoLabel.setText("⚡ Live: оновлено " + java.time.LocalTime.now().withNano(0));
+        }
+    }
+
+    private static String monthRange(YearMonth from, YearMonth to) {
+        if (from == null && to == null) return "уся історія";
+        return (from != null ? "з " + from : "") + (from != null && to != null ? " " : "") + (to != null ? "по " + to : "");
+    }
+
+    private String stationLabel(String stationId) {
+        for (StationItem item : stationCombo.getItems()) {
+            if (item.getId().trim().equals(stationId)) return item.toString();
+        }
+        return stationId;
+    }
+
+    @FXML
+    private void onLoadCalendar() {
+        LocalDate startDate = calendarStartPicker.getValue();
+        LocalDate endDate = calendarEndPicker.getValue();
+        StationItem station = stationCombo.getValue();
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Завантаження календаря...");
+        new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                boolean[] fromCache = new boolean[1];
+                Map<String, double[]> data = loadDailyMaxima(startDate, endDate, fromCache);
+                long elapsed = System.currentTimeMillis() - started;
+
+                // Station filter is applied locally - the cached table always covers all stations
+                Map<String, String> names = new HashMap<>();
+                for (StationItem item : stationCombo.getItems()) names.put(item.getId().trim(), item.toString());
+                int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+                List<String> labels = new ArrayList<>();
+                List<double[]> values = new ArrayList<>();
+                for (Map.Entry<String, double[]> row : data.entrySet()) {
+                    String id = row.getKey();
+                    if (station != null && !"ALL".equals(station.getId()) && !station.getId().trim().equals(id)) continue;
+                    labels.add(names.getOrDefault(id, id));
+                    values.add(row.getValue());
+                }
+
+                Platform.runLater(() -> {
+                    calendarView.setData(labels.toArray(new String[0]), values.toArray(new double[0][]),
+                            startDate, endDate, PM25_HARMFUL_THRESHOLD, "PM2.5");
+                    infoLabel.setText(String.format("✓ Календар: %d станцій × %d днів │ %d мс%s",
+                            labels.size(), days, elapsed, fromCache[0] ? " (кеш)" : ""));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    /**
+     * Raw daily PM2.5 maximum of every station (NaN = no data): sliced from MeasurementCube,
+     * otherwise one grouped query cached per period in SeriesCache. Values are rounded only
+     * when displayed, so the threshold test sees the real maximum.
+     */
+    private Map<String, double[]> loadDailyMaxima(LocalDate startDate, LocalDate endDate,
+                                                  boolean[] fromCache) throws Exception {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        Map<String, double[]> byStation = new LinkedHashMap<>();
+        if (MeasurementCube.isEnabled()) {
+            MeasurementCube cube = MeasurementCube.current();
+            for (String unitId : cube.unitIdsByTitle("PM2.5")) {
+                cube.forEach(cube.select(null, null, unitId, startDate, endDate), (id, unit, day, min, max, sum, count) -> {
+                    double[] cells = byStation.computeIfAbsent(id, k -> emptyDays(days));
+                    int index = (int) ChronoUnit.DAYS.between(startDate, day);
+                    cells[index] = Double.isNaN(cells[index]) ? max : Math.max(cells[index], max);
+                });
+            }
+            fromCache[0] = true;
+            return byStation;
+        }
+
+        String start = startDate + " 00:00:00";
+        String end = endDate + " 23:59:59";
+        long[] watermark = DbManager.getStationWatermark(DbManager.ALL_STATIONS);
+        Map<String, double[]> cached = SeriesCache.get(CALENDAR_CACHE_TYPE, DbManager.ALL_STATIONS, start, end, watermark);
+        if (cached != null) {
+            fromCache[0] = true;
+            return cached;
+        }
+
+        String sql = """
+            SELECT m.ID_Station, DATE(m.Time) AS day, MAX(m.Value) AS max_value
+            FROM Measurment m
+            JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit
+            WHERE mu.Title = 'PM2.5'
+              AND m.Time >= ? AND m.Time < ?
+            GROUP BY m.ID_Station, DATE(m.Time)
+            ORDER BY m.ID_Station
+            """;
+        try (PreparedStatement ps = DbManager.getConnection().prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(startDate));
+            ps.setDate(2, Date.valueOf(endDate.plusDays(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double[] cells = byStation.computeIfAbsent(rs.getString(1).trim(), k -> emptyDays(days));
+                    int index = (int) ChronoUnit.DAYS.between(startDate, rs.getDate(2).toLocalDate());
+                    if (index >= 0 && index < days) cells[index] = rs.getDouble(3);
+                }
+            }
+        }
+
+        SeriesCache.put(CALENDAR_CACHE_TYPE, DbManager.ALL_STATIONS, start, end, watermark, byStation);
+        SeriesCache.flush();
+        return byStation;
+    }
+
+    private static double[] emptyDays(int days) {
+        double[] values = new double[days];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+
     private void updateChart() {
         barChart.getData().clear();
 
@@ -230,14 +525,17 @@ public class PM25HarmfulViewController {
     }
 
     public static class HarmfulLevelData {
+        private final String stationId;
         private final String stationName;
         private final int harmfulCount;
 
-        public HarmfulLevelData(String stationName, int harmfulCount) {
+        public HarmfulLevelData(String stationId, String stationName, int harmfulCount) {
+            this.stationId = stationId;
             this.stationName = stationName;
             this.harmfulCount = harmfulCount;
         }
 
+        public String getStationId() { return stationId; }
         public String getStationName() { return stationName; }
         public int getHarmfulCount() { return harmfulCount; }
     }
@@ -16,6 +16,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
 
 public class PM25PM10ViewController {
     @FXML private CustomTitleBar titleBar;
@@ -32,6 +38,13 @@ public class PM25PM10ViewController {
 
     private ObservableList<RegionPMData> dataList = FXCollections.observableArrayList();
 
+    // State for live updates: loaded period and lookups for new rows
+    private final LiveUpdateListener.Subscriber liveSubscriber = this::onLiveMeasurements;
+    private LocalDate loadedStart;
+    private LocalDate loadedEnd;
+    private Map<String, String> cityByStation = new HashMap<>();
+    private Map<String, String> pmTitleByUnit = new HashMap<>();
+
     @FXML
     private void initialize() {
         System.out.println("PM25PM10ViewController.initialize() викликано");
@@ -58,6 +71,9 @@ public class PM25PM10ViewController {
                 if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
                     Stage stage = (Stage) titleBar.getScene().getWindow();
                     titleBar.init("Візуалізація: PM2.5 та PM10", stage, true, true); // Дозволяємо максимізацію
+                    LiveUpdateListener.subscribe(liveSubscriber);
+                    stage.addEventHandler(javafx.stage.WindowEvent.WINDOW_HIDDEN,
+                            e -> LiveUpdateListener.unsubscribe(liveSubscriber));
                     System.out.println("Title bar ініціалізовано успішно");
                 } else {
                     System.err.println("Title bar або scene ще не готові");
@@ -96,10 +112,22 @@ public class PM25PM10ViewController {
         // Load data in background
         new Thread(() -> {
             try {
-                loadDataFromDatabase(startDate, endDate);
+                boolean fromCache = MeasurementCache.isEnabled();
+                boolean fromCube = !fromCache && MeasurementCube.isEnabled();
+                if (fromCache) {
+                    loadDataFromCache(startDate, endDate);
+                } else if (fromCube) {
+                    loadDataFromCube(startDate, endDate);
+                } else {
+                    loadDataFromDatabase(startDate, endDate);
+                }
+                loadLiveLookups();
                 Platform.runLater(() -> {
+                    loadedStart = startDate;
+                    loadedEnd = endDate;
                     updateChart();
-                    infoLabel.setText("✓ Дані завантажено: " + dataList.size() + " областей");
+                    infoLabel.setText("✓ Дані завантажено: " + dataList.size() + " областей"
+                            + (fromCache ? " (локальний кеш)" : fromCube ? " (куб)" : ""));
                 });
             } catch (Exception e) {
                 Platform.runLater(() ->
@@ -158,6 +186,155 @@ public class PM25PM10ViewController {
         });
     }
 
+    /**
+     * Same aggregation as loadDataFromDatabase, rolled up by city from MeasurementCube
+     */
+    private void loadDataFromCube(LocalDate startDate, LocalDate endDate) throws Exception {
+        MeasurementCube cube = MeasurementCube.current();
+
+        // city -> {pm25 max, pm10 max}, NaN = no data
+        Map<String, double[]> byCity = new TreeMap<>();
+        String[] titles = { "PM2.5", "PM10" };
+        for (int index = 0; index < titles.length; index++) {
+            for (String unitId : cube.unitIdsByTitle(titles[index])) {
+                for (Map.Entry<String, MeasurementCube.Aggregate> e : cube.rollUp(
+                        cube.select(null, null, unitId, startDate, endDate), MeasurementCube.Dimension.CITY).entrySet()) {
+                    double[] max = byCity.computeIfAbsent(e.getKey(), c -> new double[] { Double.NaN, Double.NaN });
+                    double value = e.getValue().getMax();
+                    if (!Double.isNaN(value) && (Double.isNaN(max[index]) || value > max[index])) {
+                        max[index] = value;
+                    }
+                }
+            }
+        }
+
+        ObservableList<RegionPMData> newData = FXCollections.observableArrayList();
+        for (Map.Entry<String, double[]> e : byCity.entrySet()) {
+            double[] max = e.getValue();
+            if (!Double.isNaN(max[0]) || !Double.isNaN(max[1])) {
+                newData.add(new RegionPMData(e.getKey(),
+                        Double.isNaN(max[0]) ? null : max[0],
+                        Double.isNaN(max[1]) ? null : max[1]));
+            }
+        }
+
+        Platform.runLater(() -> {
+            dataList.clear();
+            dataList.addAll(newData);
+        });
+    }
+
+    /**
+     * Same aggregation as loadDataFromDatabase, over MeasurementCache (syncs new rows first)
+     */
+    private void loadDataFromCache(LocalDate startDate, LocalDate endDate) throws Exception {
+        List<String> stationIds = new ArrayList<>();
+        try (ResultSet rs = DbManager.getAllStations()) {
+            while (rs.next()) stationIds.add(rs.getString("ID_Station").trim());
+        }
+        MeasurementCache.syncAll(stationIds);
+
+        Properties meta = MeasurementCache.getMetadata();
+        long from = java.sql.Timestamp.valueOf(startDate.atStartOfDay()).getTime();
+        long to = java.sql.Timestamp.valueOf(endDate.atTime(23, 59, 59)).getTime();
+
+        // city -> {pm25 max, pm10 max}, NaN = no data
+        Map<String, double[]> byCity = new TreeMap<>();
+        for (String stationId : stationIds) {
+            String city = meta.getProperty("station." + stationId + ".city", "");
+            double[] max = byCity.computeIfAbsent(city, c -> new double[] { Double.NaN, Double.NaN });
+            for (Map.Entry<String, MeasurementCache.UnitStats> e
+                    : MeasurementCache.aggregate(stationId, from, to).entrySet()) {
+                String title = meta.getProperty("unit." + e.getKey() + ".title", "");
+                int index = "PM2.5".equals(title) ? 0 : "PM10".equals(title) ? 1 : -1;
+                double value = e.getValue().getMax();
+                if (index >= 0 && (Double.isNaN(max[index]) || value > max[index])) {
+                    max[index] = value;
+                }
+            }
+        }
+
+        ObservableList<RegionPMData> newData = FXCollections.observableArrayList();
+        for (Map.Entry<String, double[]> e : byCity.entrySet()) {
+            double[] max = e.getValue();
+            if (!Double.isNaN(max[0]) || !Double.isNaN(max[1])) {
+                newData.add(new RegionPMData(e.getKey(),
+                        Double.isNaN(max[0]) ? null : max[0],
+                        Double.isNaN(max[1]) ? null : max[1]));
+            }
+        }
+
+        Platform.runLater(() -> {
+            dataList.clear();
+            dataList.addAll(newData);
+        });
+    }
+
+    /**
+     * Station -> city and PM unit ids, to place live rows without re-querying
+     */
+    private void loadLiveLookups() throws Exception {
+        Map<String, String> cities = new HashMap<>();
+        try (ResultSet rs = DbManager.getAllStations()) {
+            while (rs.next()) cities.put(rs.getString("ID_Station").trim(), rs.getString("City"));
+        }
+        Map<String, String> units = new HashMap<>();
+        try (PreparedStatement ps = DbManager.getConnection().prepareStatement(
+                "SELECT ID_Measured_Unit, Title FROM Measured_Unit WHERE Title IN ('PM2.5', 'PM10')");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) units.put(rs.getString(1).trim(), rs.getString(2));
+        }
+        Platform.runLater(() -> {
+            cityByStation = cities;
+            pmTitleByUnit = units;
+        });
+    }
+
+    /**
+     * Raise city maximums with newly inserted rows of the loaded period
+     */
+    private void onLiveMeasurements(List<LiveUpdateListener.Measurement> rows) {
+        if (loadedStart == null) return;
+        boolean changed = false;
+
+        for (LiveUpdateListener.Measurement m : rows) {
+            String title = pmTitleByUnit.get(m.getUnitId());
+            String city = cityByStation.get(m.getStationId());
+            LocalDate day = m.getTime().toLocalDate();
+            if (title == null || city == null || day.isBefore(loadedStart) || day.isAfter(loadedEnd)) continue;
+
+            int index = -1;
+            for (int i = 0; i < dataList.size(); i++) {
+                if (city.equals(dataList.get(i).getRegion())) { index = i; break; }
+            }
+            RegionPMData old = index >= 0 ? dataList.get(index) : null;
+            Double pm25 = old != null ? old.pm25Max : null;
+            Double pm10 = old != null ? old.pm10Max : null;
+
+            if ("PM2.5".equals(title) && (pm25 == null || m.getValue() > pm25)) {
+                pm25 = m.getValue();
+            } else if ("PM10".equals(title) && (pm10 == null || m.getValue() > pm10)) {
+                pm10 = m.getValue();
+            } else {
+                continue;
+            }
+
+            RegionPMData updated = new RegionPMData(city, pm25, pm10);
+            if (index >= 0) {
+                dataList.set(index, updated);
+            } else {
+                dataList.add(updated);
+                FXCollections.sort(dataList, (a, b) -> a.getRegion().compareTo(b.getRegion()));
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            updateChart();
+            infoLabel.setText("⚡ Live: оновлено " + java.time.LocalTime.now().withNano(0));
+        }
+    }
+
     private void updateChart() {
         barChart.getData().clear();
 
@@ -0,0 +1,55 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs tasks 0..count-1 on a fixed set of daemon worker threads (at most one per core).
+ * Every worker opens its own dedicated connection with autocommit off, so tasks can stream
+ * rows through cursors, and commits after each task. The first failure stops the remaining
+ * tasks and is rethrown once all workers have finished.
+ */
+public final class ParallelWorkers {
+    private ParallelWorkers() {}
+
+    /**
+     * One unit of work, run on the worker's connection
+     */
+    public interface Task {
+        void run(Connection conn, int index) throws Exception;
+    }
+
+    /**
+     * Run all tasks and wait for them; returns the number of workers used
+     */
+    public static int run(String name, int count, Task task) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), count));
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            Thread thread = new Thread(() -> {
+                try (Connection conn = DbManager.openDedicatedConnection()) {
+                    conn.setAutoCommit(false);
+                    int i;
+                    while ((i = next.getAndIncrement()) < count && failure.get() == null) {
+                        task.run(conn, i);
+                        conn.commit();
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, name + "-worker-" + w);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        if (failure.get() != null) throw failure.get();
+        return workers;
+    }
+}
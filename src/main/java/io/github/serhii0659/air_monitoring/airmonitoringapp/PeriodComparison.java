@@ -0,0 +1,166 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Period-over-period comparison (year over year, month over month) of per-station, per-parameter
+ * statistics. Both periods are aggregated in one scan: a single grouped query with the period
+ * label as grouping key, or one pass over MeasurementCube cells when the cube is enabled.
+ */
+public final class PeriodComparison {
+    private static final DateTimeFormatter SQL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private PeriodComparison() {}
+
+    public enum Mode {
+        YEAR_OVER_YEAR("З тим самим періодом минулого року"),
+        MONTH_OVER_MONTH("З попереднім місяцем");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Reference period {start, end} of [start, end]. When the shifted period would overlap the
+         * current one (period longer than the shift), the preceding period of equal length is used.
+         */
+        public LocalDate[] reference(LocalDate start, LocalDate end) {
+            if (this == YEAR_OVER_YEAR) {
+                LocalDate from = start.minusYears(1);
+                LocalDate to = end.minusYears(1);
+                if (!to.isBefore(start)) return preceding(start, end);
+                return new LocalDate[] { from, to };
+            }
+            LocalDate to = end.minusMonths(1);
+            if (!to.isBefore(start)) return preceding(start, end);
+            return new LocalDate[] { start.minusMonths(1), to };
+        }
+
+        private static LocalDate[] preceding(LocalDate start, LocalDate end) {
+            long days = ChronoUnit.DAYS.between(start, end) + 1;
+            return new LocalDate[] { start.minusDays(days), start.minusDays(1) };
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /**
+     * Mean / min / max / count of one period; count 0 means no data
+     */
+    public static class Stats {
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private long count;
+
+        void add(double mean, double min, double max, long count) {
+            this.sum += mean * count;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            this.count += count;
+        }
+
+        public double getMean() { return count == 0 ? Double.NaN : sum / count; }
+        public double getMin() { return count == 0 ? Double.NaN : min; }
+        public double getMax() { return count == 0 ? Double.NaN : max; }
+        public long getCount() { return count; }
+    }
+
+    public static class Row {
+        private final String stationId;
+        private final String stationName;
+        private final String city;
+        private final String title;
+        private final String unit;
+        private final Stats current = new Stats();
+        private final Stats reference = new Stats();
+
+        Row(String stationId, String stationName, String city, String title, String unit) {
+            this.stationId = stationId;
+            this.stationName = stationName;
+            this.city = city;
+            this.title = title;
+            this.unit = unit;
+        }
+
+        public String getStationId() { return stationId; }
+        public String getStationName() { return stationName; }
+        public String getCity() { return city; }
+        public String getTitle() { return title; }
+        public String getUnit() { return unit; }
+        public Stats getCurrent() { return current; }
+        public Stats getReference() { return reference; }
+
+        /** Change of the mean; NaN when either period has no data */
+        public double getDelta() {
+            return current.getMean() - reference.getMean();
+        }
+
+        /** Change of the mean in percent of the reference mean; NaN when it is missing or zero */
+        public double getPercentChange() {
+            double base = reference.getMean();
+            return base == 0 ? Double.NaN : getDelta() / Math.abs(base) * 100;
+        }
+    }
+
+    /**
+     * Compare [start, end] (whole days) with its reference period for the given stations
+     * (all stations when stationIds is null); rows are ordered by station name and parameter.
+     */
+    public static List<Row> compare(List<String> stationIds, LocalDate start, LocalDate end, Mode mode)
+            throws Exception {
+        LocalDate[] reference = mode.reference(start, end);
+        Map<String, Row> rows = new LinkedHashMap<>();
+
+        if (MeasurementCube.isEnabled()) {
+            MeasurementCube cube = MeasurementCube.current();
+            // One pass over the cells spanning both periods; each day goes to either side
+            MeasurementCube.CellConsumer consumer = (id, unitId, day, min, max, sum, count) -> {
+                boolean isCurrent = !day.isBefore(start);
+                if (count == 0 || (!isCurrent && day.isAfter(reference[1]))) return;
+                Row row = rows.computeIfAbsent(id + "|" + unitId, k -> new Row(id, cube.stationName(id),
+                        cube.stationCity(id), cube.unitTitle(unitId), cube.unitName(unitId)));
+                (isCurrent ? row.current : row.reference).add(sum / count, min, max, count);
+            };
+            if (stationIds == null) {
+                cube.forEach(cube.select(null, null, null, reference[0], end), consumer);
+            } else {
+                for (String stationId : stationIds) {
+                    cube.forEach(cube.select(stationId, null, null, reference[0], end), consumer);
+                }
+            }
+        } else {
+            try (ResultSet rs = DbManager.getPeriodComparisonData(stationIds,
+                    start.format(SQL_DATE) + " 00:00:00", end.format(SQL_DATE) + " 23:59:59",
+                    reference[0].format(SQL_DATE) + " 00:00:00", reference[1].format(SQL_DATE) + " 23:59:59")) {
+                while (rs.next()) {
+                    String stationId = rs.getString("station_id").trim();
+                    String title = rs.getString("title");
+                    String unit = rs.getString("unit");
+                    String stationName = rs.getString("station_name");
+                    String city = rs.getString("city");
+                    Row row = rows.computeIfAbsent(stationId + "|" + title + "|" + unit,
+                            k -> new Row(stationId, stationName, city, title, unit));
+                    Stats stats = "current".equals(rs.getString("period")) ? row.current : row.reference;
+                    stats.add(rs.getDouble("avg_value"), rs.getDouble("min_value"), rs.getDouble("max_value"),
+                            rs.getLong("cnt"));
+                }
+            }
+        }
+
+        List<Row> result = new ArrayList<>(rows.values());
+        result.sort(Comparator.comparing(Row::getStationName).thenComparing(Row::getTitle));
+        return result;
+    }
+}
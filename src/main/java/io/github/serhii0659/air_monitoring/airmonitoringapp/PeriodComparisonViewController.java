@@ -0,0 +1,213 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Year-over-year / month-over-month change of every parameter per station. Both periods come
+ * from PeriodComparison in one scan; the chart shows current and reference means of the
+ * station selected in the table.
+ */
+public class PeriodComparisonViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> stationCombo;
+    @FXML private ComboBox<PeriodComparison.Mode> modeCombo;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private BarChart<String, Number> barChart;
+    @FXML private CategoryAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private TableView<ComparisonRow> dataTable;
+    @FXML private TableColumn<ComparisonRow, String> stationColumn;
+    @FXML private TableColumn<ComparisonRow, String> parameterColumn;
+    @FXML private TableColumn<ComparisonRow, String> currentColumn;
+    @FXML private TableColumn<ComparisonRow, String> referenceColumn;
+    @FXML private TableColumn<ComparisonRow, String> deltaColumn;
+    @FXML private TableColumn<ComparisonRow, String> percentColumn;
+    @FXML private Label infoLabel;
+
+    private static final String ALL = "ALL";
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final ObservableList<ComparisonRow> dataList = FXCollections.observableArrayList();
+    private String chartStationId;
+
+    @FXML
+    private void initialize() {
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        parameterColumn.setCellValueFactory(new PropertyValueFactory<>("parameter"));
+        currentColumn.setCellValueFactory(new PropertyValueFactory<>("current"));
+        referenceColumn.setCellValueFactory(new PropertyValueFactory<>("reference"));
+        deltaColumn.setCellValueFactory(new PropertyValueFactory<>("delta"));
+        percentColumn.setCellValueFactory(new PropertyValueFactory<>("percent"));
+        dataTable.setItems(dataList);
+        dataTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> {
+            if (n != null) updateChart(n.row.getStationId());
+        });
+
+        modeCombo.setItems(FXCollections.observableArrayList(PeriodComparison.Mode.values()));
+        modeCombo.setValue(PeriodComparison.Mode.YEAR_OVER_YEAR);
+
+        // Last complete month by default: "this month vs the same month last year"
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        startDatePicker.setValue(firstOfMonth.minusMonths(1));
+        endDatePicker.setValue(firstOfMonth.minusDays(1));
+
+        xAxis.setLabel("Параметр");
+        yAxis.setLabel("Середнє значення");
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Порівняння періодів", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                ObservableList<TimeSeriesViewController.Option> stations = FXCollections.observableArrayList();
+                stations.add(new TimeSeriesViewController.Option(ALL, "Усі станції"));
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        stations.add(new TimeSeriesViewController.Option(rs.getString("ID_Station").trim(),
+                                rs.getString("Name") + " (" + rs.getString("City") + ")"));
+                    }
+                }
+                Platform.runLater(() -> {
+                    stationCombo.setItems(stations);
+                    stationCombo.getSelectionModel().selectFirst();
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження станцій: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onLoadData() {
+        TimeSeriesViewController.Option station = stationCombo.getValue();
+        PeriodComparison.Mode mode = modeCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (station == null || mode == null) {
+            infoLabel.setText("❌ Оберіть станцію та режим порівняння");
+            return;
+        }
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Порівняння періодів...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try {
+                List<PeriodComparison.Row> rows = PeriodComparison.compare(
+                        ALL.equals(station.getId()) ? null : List.of(station.getId()), startDate, endDate, mode);
+                LocalDate[] reference = mode.reference(startDate, endDate);
+                long elapsed = System.currentTimeMillis() - started;
+
+                ObservableList<ComparisonRow> tableRows = FXCollections.observableArrayList();
+                for (PeriodComparison.Row row : rows) tableRows.add(new ComparisonRow(row));
+                Platform.runLater(() -> {
+                    dataList.setAll(tableRows);
+                    chartStationId = null;
+                    barChart.getData().clear();
+                    if (!tableRows.isEmpty()) dataTable.getSelectionModel().selectFirst();
+                    infoLabel.setText(String.format("✓ %s - %s проти %s - %s: %d рядків │ %d мс",
+                            startDate.format(DISPLAY_DATE), endDate.format(DISPLAY_DATE),
+                            reference[0].format(DISPLAY_DATE), reference[1].format(DISPLAY_DATE),
+                            tableRows.size(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void updateChart(String stationId) {
+        if (stationId.equals(chartStationId)) return;
+        chartStationId = stationId;
+        XYChart.Series<String, Number> current = new XYChart.Series<>();
+        current.setName("Період");
+        XYChart.Series<String, Number> reference = new XYChart.Series<>();
+        reference.setName("Базовий період");
+        String stationName = null;
+        for (ComparisonRow row : dataList) {
+            if (!stationId.equals(row.row.getStationId())) continue;
+            stationName = row.getStation();
+            String parameter = row.getParameter();
+            if (row.row.getCurrent().getCount() > 0) {
+                current.getData().add(new XYChart.Data<>(parameter, row.row.getCurrent().getMean()));
+            }
+            if (row.row.getReference().getCount() > 0) {
+                reference.getData().add(new XYChart.Data<>(parameter, row.row.getReference().getMean()));
+            }
+        }
+        barChart.getData().setAll(List.of(current, reference));
+        barChart.setTitle(stationName);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class ComparisonRow {
+        private final String station;
+        private final String parameter;
+        private final String current;
+        private final String reference;
+        private final String delta;
+        private final String percent;
+        private final PeriodComparison.Row row;
+
+        public ComparisonRow(PeriodComparison.Row row) {
+            this.row = row;
+            this.station = row.getCity() != null && !row.getCity().isEmpty()
+                    ? row.getStationName() + " (" + row.getCity() + ")" : row.getStationName();
+            this.parameter = row.getTitle() + ", " + row.getUnit();
+            this.current = format(row.getCurrent().getMean(), "%.2f");
+            this.reference = format(row.getReference().getMean(), "%.2f");
+            this.delta = format(row.getDelta(), "%+.2f");
+            this.percent = Double.isNaN(row.getPercentChange()) ? "-"
+                    : String.format("%s %+.1f%%", row.getPercentChange() > 0 ? "▲" : row.getPercentChange() < 0 ? "▼" : "",
+                            row.getPercentChange()).trim();
+        }
+
+        private static String format(double value, String pattern) {
+            return Double.isNaN(value) ? "-" : String.format(pattern, value);
+        }
+
+        public String getStation() { return station; }
+        public String getParameter() { return parameter; }
+        public String getCurrent() { return current; }
+        public String getReference() { return reference; }
+        public String getDelta() { return delta; }
+        public String getPercent() { return percent; }
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stations ranked by max / mean / P95 / exceedance days / AQI over a period. Only one page
+ * of K ranks is computed and drawn; the buttons move through the rest of the ranking.
+ */
+public class RankingViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<StationRanking.Metric> metricCombo;
+    @FXML private ComboBox<TimeSeriesViewController.Option> unitCombo;
+    @FXML private TextField thresholdField;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private ComboBox<String> directionCombo;
+    @FXML private ComboBox<Integer> pageSizeCombo;
+    @FXML private BarChart<String, Number> barChart;
+    @FXML private CategoryAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private Button previousButton;
+    @FXML private Button nextButton;
+    @FXML private Label pageLabel;
+    @FXML private TableView<RankRow> dataTable;
+    @FXML private TableColumn<RankRow, Integer> rankColumn;
+    @FXML private TableColumn<RankRow, String> stationColumn;
+    @FXML private TableColumn<RankRow, String> valueColumn;
+    @FXML private Label infoLabel;
+
+    private static final String HIGHEST = "Найвищі значення";
+    private static final String LOWEST = "Найнижчі значення";
+
+    private final ObservableList<RankRow> dataList = FXCollections.observableArrayList();
+    private final Map<String, String> stationNames = new HashMap<>();
+    private int offset;
+    private int total;
+    private boolean running;
+
+    @FXML
+    private void initialize() {
+        rankColumn.setCellValueFactory(new PropertyValueFactory<>("rank"));
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        valueColumn.setCellValueFactory(new PropertyValueFactory<>("value"));
+        dataTable.setItems(dataList);
+
+        metricCombo.setItems(FXCollections.observableArrayList(StationRanking.Metric.values()));
+        metricCombo.valueProperty().addListener((obs, o, n) -> updateControls());
+        metricCombo.setValue(StationRanking.Metric.MAX);
+        unitCombo.valueProperty().addListener((obs, o, n) -> updateThreshold());
+        directionCombo.setItems(FXCollections.observableArrayList(HIGHEST, LOWEST));
+        directionCombo.setValue(HIGHEST);
+        pageSizeCombo.setItems(FXCollections.observableArrayList(10, 20, 50));
+        pageSizeCombo.setValue(20);
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusYears(1));
+
+        xAxis.setLabel("Станція");
+        updatePaging();
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Рейтинг станцій", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                Map<String, String> names = new HashMap<>();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        names.put(rs.getString("ID_Station").trim(), rs.getString("Name") + " (" + rs.getString("City") + ")");
+                    }
+                }
+                ObservableList<TimeSeriesViewController.Option> units = FXCollections.observableArrayList();
+                try (Statement st = DbManager.getConnection().createStatement();
+                     ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+                    while (rs.next()) {
+                        units.add(new TimeSeriesViewController.Option(rs.getString(1).trim(), rs.getString(2)));
+                    }
+                }
+                Platform.runLater(() -> {
+                    stationNames.putAll(names);
+                    unitCombo.setItems(units);
+                    units.stream().filter(o -> o.getLabel().replace(" ", "").toUpperCase().contains("PM2.5"))
+                            .findFirst()
+                            .ifPresentOrElse(unitCombo::setValue, () -> unitCombo.getSelectionModel().selectFirst());
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження параметрів: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    private void updateControls() {
+        StationRanking.Metric metric = metricCombo.getValue();
+        unitCombo.setDisable(metric != null && !metric.isPerUnit());
+        thresholdField.setDisable(metric != StationRanking.Metric.EXCEEDANCE_DAYS);
+    }
+
+    /**
+     * Default exceedance threshold: the rolling standard limit of the unit, if it has one
+     */
+    private void updateThreshold() {
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        if (unit == null) return;
+        RollingWindow.standards().stream()
+                .filter(s -> unit.getLabel().replace(" ", "").equalsIgnoreCase(s.getUnitTitle()))
+                .findFirst()
+                .ifPresent(s -> thresholdField.setText(String.valueOf(s.getLimit())));
+    }
+
+    @FXML
+    private void onLoadData() {
+        offset = 0;
+        loadPage();
+    }
+
+    @FXML
+    private void onPreviousPage() {
+        offset = Math.max(0, offset - pageSizeCombo.getValue());
+        loadPage();
+    }
+
+    @FXML
+    private void onNextPage() {
+        offset += pageSizeCombo.getValue();
+        loadPage();
+    }
+
+    private void loadPage() {
+        if (running) return;
+        StationRanking.Metric metric = metricCombo.getValue();
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (metric == null || (metric.isPerUnit() && unit == null)) {
+            infoLabel.setText("❌ Оберіть показник та параметр");
+            return;
+        }
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+        double threshold = 0;
+        if (metric == StationRanking.Metric.EXCEEDANCE_DAYS) {
+            try {
+                threshold = Double.parseDouble(thresholdField.getText().trim().replace(',', '.'));
+            } catch (NumberFormatException e) {
+                infoLabel.setText("❌ Некоректний поріг");
+                return;
+            }
+        }
+
+        boolean descending = HIGHEST.equals(directionCombo.getValue());
+        int limit = pageSizeCombo.getValue();
+        int pageOffset = offset;
+        String unitId = unit != null ? unit.getId() : null;
+        double limitValue = threshold;
+        running = true;
+        infoLabel.setText("⏳ Розрахунок рейтингу...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try {
+                StationRanking.Page page = StationRanking.rank(metric, unitId, startDate, endDate, limitValue,
+                        descending, pageOffset, limit);
+                long elapsed = System.currentTimeMillis() - started;
+                ObservableList<RankRow> rows = FXCollections.observableArrayList();
+                for (StationRanking.Entry entry : page.getEntries()) {
+                    rows.add(new RankRow(entry.getRank(),
+                            stationNames.getOrDefault(entry.getStationId(), entry.getStationId()),
+                            metric == StationRanking.Metric.EXCEEDANCE_DAYS
+                                    ? String.valueOf(Math.round(entry.getValue()))
+                                    : String.format("%.2f", entry.getValue()),
+                            entry.getValue()));
+                }
+                Platform.runLater(() -> {
+                    running = false;
+                    total = page.getTotal();
+                    if (rows.isEmpty() && pageOffset > 0) {
+                        offset = Math.max(0, pageOffset - limit);
+                    } else {
+                        dataList.setAll(rows);
+                        updateChart(metric, unit);
+                    }
+                    updatePaging();
+                    infoLabel.setText(String.format("✓ %s: %d станцій у рейтингу │ %d мс",
+                            metric, page.getTotal(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    running = false;
+                    infoLabel.setText("❌ Помилка: " + e.getMessage());
+                });
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void updateChart(StationRanking.Metric metric, TimeSeriesViewController.Option unit) {
+        barChart.getData().clear();
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName(metric.toString());
+        for (RankRow row : dataList) {
+            series.getData().add(new XYChart.Data<>(row.getRank() + ". " + row.getStation(), row.numericValue));
+        }
+        barChart.getData().add(series);
+        yAxis.setLabel(metric.isPerUnit() && unit != null ? metric + ", " + unit.getLabel() : metric.toString());
+    }
+
+    private void updatePaging() {
+        int size = pageSizeCombo.getValue();
+        previousButton.setDisable(offset == 0);
+        nextButton.setDisable(offset + size >= total);
+        pageLabel.setText(total == 0 ? "" : String.format("Місця %d–%d з %d",
+                offset + 1, Math.min(offset + size, total), total));
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class RankRow {
+        private final int rank;
+        private final String station;
+        private final String value;
+        private final double numericValue;
+
+        public RankRow(int rank, String station, String value, double numericValue) {
+            this.rank = rank;
+            this.station = station;
+            this.value = value;
+            this.numericValue = numericValue;
+        }
+
+        public int getRank() { return rank; }
+        public String getStation() { return station; }
+        public String getValue() { return value; }
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of computed report tables keyed by (database, report type, station, start, end).
+ * Each entry remembers the station watermark (max ID_Measurment / max Time) it was
+ * computed at and is dropped only when a newer measurement falls inside its period.
+ * Entries are stored gzip-compressed in report-cache.bin inside the app data dir.
+ *
+ * The watermark check of get() runs outside the lock, and a hit only marks the cache dirty
+ * instead of rewriting the file; the file is written by put(), clear() and flush().
+ */
+public final class ReportCache {
+    private static final String CACHE_FILE = "report-cache.bin";
+    private static final int MAGIC = 0x52434143; // "RCAC"
+    private static final int VERSION = 1;
+    private static final int MAX_ENTRIES = 500;
+    private static final int MAX_ROWS_PER_ENTRY = 50_000;
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private ReportCache() {}
+
+    private static class Entry {
+        String stationId;
+        String start;
+        String end;
+        long maxId;
+        long maxTime;
+        List<String> headers = new ArrayList<>();
+        List<List<String>> rows = new ArrayList<>();
+    }
+
+    /**
+     * Return cached table (without title and total row) or null if missing or stale.
+     * The watermark must be read before the caller would run the report query.
+     */
+    public static ReportGenerator.ReportData get(String reportType, String stationId,
+                                                 String start, String end,
+                                                 long[] watermark) throws Exception {
+        String key = key(reportType, stationId, start, end);
+        Entry entry;
+        long entryId;
+        long entryTime;
+        synchronized (ReportCache.class) {
+            ensureLoaded();
+            entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.maxId == watermark[0] && entry.maxTime == watermark[1]) return copy(entry);
+            entryId = entry.maxId;
+            entryTime = entry.maxTime;
+        }
+
+        // Rows were deleted or changed (can't trust the entry), or new rows fall inside the period
+        boolean stale = watermark[0] < entryId
+                || (watermark[0] > entryId && DbManager.hasMeasurementsAfter(stationId, entryId, entry.start, entry.end));
+        synchronized (ReportCache.class) {
+            if (stale) {
+                entries.remove(key, entry);
+                dirty = true;
+                return null;
+            }
+            if (entry.maxId == entryId && entry.maxTime == entryTime) {
+                entry.maxId = watermark[0];
+                entry.maxTime = watermark[1];
+                dirty = true;
+            }
+            return copy(entry);
+        }
+    }
+
+    private static ReportGenerator.ReportData copy(Entry entry) {
+        ReportGenerator.ReportData data = new ReportGenerator.ReportData();
+        data.headers.addAll(entry.headers);
+        for (List<String> row : entry.rows) {
+            data.rows.add(new ArrayList<>(row));
+        }
+        return data;
+    }
+
+    public static synchronized void put(String reportType, String stationId, String start, String end,
+                                        long[] watermark, ReportGenerator.ReportData data) {
+        ensureLoaded();
+        if (data.rows.size() > MAX_ROWS_PER_ENTRY) return; // Too large to keep
+
+        Entry entry = new Entry();
+        entry.stationId = stationId;
+        entry.start = start;
+        entry.end = end;
+        entry.maxId = watermark[0];
+        entry.maxTime = watermark[1];
+        entry.headers.addAll(data.headers);
+        for (List<String> row : data.rows) {
+            entry.rows.add(new ArrayList<>(row));
+        }
+        entries.put(key(reportType, stationId, start, end), entry);
+        dirty = true;
+        flush();
+    }
+
+    /**
+     * Write the cache file if anything changed since the last write
+     */
+    public static synchronized void flush() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            StateFile.write(file(), MAGIC, VERSION, ReportCache::writeEntries);
+        } catch (IOException e) {
+            System.err.println("Помилка збереження кешу звітів: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        dirty = true;
+        flush();
+    }
+
+    private static String key(String reportType, String stationId, String start, String end) {
+        return ConfigManager.getDbName() + "|" + reportType + "|" + stationId + "|" + start + "|" + end;
+    }
+
+    private static File file() {
+        return new File(ConfigManager.getAppDataDir(), CACHE_FILE);
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        try {
+            StateFile.read(file(), MAGIC, VERSION, ReportCache::readEntries);
+        } catch (IOException e) {
+            System.err.println("Кеш звітів пошкоджено, буде створено заново: " + e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static void readEntries(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Entry entry = new Entry();
+            entry.stationId = in.readUTF();
+            entry.start = in.readUTF();
+            entry.end = in.readUTF();
+            entry.maxId = in.readLong();
+            entry.maxTime = in.readLong();
+
+            int columns = in.readShort();
+            for (int c = 0; c < columns; c++) {
+                entry.headers.add(in.readUTF());
+            }
+            int rowCount = in.readInt();
+            for (int r = 0; r < rowCount; r++) {
+                List<String> row = new ArrayList<>(columns);
+                for (int c = 0; c < columns; c++) {
+                    row.add(in.readUTF());
+                }
+                entry.rows.add(row);
+            }
+            entries.put(key, entry);
+        }
+    }
+
+    private static void writeEntries(DataOutputStream out) throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeUTF(entry.stationId);
+            out.writeUTF(entry.start);
+            out.writeUTF(entry.end);
+            out.writeLong(entry.maxId);
+            out.writeLong(entry.maxTime);
+
+            out.writeShort(entry.headers.size());
+            for (String header : entry.headers) {
+                out.writeUTF(header);
+            }
+            out.writeInt(entry.rows.size());
+            for (List<String> row : entry.rows) {
+                for (int c = 0; c < entry.headers.size(); c++) {
+                    out.writeUTF(c < row.size() && row.get(c) != null ? row.get(c) : "");
+                }
+            }
+        }
+    }
+}
@@ -18,17 +18,78 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.awt.Color;
 import java.io.FileOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 public class ReportGenerator {
 
+    // Report types (also used as labels in ReportsController)
+    public static final String REPORT_STATIONS = "Список підключених станцій";
+    public static final String REPORT_STATISTICS = "Статистика вимірювань станції";
+    public static final String REPORT_TIME_SERIES = "Часова статистика станції (P50/P95/P98)";
+    public static final String REPORT_COMPARISON = "Порівняння станцій";
+    public static final String REPORT_AQI = "Індекс якості повітря (AQI) станції";
+    public static final String REPORT_ANOMALIES = "Аномалії вимірювань станції";
+    public static final String REPORT_GAPS = "Повнота даних та розриви станції";
+    public static final String REPORT_CORRELATION = "Кореляція забруднювачів станції";
+    public static final String REPORT_TRENDS = "Тренди та сезонність станції";
+    public static final String REPORT_YEAR_OVER_YEAR = "Зміна рік до року станції";
+    public static final String REPORT_MONTH_OVER_MONTH = "Зміна місяць до місяця станції";
+
+    // Output formats
+    public static final String FORMAT_EXCEL = "Excel (XLSX)";
+    public static final String FORMAT_PDF = "PDF";
+
+    // Large reports use a streaming workbook and a chunked PDF table; this only avoids a second
+    // copy of the rows as POI / OpenPDF objects, ReportData itself still holds every row
+    private static final int LARGE_REPORT_ROWS = 20_000;
+    private static final int PDF_CHUNK_ROWS = 500;
+
+    /**
+     * Bucket size for time-series statistics report
+     */
+    public enum TimeBucket {
+        HOUR("Погодинно", "hour", "YYYY-MM-DD HH24:00"),
+        DAY("Щоденно", "day", "YYYY-MM-DD"),
+        WEEK("Щотижнево", "week", "IYYY-\"W\"IW (YYYY-MM-DD)");
+
+        final String label;
+        final String sqlUnit;
+        final String labelFormat;
+
+        TimeBucket(String label, String sqlUnit, String labelFormat) {
+            this.label = label;
+            this.sqlUnit = sqlUnit;
+            this.labelFormat = labelFormat;
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private static final DateTimeFormatter SQL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final DateTimeFormatter DISPLAY_DATE_TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
     public static class ReportData {
         public String title;
         public List<String> headers = new ArrayList<>();
@@ -41,7 +102,9 @@ public class ReportGenerator {
      * Generate Excel report
      */
     public static void generateExcel(ReportData data, String filePath) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook()) {
+        boolean large = data.rows.size() > LARGE_REPORT_ROWS;
+        // Streaming workbook keeps only a window of sheet rows, the rest goes to a temp file
+        try (Workbook workbook = large ? new SXSSFWorkbook(1000) : new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet("Звіт");
 
             // Create header style
@@ -109,11 +172,15 @@ public class ReportGenerator {
                 }
             }
 
-            // Auto-size columns
+            // Auto-size columns (too slow for large sheets - use header based width)
             for (int i = 0; i < data.headers.size(); i++) {
-                sheet.autoSizeColumn(i);
-                // Add some padding
-                sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
+                if (large) {
+                    sheet.setColumnWidth(i, Math.min(255, data.headers.get(i).length() + 6) * 256);
+                } else {
+                    sheet.autoSizeColumn(i);
+                    // Add some padding
+                    sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
+                }
             }
 
             // Write to file
@@ -163,6 +230,10 @@ public class ReportGenerator {
             // Create table
             PdfPTable table = new PdfPTable(data.headers.size());
             table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            // Large tables are flushed to the document in chunks instead of being built in full
+            boolean large = data.rows.size() > LARGE_REPORT_ROWS;
+            table.setComplete(!large);
 
             // Add header cells
             for (String header : data.headers) {
@@ -174,6 +245,7 @@ public class ReportGenerator {
             }
 
             // Add data rows
+            int rowIndex = 0;
             for (List<String> rowData : data.rows) {
                 for (String cellData : rowData) {
                     PdfPCell cell = new PdfPCell(new Phrase(cellData != null ? cellData : "", cellFont));
@@ -181,6 +253,9 @@ public class ReportGenerator {
                     cell.setPadding(3);
                     table.addCell(cell);
                 }
+                if (large && ++rowIndex % PDF_CHUNK_ROWS == 0) {
+                    document.add(table);
+                }
             }
 
             // Add total row if exists
@@ -194,12 +269,787 @@ public class ReportGenerator {
                 }
             }
 
+            table.setComplete(true);
             document.add(table);
         } finally {
             document.close();
         }
     }
 
+    /**
+     * Write report to file in the given format (FORMAT_EXCEL or FORMAT_PDF)
+     */
+    public static void export(ReportData data, String format, String filePath) throws Exception {
+        if (FORMAT_PDF.equals(format)) {
+            generatePDF(data, filePath);
+        } else {
+            generateExcel(data, filePath);
+        }
+    }
+
+    public static String fileExtension(String format) {
+        return FORMAT_PDF.equals(format) ? ".pdf" : ".xlsx";
+    }
+
+    /**
+     * Build report: list of connected stations
+     */
+    public static ReportData buildStationsReport() throws Exception {
+        try (ResultSet rs = DbManager.getStationsReport()) {
+            return resultSetToReportData(rs, "Звіт: Список підключених станцій");
+        }
+    }
+
+    /**
+     * Build report: measurement statistics for a station within period (whole days)
+     */
+    public static ReportData buildMeasurementStatisticsReport(String stationId, String stationName,
+                                                             LocalDate startDate, LocalDate endDate) throws Exception {
+        String startDateStr = startDate.format(SQL_DATE) + " 00:00:00";
+        String endDateStr = endDate.format(SQL_DATE) + " 23:59:59";
+
+        String title = String.format("Звіт: Статистика вимірювань\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+
+        if (MeasurementCache.isEnabled()) {
+            // Local columnar cache: only new rows are fetched, aggregation runs on local files
+            MeasurementCache.sync(stationId);
+            ReportData data = buildStatisticsFromCache(stationId, startDate, endDate);
+            addRollingColumns(data, rollingSummariesFromCache(stationId, startDate, endDate));
+            data.title = title;
+            addStatisticsTotalRow(data);
+            return data;
+        }
+
+        // Watermark is taken before the query so rows arriving meanwhile invalidate the entry later
+        long[] watermark = DbManager.getStationWatermark(stationId);
+        String cacheType = REPORT_STATISTICS + ":rolling";
+        ReportData data = ReportCache.get(cacheType, stationId, startDateStr, endDateStr, watermark);
+
+        if (data == null) {
+            if (MeasurementCube.isEnabled()) {
+                data = buildStatisticsFromCube(stationId, startDate, endDate);
+            } else {
+                try (ResultSet rs = DbManager.getMeasurementStatisticsReport(stationId, startDateStr, endDateStr)) {
+                    data = resultSetToReportData(rs, title);
+                }
+            }
+            addRollingColumns(data, rollingSummariesFromDb(stationId, startDate, endDate));
+            ReportCache.put(cacheType, stationId, startDateStr, endDateStr, watermark, data);
+        }
+
+        data.title = title;
+        addStatisticsTotalRow(data);
+        return data;
+    }
+
+    /**
+     * Same table as DbManager.getMeasurementStatisticsReport, computed from MeasurementCache
+     */
+    private static ReportData buildStatisticsFromCache(String stationId, LocalDate startDate,
+                                                       LocalDate endDate) throws Exception {
+        long from = Timestamp.valueOf(startDate.atStartOfDay()).getTime();
+        long to = Timestamp.valueOf(endDate.atTime(23, 59, 59)).getTime();
+
+        Map<String, MeasurementCache.UnitStats> aggregates = MeasurementCache.aggregate(stationId, from, to);
+
+        Properties meta = MeasurementCache.getMetadata();
+        List<String> unitIds = new ArrayList<>(aggregates.keySet());
+        unitIds.sort((a, b) -> meta.getProperty("unit." + a + ".title", a)
+                .compareTo(meta.getProperty("unit." + b + ".title", b)));
+
+        ReportData data = new ReportData();
+        data.headers.addAll(List.of("Назва параметру", "Одиниця виміру", "Середнє",
+                "Мінімальне", "Максимальне", "Кількість вимірювань"));
+        for (String unitId : unitIds) {
+            MeasurementCache.UnitStats stats = aggregates.get(unitId);
+            List<String> row = new ArrayList<>();
+            row.add(meta.getProperty("unit." + unitId + ".title", unitId));
+            row.add(meta.getProperty("unit." + unitId + ".unit", ""));
+            row.add(round2(stats.getAverage()));
+            row.add(round2(stats.getMin()));
+            row.add(round2(stats.getMax()));
+            row.add(String.valueOf(stats.getCount()));
+            data.rows.add(row);
+        }
+        return data;
+    }
+
+    /**
+     * Same table as DbManager.getMeasurementStatisticsReport, rolled up by unit from MeasurementCube
+     */
+    private static ReportData buildStatisticsFromCube(String stationId, LocalDate startDate,
+                                                      LocalDate endDate) throws Exception {
+        MeasurementCube cube = MeasurementCube.current();
+        Map<String, MeasurementCube.Aggregate> aggregates = cube.rollUp(
+                cube.select(stationId, null, null, startDate, endDate), MeasurementCube.Dimension.UNIT);
+
+        List<String> unitIds = new ArrayList<>(aggregates.keySet());
+        unitIds.sort((a, b) -> cube.unitTitle(a).compareTo(cube.unitTitle(b)));
+
+        ReportData data = new ReportData();
+        data.headers.addAll(List.of("Назва параметру", "Одиниця виміру", "Середнє",
+                "Мінімальне", "Максимальне", "Кількість вимірювань"));
+        for (String unitId : unitIds) {
+            MeasurementCube.Aggregate stats = aggregates.get(unitId);
+            if (stats.getCount() == 0) continue;
+            List<String> row = new ArrayList<>();
+            row.add(cube.unitTitle(unitId));
+            row.add(cube.unitName(unitId));
+            row.add(round2(stats.getMean()));
+            row.add(round2(stats.getMin()));
+            row.add(round2(stats.getMax()));
+            row.add(String.valueOf(stats.getCount()));
+            data.rows.add(row);
+        }
+        return data;
+    }
+
+    /**
+     * Rolling 24h / 8h means of a station in one cursor pass, keyed by unit title
+     */
+    private static Map<String, RollingWindow.Summary> rollingSummariesFromDb(String stationId, LocalDate startDate,
+                                                                           LocalDate endDate) throws Exception {
+        Map<String, RollingWindow.Summary> summaries = new LinkedHashMap<>();
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            RollingWindow.scan(conn, stationId, RollingWindow.standards(),
+                    startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                    (station, standard, time, mean, exceeded) -> summaries
+                            .computeIfAbsent(standard.getUnitTitle(), k -> new RollingWindow.Summary())
+                            .add(time, mean, exceeded));
+            conn.commit();
+        }
+        return summaries;
+    }
+
+    /**
+     * Same as rollingSummariesFromDb, fed from MeasurementCache. Blocks hold rows in insertion
+     * order, and back-filled rows can be older than rows inserted before them, so each series
+     * is collected and sorted by time before it goes through the windows.
+     */
+    private static Map<String, RollingWindow.Summary> rollingSummariesFromCache(String stationId, LocalDate startDate,
+                                                                              LocalDate endDate) throws Exception {
+        Properties meta = MeasurementCache.getMetadata();
+        Map<String, RollingWindow.Standard> byTitle = new LinkedHashMap<>();
+        long longest = 0;
+        for (RollingWindow.Standard standard : RollingWindow.standards()) {
+            byTitle.put(standard.getUnitTitle(), standard);
+            longest = Math.max(longest, standard.getLengthMillis());
+        }
+
+        long from = Timestamp.valueOf(startDate.atStartOfDay()).getTime();
+        long to = Timestamp.valueOf(endDate.atTime(23, 59, 59)).getTime();
+        Map<String, SeriesRows> series = new LinkedHashMap<>();
+        MeasurementCache.scan(stationId, from - longest + 1, to, (id, time, unitId, value) -> {
+            if (byTitle.containsKey(meta.getProperty("unit." + unitId + ".title", unitId))) {
+                series.computeIfAbsent(unitId, k -> new SeriesRows()).add(time, value);
+            }
+        });
+
+        double minCoverage = RollingWindow.minCoverage();
+        Map<String, RollingWindow.Summary> summaries = new LinkedHashMap<>();
+        RollingWindow.Sink sink = (station, standard, time, mean, exceeded) -> summaries
+                .computeIfAbsent(standard.getUnitTitle(), k -> new RollingWindow.Summary())
+                .add(time, mean, exceeded);
+        for (Map.Entry<String, SeriesRows> e : series.entrySet()) {
+            RollingWindow.Standard standard = byTitle.get(meta.getProperty("unit." + e.getKey() + ".title", e.getKey()));
+            RollingWindow window = new RollingWindow(standard.getLengthMillis());
+            SeriesRows rows = e.getValue();
+            rows.sortByTime();
+            for (int i = 0; i < rows.size; i++) {
+                RollingWindow.feed(window, stationId, standard, rows.times[i], rows.values[i], from, minCoverage, sink);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Time / value pairs of one cached series
+     */
+    private static class SeriesRows {
+        long[] times = new long[1024];
+        double[] values = new double[1024];
+        int size;
+        boolean sorted = true;
+
+        void add(long time, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size > 0 && time < times[size - 1]) sorted = false;
+            times[size] = time;
+            values[size] = value;
+            size++;
+        }
+
+        void sortByTime() {
+            if (sorted) return;
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+            long[] sortedTimes = new long[size];
+            double[] sortedValues = new double[size];
+            for (int i = 0; i < size; i++) {
+                sortedTimes[i] = times[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+            times = sortedTimes;
+            values = sortedValues;
+            sorted = true;
+        }
+    }
+
+    /**
+     * Append max rolling mean and share of exceeding means to the statistics rows
+     */
+    private static void addRollingColumns(ReportData data, Map<String, RollingWindow.Summary> summaries) {
+        data.headers.add("Макс. ковзне середнє (24 год PM / 8 год CO)");
+        data.headers.add("Перевищення ковзного середнього");
+        for (List<String> row : data.rows) {
+            RollingWindow.Summary summary = summaries.get(row.get(0));
+            if (summary == null || summary.getSamples() == 0) {
+                row.add("-");
+                row.add("-");
+            } else {
+                row.add(round2(summary.getMaxMean()));
+                row.add(String.format("%.1f%% (%d)", summary.getExceededPercent(), summary.getExceeded()));
+            }
+        }
+    }
+
+    private static String round2(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Build report: per-bucket statistics with P50/P95/P98 for a station within period
+     */
+    public static ReportData buildTimeSeriesStatisticsReport(String stationId, String stationName,
+                                                            LocalDate startDate, LocalDate endDate,
+                                                            TimeBucket bucket) throws Exception {
+        String startDateStr = startDate.format(SQL_DATE) + " 00:00:00";
+        String endDateStr = endDate.format(SQL_DATE) + " 23:59:59";
+
+        String title = String.format("Звіт: Часова статистика вимірювань (%s)\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                bucket.label.toLowerCase(),
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+
+        String cacheType = REPORT_TIME_SERIES + ":" + bucket.name();
+        long[] watermark = DbManager.getStationWatermark(stationId);
+        ReportData data = ReportCache.get(cacheType, stationId, startDateStr, endDateStr, watermark);
+
+        if (data == null) {
+            try (ResultSet rs = DbManager.getTimeSeriesStatisticsReport(stationId, startDateStr, endDateStr,
+                    bucket.sqlUnit, bucket.labelFormat)) {
+                data = resultSetToReportData(rs, title);
+            }
+            ReportCache.put(cacheType, stationId, startDateStr, endDateStr, watermark, data);
+        }
+
+        data.title = title;
+        return data;
+    }
+
+    /**
+     * Build report: station × parameter matrix of period averages with per-parameter ranking.
+     * All stations are aggregated by one grouped query (rank 1 = lowest average).
+     */
+    public static ReportData buildStationComparisonReport(List<String> stationIds, List<String> stationNames,
+                                                         LocalDate startDate, LocalDate endDate) throws Exception {
+        String startDateStr = startDate.format(SQL_DATE) + " 00:00:00";
+        String endDateStr = endDate.format(SQL_DATE) + " 23:59:59";
+
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Порівняння станцій (%d)\nСтанції: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationIds.size(),
+                String.join(", ", stationNames),
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+
+        ComparisonTable table = new ComparisonTable(stationIds.size());
+        if (MeasurementCube.isEnabled()) {
+            // Same order as the SQL: parameter title, then station name
+            MeasurementCube cube = MeasurementCube.current();
+            List<String> unitIds = new ArrayList<>(cube.rollUp(
+                    cube.select(null, null, null, startDate, endDate), MeasurementCube.Dimension.UNIT).keySet());
+            unitIds.sort((a, b) -> cube.unitTitle(a).compareTo(cube.unitTitle(b)));
+            List<String> byName = new ArrayList<>(stationIds);
+            byName.sort((a, b) -> cube.stationName(a).compareTo(cube.stationName(b)));
+            for (String unitId : unitIds) {
+                // One roll-up per parameter, then a lookup per station
+                Map<String, MeasurementCube.Aggregate> byStation = cube.rollUp(
+                        cube.select(null, null, unitId, startDate, endDate), MeasurementCube.Dimension.STATION);
+                for (String stationId : byName) {
+                    MeasurementCube.Aggregate stats = byStation.get(stationId.trim());
+                    if (stats == null || stats.getCount() == 0) continue;
+                    table.add(stationId.trim(), cube.stationName(stationId), cube.stationCity(stationId),
+                            cube.unitTitle(unitId) + ", " + cube.unitName(unitId), stats.getMean());
+                }
+            }
+        } else {
+            try (ResultSet rs = DbManager.getStationComparisonData(stationIds, startDateStr, endDateStr)) {
+                while (rs.next()) {
+                    table.add(rs.getString("station_id"), rs.getString("station_name"), rs.getString("city"),
+                            rs.getString("title") + ", " + rs.getString("unit"), rs.getDouble("avg_value"));
+                }
+            }
+        }
+        Map<String, Integer> parameterIndex = table.parameterIndex;
+        List<String> stationLabels = table.stationLabels;
+        List<double[]> averages = table.averages;
+
+        int stationCount = table.stationIndex.size();
+        int parameterCount = parameterIndex.size();
+
+        // Rank stations within every parameter
+        int[][] ranks = new int[parameterCount][stationCount];
+        double[] rankSum = new double[stationCount];
+        int[] rankedParams = new int[stationCount];
+        for (int p = 0; p < parameterCount; p++) {
+            double[] values = averages.get(p);
+            for (int s = 0; s < stationCount; s++) {
+                if (Double.isNaN(values[s])) continue;
+                int rank = 1;
+                for (int o = 0; o < stationCount; o++) {
+                    if (!Double.isNaN(values[o]) && values[o] < values[s]) rank++;
+                }
+                ranks[p][s] = rank;
+                rankSum[s] += rank;
+                rankedParams[s]++;
+            }
+        }
+
+        // Order stations by average rank
+        List<Integer> order = new ArrayList<>();
+        for (int s = 0; s < stationCount; s++) order.add(s);
+        order.sort((a, b) -> Double.compare(averageRank(rankSum, rankedParams, a), averageRank(rankSum, rankedParams, b)));
+
+        data.headers.add("Місце");
+        data.headers.add("Станція");
+        for (String parameter : parameterIndex.keySet()) {
+            data.headers.add(parameter + " (сер., #)");
+        }
+        data.headers.add("Середній ранг");
+
+        int place = 1;
+        for (int s : order) {
+            List<String> row = new ArrayList<>();
+            row.add(String.valueOf(place++));
+            row.add(stationLabels.get(s));
+            for (int p = 0; p < parameterCount; p++) {
+                double value = averages.get(p)[s];
+                row.add(Double.isNaN(value) ? "-" : String.format("%.2f (#%d)", value, ranks[p][s]));
+            }
+            row.add(rankedParams[s] > 0 ? String.format("%.2f", averageRank(rankSum, rankedParams, s)) : "-");
+            data.rows.add(row);
+        }
+
+        return data;
+    }
+
+    /**
+     * Average of every (station, parameter) pair; station id -> row index, parameter -> column index
+     */
+    private static class ComparisonTable {
+        final Map<String, Integer> stationIndex = new LinkedHashMap<>();
+        final Map<String, Integer> parameterIndex = new LinkedHashMap<>();
+        final List<String> stationLabels = new ArrayList<>();
+        final List<double[]> averages = new ArrayList<>(); // per parameter: avg by station (NaN = no data)
+        final int capacity;
+
+        ComparisonTable(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(String stationId, String name, String city, String parameter, double average) {
+            Integer row = stationIndex.get(stationId);
+            if (row == null) {
+                row = stationIndex.size();
+                stationIndex.put(stationId, row);
+                stationLabels.add(city != null && !city.isEmpty() ? name + " (" + city + ")" : name);
+            }
+
+            Integer col = parameterIndex.get(parameter);
+            if (col == null) {
+                col = parameterIndex.size();
+                parameterIndex.put(parameter, col);
+                double[] values = new double[capacity];
+                Arrays.fill(values, Double.NaN);
+                averages.add(values);
+            }
+            averages.get(col)[row] = average;
+        }
+    }
+
+    private static double averageRank(double[] rankSum, int[] rankedParams, int station) {
+        return rankedParams[station] > 0 ? rankSum[station] / rankedParams[station] : Double.MAX_VALUE;
+    }
+
+    /**
+     * Build report: hourly AQI of a station with dominant pollutant (see AqiEngine)
+     */
+    public static ReportData buildAqiReport(String stationId, String stationName,
+                                            LocalDate startDate, LocalDate endDate) throws Exception {
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Індекс якості повітря (AQI)\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        data.headers.addAll(List.of("Година", "AQI", "Категорія", "Домінуючий параметр"));
+
+        AqiEngine.HourlyAqi aqi;
+        AqiEngine engine;
+        Map<String, String> unitTitles = new LinkedHashMap<>();
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            engine = AqiEngine.load(conn);
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+                while (rs.next()) unitTitles.put(rs.getString(1).trim(), rs.getString(2));
+            }
+            aqi = engine.computeHourly(conn, stationId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+            conn.commit();
+        }
+
+        double sum = 0;
+        double max = 0;
+        for (int i = 0; i < aqi.size(); i++) {
+            double value = aqi.getAqi(i);
+            String unitId = engine.getUnitId(aqi.getDominantUnit(i));
+            data.rows.add(new ArrayList<>(List.of(
+                    new Timestamp(aqi.getHour(i)).toLocalDateTime().format(DISPLAY_DATE_TIME),
+                    String.valueOf(Math.round(value)),
+                    aqiCategory(engine, unitId, value),
+                    unitTitles.getOrDefault(unitId, unitId))));
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        if (aqi.size() > 0) {
+            data.hasTotalRow = true;
+            data.totalRowData.addAll(List.of("Середнє / максимум",
+                    Math.round(sum / aqi.size()) + " / " + Math.round(max), "", aqi.size() + " год"));
+        }
+        return data;
+    }
+
+    /**
+     * Build report: anomalies of a station within period. New measurements are run through
+     * AnomalyDetector first, so the report is always up to date with the table.
+     */
+    public static ReportData buildAnomalyReport(String stationId, String stationName,
+                                                LocalDate startDate, LocalDate endDate) throws Exception {
+        AnomalyDetector.detect();
+
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Аномалії вимірювань\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        data.headers.addAll(List.of("Час", "Параметр", "Значення", "Очікуване", "z-оцінка", "Тип"));
+
+        Map<String, String> unitTitles = new LinkedHashMap<>();
+        try (Connection conn = DbManager.openDedicatedConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+            while (rs.next()) unitTitles.put(rs.getString(1).trim(), rs.getString(2));
+        }
+
+        long from = Timestamp.valueOf(startDate.atStartOfDay()).getTime();
+        long to = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()).getTime();
+        String station = stationId.trim();
+        int up = 0;
+        for (AnomalyDetector.Event event : AnomalyDetector.getEvents()) {
+            if (!event.getStationId().equals(station) || event.getTime() < from || event.getTime() >= to) continue;
+            data.rows.add(new ArrayList<>(List.of(
+                    new Timestamp(event.getTime()).toLocalDateTime().format(DISPLAY_DATE_TIME),
+                    unitTitles.getOrDefault(event.getUnitId(), event.getUnitId()),
+                    round2(event.getValue()),
+                    round2(event.getExpected()),
+                    String.format("%.1f", event.getScore()),
+                    event.isSpikeUp() ? "Сплеск" : "Провал")));
+            if (event.isSpikeUp()) up++;
+        }
+
+        if (!data.rows.isEmpty()) {
+            data.hasTotalRow = true;
+            data.totalRowData.addAll(List.of("Усього", "-", "-", "-", "-",
+                    up + " сплесків / " + (data.rows.size() - up) + " провалів"));
+        }
+        return data;
+    }
+
+    /**
+     * Build report: gaps in the measurements of a station within period, longest first
+     */
+    public static ReportData buildGapReport(String stationId, String stationName,
+                                            LocalDate startDate, LocalDate endDate) throws Exception {
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Повнота даних та розриви\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        data.headers.addAll(List.of("Параметр", "Початок розриву", "Кінець розриву", "Тривалість",
+                "Пропущено вимірювань"));
+
+        CompletenessAnalyzer.Result result;
+        Map<String, String> unitTitles = new LinkedHashMap<>();
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit")) {
+                while (rs.next()) unitTitles.put(rs.getString(1).trim(), rs.getString(2));
+            }
+            result = CompletenessAnalyzer.analyze(conn, stationId, startDate, endDate);
+            conn.commit();
+        }
+
+        long totalMillis = 0;
+        long totalMissing = 0;
+        for (CompletenessAnalyzer.Gap gap : result.getGaps()) {
+            data.rows.add(new ArrayList<>(List.of(
+                    unitTitles.getOrDefault(gap.getUnitId(), gap.getUnitId()),
+                    new Timestamp(gap.getStart()).toLocalDateTime().format(DISPLAY_DATE_TIME),
+                    new Timestamp(gap.getEnd()).toLocalDateTime().format(DISPLAY_DATE_TIME),
+                    CompletenessAnalyzer.formatDuration(gap.getDurationMillis()),
+                    String.valueOf(gap.getMissingSamples()))));
+            totalMillis += gap.getDurationMillis();
+            totalMissing += gap.getMissingSamples();
+        }
+
+        long duplicates = 0;
+        for (CompletenessAnalyzer.SeriesSummary series : result.getSeries()) duplicates += series.getDuplicates();
+        data.hasTotalRow = true;
+        data.totalRowData.addAll(List.of("Усього розривів: " + result.getGaps().size(),
+                "Дублікатів часу: " + duplicates, "-",
+                CompletenessAnalyzer.formatDuration(totalMillis), String.valueOf(totalMissing)));
+        return data;
+    }
+
+    /**
+     * Build report: pairwise correlations of the units of a station on a time grid
+     */
+    public static ReportData buildCorrelationReport(String stationId, String stationName,
+                                                    LocalDate startDate, LocalDate endDate,
+                                                    TimeBucket bucket) throws Exception {
+        List<String> unitIds = new ArrayList<>();
+        List<String> unitTitles = new ArrayList<>();
+        CorrelationMatrix matrix;
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+                while (rs.next()) {
+                    unitIds.add(rs.getString(1).trim());
+                    unitTitles.add(rs.getString(2));
+                }
+            }
+            matrix = CorrelationMatrix.compute(conn, stationId, unitIds.toArray(new String[0]), bucket,
+                    startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+            conn.commit();
+        }
+
+        ReportData data = correlationTable(matrix, unitTitles);
+        data.title = String.format("Звіт: Кореляція забруднювачів (%s)\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                bucket.label.toLowerCase(),
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        return data;
+    }
+
+    /**
+     * Correlation matrix as a table (units without data are left out); the total row
+     * holds the number of grid cells of each unit
+     */
+    static ReportData correlationTable(CorrelationMatrix matrix, List<String> unitTitles) {
+        List<Integer> present = new ArrayList<>();
+        for (int u = 0; u < matrix.size(); u++) {
+            if (matrix.count(u, u) > 0) present.add(u);
+        }
+
+        ReportData data = new ReportData();
+        data.headers.add("Параметр");
+        for (int u : present) data.headers.add(unitTitles.get(u));
+        for (int i : present) {
+            List<String> row = new ArrayList<>();
+            row.add(unitTitles.get(i));
+            for (int j : present) {
+                double r = matrix.correlation(i, j);
+                row.add(Double.isNaN(r) ? "-" : String.format("%.2f", r));
+            }
+            data.rows.add(row);
+        }
+        if (!present.isEmpty()) {
+            data.hasTotalRow = true;
+            data.totalRowData.add("Інтервалів з даними");
+            for (int u : present) data.totalRowData.add(String.valueOf(matrix.count(u, u)));
+        }
+        return data;
+    }
+
+    /**
+     * Build report: period-over-period change of every parameter of a station, both periods in one scan
+     */
+    public static ReportData buildPeriodComparisonReport(String stationId, String stationName,
+                                                         LocalDate startDate, LocalDate endDate,
+                                                         PeriodComparison.Mode mode) throws Exception {
+        LocalDate[] reference = mode.reference(startDate, endDate);
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Порівняння періодів\nСтанція: %s\nПеріод: %s - %s\n" +
+                        "Базовий період: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                reference[0].format(DISPLAY_DATE),
+                reference[1].format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        data.headers.addAll(List.of("Назва параметру", "Одиниця виміру", "Середнє", "Середнє (базовий)",
+                "Зміна", "Зміна, %", "Максимальне", "Максимальне (базовий)",
+                "Кількість вимірювань", "Кількість вимірювань (базовий)"));
+
+        for (PeriodComparison.Row row : PeriodComparison.compare(List.of(stationId), startDate, endDate, mode)) {
+            PeriodComparison.Stats current = row.getCurrent();
+            PeriodComparison.Stats base = row.getReference();
+            List<String> cells = new ArrayList<>();
+            cells.add(row.getTitle());
+            cells.add(row.getUnit());
+            cells.add(orDash(current.getMean()));
+            cells.add(orDash(base.getMean()));
+            cells.add(Double.isNaN(row.getDelta()) ? "-" : String.format("%+.2f", row.getDelta()));
+            cells.add(Double.isNaN(row.getPercentChange()) ? "-" : String.format("%+.1f%%", row.getPercentChange()));
+            cells.add(orDash(current.getMax()));
+            cells.add(orDash(base.getMax()));
+            cells.add(String.valueOf(current.getCount()));
+            cells.add(String.valueOf(base.getCount()));
+            data.rows.add(cells);
+        }
+        return data;
+    }
+
+    private static String orDash(double value) {
+        return Double.isNaN(value) ? "-" : round2(value);
+    }
+
+    /**
+     * Build report: Theil-Sen trend of daily means and seasonal peaks for every unit of a station
+     */
+    public static ReportData buildTrendReport(String stationId, String stationName,
+                                              LocalDate startDate, LocalDate endDate) throws Exception {
+        ReportData data = new ReportData();
+        data.title = String.format("Звіт: Тренди та сезонність\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
+                stationName,
+                startDate.format(DISPLAY_DATE),
+                endDate.format(DISPLAY_DATE),
+                LocalDateTime.now().format(DISPLAY_DATE_TIME));
+        data.headers.addAll(List.of("Параметр", "Днів з даними", "Середнє", "Тренд за рік", "Тренд, % за рік",
+                "Висновок", "Пікова година", "Піковий день тижня"));
+
+        List<String[]> series = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        try (Connection conn = DbManager.openDedicatedConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+            while (rs.next()) {
+                series.add(new String[] { stationId.trim(), rs.getString(1).trim() });
+                titles.add(rs.getString(2));
+            }
+        }
+
+        List<TrendAnalyzer.Result> results = TrendAnalyzer.analyzeAll(series, startDate, endDate);
+        for (int i = 0; i < results.size(); i++) {
+            TrendAnalyzer.Result result = results.get(i);
+            if (result.getDays() == 0) continue;
+            int peakHour = argMax(result.getHourProfile());
+            int peakWeekday = argMax(result.getWeekdayProfile());
+            data.rows.add(new ArrayList<>(List.of(
+                    titles.get(i),
+                    String.valueOf(result.getDays()),
+                    round2(result.getMean()),
+                    Double.isNaN(result.getSlopePerYear()) ? "-" : String.format("%+.2f", result.getSlopePerYear()),
+                    Double.isNaN(result.getPercentPerYear()) ? "-" : String.format("%+.1f%%", result.getPercentPerYear()),
+                    result.getVerdict(),
+                    peakHour < 0 ? "-" : String.format("%02d:00", peakHour),
+                    peakWeekday < 0 ? "-" : java.time.DayOfWeek.of(peakWeekday + 1)
+                            .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.forLanguageTag("uk")))));
+        }
+        return data;
+    }
+
+    private static int argMax(double[] values) {
+        int best = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (!Double.isNaN(values[i]) && (best < 0 || values[i] > values[best])) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * Designation of the dominant pollutant's category the AQI value falls into
+     */
+    static String aqiCategory(AqiEngine engine, String unitId, double aqi) {
+        List<AirQualityCategories.Band> bands = engine.getCategories().getBands(unitId);
+        if (bands.isEmpty()) return "";
+        int k = (int) Math.min(bands.size() - 1, Math.floor(aqi / AqiEngine.INDEX_STEP));
+        return bands.get(Math.max(0, k)).getDesignation();
+    }
+
+    /**
+     * Calculate totals for numeric columns of statistics report
+     */
+    private static void addStatisticsTotalRow(ReportData data) {
+        if (data.rows.isEmpty() || data.headers.size() < 6) {
+            return;
+        }
+
+        double totalAvg = 0;
+        double totalMin = Double.MAX_VALUE;
+        double totalMax = Double.MIN_VALUE;
+        int totalCount = 0;
+        int rowCount = 0;
+
+        for (List<String> row : data.rows) {
+            try {
+                // Column indices: 0=Назва, 1=Одиниця, 2=Середнє, 3=Мінімальне, 4=Максимальне, 5=Кількість
+                double avg = Double.parseDouble(row.get(2));
+                double min = Double.parseDouble(row.get(3));
+                double max = Double.parseDouble(row.get(4));
+                int count = Integer.parseInt(row.get(5));
+
+                totalAvg += avg;
+                totalMin = Math.min(totalMin, min);
+                totalMax = Math.max(totalMax, max);
+                totalCount += count;
+                rowCount++;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        if (rowCount > 0) {
+            data.hasTotalRow = true;
+            data.totalRowData.add("Усього");
+            data.totalRowData.add("-");
+            data.totalRowData.add(String.format("%.2f", totalAvg / rowCount));
+            data.totalRowData.add(String.format("%.2f", totalMin));
+            data.totalRowData.add(String.format("%.2f", totalMax));
+            data.totalRowData.add(String.valueOf(totalCount));
+            while (data.totalRowData.size() < data.headers.size()) data.totalRowData.add("-");
+        }
+    }
+
     /**
      * Convert ResultSet to ReportData
      */
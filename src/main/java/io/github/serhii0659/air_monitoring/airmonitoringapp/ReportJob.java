@@ -0,0 +1,150 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Recurring report job definition (persisted by ReportScheduler)
+ */
+public class ReportJob {
+
+    public enum Repeat {
+        DAILY("Щодня", 24 * 60),
+        WEEKLY("Щотижня", 7 * 24 * 60);
+
+        final String label;
+        final long minutes;
+
+        Repeat(String label, long minutes) {
+            this.label = label;
+            this.minutes = minutes;
+        }
+
+        long millis() { return minutes * 60_000L; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /**
+     * What to do with runs missed while the app was not running
+     */
+    public enum MissedRunPolicy {
+        COALESCE("Виконати один раз"),
+        SKIP("Пропустити");
+
+        final String label;
+
+        MissedRunPolicy(String label) { this.label = label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    String id;
+    String reportType;
+    List<String> stationIds = new ArrayList<>();
+    List<String> stationNames = new ArrayList<>();
+    int periodDays;             // rolling period: last N days up to run date
+    ReportGenerator.TimeBucket bucket = ReportGenerator.TimeBucket.DAY; // for time-series report
+    String format;
+    String outputDir;
+    Repeat repeat = Repeat.DAILY;
+    MissedRunPolicy missedRunPolicy = MissedRunPolicy.COALESCE;
+    long nextRunAt;             // epoch millis
+
+    // Last run info
+    long lastRunAt;
+    long lastDurationMs;
+    int lastRowCount;
+    String lastStatus = "";
+
+    /**
+     * Move nextRunAt to the first slot after now
+     */
+    void advance(long now) {
+        long step = repeat.millis();
+        if (nextRunAt <= now) {
+            long missed = (now - nextRunAt) / step + 1;
+            nextRunAt += missed * step;
+        }
+    }
+
+    /**
+     * True if more than one slot was missed (app was not running)
+     */
+    boolean isOverdue(long now) {
+        return nextRunAt + repeat.millis() <= now;
+    }
+
+    void store(Properties props) {
+        String p = "job." + id + ".";
+        props.setProperty(p + "type", reportType);
+        props.setProperty(p + "stations", String.join(",", stationIds));
+        props.setProperty(p + "stationNames", String.join("|", stationNames));
+        props.setProperty(p + "periodDays", String.valueOf(periodDays));
+        props.setProperty(p + "bucket", bucket.name());
+        props.setProperty(p + "format", format);
+        props.setProperty(p + "outputDir", outputDir);
+        props.setProperty(p + "repeat", repeat.name());
+        props.setProperty(p + "missedRuns", missedRunPolicy.name());
+        props.setProperty(p + "nextRunAt", String.valueOf(nextRunAt));
+        props.setProperty(p + "lastRunAt", String.valueOf(lastRunAt));
+        props.setProperty(p + "lastDurationMs", String.valueOf(lastDurationMs));
+        props.setProperty(p + "lastRowCount", String.valueOf(lastRowCount));
+        props.setProperty(p + "lastStatus", lastStatus);
+    }
+
+    static ReportJob load(Properties props, String id) {
+        String p = "job." + id + ".";
+        ReportJob job = new ReportJob();
+        job.id = id;
+        job.reportType = props.getProperty(p + "type", ReportGenerator.REPORT_STATISTICS);
+        job.stationIds = split(props.getProperty(p + "stations", ""), ",");
+        job.stationNames = split(props.getProperty(p + "stationNames", ""), "\\|");
+        job.periodDays = Integer.parseInt(props.getProperty(p + "periodDays", "7"));
+        job.bucket = ReportGenerator.TimeBucket.valueOf(props.getProperty(p + "bucket", ReportGenerator.TimeBucket.DAY.name()));
+        job.format = props.getProperty(p + "format", ReportGenerator.FORMAT_EXCEL);
+        job.outputDir = props.getProperty(p + "outputDir", System.getProperty("user.home"));
+        job.repeat = Repeat.valueOf(props.getProperty(p + "repeat", Repeat.DAILY.name()));
+        job.missedRunPolicy = MissedRunPolicy.valueOf(props.getProperty(p + "missedRuns", MissedRunPolicy.COALESCE.name()));
+        job.nextRunAt = Long.parseLong(props.getProperty(p + "nextRunAt", "0"));
+        job.lastRunAt = Long.parseLong(props.getProperty(p + "lastRunAt", "0"));
+        job.lastDurationMs = Long.parseLong(props.getProperty(p + "lastDurationMs", "0"));
+        job.lastRowCount = Integer.parseInt(props.getProperty(p + "lastRowCount", "0"));
+        job.lastStatus = props.getProperty(p + "lastStatus", "");
+        return job;
+    }
+
+    private static List<String> split(String value, String regex) {
+        List<String> result = new ArrayList<>();
+        if (value == null || value.isEmpty()) return result;
+        for (String part : value.split(regex)) {
+            if (!part.isEmpty()) result.add(part);
+        }
+        return result;
+    }
+
+    static String formatTime(long epochMillis) {
+        if (epochMillis <= 0) return "-";
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).format(DISPLAY);
+    }
+
+    @Override
+    public String toString() {
+        String target = stationNames.isEmpty() ? "" : " [" + String.join(", ", stationNames) + "]";
+        String last = lastRunAt > 0
+                ? String.format(" │ останній: %s, %d мс, %d рядків %s",
+                    formatTime(lastRunAt), lastDurationMs, lastRowCount, lastStatus)
+                : "";
+        return String.format("%s%s │ %s, %d дн. │ наступний: %s%s",
+                reportType, target, repeat, periodDays, formatTime(nextRunAt), last);
+    }
+}
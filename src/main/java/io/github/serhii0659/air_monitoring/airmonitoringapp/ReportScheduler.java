@@ -0,0 +1,226 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-app scheduler for recurring reports.
+ * Jobs are stored in report-jobs.properties inside the app data dir and
+ * executed on a single background thread while the user is connected.
+ */
+public final class ReportScheduler {
+    private static final String JOBS_FILE = "report-jobs.properties";
+    private static final long TICK_SECONDS = 30;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmm");
+
+    private static final List<ReportJob> jobs = new ArrayList<>();
+    private static ScheduledExecutorService executor;
+
+    private ReportScheduler() {}
+
+    /**
+     * Load persisted jobs and start checking for due runs
+     */
+    public static synchronized void start() {
+        if (executor != null) return;
+        loadJobs();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(ReportScheduler::runDueJobs, 0, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public static synchronized List<ReportJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    public static synchronized void addJob(ReportJob job) {
+        if (job.id == null) {
+            job.id = String.valueOf(System.currentTimeMillis());
+        }
+        jobs.add(job);
+        saveJobs();
+    }
+
+    public static synchronized void removeJob(ReportJob job) {
+        jobs.removeIf(j -> j.id.equals(job.id));
+        saveJobs();
+    }
+
+    private static void runDueJobs() {
+        if (!DbManager.isConnected()) return;
+
+        long now = System.currentTimeMillis();
+        List<ReportJob> due = new ArrayList<>();
+
+        synchronized (ReportScheduler.class) {
+            boolean changed = false;
+            for (ReportJob job : jobs) {
+                if (job.nextRunAt > now) continue;
+
+                // Missed several slots while app was closed
+                if (job.isOverdue(now) && job.missedRunPolicy == ReportJob.MissedRunPolicy.SKIP) {
+                    job.advance(now);
+                    job.lastStatus = "пропущено";
+                    changed = true;
+                    System.out.println("Пропущено прострочений запуск звіту: " + job.reportType);
+                    continue;
+                }
+                due.add(job);
+            }
+            if (changed) saveJobs();
+        }
+
+        for (ReportJob job : due) {
+            runJob(job);
+            synchronized (ReportScheduler.class) {
+                job.advance(System.currentTimeMillis());
+                saveJobs();
+            }
+        }
+    }
+
+    private static void runJob(ReportJob job) {
+        long started = System.currentTimeMillis();
+        int rows = 0;
+        try {
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(Math.max(1, job.periodDays) - 1);
+            String stamp = LocalDateTime.now().format(FILE_STAMP);
+            File dir = new File(job.outputDir);
+            if (!dir.exists()) dir.mkdirs();
+
+            if (ReportGenerator.REPORT_STATIONS.equals(job.reportType)) {
+                ReportGenerator.ReportData data = ReportGenerator.buildStationsReport();
+                File file = new File(dir, "stations_" + stamp + ReportGenerator.fileExtension(job.format));
+                ReportGenerator.export(data, job.format, file.getAbsolutePath());
+                rows += data.rows.size();
+            } else if (ReportGenerator.REPORT_COMPARISON.equals(job.reportType)) {
+                ReportGenerator.ReportData data = ReportGenerator.buildStationComparisonReport(
+                        job.stationIds, job.stationNames, start, end);
+                File file = new File(dir, "comparison_" + stamp + ReportGenerator.fileExtension(job.format));
+                ReportGenerator.export(data, job.format, file.getAbsolutePath());
+                rows += data.rows.size();
+            } else {
+                // One file per station
+                for (int i = 0; i < job.stationIds.size(); i++) {
+                    String stationId = job.stationIds.get(i);
+                    String stationName = i < job.stationNames.size() ? job.stationNames.get(i) : stationId;
+                    ReportGenerator.ReportData data;
+                    String prefix;
+                    if (ReportGenerator.REPORT_TIME_SERIES.equals(job.reportType)) {
+                        data = ReportGenerator.buildTimeSeriesStatisticsReport(stationId, stationName, start, end, job.bucket);
+                        prefix = "timeseries_";
+                    } else if (ReportGenerator.REPORT_AQI.equals(job.reportType)) {
+                        data = ReportGenerator.buildAqiReport(stationId, stationName, start, end);
+                        prefix = "aqi_";
+                    } else if (ReportGenerator.REPORT_ANOMALIES.equals(job.reportType)) {
+                        data = ReportGenerator.buildAnomalyReport(stationId, stationName, start, end);
+                        prefix = "anomalies_";
+                    } else if (ReportGenerator.REPORT_GAPS.equals(job.reportType)) {
+                        data = ReportGenerator.buildGapReport(stationId, stationName, start, end);
+                        prefix = "gaps_";
+                    } else if (ReportGenerator.REPORT_CORRELATION.equals(job.reportType)) {
+                        data = ReportGenerator.buildCorrelationReport(stationId, stationName, start, end, job.bucket);
+                        prefix = "correlation_";
+                    } else if (ReportGenerator.REPORT_TRENDS.equals(job.reportType)) {
+                        data = ReportGenerator.buildTrendReport(stationId, stationName, start, end);
+                        prefix = "trends_";
+                    } else if (ReportGenerator.REPORT_YEAR_OVER_YEAR.equals(job.reportType)) {
+                        data = ReportGenerator.buildPeriodComparisonReport(stationId, stationName, start, end,
+                                PeriodComparison.Mode.YEAR_OVER_YEAR);
+                        prefix = "yoy_";
+                    } else if (ReportGenerator.REPORT_MONTH_OVER_MONTH.equals(job.reportType)) {
+                        data = ReportGenerator.buildPeriodComparisonReport(stationId, stationName, start, end,
+                                PeriodComparison.Mode.MONTH_OVER_MONTH);
+                        prefix = "mom_";
+                    } else {
+                        data = ReportGenerator.buildMeasurementStatisticsReport(stationId, stationName, start, end);
+                        prefix = "statistics_";
+                    }
+                    File file = new File(dir, prefix + stationId + "_" + stamp
+                            + ReportGenerator.fileExtension(job.format));
+                    ReportGenerator.export(data, job.format, file.getAbsolutePath());
+                    rows += data.rows.size();
+                }
+            }
+            job.lastStatus = "✓";
+        } catch (Exception e) {
+            job.lastStatus = "❌ " + e.getMessage();
+            System.err.println("Помилка виконання запланованого звіту: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        job.lastRunAt = started;
+        job.lastDurationMs = System.currentTimeMillis() - started;
+        job.lastRowCount = rows;
+        System.out.printf("Запланований звіт '%s' виконано за %d мс, рядків: %d%n",
+                job.reportType, job.lastDurationMs, rows);
+    }
+
+    private static void loadJobs() {
+        jobs.clear();
+        File file = new File(ConfigManager.getAppDataDir(), JOBS_FILE);
+        if (!file.exists()) return;
+
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("Помилка читання " + JOBS_FILE + ": " + e.getMessage());
+            return;
+        }
+
+        // Collect job ids from keys like job.<id>.type
+        TreeSet<String> ids = new TreeSet<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith("job.") && key.endsWith(".type")) {
+                ids.add(key.substring(4, key.length() - 5));
+            }
+        }
+        for (String id : ids) {
+            try {
+                jobs.add(ReportJob.load(props, id));
+            } catch (RuntimeException e) {
+                System.err.println("Пошкоджене завдання звіту " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void saveJobs() {
+        Properties props = new Properties();
+        for (ReportJob job : jobs) {
+            job.store(props);
+        }
+        File file = new File(ConfigManager.getAppDataDir(), JOBS_FILE);
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, "Air Monitoring - scheduled reports");
+        } catch (IOException e) {
+            System.err.println("Помилка збереження " + JOBS_FILE + ": " + e.getMessage());
+        }
+    }
+}
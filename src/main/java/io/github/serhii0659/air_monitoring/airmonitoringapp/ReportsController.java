@@ -4,14 +4,16 @@ import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import org.controlsfx.control.CheckComboBox;
 
 import java.io.File;
 import java.sql.ResultSet;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,16 +21,25 @@ public class ReportsController {
 
     @FXML private ComboBox<String> reportTypeComboBox;
     @FXML private ComboBox<StationInfo> stationComboBox;
+    @FXML private CheckComboBox<StationInfo> stationsCheckComboBox;
     @FXML private DatePicker startDatePicker;
     @FXML private DatePicker endDatePicker;
     @FXML private ComboBox<String> formatComboBox;
+    @FXML private ComboBox<ReportGenerator.TimeBucket> bucketComboBox;
     @FXML private Label statusLabel;
     @FXML private Button generateButton;
     @FXML private CustomTitleBar titleBar;
 
+    // Scheduled reports
+    @FXML private ComboBox<ReportJob.Repeat> repeatComboBox;
+    @FXML private ComboBox<ReportJob.MissedRunPolicy> missedRunComboBox;
+    @FXML private ComboBox<ReportJob> jobsComboBox;
+
     // Containers for dynamic visibility
     @FXML private javafx.scene.layout.VBox stationBox;
+    @FXML private javafx.scene.layout.VBox stationsBox;
     @FXML private javafx.scene.layout.HBox dateRangeBox;
+    @FXML private javafx.scene.layout.VBox bucketBox;
 
     private Stage stage;
     private final List<StationInfo> stations = new ArrayList<>();
@@ -62,15 +73,36 @@ public class ReportsController {
 
         // Setup report types
         reportTypeComboBox.setItems(FXCollections.observableArrayList(
-                "Список підключених станцій",
-                "Статистика вимірювань станції"
+                ReportGenerator.REPORT_STATIONS,
+                ReportGenerator.REPORT_STATISTICS,
+                ReportGenerator.REPORT_TIME_SERIES,
+                ReportGenerator.REPORT_COMPARISON,
+                ReportGenerator.REPORT_AQI,
+                ReportGenerator.REPORT_ANOMALIES,
+                ReportGenerator.REPORT_GAPS,
+                ReportGenerator.REPORT_CORRELATION,
+                ReportGenerator.REPORT_TRENDS,
+                ReportGenerator.REPORT_YEAR_OVER_YEAR,
+                ReportGenerator.REPORT_MONTH_OVER_MONTH
         ));
         reportTypeComboBox.getSelectionModel().selectFirst();
 
         // Setup format types
-        formatComboBox.setItems(FXCollections.observableArrayList("Excel (XLSX)", "PDF"));
+        formatComboBox.setItems(FXCollections.observableArrayList(
+                ReportGenerator.FORMAT_EXCEL, ReportGenerator.FORMAT_PDF));
         formatComboBox.getSelectionModel().selectFirst();
 
+        // Setup time-series bucket sizes
+        bucketComboBox.setItems(FXCollections.observableArrayList(ReportGenerator.TimeBucket.values()));
+        bucketComboBox.getSelectionModel().select(ReportGenerator.TimeBucket.DAY);
+
+        // Setup schedule options
+        repeatComboBox.setItems(FXCollections.observableArrayList(ReportJob.Repeat.values()));
+        repeatComboBox.getSelectionModel().selectFirst();
+        missedRunComboBox.setItems(FXCollections.observableArrayList(ReportJob.MissedRunPolicy.values()));
+        missedRunComboBox.getSelectionModel().selectFirst();
+        refreshJobs();
+
         // Load stations
         loadStations();
 
@@ -232,7 +264,11 @@ public class ReportsController {
     }
 
     private void updateFormVisibility() {
-        boolean isStationReport = "Статистика вимірювань станції".equals(reportTypeComboBox.getValue());
+        boolean isStationReport = isStationReportType(reportTypeComboBox.getValue());
+        boolean needsBucket = ReportGenerator.REPORT_TIME_SERIES.equals(reportTypeComboBox.getValue())
+                || ReportGenerator.REPORT_CORRELATION.equals(reportTypeComboBox.getValue());
+        boolean isComparisonReport = ReportGenerator.REPORT_COMPARISON.equals(reportTypeComboBox.getValue());
+        boolean needsPeriod = isStationReport || isComparisonReport;
 
         // Hide/show entire containers
         if (stationBox != null) {
@@ -240,25 +276,49 @@ public class ReportsController {
             stationBox.setManaged(isStationReport);
         }
 
+        if (stationsBox != null) {
+            stationsBox.setVisible(isComparisonReport);
+            stationsBox.setManaged(isComparisonReport);
+        }
+
         if (dateRangeBox != null) {
-            dateRangeBox.setVisible(isStationReport);
-            dateRangeBox.setManaged(isStationReport);
+            dateRangeBox.setVisible(needsPeriod);
+            dateRangeBox.setManaged(needsPeriod);
+        }
+
+        if (bucketBox != null) {
+            bucketBox.setVisible(needsBucket);
+            bucketBox.setManaged(needsBucket);
         }
 
         // Adjust window height based on report type
         Platform.runLater(() -> {
             Stage currentStage = (Stage) reportTypeComboBox.getScene().getWindow();
             if (currentStage != null) {
-                if (isStationReport) {
-                    currentStage.setHeight(600); // Більше місця для полів станції та дат + хороший відступ знизу
+                if (needsBucket) {
+                    currentStage.setHeight(800);
+                } else if (needsPeriod) {
+                    currentStage.setHeight(720); // Більше місця для полів станції та дат + хороший відступ знизу
                 } else {
-                    currentStage.setHeight(450); // Менше для простого звіту + хороший відступ знизу
+                    currentStage.setHeight(570); // Менше для простого звіту + хороший відступ знизу
                 }
                 currentStage.centerOnScreen();
             }
         });
     }
 
+    private static boolean isStationReportType(String reportType) {
+        return ReportGenerator.REPORT_STATISTICS.equals(reportType)
+                || ReportGenerator.REPORT_TIME_SERIES.equals(reportType)
+                || ReportGenerator.REPORT_AQI.equals(reportType)
+                || ReportGenerator.REPORT_ANOMALIES.equals(reportType)
+                || ReportGenerator.REPORT_GAPS.equals(reportType)
+                || ReportGenerator.REPORT_CORRELATION.equals(reportType)
+                || ReportGenerator.REPORT_TRENDS.equals(reportType)
+                || ReportGenerator.REPORT_YEAR_OVER_YEAR.equals(reportType)
+                || ReportGenerator.REPORT_MONTH_OVER_MONTH.equals(reportType);
+    }
+
     private void loadStations() {
         try (ResultSet rs = DbManager.getAllStations()) {
             stations.clear();
@@ -271,6 +331,7 @@ public class ReportsController {
             }
 
             stationComboBox.setItems(FXCollections.observableArrayList(stations));
+            stationsCheckComboBox.getItems().setAll(stations);
             if (!stations.isEmpty()) {
                 stationComboBox.getSelectionModel().selectFirst();
             }
@@ -280,8 +341,10 @@ public class ReportsController {
         }
     }
 
-    @FXML
-    private void onGenerate() {
+    /**
+     * Validate form fields, shows error in status label
+     */
+    private boolean validateForm() {
         String reportType = reportTypeComboBox.getValue();
         String format = formatComboBox.getValue();
 
@@ -289,17 +352,24 @@ public class ReportsController {
         if (reportType == null || format == null) {
             statusLabel.setText("❌ Оберіть тип звіту та формат");
             statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-            return;
+            return false;
         }
 
         // Validation step 2: Check report-specific requirements
-        if ("Статистика вимірювань станції".equals(reportType)) {
-            StationInfo selectedStation = stationComboBox.getValue();
-            if (selectedStation == null) {
-                statusLabel.setText("❌ Оберіть станцію");
-                statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
-            }
+        if (isStationReportType(reportType) && stationComboBox.getValue() == null) {
+            statusLabel.setText("❌ Оберіть станцію");
+            statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
+            return false;
+        }
+
+        if (ReportGenerator.REPORT_COMPARISON.equals(reportType)
+                && stationsCheckComboBox.getCheckModel().getCheckedItems().size() < 2) {
+            statusLabel.setText("❌ Оберіть щонайменше дві станції для порівняння");
+            statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
+            return false;
+        }
+
+        if (isStationReportType(reportType) || ReportGenerator.REPORT_COMPARISON.equals(reportType)) {
 
             LocalDate startDate = startDatePicker.getValue();
             LocalDate endDate = endDatePicker.getValue();
@@ -307,20 +377,20 @@ public class ReportsController {
             if (startDate == null || endDate == null) {
                 statusLabel.setText("❌ Оберіть період (початкова та кінцева дати)");
                 statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
+                return false;
             }
 
             // Strict date validation - check if editor text is valid
             if (!isDatePickerValid(startDatePicker) || !isDatePickerValid(endDatePicker)) {
                 statusLabel.setText("❌ Некоректний формат дати. Використовуйте календар або формат ДД.ММ.РРРР");
                 statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
+                return false;
             }
 
             if (startDate.isAfter(endDate)) {
                 statusLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
                 statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
+                return false;
             }
 
             // Additional validation: check reasonable date range
@@ -331,23 +401,35 @@ public class ReportsController {
             if (startDate.isBefore(minDate) || startDate.isAfter(maxDate)) {
                 statusLabel.setText("❌ Початкова дата повинна бути між 1900 та сьогоднішньою датою");
                 statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
+                return false;
             }
 
             if (endDate.isBefore(minDate) || endDate.isAfter(maxDate)) {
                 statusLabel.setText("❌ Кінцева дата повинна бути між 1900 та сьогоднішньою датою");
                 statusLabel.setStyle("-fx-text-fill: #ff4444; -fx-font-size: 14px;");
-                return;
+                return false;
             }
         }
 
+        return true;
+    }
+
+    @FXML
+    private void onGenerate() {
+        if (!validateForm()) {
+            return;
+        }
+
+        String reportType = reportTypeComboBox.getValue();
+        String format = formatComboBox.getValue();
+
         // All validations passed - now choose save location
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Зберегти звіт");
         fileChooser.setInitialFileName("report_" + System.currentTimeMillis());
 
         // Add extension filter based on selected format
-        if ("PDF".equals(format)) {
+        if (ReportGenerator.FORMAT_PDF.equals(format)) {
             fileChooser.getExtensionFilters().add(
                     new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
         } else {
@@ -371,18 +453,49 @@ public class ReportsController {
             try {
                 ReportGenerator.ReportData reportData;
 
-                if ("Список підключених станцій".equals(reportType)) {
-                    reportData = generateStationsReport();
+                if (ReportGenerator.REPORT_STATIONS.equals(reportType)) {
+                    reportData = ReportGenerator.buildStationsReport();
+                } else if (ReportGenerator.REPORT_COMPARISON.equals(reportType)) {
+                    List<StationInfo> checked = new ArrayList<>(stationsCheckComboBox.getCheckModel().getCheckedItems());
+                    reportData = ReportGenerator.buildStationComparisonReport(stationIds(checked), stationNames(checked),
+                            startDatePicker.getValue(), endDatePicker.getValue());
+                } else if (ReportGenerator.REPORT_AQI.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildAqiReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue());
+                } else if (ReportGenerator.REPORT_ANOMALIES.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildAnomalyReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue());
+                } else if (ReportGenerator.REPORT_GAPS.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildGapReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue());
+                } else if (ReportGenerator.REPORT_CORRELATION.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildCorrelationReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue(), bucketComboBox.getValue());
+                } else if (ReportGenerator.REPORT_TRENDS.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildTrendReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue());
+                } else if (ReportGenerator.REPORT_YEAR_OVER_YEAR.equals(reportType)
+                        || ReportGenerator.REPORT_MONTH_OVER_MONTH.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildPeriodComparisonReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue(),
+                            ReportGenerator.REPORT_YEAR_OVER_YEAR.equals(reportType)
+                                    ? PeriodComparison.Mode.YEAR_OVER_YEAR : PeriodComparison.Mode.MONTH_OVER_MONTH);
+                } else if (ReportGenerator.REPORT_TIME_SERIES.equals(reportType)) {
+                    StationInfo station = stationComboBox.getValue();
+                    reportData = ReportGenerator.buildTimeSeriesStatisticsReport(station.id, station.name,
+                            startDatePicker.getValue(), endDatePicker.getValue(), bucketComboBox.getValue());
                 } else {
                     reportData = generateMeasurementStatisticsReport();
                 }
 
                 // Generate file based on format
-                if ("PDF".equals(format)) {
-                    ReportGenerator.generatePDF(reportData, file.getAbsolutePath());
-                } else {
-                    ReportGenerator.generateExcel(reportData, file.getAbsolutePath());
-                }
+                ReportGenerator.export(reportData, format, file.getAbsolutePath());
 
                 javafx.application.Platform.runLater(() -> {
                     statusLabel.setText("✅ Звіт успішно згенеровано: " + file.getName());
@@ -403,74 +516,86 @@ public class ReportsController {
         }).start();
     }
 
-    private ReportGenerator.ReportData generateStationsReport() throws Exception {
-        ResultSet rs = DbManager.getStationsReport();
-        ReportGenerator.ReportData data = ReportGenerator.resultSetToReportData(rs,
-                "Звіт: Список підключених станцій");
-        rs.close();
-        return data;
-    }
-
     private ReportGenerator.ReportData generateMeasurementStatisticsReport() throws Exception {
         // All validations already done in onGenerate(), just get the data
         StationInfo selectedStation = stationComboBox.getValue();
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
+        return ReportGenerator.buildMeasurementStatisticsReport(selectedStation.id, selectedStation.name,
+                startDatePicker.getValue(), endDatePicker.getValue());
+    }
 
+    private static List<String> stationIds(List<StationInfo> list) {
+        List<String> ids = new ArrayList<>();
+        for (StationInfo info : list) ids.add(info.id);
+        return ids;
+    }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        String startDateStr = startDate.format(formatter) + " 00:00:00";
-        String endDateStr = endDate.format(formatter) + " 23:59:59";
+    private static List<String> stationNames(List<StationInfo> list) {
+        List<String> names = new ArrayList<>();
+        for (StationInfo info : list) names.add(info.name);
+        return names;
+    }
 
-        ResultSet rs = DbManager.getMeasurementStatisticsReport(
-                selectedStation.id, startDateStr, endDateStr);
+    @FXML
+    private void onSchedule() {
+        if (!validateForm()) {
+            return;
+        }
 
-        String title = String.format("Звіт: Статистика вимірювань\nСтанція: %s\nПеріод: %s - %s\nЗгенеровано: %s",
-                selectedStation.name,
-                startDate.format(DateTimeFormatter.ofPattern("dd.MM.yyyy")),
-                endDate.format(DateTimeFormatter.ofPattern("dd.MM.yyyy")),
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
+        DirectoryChooser dirChooser = new DirectoryChooser();
+        dirChooser.setTitle("Папка для запланованих звітів");
+        File dir = dirChooser.showDialog(stage);
+        if (dir == null) {
+            return; // User cancelled
+        }
 
-        ReportGenerator.ReportData data = ReportGenerator.resultSetToReportData(rs, title);
-        rs.close();
+        ReportJob job = new ReportJob();
+        job.reportType = reportTypeComboBox.getValue();
+        job.format = formatComboBox.getValue();
+        job.outputDir = dir.getAbsolutePath();
+        job.repeat = repeatComboBox.getValue();
+        job.missedRunPolicy = missedRunComboBox.getValue();
+
+        if (ReportGenerator.REPORT_COMPARISON.equals(job.reportType)) {
+            List<StationInfo> checked = new ArrayList<>(stationsCheckComboBox.getCheckModel().getCheckedItems());
+            job.stationIds.addAll(stationIds(checked));
+            job.stationNames.addAll(stationNames(checked));
+            job.periodDays = (int) ChronoUnit.DAYS.between(startDatePicker.getValue(), endDatePicker.getValue()) + 1;
+        } else if (isStationReportType(job.reportType)) {
+            StationInfo station = stationComboBox.getValue();
+            job.bucket = bucketComboBox.getValue();
+            job.stationIds.add(station.id);
+            job.stationNames.add(station.name);
+            // Selected range becomes rolling period "last N days"
+            job.periodDays = (int) ChronoUnit.DAYS.between(startDatePicker.getValue(), endDatePicker.getValue()) + 1;
+        }
 
-        // Calculate totals for numeric columns
-        if (!data.rows.isEmpty() && data.headers.size() >= 6) {
-            double totalAvg = 0;
-            double totalMin = Double.MAX_VALUE;
-            double totalMax = Double.MIN_VALUE;
-            int totalCount = 0;
-            int rowCount = 0;
+        job.nextRunAt = System.currentTimeMillis() + job.repeat.millis();
+        ReportScheduler.addJob(job);
+        refreshJobs();
+        jobsComboBox.getSelectionModel().selectLast();
 
-            for (List<String> row : data.rows) {
-                try {
-                    // Column indices: 0=Назва, 1=Одиниця, 2=Середнє, 3=Мінімальне, 4=Максимальне, 5=Кількість
-                    double avg = Double.parseDouble(row.get(2));
-                    double min = Double.parseDouble(row.get(3));
-                    double max = Double.parseDouble(row.get(4));
-                    int count = Integer.parseInt(row.get(5));
-
-                    totalAvg += avg;
-                    totalMin = Math.min(totalMin, min);
-                    totalMax = Math.max(totalMax, max);
-                    totalCount += count;
-                    rowCount++;
-                } catch (NumberFormatException ignored) {
-                }
-            }
+        statusLabel.setText("📅 Звіт заплановано, перший запуск: " + ReportJob.formatTime(job.nextRunAt));
+        statusLabel.getStyleClass().clear();
+        statusLabel.setStyle("-fx-text-fill: #00d9ff; -fx-font-size: 14px;");
+    }
 
-            if (rowCount > 0) {
-                data.hasTotalRow = true;
-                data.totalRowData.add("Усього");
-                data.totalRowData.add("-");
-                data.totalRowData.add(String.format("%.2f", totalAvg / rowCount));
-                data.totalRowData.add(String.format("%.2f", totalMin));
-                data.totalRowData.add(String.format("%.2f", totalMax));
-                data.totalRowData.add(String.valueOf(totalCount));
-            }
+    @FXML
+    private void onDeleteJob() {
+        ReportJob job = jobsComboBox.getValue();
+        if (job == null) {
+            return;
         }
+        ReportScheduler.removeJob(job);
+        refreshJobs();
+        statusLabel.setText("🗑 Запланований звіт видалено");
+        statusLabel.setStyle("-fx-text-fill: #00d9ff; -fx-font-size: 14px;");
+    }
 
-        return data;
+    private void refreshJobs() {
+        jobsComboBox.setItems(FXCollections.observableArrayList(ReportScheduler.getJobs()));
+        jobsComboBox.setPromptText(jobsComboBox.getItems().isEmpty()
+                ? "Немає запланованих звітів"
+                : "Заплановано: " + jobsComboBox.getItems().size());
     }
 
     /**
@@ -0,0 +1,243 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolling 24-hour PM2.5 / PM10 and 8-hour CO means of one station against their limits.
+ * All standards are computed in one RollingWindow pass; the chart shows the selected one,
+ * downsampled with LTTB.
+ */
+public class RollingAverageViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> stationCombo;
+    @FXML private ComboBox<RollingWindow.Standard> standardCombo;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private LineChart<Number, Number> lineChart;
+    @FXML private NumberAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private TableView<StandardSummary> dataTable;
+    @FXML private TableColumn<StandardSummary, String> standardColumn;
+    @FXML private TableColumn<StandardSummary, String> limitColumn;
+    @FXML private TableColumn<StandardSummary, String> maxColumn;
+    @FXML private TableColumn<StandardSummary, String> maxTimeColumn;
+    @FXML private TableColumn<StandardSummary, String> exceededColumn;
+    @FXML private Label infoLabel;
+
+    private static final int CHART_POINTS = 1500;
+    private static final DateTimeFormatter TICK_FORMAT = DateTimeFormatter.ofPattern("dd.MM HH:mm");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final ObservableList<StandardSummary> dataList = FXCollections.observableArrayList();
+    private Map<RollingWindow.Standard, Series> loaded = new LinkedHashMap<>();
+
+    @FXML
+    private void initialize() {
+        standardColumn.setCellValueFactory(new PropertyValueFactory<>("standard"));
+        limitColumn.setCellValueFactory(new PropertyValueFactory<>("limit"));
+        maxColumn.setCellValueFactory(new PropertyValueFactory<>("maxMean"));
+        maxTimeColumn.setCellValueFactory(new PropertyValueFactory<>("maxTime"));
+        exceededColumn.setCellValueFactory(new PropertyValueFactory<>("exceeded"));
+        dataTable.setItems(dataList);
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusDays(30));
+
+        standardCombo.setItems(FXCollections.observableArrayList(RollingWindow.standards()));
+        standardCombo.getSelectionModel().selectFirst();
+        standardCombo.valueProperty().addListener((obs, o, n) -> updateChart());
+
+        xAxis.setForceZeroInRange(false);
+        xAxis.setLabel("Час");
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number value) {
+                return TICK_FORMAT.format(Instant.ofEpochMilli(value.longValue()).atZone(ZoneId.systemDefault()));
+            }
+
+            @Override
+            public Number fromString(String s) {
+                return 0;
+            }
+        });
+        yAxis.setLabel("Ковзне середнє");
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Ковзні середні", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                ObservableList<TimeSeriesViewController.Option> stations = FXCollections.observableArrayList();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        stations.add(new TimeSeriesViewController.Option(rs.getString("ID_Station").trim(),
+                                rs.getString("Name") + " (" + rs.getString("City") + ")"));
+                    }
+                }
+                Platform.runLater(() -> {
+                    stationCombo.setItems(stations);
+                    stationCombo.getSelectionModel().selectFirst();
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження станцій: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onLoadData() {
+        TimeSeriesViewController.Option station = stationCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (station == null || startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть станцію та обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        List<RollingWindow.Standard> standards = standardCombo.getItems();
+        infoLabel.setText("⏳ Розрахунок ковзних середніх...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try (Connection conn = DbManager.openDedicatedConnection()) {
+                conn.setAutoCommit(false);
+                Map<RollingWindow.Standard, Series> result = new LinkedHashMap<>();
+                for (RollingWindow.Standard standard : standards) result.put(standard, new Series());
+
+                RollingWindow.scan(conn, station.getId(), standards,
+                        startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                        (stationId, standard, time, mean, exceeded) -> result.get(standard).add(time, mean, exceeded));
+                conn.commit();
+                long elapsed = System.currentTimeMillis() - started;
+
+                ObservableList<StandardSummary> rows = FXCollections.observableArrayList();
+                long total = 0;
+                for (Map.Entry<RollingWindow.Standard, Series> entry : result.entrySet()) {
+                    RollingWindow.Summary summary = entry.getValue().summary;
+                    total += summary.getSamples();
+                    rows.add(new StandardSummary(entry.getKey(), summary));
+                }
+                long samples = total;
+
+                Platform.runLater(() -> {
+                    loaded = result;
+                    dataList.setAll(rows);
+                    updateChart();
+                    infoLabel.setText(String.format("✓ %s: %,d вимірювань за один прохід │ %d мс",
+                            station.getLabel(), samples, elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void updateChart() {
+        lineChart.getData().clear();
+        RollingWindow.Standard standard = standardCombo.getValue();
+        Series series = standard != null ? loaded.get(standard) : null;
+        if (series == null || series.size == 0) return;
+
+        XYChart.Series<Number, Number> means = new XYChart.Series<>();
+        means.setName(standard + ", ковзне середнє");
+        int[] kept = Lttb.downsample(series.times, series.means, 0, series.size, CHART_POINTS);
+        for (int i : kept) {
+            means.getData().add(new XYChart.Data<>(series.times[i], series.means[i]));
+        }
+
+        XYChart.Series<Number, Number> limit = new XYChart.Series<>();
+        limit.setName("Норматив " + standard.getLimit());
+        limit.getData().add(new XYChart.Data<>(series.times[0], standard.getLimit()));
+        limit.getData().add(new XYChart.Data<>(series.times[series.size - 1], standard.getLimit()));
+
+        lineChart.getData().add(means);
+        lineChart.getData().add(limit);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Emitted means of one standard as primitive columns for LTTB
+     */
+    private static class Series {
+        long[] times = new long[1024];
+        double[] means = new double[1024];
+        int size;
+        final RollingWindow.Summary summary = new RollingWindow.Summary();
+
+        void add(long time, double mean, boolean exceeded) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                means = Arrays.copyOf(means, size * 2);
+            }
+            times[size] = time;
+            means[size] = mean;
+            size++;
+            summary.add(time, mean, exceeded);
+        }
+    }
+
+    public static class StandardSummary {
+        private final String standard;
+        private final String limit;
+        private final String maxMean;
+        private final String maxTime;
+        private final String exceeded;
+
+        public StandardSummary(RollingWindow.Standard standard, RollingWindow.Summary summary) {
+            this.standard = standard.toString();
+            this.limit = String.valueOf(standard.getLimit());
+            boolean empty = summary.getSamples() == 0;
+            this.maxMean = empty ? "-" : String.format("%.2f", summary.getMaxMean());
+            this.maxTime = empty ? "-" : TIME_FORMAT.format(
+                    Instant.ofEpochMilli(summary.getMaxTime()).atZone(ZoneId.systemDefault()));
+            this.exceeded = empty ? "-" : String.format("%.1f%% (%,d з %,d)",
+                    summary.getExceededPercent(), summary.getExceeded(), summary.getSamples());
+        }
+
+        public String getStandard() { return standard; }
+        public String getLimit() { return limit; }
+        public String getMaxMean() { return maxMean; }
+        public String getMaxTime() { return maxTime; }
+        public String getExceeded() { return exceeded; }
+    }
+}
@@ -0,0 +1,271 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-based sliding window mean over one series (window covers (time - length, time]).
+ *
+ * Samples sit in a ring buffer with a running sum: each add() appends one sample and
+ * evicts the expired ones from the head, so an update is O(1) amortized and memory is
+ * bounded by the number of samples inside one window (1440 for 24 hours of minute data).
+ * Samples must arrive in time order; a late sample is counted at the latest time seen.
+ *
+ * Coverage is the share of the window's hours that hold at least one sample; scan() only
+ * emits a mean once coverage reaches the configured minimum (75% by default), so a window
+ * with a couple of samples after a gap is not reported as a 24-hour mean.
+ */
+public final class RollingWindow {
+    private static final int FETCH_SIZE = 50_000;
+    private static final long SLOT_MILLIS = 3_600_000L;
+
+    private final long lengthMillis;
+    private long[] times = new long[64];
+    private double[] values = new double[64];
+    private boolean[] firstInSlot = new boolean[64];
+    private int head;
+    private int size;
+    private int coveredSlots;
+    private double sum;
+    private long lastTime = Long.MIN_VALUE;
+
+    public RollingWindow(long lengthMillis) {
+        this.lengthMillis = lengthMillis;
+    }
+
+    public void add(long time, double value) {
+        if (time < lastTime) time = lastTime;
+        lastTime = time;
+
+        long expired = time - lengthMillis;
+        while (size > 0 && times[head] <= expired) {
+            sum -= values[head];
+            long slot = times[head] / SLOT_MILLIS;
+            boolean first = firstInSlot[head];
+            head = (head + 1) % times.length;
+            size--;
+            if (first) {
+                // The next sample of the same hour (if any) now opens it
+                if (size > 0 && times[head] / SLOT_MILLIS == slot) firstInSlot[head] = true;
+                else coveredSlots--;
+            }
+        }
+        if (size == 0) sum = 0; // drop accumulated rounding error
+
+        boolean first = size == 0 || times[(head + size - 1) % times.length] / SLOT_MILLIS != time / SLOT_MILLIS;
+        if (size == times.length) grow();
+        int tail = (head + size) % times.length;
+        times[tail] = time;
+        values[tail] = value;
+        firstInSlot[tail] = first;
+        size++;
+        sum += value;
+        if (first) coveredSlots++;
+    }
+
+    public double mean() {
+        return size == 0 ? Double.NaN : sum / size;
+    }
+
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Share of the window's hours holding at least one sample, 0..1
+     */
+    public double coverage() {
+        long slots = Math.max(1, lengthMillis / SLOT_MILLIS);
+        return Math.min(1.0, coveredSlots / (double) slots);
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        coveredSlots = 0;
+        sum = 0;
+        lastTime = Long.MIN_VALUE;
+    }
+
+    private void grow() {
+        long[] newTimes = new long[times.length * 2];
+        double[] newValues = new double[values.length * 2];
+        boolean[] newFirst = new boolean[firstInSlot.length * 2];
+        for (int i = 0; i < size; i++) {
+            newTimes[i] = times[(head + i) % times.length];
+            newValues[i] = values[(head + i) % values.length];
+            newFirst[i] = firstInSlot[(head + i) % firstInSlot.length];
+        }
+        times = newTimes;
+        values = newValues;
+        firstInSlot = newFirst;
+        head = 0;
+    }
+
+    /**
+     * Regulatory averaging period of one parameter (matched by Measured_Unit.Title)
+     */
+    public static class Standard {
+        private final String unitTitle;
+        private final int hours;
+        private final double limit;
+
+        public Standard(String unitTitle, int hours, double limit) {
+            this.unitTitle = unitTitle;
+            this.hours = hours;
+            this.limit = limit;
+        }
+
+        public String getUnitTitle() { return unitTitle; }
+        public int getHours() { return hours; }
+        public double getLimit() { return limit; }
+        public long getLengthMillis() { return hours * 3_600_000L; }
+
+        @Override
+        public String toString() {
+            return unitTitle + " (" + hours + " год)";
+        }
+    }
+
+    /**
+     * 24-hour PM2.5 / PM10 and 8-hour CO means; limits can be overridden in config.properties
+     */
+    public static List<Standard> standards() {
+        return List.of(
+                new Standard("PM2.5", 24, ConfigManager.getDoubleProperty("rolling.limit.pm25", 35.4)),
+                new Standard("PM10", 24, ConfigManager.getDoubleProperty("rolling.limit.pm10", 50)),
+                new Standard("CO", 8, ConfigManager.getDoubleProperty("rolling.limit.co", 10)));
+    }
+
+    /**
+     * Minimum share of covered hours for a rolling mean to be emitted (rolling.min.coverage)
+     */
+    public static double minCoverage() {
+        return ConfigManager.getDoubleProperty("rolling.min.coverage", 0.75);
+    }
+
+    /**
+     * Receives the rolling mean after every sample inside the requested period whose window
+     * has enough coverage
+     */
+    public interface Sink {
+        void accept(String stationId, Standard standard, long time, double mean, boolean exceeded);
+    }
+
+    /**
+     * One forward pass over raw measurements of one station (or all stations when stationId is null)
+     * ordered by (station, unit, time). Rows from one window length before {@code from} are read
+     * so the first emitted means already cover a full window; windows below minCoverage are skipped.
+     * Only the open window of the current series is kept in memory; that holds only if conn has
+     * autocommit off, otherwise the driver buffers the whole scan before the first row.
+     */
+    public static void scan(Connection conn, String stationId, List<Standard> standards,
+                            LocalDateTime from, LocalDateTime to, Sink sink) throws SQLException {
+        scan(conn, stationId, standards, from, to, minCoverage(), sink);
+    }
+
+    public static void scan(Connection conn, String stationId, List<Standard> standards,
+                            LocalDateTime from, LocalDateTime to, double minCoverage, Sink sink) throws SQLException {
+        if (standards.isEmpty()) return;
+        long longest = 0;
+        String[] titles = new String[standards.size()];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = standards.get(i).getUnitTitle();
+            longest = Math.max(longest, standards.get(i).getLengthMillis());
+        }
+        long emitFrom = Timestamp.valueOf(from).getTime();
+
+        String sql = "SELECT m.ID_Station, mu.Title, m.Time, m.Value " +
+                "FROM Measurment m JOIN Measured_Unit mu ON m.ID_Measured_Unit = mu.ID_Measured_Unit " +
+                "WHERE mu.Title = ANY(?) AND m.Time > ? AND m.Time < ?" +
+                (stationId != null ? " AND m.ID_Station = ?" : "") +
+                " ORDER BY m.ID_Station, mu.Title, m.Time";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setArray(1, conn.createArrayOf("varchar", titles));
+            ps.setTimestamp(2, new Timestamp(emitFrom - longest));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            if (stationId != null) ps.setString(4, stationId);
+            ps.setFetchSize(FETCH_SIZE);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                String currentStation = null;
+                String currentTitle = null;
+                String station = null;
+                Standard standard = null;
+                RollingWindow window = null;
+                List<RollingWindow> windows = new ArrayList<>();
+                for (Standard s : standards) windows.add(new RollingWindow(s.getLengthMillis()));
+
+                while (rs.next()) {
+                    String rowStation = rs.getString(1);
+                    String rowTitle = rs.getString(2);
+                    if (!rowStation.equals(currentStation) || !rowTitle.equals(currentTitle)) {
+                        currentStation = rowStation;
+                        currentTitle = rowTitle;
+                        station = rowStation.trim();
+                        int index = titles.length - 1;
+                        while (index >= 0 && !titles[index].equals(rowTitle)) index--;
+                        standard = index >= 0 ? standards.get(index) : null;
+                        window = index >= 0 ? windows.get(index) : null;
+                        if (window != null) window.clear();
+                    }
+                    if (window == null) continue;
+
+                    long time = rs.getTimestamp(3).getTime();
+                    double value = rs.getDouble(4);
+                    if (rs.wasNull()) continue;
+                    feed(window, station, standard, time, value, emitFrom, minCoverage, sink);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add one sample of a time-ordered series and pass the rolling mean to the sink when the
+     * sample is at or after emitFrom and the window has at least minCoverage; every source of
+     * rolling means goes through here so they apply the same rules
+     */
+    public static void feed(RollingWindow window, String stationId, Standard standard, long time, double value,
+                            long emitFrom, double minCoverage, Sink sink) {
+        window.add(time, value);
+        if (time >= emitFrom && window.coverage() >= minCoverage) {
+            double mean = window.mean();
+            sink.accept(stationId, standard, time, mean, mean > standard.getLimit());
+        }
+    }
+
+    /**
+     * Folds emitted means of one series: count, exceedances and the highest mean
+     */
+    public static class Summary {
+        private long samples;
+        private long exceeded;
+        private double maxMean = Double.NaN;
+        private long maxTime;
+
+        public void add(long time, double mean, boolean isExceeded) {
+            samples++;
+            if (isExceeded) exceeded++;
+            if (Double.isNaN(maxMean) || mean > maxMean) {
+                maxMean = mean;
+                maxTime = time;
+            }
+        }
+
+        public long getSamples() { return samples; }
+        public long getExceeded() { return exceeded; }
+        public double getMaxMean() { return maxMean; }
+        public long getMaxTime() { return maxTime; }
+
+        public double getExceededPercent() {
+            return samples == 0 ? 0 : exceeded * 100.0 / samples;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of computed numeric series (daily calendars, trend aggregates, per-station means)
+ * keyed by (database, type, station, start, end). Each entry is a map of named double[]
+ * and is validated against the station watermark like ReportCache entries.
+ *
+ * Unlike ReportCache, values stay binary, put() only updates memory and the watermark check
+ * runs outside the lock; flush() writes series-cache.bin once a computation run is done.
+ */
+public final class SeriesCache {
+    private static final String CACHE_FILE = "series-cache.bin";
+    private static final int MAGIC = 0x53434143; // "SCAC"
+    private static final int VERSION = 1;
+    private static final int MAX_ENTRIES = 2000;
+    private static final int MAX_VALUES_PER_ENTRY = 2_000_000;
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static boolean loaded;
+    private static boolean dirty;
+
+    private SeriesCache() {}
+
+    private static class Entry {
+        final String stationId;
+        final String start;
+        final String end;
+        final Map<String, double[]> series;
+        long maxId;
+        long maxTime;
+
+        Entry(String stationId, String start, String end, Map<String, double[]> series, long maxId, long maxTime) {
+            this.stationId = stationId;
+            this.start = start;
+            this.end = end;
+            this.series = series;
+            this.maxId = maxId;
+            this.maxTime = maxTime;
+        }
+    }
+
+    /**
+     * Cached series or null if missing or stale; new rows are looked up on the shared connection
+     */
+    public static Map<String, double[]> get(String type, String stationId, String start, String end,
+                                            long[] watermark) throws SQLException {
+        if (!DbManager.isConnected()) throw new SQLException("Not connected");
+        return get(DbManager.getConnection(), type, stationId, start, end, watermark);
+    }
+
+    /**
+     * Cached series or null if missing or stale; new rows are looked up on conn. The returned
+     * arrays are shared and must not be modified.
+     */
+    public static Map<String, double[]> get(Connection conn, String type, String stationId, String start,
+                                            String end, long[] watermark) throws SQLException {
+        String key = key(type, stationId, start, end);
+        Entry entry;
+        long maxId;
+        long maxTime;
+        synchronized (SeriesCache.class) {
+            ensureLoaded();
+            entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.maxId == watermark[0] && entry.maxTime == watermark[1]) return entry.series;
+            maxId = entry.maxId;
+            maxTime = entry.maxTime;
+        }
+
+        // Rows were deleted or changed, or new rows fall inside the period
+        boolean stale = watermark[0] < maxId
+                || (watermark[0] > maxId && DbManager.hasMeasurementsAfter(conn, stationId, maxId, entry.start, entry.end));
+        synchronized (SeriesCache.class) {
+            if (stale) {
+                entries.remove(key, entry);
+                dirty = true;
+                return null;
+            }
+            if (entry.maxId == maxId && entry.maxTime == maxTime) {
+                entry.maxId = watermark[0];
+                entry.maxTime = watermark[1];
+                dirty = true;
+            }
+            return entry.series;
+        }
+    }
+
+    /**
+     * Keep series computed at watermark; written to disk by the next flush()
+     */
+    public static synchronized void put(String type, String stationId, String start, String end,
+                                        long[] watermark, Map<String, double[]> series) {
+        ensureLoaded();
+        long values = 0;
+        for (double[] v : series.values()) values += v.length;
+        if (values > MAX_VALUES_PER_ENTRY) return; // Too large to keep
+
+        Map<String, double[]> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, double[]> e : series.entrySet()) copy.put(e.getKey(), e.getValue().clone());
+        entries.put(key(type, stationId, start, end),
+                new Entry(stationId, start, end, Collections.unmodifiableMap(copy), watermark[0], watermark[1]));
+        dirty = true;
+    }
+
+    /**
+     * Write the cache file if anything changed since the last flush
+     */
+    public static synchronized void flush() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            StateFile.write(file(), MAGIC, VERSION, SeriesCache::writeEntries);
+        } catch (IOException e) {
+            System.err.println("Помилка збереження кешу рядів: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        dirty = true;
+        flush();
+    }
+
+    private static String key(String type, String stationId, String start, String end) {
+        return ConfigManager.getDbName() + "|" + type + "|" + stationId + "|" + start + "|" + end;
+    }
+
+    private static File file() {
+        return new File(ConfigManager.getAppDataDir(), CACHE_FILE);
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        try {
+            StateFile.read(file(), MAGIC, VERSION, SeriesCache::readEntries);
+        } catch (IOException e) {
+            System.err.println("Кеш рядів пошкоджено, буде створено заново: " + e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static void readEntries(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            String stationId = in.readUTF();
+            String start = in.readUTF();
+            String end = in.readUTF();
+            long maxId = in.readLong();
+            long maxTime = in.readLong();
+            int seriesCount = in.readInt();
+            Map<String, double[]> series = new LinkedHashMap<>();
+            for (int s = 0; s < seriesCount; s++) {
+                String name = in.readUTF();
+                double[] values = new double[in.readInt()];
+                for (int v = 0; v < values.length; v++) values[v] = in.readDouble();
+                series.put(name, values);
+            }
+            entries.put(key, new Entry(stationId, start, end, Collections.unmodifiableMap(series), maxId, maxTime));
+        }
+    }
+
+    private static void writeEntries(DataOutputStream out) throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeUTF(entry.stationId);
+            out.writeUTF(entry.start);
+            out.writeUTF(entry.end);
+            out.writeLong(entry.maxId);
+            out.writeLong(entry.maxTime);
+            out.writeInt(entry.series.size());
+            for (Map.Entry<String, double[]> s : entry.series.entrySet()) {
+                out.writeUTF(s.getKey());
+                out.writeInt(s.getValue().length);
+                for (double v : s.getValue()) out.writeDouble(v);
+            }
+        }
+    }
+}
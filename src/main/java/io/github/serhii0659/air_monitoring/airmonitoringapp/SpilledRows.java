@@ -0,0 +1,196 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only table rows stored in a memory-mapped temp file instead of the heap.
+ * Used for very large "Show all" results: TableView asks only for visible rows,
+ * which are decoded on demand.
+ *
+ * Data file: rows of length-prefixed UTF-8 cells, never crossing a 1 GiB mapping chunk.
+ * Index file: one long offset per row.
+ */
+public final class SpilledRows extends ObservableListBase<ObservableList<String>> {
+    private static final long CHUNK_BYTES = 1L << 30;
+
+    private final File dataFile;
+    private final File indexFile;
+    private final int columnCount;
+    private final int size;
+    private MappedByteBuffer[] chunks;
+    private LongBuffer offsets;
+    private byte[] cellBuffer = new byte[256];
+
+    private SpilledRows(File dataFile, File indexFile, int columnCount, int size) throws IOException {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.columnCount = columnCount;
+        this.size = size;
+
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            int chunkCount = (int) ((length + CHUNK_BYTES - 1) / CHUNK_BYTES);
+            chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long start = i * CHUNK_BYTES;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_BYTES, length - start));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            offsets = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+        }
+    }
+
+    /**
+     * Spill threshold in rows (data.spill.threshold in config.properties)
+     */
+    public static int getThreshold() {
+        return Math.max(10_000, ConfigManager.getIntProperty("data.spill.threshold", 200_000));
+    }
+
+    @Override
+    public ObservableList<String> get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        if (chunks == null) throw new IllegalStateException("Дані вже звільнено");
+
+        long offset = offsets.get(index);
+        MappedByteBuffer chunk = chunks[(int) (offset / CHUNK_BYTES)];
+        int pos = (int) (offset % CHUNK_BYTES);
+
+        String[] cells = new String[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            // varint length
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = chunk.get(pos++);
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            if (length > cellBuffer.length) cellBuffer = new byte[Math.max(length, cellBuffer.length * 2)];
+            chunk.get(pos, cellBuffer, 0, length);
+            pos += length;
+            cells[c] = new String(cellBuffer, 0, length, StandardCharsets.UTF_8);
+        }
+        return FXCollections.observableArrayList(cells);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long getFileSize() {
+        return dataFile.length() + indexFile.length();
+    }
+
+    /**
+     * Drop mappings and delete temp files (the list must not be shown anymore)
+     */
+    public void close() {
+        chunks = null;
+        offsets = null;
+        if (!dataFile.delete()) dataFile.deleteOnExit();
+        if (!indexFile.delete()) indexFile.deleteOnExit();
+    }
+
+    /**
+     * Appends rows to a new spill file
+     */
+    public static class Writer implements AutoCloseable {
+        private final File dataFile;
+        private final File indexFile;
+        private final OutputStream data;
+        private final DataOutputStream index;
+        private final int columnCount;
+        private byte[] row = new byte[1024];
+        private long position;
+        private int rows;
+        private boolean finished;
+
+        public Writer(int columnCount) throws IOException {
+            this.columnCount = columnCount;
+            dataFile = File.createTempFile("air-monitoring-", ".rows");
+            indexFile = File.createTempFile("air-monitoring-", ".idx");
+            dataFile.deleteOnExit();
+            indexFile.deleteOnExit();
+            data = new BufferedOutputStream(new FileOutputStream(dataFile), 1 << 20);
+            index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 1 << 16));
+        }
+
+        public void add(String[] cells) throws IOException {
+            int length = 0;
+            for (int c = 0; c < columnCount; c++) {
+                String cell = c < cells.length && cells[c] != null ? cells[c] : "";
+                byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(length + 5 + bytes.length);
+                // varint length
+                int v = bytes.length;
+                while ((v & ~0x7F) != 0) {
+                    row[length++] = (byte) ((v & 0x7F) | 0x80);
+                    v >>>= 7;
+                }
+                row[length++] = (byte) v;
+                System.arraycopy(bytes, 0, row, length, bytes.length);
+                length += bytes.length;
+            }
+
+            // Keep every row inside one mapping chunk
+            long used = position % CHUNK_BYTES;
+            if (used + length > CHUNK_BYTES) {
+                long padding = CHUNK_BYTES - used;
+                for (long i = 0; i < padding; i++) data.write(0);
+                position += padding;
+            }
+
+            index.writeLong(position);
+            data.write(row, 0, length);
+            position += length;
+            rows++;
+        }
+
+        public int getRowCount() {
+            return rows;
+        }
+
+        public SpilledRows finish() throws IOException {
+            data.close();
+            index.close();
+            finished = true;
+            return new SpilledRows(dataFile, indexFile, columnCount, rows);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > row.length) row = Arrays.copyOf(row, Math.max(capacity, row.length * 2));
+        }
+
+        /**
+         * Discard unfinished spill (cancel / error)
+         */
+        @Override
+        public void close() {
+            if (finished) return;
+            try { data.close(); } catch (IOException ignored) {}
+            try { index.close(); } catch (IOException ignored) {}
+            dataFile.delete();
+            indexFile.delete();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed binary state files in the app data dir (detector, forecast and sketch
+ * state, caches). Every file starts with a magic number and a format version; writes go to
+ * a temp file that replaces the old one, so a crash never leaves a half-written file.
+ */
+public final class StateFile {
+    private StateFile() {}
+
+    /**
+     * Reads the body after a matching header
+     */
+    public interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Writes the body after the header
+     */
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * "<prefix>-<current database>.bin" in the app data dir
+     */
+    public static File forDatabase(String prefix) {
+        String db = ConfigManager.getDbName() == null ? "default" : ConfigManager.getDbName();
+        return new File(ConfigManager.getAppDataDir(), prefix + "-" + safeName(db) + ".bin");
+    }
+
+    /**
+     * File name part with everything except letters, digits, '_' and '-' replaced
+     */
+    public static String safeName(String name) {
+        return name.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    /**
+     * Read the file; false when it is missing or has another magic / version
+     */
+    public static boolean read(File file, int magic, int version, Reader reader) throws IOException {
+        if (!file.exists()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != magic || in.readInt() != version) return false;
+            reader.read(in);
+            return true;
+        }
+    }
+
+    public static void write(File file, int magic, int version, Writer writer) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            writer.write(out);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
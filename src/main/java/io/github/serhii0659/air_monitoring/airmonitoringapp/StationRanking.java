@@ -0,0 +1,258 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Top-K / bottom-K stations by one metric over a period, one page of ranks at a time.
+ *
+ * Per-station values are streamed into a bounded heap of offset + limit entries, so a page
+ * never holds more than the ranks up to its end. Max, mean and exceedance days come from
+ * MeasurementCube when it is enabled; otherwise, and always for P95, the ranking is pushed
+ * down to the database as ORDER BY ... LIMIT / OFFSET. AQI means are derived from AqiEngine
+ * and cached per period in SeriesCache, so paging does not recompute them.
+ */
+public final class StationRanking {
+    private static final String AQI_CACHE_TYPE = "Ranking AQI";
+
+    private StationRanking() {}
+
+    public enum Metric {
+        MAX("Максимум", true),
+        MEAN("Середнє", true),
+        P95("95-й перцентиль", true),
+        EXCEEDANCE_DAYS("Днів з перевищенням", true),
+        AQI("Середній AQI", false);
+
+        private final String label;
+        private final boolean perUnit;
+
+        Metric(String label, boolean perUnit) {
+            this.label = label;
+            this.perUnit = perUnit;
+        }
+
+        public boolean isPerUnit() { return perUnit; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    public static class Entry {
+        private final int rank;
+        private final String stationId;
+        private final double value;
+
+        Entry(int rank, String stationId, double value) {
+            this.rank = rank;
+            this.stationId = stationId;
+            this.value = value;
+        }
+
+        public int getRank() { return rank; }
+        public String getStationId() { return stationId; }
+        public double getValue() { return value; }
+    }
+
+    public static class Page {
+        private final List<Entry> entries;
+        private final int total;
+
+        Page(List<Entry> entries, int total) {
+            this.entries = entries;
+            this.total = total;
+        }
+
+        public List<Entry> getEntries() { return entries; }
+        /** Number of ranked stations over all pages */
+        public int getTotal() { return total; }
+    }
+
+    /**
+     * Keeps the best k offered values; the heap root is the worst of them and is replaced
+     * when a better value arrives. Ties are broken by station id for stable paging.
+     */
+    static class TopK {
+        private final int k;
+        private final Comparator<Entry> order;
+        private final PriorityQueue<Entry> heap;
+        private int offered;
+
+        TopK(int k, boolean descending) {
+            this.k = k;
+            Comparator<Entry> byValue = Comparator.comparingDouble(Entry::getValue);
+            this.order = (descending ? byValue.reversed() : byValue).thenComparing(Entry::getStationId);
+            this.heap = new PriorityQueue<>(Math.max(1, k), order.reversed());
+        }
+
+        void offer(String stationId, double value) {
+            if (Double.isNaN(value)) return;
+            offered++;
+            if (k == 0) return;
+            Entry entry = new Entry(0, stationId, value);
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        /** Number of non-NaN values offered so far */
+        int offered() {
+            return offered;
+        }
+
+        /** Ranks from offset + 1 to k, best first */
+        List<Entry> page(int offset) {
+            List<Entry> best = new ArrayList<>(heap);
+            best.sort(order);
+            List<Entry> page = new ArrayList<>();
+            for (int i = offset; i < best.size(); i++) {
+                page.add(new Entry(i + 1, best.get(i).stationId, best.get(i).value));
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Ranks offset + 1 .. offset + limit of stations by the metric; descending puts the highest
+     * values first. unitId is ignored for AQI, threshold is used only for exceedance days.
+     */
+    public static Page rank(Metric metric, String unitId, LocalDate from, LocalDate to, double threshold,
+                            boolean descending, int offset, int limit) throws Exception {
+        if (metric == Metric.AQI) {
+            TopK top = new TopK(offset + limit, descending);
+            for (Map.Entry<String, Double> e : aqiMeans(from, to).entrySet()) top.offer(e.getKey(), e.getValue());
+            return new Page(top.page(offset), top.offered());
+        }
+        if (metric != Metric.P95 && MeasurementCube.isEnabled()) {
+            return rankFromCube(metric, unitId, from, to, threshold, descending, offset, limit);
+        }
+        return rankInDatabase(metric, unitId, from, to, threshold, descending, offset, limit);
+    }
+
+    private static Page rankFromCube(Metric metric, String unitId, LocalDate from, LocalDate to, double threshold,
+                                     boolean descending, int offset, int limit) throws SQLException {
+        MeasurementCube cube = MeasurementCube.current();
+        TopK top = new TopK(offset + limit, descending);
+        if (metric == Metric.EXCEEDANCE_DAYS) {
+            // One cell per station and day: count the days whose maximum is above the threshold
+            Map<String, int[]> days = new HashMap<>();
+            cube.forEach(cube.select(null, null, unitId, from, to), (stationId, unit, day, min, max, sum, count) ->
+                    days.computeIfAbsent(stationId, k -> new int[1])[0] += max > threshold ? 1 : 0);
+            for (Map.Entry<String, int[]> e : days.entrySet()) top.offer(e.getKey(), e.getValue()[0]);
+        } else {
+            Map<String, MeasurementCube.Aggregate> stations = cube.rollUp(
+                    cube.select(null, null, unitId, from, to), MeasurementCube.Dimension.STATION);
+            for (Map.Entry<String, MeasurementCube.Aggregate> e : stations.entrySet()) {
+                MeasurementCube.Aggregate stats = e.getValue();
+                if (stats.getCount() == 0) continue;
+                top.offer(e.getKey(), metric == Metric.MAX ? stats.getMax() : stats.getMean());
+            }
+        }
+        return new Page(top.page(offset), top.offered());
+    }
+
+    private static Page rankInDatabase(Metric metric, String unitId, LocalDate from, LocalDate to, double threshold,
+                                       boolean descending, int offset, int limit) throws SQLException {
+        // NULL values are left out, so a station without values is not ranked (NULL sorts first in DESC)
+        String period = "WHERE ID_Measured_Unit = ? AND Time >= ? AND Time < ? AND Value IS NOT NULL ";
+        String sql;
+        switch (metric) {
+            case MAX:
+                sql = "SELECT ID_Station, MAX(Value) AS value, COUNT(*) OVER () FROM Measurment " + period +
+                        "GROUP BY ID_Station ";
+                break;
+            case MEAN:
+                sql = "SELECT ID_Station, AVG(Value) AS value, COUNT(*) OVER () FROM Measurment " + period +
+                        "GROUP BY ID_Station ";
+                break;
+            case P95:
+                sql = "SELECT ID_Station, percentile_cont(0.95) WITHIN GROUP (ORDER BY Value) AS value, " +
+                        "COUNT(*) OVER () FROM Measurment " + period + "GROUP BY ID_Station ";
+                break;
+            case EXCEEDANCE_DAYS:
+                sql = "SELECT ID_Station, COUNT(*) FILTER (WHERE day_max > ?) AS value, COUNT(*) OVER () " +
+                        "FROM (SELECT ID_Station, DATE(Time), MAX(Value) AS day_max FROM Measurment " + period +
+                        "GROUP BY ID_Station, DATE(Time)) d GROUP BY ID_Station ";
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported metric: " + metric);
+        }
+        sql += "ORDER BY value " + (descending ? "DESC" : "ASC") + ", ID_Station LIMIT ? OFFSET ?";
+
+        List<Entry> entries = new ArrayList<>();
+        int total = 0;
+        try (PreparedStatement ps = DbManager.getConnection().prepareStatement(sql)) {
+            int i = 1;
+            if (metric == Metric.EXCEEDANCE_DAYS) ps.setDouble(i++, threshold);
+            ps.setString(i++, unitId);
+            ps.setTimestamp(i++, Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(i++, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            ps.setInt(i++, limit);
+            ps.setInt(i, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(offset + entries.size() + 1, rs.getString(1).trim(), rs.getDouble(2)));
+                    total = rs.getInt(3);
+                }
+            }
+        }
+        if (entries.isEmpty() && offset > 0) {
+            // Past the last page: COUNT(*) OVER () has no row to come with
+            return new Page(entries, rankInDatabase(metric, unitId, from, to, threshold, descending, 0, 1).total);
+        }
+        return new Page(entries, total);
+    }
+
+    /**
+     * Mean hourly AQI of every station in the period, cached until a new measurement arrives
+     */
+    private static Map<String, Double> aqiMeans(LocalDate from, LocalDate to) throws Exception {
+        String start = from + " 00:00:00";
+        String end = to + " 23:59:59";
+        long[] watermark = DbManager.getStationWatermark(DbManager.ALL_STATIONS);
+        Map<String, Double> means = new HashMap<>();
+
+        Map<String, double[]> cached = SeriesCache.get(AQI_CACHE_TYPE, DbManager.ALL_STATIONS, start, end, watermark);
+        if (cached != null) {
+            for (Map.Entry<String, double[]> e : cached.entrySet()) means.put(e.getKey(), e.getValue()[0]);
+            return means;
+        }
+
+        try (Connection conn = DbManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            AqiEngine.HourlyAqi aqi = AqiEngine.load(conn).computeHourly(conn, null,
+                    from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+            conn.commit();
+
+            int stations = aqi.getStationIds().size();
+            double[] sum = new double[stations];
+            int[] hours = new int[stations];
+            for (int i = 0; i < aqi.size(); i++) {
+                sum[aqi.getStation(i)] += aqi.getAqi(i);
+                hours[aqi.getStation(i)]++;
+            }
+            for (int s = 0; s < stations; s++) {
+                if (hours[s] > 0) means.put(aqi.getStationIds().get(s), sum[s] / hours[s]);
+            }
+        }
+
+        Map<String, double[]> series = new HashMap<>();
+        for (Map.Entry<String, Double> e : means.entrySet()) series.put(e.getKey(), new double[] { e.getValue() });
+        SeriesCache.put(AQI_CACHE_TYPE, DbManager.ALL_STATIONS, start, end, watermark, series);
+        SeriesCache.flush();
+        return means;
+    }
+}
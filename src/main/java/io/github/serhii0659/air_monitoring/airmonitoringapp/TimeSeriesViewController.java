@@ -0,0 +1,417 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.input.MouseButton;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time series of one or more (station, unit) pairs over an arbitrary period.
+ *
+ * Raw rows are kept in primitive arrays, and the chart only gets about one point per pixel
+ * of width, selected with LTTB. Each series also keeps a pyramid of coarser LTTB levels
+ * (every level 8x smaller). On zoom/pan the chart is first redrawn from the finest cached
+ * level that is cheap for the visible range, then refined from raw data in the background.
+ */
+public class TimeSeriesViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<Option> stationCombo;
+    @FXML private ComboBox<Option> unitCombo;
+    @FXML private ListView<Option> seriesList;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private LineChart<Number, Number> lineChart;
+    @FXML private NumberAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private Label infoLabel;
+
+    private static final int LEVEL_FACTOR = 8;
+    private static final int MIN_LEVEL_POINTS = 2048;
+    private static final int CHEAP_POINTS_PER_PIXEL = 4;
+    private static final DateTimeFormatter TICK_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yy HH:mm");
+
+    private final List<SeriesData> loaded = new ArrayList<>();
+    private final PauseTransition refineDelay = new PauseTransition(Duration.millis(150));
+    private long fullFrom;
+    private long fullTo;
+    private long viewFrom;
+    private long viewTo;
+    private int generation;
+    private double dragStartX = Double.NaN;
+    private long dragStartFrom;
+    private long dragStartTo;
+
+    @FXML
+    private void initialize() {
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusDays(30));
+
+        xAxis.setAutoRanging(false);
+        xAxis.setForceZeroInRange(false);
+        xAxis.setLabel("Час");
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number value) {
+                return TICK_FORMAT.format(Instant.ofEpochMilli(value.longValue()).atZone(ZoneId.systemDefault()));
+            }
+
+            @Override
+            public Number fromString(String s) {
+                return 0;
+            }
+        });
+        yAxis.setForceZeroInRange(false);
+        yAxis.setLabel("Значення");
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+
+        setupZoomAndPan();
+        refineDelay.setOnFinished(e -> refine());
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Часові ряди", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        loadOptions();
+    }
+
+    private void loadOptions() {
+        new Thread(() -> {
+            try {
+                ObservableList<Option> stations = FXCollections.observableArrayList();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        stations.add(new Option(rs.getString("ID_Station").trim(),
+                                rs.getString("Name") + " (" + rs.getString("City") + ")"));
+                    }
+                }
+                ObservableList<Option> units = FXCollections.observableArrayList();
+                try (PreparedStatement ps = DbManager.getConnection().prepareStatement(
+                        "SELECT ID_Measured_Unit, Title, Unit FROM Measured_Unit ORDER BY Title");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String unit = rs.getString("Unit");
+                        units.add(new Option(rs.getString("ID_Measured_Unit").trim(),
+                                rs.getString("Title") + (unit != null ? ", " + unit : "")));
+                    }
+                }
+                Platform.runLater(() -> {
+                    stationCombo.setItems(stations);
+                    unitCombo.setItems(units);
+                    if (!stations.isEmpty()) stationCombo.getSelectionModel().selectFirst();
+                    if (!units.isEmpty()) unitCombo.getSelectionModel().selectFirst();
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження довідників: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onAddSeries() {
+        Option station = stationCombo.getValue();
+        Option unit = unitCombo.getValue();
+        if (station == null || unit == null) {
+            infoLabel.setText("❌ Оберіть станцію та параметр");
+            return;
+        }
+        Option pair = new Option(station.id + "|" + unit.id, station.label + " — " + unit.label);
+        for (Option existing : seriesList.getItems()) {
+            if (existing.id.equals(pair.id)) return;
+        }
+        seriesList.getItems().add(pair);
+    }
+
+    @FXML
+    private void onRemoveSeries() {
+        Option selected = seriesList.getSelectionModel().getSelectedItem();
+        if (selected != null) seriesList.getItems().remove(selected);
+    }
+
+    @FXML
+    private void onLoadData() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+        if (seriesList.getItems().isEmpty()) {
+            infoLabel.setText("❌ Додайте хоча б одну пару станція / параметр");
+            return;
+        }
+
+        List<Option> pairs = new ArrayList<>(seriesList.getItems());
+        infoLabel.setText("⏳ Завантаження даних...");
+
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try (Connection conn = DbManager.openDedicatedConnection()) {
+                conn.setAutoCommit(false);
+                List<SeriesData> result = new ArrayList<>();
+                for (Option pair : pairs) {
+                    String[] ids = pair.id.split("\\|", 2);
+                    result.add(loadSeries(conn, ids[0], ids[1], pair.label, startDate, endDate));
+                }
+                conn.commit();
+                long rows = result.stream().mapToLong(s -> s.levels.get(0).size).sum();
+                long elapsed = System.currentTimeMillis() - started;
+
+                Platform.runLater(() -> {
+                    loaded.clear();
+                    loaded.addAll(result);
+                    fullFrom = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    fullTo = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    setView(fullFrom, fullTo);
+                    infoLabel.setText(String.format("✓ Завантажено %,d вимірювань за %d мс │ " +
+                            "коліщатко - масштаб, перетягування - зсув, подвійний клік - весь період", rows, elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private SeriesData loadSeries(Connection conn, String stationId, String unitId, String label,
+                                  LocalDate startDate, LocalDate endDate) throws Exception {
+        String sql = "SELECT Time, Value FROM Measurment " +
+                "WHERE ID_Station = ? AND ID_Measured_Unit = ? AND Time >= ? AND Time < ? ORDER BY Time";
+        long[] x = new long[1024];
+        double[] y = new double[1024];
+        int n = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, stationId);
+            ps.setString(2, unitId);
+            ps.setTimestamp(3, Timestamp.valueOf(startDate.atStartOfDay()));
+            ps.setTimestamp(4, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            ps.setFetchSize(50_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double value = rs.getDouble(2);
+                    if (rs.wasNull()) continue;
+                    if (n == x.length) {
+                        x = Arrays.copyOf(x, n * 2);
+                        y = Arrays.copyOf(y, n * 2);
+                    }
+                    x[n] = rs.getTimestamp(1).getTime();
+                    y[n] = value;
+                    n++;
+                }
+            }
+        }
+
+        SeriesData series = new SeriesData(label);
+        Level level = new Level(x, y, n);
+        series.levels.add(level);
+        while (level.size > MIN_LEVEL_POINTS * LEVEL_FACTOR / 2) {
+            int[] kept = Lttb.downsample(level.x, level.y, 0, level.size, level.size / LEVEL_FACTOR);
+            long[] lx = new long[kept.length];
+            double[] ly = new double[kept.length];
+            for (int i = 0; i < kept.length; i++) {
+                lx[i] = level.x[kept[i]];
+                ly[i] = level.y[kept[i]];
+            }
+            level = new Level(lx, ly, kept.length);
+            series.levels.add(level);
+        }
+        return series;
+    }
+
+    private void setupZoomAndPan() {
+        lineChart.setOnScroll(e -> {
+            if (loaded.isEmpty() || e.getDeltaY() == 0) return;
+            double factor = e.getDeltaY() > 0 ? 0.8 : 1.25;
+            double pivot = xAxis.getValueForDisplay(xAxis.sceneToLocal(e.getSceneX(), e.getSceneY()).getX()).doubleValue();
+            long from = (long) (pivot - (pivot - viewFrom) * factor);
+            long to = (long) (pivot + (viewTo - pivot) * factor);
+            setView(from, to);
+        });
+        lineChart.setOnMousePressed(e -> {
+            if (e.getButton() != MouseButton.PRIMARY) return;
+            dragStartX = e.getX();
+            dragStartFrom = viewFrom;
+            dragStartTo = viewTo;
+        });
+        lineChart.setOnMouseDragged(e -> {
+            if (loaded.isEmpty() || Double.isNaN(dragStartX) || xAxis.getWidth() <= 0) return;
+            long shift = (long) ((dragStartX - e.getX()) / xAxis.getWidth() * (dragStartTo - dragStartFrom));
+            setView(dragStartFrom + shift, dragStartTo + shift);
+        });
+        lineChart.setOnMouseReleased(e -> dragStartX = Double.NaN);
+        lineChart.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2 && !loaded.isEmpty()) setView(fullFrom, fullTo);
+        });
+    }
+
+    /**
+     * Show [from, to): immediate coarse redraw, raw refinement after the view settles
+     */
+    private void setView(long from, long to) {
+        long minSpan = 60_000L * 10;
+        if (to - from < minSpan) {
+            long mid = (from + to) / 2;
+            from = mid - minSpan / 2;
+            to = mid + minSpan / 2;
+        }
+        long span = Math.min(to - from, fullTo - fullFrom);
+        if (from < fullFrom) from = fullFrom;
+        if (from + span > fullTo) from = fullTo - span;
+        viewFrom = from;
+        viewTo = from + span;
+
+        xAxis.setLowerBound(viewFrom);
+        xAxis.setUpperBound(viewTo);
+        xAxis.setTickUnit(Math.max(1, (viewTo - viewFrom) / 8.0));
+
+        int width = pixelWidth();
+        List<XYChart.Series<Number, Number>> coarse = new ArrayList<>();
+        boolean exact = true;
+        for (SeriesData s : loaded) {
+            int levelIndex = cheapLevel(s, width);
+            exact &= levelIndex == 0;
+            coarse.add(toChartSeries(s, s.levels.get(levelIndex), width));
+        }
+        lineChart.getData().setAll(coarse);
+
+        generation++;
+        refineDelay.stop();
+        if (!exact) refineDelay.playFromStart();
+    }
+
+    private void refine() {
+        int myGeneration = generation;
+        long from = viewFrom;
+        long to = viewTo;
+        int width = pixelWidth();
+        List<SeriesData> series = new ArrayList<>(loaded);
+
+        new Thread(() -> {
+            List<XYChart.Series<Number, Number>> fine = new ArrayList<>();
+            for (SeriesData s : series) {
+                fine.add(toChartSeries(s, s.levels.get(0), width, from, to));
+            }
+            Platform.runLater(() -> {
+                if (myGeneration == generation) lineChart.getData().setAll(fine);
+            });
+        }, "timeseries-refine").start();
+    }
+
+    /**
+     * Finest level with at most CHEAP_POINTS_PER_PIXEL points per pixel in the view
+     */
+    private int cheapLevel(SeriesData s, int width) {
+        for (int i = 0; i < s.levels.size(); i++) {
+            Level level = s.levels.get(i);
+            int lo = Lttb.lowerBound(level.x, level.size, viewFrom);
+            int hi = Lttb.lowerBound(level.x, level.size, viewTo);
+            if (hi - lo <= width * CHEAP_POINTS_PER_PIXEL) return i;
+        }
+        return s.levels.size() - 1;
+    }
+
+    private XYChart.Series<Number, Number> toChartSeries(SeriesData s, Level level, int width) {
+        return toChartSeries(s, level, width, viewFrom, viewTo);
+    }
+
+    private static XYChart.Series<Number, Number> toChartSeries(SeriesData s, Level level, int width, long from, long to) {
+        // One neighbour on each side so lines reach the chart edges
+        int lo = Math.max(0, Lttb.lowerBound(level.x, level.size, from) - 1);
+        int hi = Math.min(level.size, Lttb.lowerBound(level.x, level.size, to) + 1);
+        int[] kept = Lttb.downsample(level.x, level.y, lo, hi, width);
+
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(kept.length);
+        for (int i : kept) {
+            points.add(new XYChart.Data<>(level.x[i], level.y[i]));
+        }
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(s.label);
+        series.getData().setAll(points);
+        return series;
+    }
+
+    private int pixelWidth() {
+        return Math.max(200, (int) xAxis.getWidth());
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Combo / list entry with an id and a display label
+     */
+    public static class Option {
+        private final String id;
+        private final String label;
+
+        public Option(String id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        public String getId() { return id; }
+        public String getLabel() { return label; }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static class SeriesData {
+        final String label;
+        final List<Level> levels = new ArrayList<>();  // 0 = raw, each next LEVEL_FACTOR times coarser
+
+        SeriesData(String label) {
+            this.label = label;
+        }
+    }
+
+    private static class Level {
+        final long[] x;
+        final double[] y;
+        final int size;
+
+        Level(long[] x, double[] y, int size) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+    }
+}
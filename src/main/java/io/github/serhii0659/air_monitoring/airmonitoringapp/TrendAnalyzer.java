@@ -0,0 +1,267 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Robust trend and seasonal profiles of (station, unit) series.
+ *
+ * One grouped query per series returns (day, hour-of-day) sums and counts, from which the
+ * daily means and the hour-of-day / day-of-week profiles are derived. The aggregates are
+ * cached per period in SeriesCache (station watermark invalidation), so repeated analyses
+ * only recompute the Theil-Sen slope (median of pairwise slopes of the daily means) and the
+ * Mann-Kendall test. Series are analysed in parallel, one worker and connection per core;
+ * workers read watermarks on their own connection and the cache file is written once per run.
+ */
+public final class TrendAnalyzer {
+    private static final String CACHE_TYPE = "Trend aggregates:";
+    private static final int MAX_PAIRS = 2_000_000; // above this, pairs are sampled
+    private static final double Z_95 = 1.96;
+
+    private TrendAnalyzer() {}
+
+    public static class Trend {
+        private final double slope;
+        private final double intercept;
+        private final double z;
+
+        Trend(double slope, double intercept, double z) {
+            this.slope = slope;
+            this.intercept = intercept;
+            this.z = z;
+        }
+
+        public double getSlope() { return slope; }
+        public double getIntercept() { return intercept; }
+        public double getZ() { return z; }
+        public boolean isSignificant() { return Math.abs(z) > Z_95; }
+    }
+
+    public static class Result {
+        private final String stationId;
+        private final String unitId;
+        private final LocalDate origin;
+        private final double[] daily;
+        private final double[] hourProfile;
+        private final double[] weekdayProfile;
+        private final Trend trend;
+        private final double mean;
+        private final int days;
+
+        Result(String stationId, String unitId, LocalDate origin, double[] daily,
+               double[] hourProfile, double[] weekdayProfile) {
+            this.stationId = stationId;
+            this.unitId = unitId;
+            this.origin = origin;
+            this.daily = daily;
+            this.hourProfile = hourProfile;
+            this.weekdayProfile = weekdayProfile;
+
+            int count = 0;
+            double sum = 0;
+            for (double v : daily) {
+                if (!Double.isNaN(v)) {
+                    sum += v;
+                    count++;
+                }
+            }
+            double[] x = new double[count];
+            double[] y = new double[count];
+            for (int d = 0, k = 0; d < daily.length; d++) {
+                if (Double.isNaN(daily[d])) continue;
+                x[k] = d;
+                y[k++] = daily[d];
+            }
+            this.days = count;
+            this.mean = count == 0 ? Double.NaN : sum / count;
+            this.trend = theilSen(x, y);
+        }
+
+        public String getStationId() { return stationId; }
+        public String getUnitId() { return unitId; }
+        public LocalDate getOrigin() { return origin; }
+        /** Daily means from origin, NaN = no data */
+        public double[] getDaily() { return daily; }
+        /** Mean per hour of day 0..23 */
+        public double[] getHourProfile() { return hourProfile; }
+        /** Mean per day of week, Monday first */
+        public double[] getWeekdayProfile() { return weekdayProfile; }
+        public Trend getTrend() { return trend; }
+        public double getMean() { return mean; }
+        public int getDays() { return days; }
+
+        public double getSlopePerYear() {
+            return trend.getSlope() * 365.25;
+        }
+
+        /**
+         * Change per year relative to the period mean, in percent
+         */
+        public double getPercentPerYear() {
+            return mean == 0 || Double.isNaN(mean) ? Double.NaN : getSlopePerYear() / Math.abs(mean) * 100;
+        }
+
+        /**
+         * Lower concentrations are better, so a significant negative slope is an improvement
+         */
+        public String getVerdict() {
+            if (days < 10 || Double.isNaN(trend.getSlope())) return "Недостатньо даних";
+            if (!trend.isSignificant()) return "➖ Без значущих змін";
+            return trend.getSlope() < 0 ? "📉 Покращення" : "📈 Погіршення";
+        }
+    }
+
+    /**
+     * Theil-Sen slope and intercept with the Mann-Kendall z-score. With more than MAX_PAIRS
+     * pairs a fixed-seed random sample of pairs is used for both.
+     */
+    public static Trend theilSen(double[] x, double[] y) {
+        int n = x.length;
+        if (n < 2) return new Trend(Double.NaN, Double.NaN, 0);
+
+        long totalPairs = (long) n * (n - 1) / 2;
+        int pairs = (int) Math.min(totalPairs, MAX_PAIRS);
+        double[] slopes = new double[pairs];
+        long s = 0;
+        int k = 0;
+        if (totalPairs <= MAX_PAIRS) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    slopes[k++] = (y[j] - y[i]) / (x[j] - x[i]);
+                    s += Double.compare(y[j], y[i]);
+                }
+            }
+        } else {
+            Random random = new Random(42);
+            while (k < pairs) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (i == j) continue;
+                if (i > j) { int t = i; i = j; j = t; }
+                slopes[k++] = (y[j] - y[i]) / (x[j] - x[i]);
+                s += Double.compare(y[j], y[i]);
+            }
+        }
+        Arrays.sort(slopes);
+        double slope = median(slopes);
+
+        double[] residuals = new double[n];
+        for (int i = 0; i < n; i++) residuals[i] = y[i] - slope * x[i];
+        Arrays.sort(residuals);
+        double intercept = median(residuals);
+
+        // Mann-Kendall: S scaled up from the sample, normal approximation without tie correction
+        double scaledS = s * ((double) totalPairs / pairs);
+        double variance = n * (n - 1.0) * (2.0 * n + 5) / 18.0;
+        double z = scaledS > 0 ? (scaledS - 1) / Math.sqrt(variance)
+                : scaledS < 0 ? (scaledS + 1) / Math.sqrt(variance) : 0;
+        return new Trend(slope, intercept, z);
+    }
+
+    private static double median(double[] sorted) {
+        int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+    }
+
+    /**
+     * Analyse several series of [startDate, endDate] in parallel; series are (stationId, unitId)
+     * pairs and results keep their order.
+     */
+    public static List<Result> analyzeAll(List<String[]> series, LocalDate startDate, LocalDate endDate)
+            throws Exception {
+        Result[] results = new Result[series.size()];
+        try {
+            ParallelWorkers.run("trend", results.length, (conn, i) -> {
+                String[] s = series.get(i);
+                results[i] = analyze(conn, s[0], s[1], startDate, endDate);
+            });
+        } finally {
+            SeriesCache.flush();
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Analyse one series on conn, using cached aggregates when the station has no new rows in
+     * the period. New aggregates stay in memory until SeriesCache.flush().
+     */
+    public static Result analyze(Connection conn, String stationId, String unitId,
+                                 LocalDate startDate, LocalDate endDate) throws Exception {
+        String start = startDate + " 00:00:00";
+        String end = endDate + " 23:59:59";
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        String cacheType = CACHE_TYPE + unitId;
+
+        long[] watermark = DbManager.getStationWatermark(conn, stationId);
+        Map<String, double[]> cached = SeriesCache.get(conn, cacheType, stationId, start, end, watermark);
+        if (cached != null && cached.containsKey("daily") && cached.get("daily").length == days) {
+            return new Result(stationId.trim(), unitId.trim(), startDate,
+                    cached.get("daily").clone(), cached.get("hour").clone(), cached.get("weekday").clone());
+        }
+
+        Result result = query(conn, stationId, unitId, startDate, endDate);
+        Map<String, double[]> series = new LinkedHashMap<>();
+        series.put("daily", result.daily);
+        series.put("hour", result.hourProfile);
+        series.put("weekday", result.weekdayProfile);
+        SeriesCache.put(cacheType, stationId, start, end, watermark, series);
+        return result;
+    }
+
+    private static Result query(Connection conn, String stationId, String unitId,
+                                LocalDate startDate, LocalDate endDate) throws SQLException {
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        double[] daySum = new double[days];
+        long[] dayCount = new long[days];
+        double[] hourSum = new double[24];
+        long[] hourCount = new long[24];
+        double[] weekdaySum = new double[7];
+        long[] weekdayCount = new long[7];
+
+        String sql = "SELECT date_trunc('day', Time) AS day, EXTRACT(HOUR FROM Time)::int AS hour, " +
+                "SUM(Value), COUNT(Value) FROM Measurment " +
+                "WHERE ID_Station = ? AND ID_Measured_Unit = ? AND Time >= ? AND Time < ? " +
+                "GROUP BY 1, 2";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, stationId);
+            ps.setString(2, unitId);
+            ps.setTimestamp(3, Timestamp.valueOf(startDate.atStartOfDay()));
+            ps.setTimestamp(4, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate day = rs.getTimestamp(1).toLocalDateTime().toLocalDate();
+                    int d = (int) (day.toEpochDay() - startDate.toEpochDay());
+                    int hour = rs.getInt(2);
+                    double sum = rs.getDouble(3);
+                    long count = rs.getLong(4);
+                    if (d < 0 || d >= days || count == 0) continue;
+                    int weekday = day.getDayOfWeek().getValue() - 1;
+                    daySum[d] += sum;
+                    dayCount[d] += count;
+                    hourSum[hour] += sum;
+                    hourCount[hour] += count;
+                    weekdaySum[weekday] += sum;
+                    weekdayCount[weekday] += count;
+                }
+            }
+        }
+        return new Result(stationId.trim(), unitId.trim(), startDate,
+                means(daySum, dayCount), means(hourSum, hourCount), means(weekdaySum, weekdayCount));
+    }
+
+    private static double[] means(double[] sums, long[] counts) {
+        double[] means = new double[sums.length];
+        for (int i = 0; i < sums.length; i++) means[i] = counts[i] == 0 ? Double.NaN : sums[i] / counts[i];
+        return means;
+    }
+}
@@ -0,0 +1,256 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Theil-Sen trends of one unit across all stations, with the daily means, fitted line and
+ * hour-of-day / day-of-week profiles of the selected station.
+ */
+public class TrendViewController {
+    @FXML private CustomTitleBar titleBar;
+    @FXML private ComboBox<TimeSeriesViewController.Option> unitCombo;
+    @FXML private DatePicker startDatePicker;
+    @FXML private DatePicker endDatePicker;
+    @FXML private TableView<TrendRow> trendTable;
+    @FXML private TableColumn<TrendRow, String> stationColumn;
+    @FXML private TableColumn<TrendRow, String> slopeColumn;
+    @FXML private TableColumn<TrendRow, String> percentColumn;
+    @FXML private TableColumn<TrendRow, String> verdictColumn;
+    @FXML private TableColumn<TrendRow, Integer> daysColumn;
+    @FXML private LineChart<Number, Number> lineChart;
+    @FXML private NumberAxis xAxis;
+    @FXML private NumberAxis yAxis;
+    @FXML private BarChart<String, Number> hourChart;
+    @FXML private BarChart<String, Number> weekdayChart;
+    @FXML private Label infoLabel;
+
+    private static final int CHART_POINTS = 800;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yy");
+    private static final Locale UKRAINIAN = Locale.forLanguageTag("uk");
+
+    private final ObservableList<TrendRow> trendList = FXCollections.observableArrayList();
+
+    @FXML
+    private void initialize() {
+        stationColumn.setCellValueFactory(new PropertyValueFactory<>("station"));
+        slopeColumn.setCellValueFactory(new PropertyValueFactory<>("slope"));
+        percentColumn.setCellValueFactory(new PropertyValueFactory<>("percent"));
+        verdictColumn.setCellValueFactory(new PropertyValueFactory<>("verdict"));
+        daysColumn.setCellValueFactory(new PropertyValueFactory<>("days"));
+        trendTable.setItems(trendList);
+        trendTable.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> showSeries(n));
+
+        endDatePicker.setValue(LocalDate.now());
+        startDatePicker.setValue(LocalDate.now().minusYears(2));
+
+        xAxis.setForceZeroInRange(false);
+        xAxis.setLabel("Дата");
+        yAxis.setLabel("Середнє за добу");
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+        hourChart.setAnimated(false);
+        hourChart.setLegendVisible(false);
+        weekdayChart.setAnimated(false);
+        weekdayChart.setLegendVisible(false);
+
+        Platform.runLater(() -> {
+            try {
+                if (titleBar != null && titleBar.getScene() != null && titleBar.getScene().getWindow() != null) {
+                    Stage stage = (Stage) titleBar.getScene().getWindow();
+                    titleBar.init("Візуалізація: Тренди та сезонність", stage, true, true);
+                }
+            } catch (Exception e) {
+                System.err.println("Помилка ініціалізації title bar: " + e.getMessage());
+            }
+        });
+
+        new Thread(() -> {
+            try {
+                ObservableList<TimeSeriesViewController.Option> units = FXCollections.observableArrayList();
+                try (Statement st = DbManager.getConnection().createStatement();
+                     ResultSet rs = st.executeQuery("SELECT ID_Measured_Unit, Title FROM Measured_Unit ORDER BY Title")) {
+                    while (rs.next()) {
+                        units.add(new TimeSeriesViewController.Option(rs.getString(1).trim(), rs.getString(2)));
+                    }
+                }
+                Platform.runLater(() -> {
+                    unitCombo.setItems(units);
+                    units.stream().filter(o -> o.getLabel().replace(" ", "").toUpperCase().contains("PM2.5"))
+                            .findFirst()
+                            .ifPresentOrElse(unitCombo::setValue, () -> unitCombo.getSelectionModel().selectFirst());
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка завантаження параметрів: " + e.getMessage()));
+            }
+        }).start();
+    }
+
+    @FXML
+    private void onLoadData() {
+        TimeSeriesViewController.Option unit = unitCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        if (unit == null || startDate == null || endDate == null) {
+            infoLabel.setText("❌ Оберіть параметр та обидві дати");
+            return;
+        }
+        if (startDate.isAfter(endDate)) {
+            infoLabel.setText("❌ Початкова дата не може бути пізніше кінцевої");
+            return;
+        }
+
+        infoLabel.setText("⏳ Розрахунок трендів по всіх станціях...");
+        new Thread(() -> {
+            long started = System.currentTimeMillis();
+            try {
+                List<String[]> series = new ArrayList<>();
+                List<String> names = new ArrayList<>();
+                try (ResultSet rs = DbManager.getAllStations()) {
+                    while (rs.next()) {
+                        series.add(new String[] { rs.getString("ID_Station").trim(), unit.getId() });
+                        names.add(rs.getString("Name") + " (" + rs.getString("City") + ")");
+                    }
+                }
+                List<TrendAnalyzer.Result> results = TrendAnalyzer.analyzeAll(series, startDate, endDate);
+                long elapsed = System.currentTimeMillis() - started;
+
+                ObservableList<TrendRow> rows = FXCollections.observableArrayList();
+                for (int i = 0; i < results.size(); i++) {
+                    if (results.get(i).getDays() > 0) rows.add(new TrendRow(names.get(i), results.get(i)));
+                }
+                // Strongest improvements first
+                rows.sort((a, b) -> Double.compare(a.result.getPercentPerYear(), b.result.getPercentPerYear()));
+
+                Platform.runLater(() -> {
+                    trendList.setAll(rows);
+                    if (rows.isEmpty()) {
+                        showSeries(null);
+                    } else {
+                        trendTable.getSelectionModel().selectFirst();
+                    }
+                    infoLabel.setText(String.format("✓ %s: %d станцій з даними з %d, паралельно │ %d мс",
+                            unit.getLabel(), rows.size(), series.size(), elapsed));
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> infoLabel.setText("❌ Помилка: " + e.getMessage()));
+                e.printStackTrace();
+            }
+        }).start();
+    }
+
+    private void showSeries(TrendRow row) {
+        lineChart.getData().clear();
+        hourChart.getData().clear();
+        weekdayChart.getData().clear();
+        if (row == null) return;
+        TrendAnalyzer.Result result = row.result;
+        LocalDate origin = result.getOrigin();
+
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number value) {
+                return origin.plusDays(value.longValue()).format(DAY_FORMAT);
+            }
+
+            @Override
+            public Number fromString(String s) {
+                return 0;
+            }
+        });
+
+        double[] daily = result.getDaily();
+        long[] x = new long[result.getDays()];
+        double[] y = new double[result.getDays()];
+        for (int d = 0, k = 0; d < daily.length; d++) {
+            if (Double.isNaN(daily[d])) continue;
+            x[k] = d;
+            y[k++] = daily[d];
+        }
+        XYChart.Series<Number, Number> means = new XYChart.Series<>();
+        means.setName(row.getStation() + ", середнє за добу");
+        for (int i : Lttb.downsample(x, y, 0, x.length, CHART_POINTS)) {
+            means.getData().add(new XYChart.Data<>(x[i], y[i]));
+        }
+        lineChart.getData().add(means);
+
+        TrendAnalyzer.Trend trend = result.getTrend();
+        if (x.length >= 2 && !Double.isNaN(trend.getSlope())) {
+            XYChart.Series<Number, Number> line = new XYChart.Series<>();
+            line.setName("Тренд Тейла-Сена: " + row.getSlope() + " за рік");
+            long first = x[0];
+            long last = x[x.length - 1];
+            line.getData().add(new XYChart.Data<>(first, trend.getIntercept() + trend.getSlope() * first));
+            line.getData().add(new XYChart.Data<>(last, trend.getIntercept() + trend.getSlope() * last));
+            lineChart.getData().add(line);
+        }
+
+        XYChart.Series<String, Number> hours = new XYChart.Series<>();
+        double[] hourProfile = result.getHourProfile();
+        for (int h = 0; h < hourProfile.length; h++) {
+            hours.getData().add(new XYChart.Data<>(String.format("%02d", h),
+                    Double.isNaN(hourProfile[h]) ? 0 : hourProfile[h]));
+        }
+        hourChart.getData().add(hours);
+
+        XYChart.Series<String, Number> weekdays = new XYChart.Series<>();
+        double[] weekdayProfile = result.getWeekdayProfile();
+        for (int d = 0; d < weekdayProfile.length; d++) {
+            weekdays.getData().add(new XYChart.Data<>(DayOfWeek.of(d + 1).getDisplayName(TextStyle.SHORT, UKRAINIAN),
+                    Double.isNaN(weekdayProfile[d]) ? 0 : weekdayProfile[d]));
+        }
+        weekdayChart.getData().add(weekdays);
+    }
+
+    @FXML
+    private void onClose() {
+        Stage stage = (Stage) titleBar.getScene().getWindow();
+        stage.close();
+    }
+
+    public static class TrendRow {
+        private final String station;
+        private final String slope;
+        private final String percent;
+        private final String verdict;
+        private final int days;
+        private final TrendAnalyzer.Result result;
+
+        public TrendRow(String station, TrendAnalyzer.Result result) {
+            this.station = station;
+            this.result = result;
+            double perYear = result.getSlopePerYear();
+            double percentPerYear = result.getPercentPerYear();
+            this.slope = Double.isNaN(perYear) ? "-" : String.format("%+.2f", perYear);
+            this.percent = Double.isNaN(percentPerYear) ? "-" : String.format("%+.1f%%", percentPerYear);
+            this.verdict = result.getVerdict();
+            this.days = result.getDays();
+        }
+
+        public String getStation() { return station; }
+        public String getSlope() { return slope; }
+        public String getPercent() { return percent; }
+        public String getVerdict() { return verdict; }
+        public int getDays() { return days; }
+    }
+}
@@ -38,6 +38,66 @@ public class VisualizationMenuController {
         openVisualization("Чадний газ (CO)", "co-view.fxml");
     }
 
+    @FXML
+    private void onTimeSeriesVisualization() {
+        openVisualization("Часові ряди вимірювань", "timeseries-view.fxml");
+    }
+
+    @FXML
+    private void onHeatmapVisualization() {
+        openVisualization("Теплова карта станція × година", "heatmap-view.fxml");
+    }
+
+    @FXML
+    private void onPeriodComparisonVisualization() {
+        openVisualization("Порівняння періодів", "period-comparison-view.fxml");
+    }
+
+    @FXML
+    private void onRankingVisualization() {
+        openVisualization("Рейтинг станцій", "ranking-view.fxml");
+    }
+
+    @FXML
+    private void onForecastVisualization() {
+        openVisualization("Прогноз на 24 години", "forecast-view.fxml");
+    }
+
+    @FXML
+    private void onTrendVisualization() {
+        openVisualization("Тренди та сезонність", "trend-view.fxml");
+    }
+
+    @FXML
+    private void onCorrelationVisualization() {
+        openVisualization("Кореляція забруднювачів", "correlation-view.fxml");
+    }
+
+    @FXML
+    private void onCompletenessVisualization() {
+        openVisualization("Повнота даних", "completeness-view.fxml");
+    }
+
+    @FXML
+    private void onAnomalyVisualization() {
+        openVisualization("Аномалії вимірювань", "anomaly-view.fxml");
+    }
+
+    @FXML
+    private void onRollingAverageVisualization() {
+        openVisualization("Ковзні середні", "rolling-average-view.fxml");
+    }
+
+    @FXML
+    private void onAqiVisualization() {
+        openVisualization("Індекс якості повітря (AQI)", "aqi-view.fxml");
+    }
+
+    @FXML
+    private void onDashboard() {
+        openVisualization("Live-панель станцій", "dashboard-view.fxml");
+    }
+
     private void openVisualization(String title, String fxmlFile) {
         try {
             System.out.println("Відкриваємо візуалізацію: " + title + ", файл: " + fxmlFile);
@@ -0,0 +1,43 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnomalyDetectorTest {
+    private static final long MINUTE = 60_000L;
+    private final AnomalyDetector.Settings settings = new AnomalyDetector.Settings(5, 0.05, 30);
+
+    @Test
+    void flagsIsolatedSpikeOnly() {
+        AnomalyDetector.SeriesState state = new AnomalyDetector.SeriesState();
+        int flagged = 0;
+        for (int i = 0; i < 500; i++) {
+            double value = 20 + Math.sin(i / 10.0) * 2;
+            if (i == 300) value = 150;
+            double z = state.update(i * MINUTE, value, settings);
+            if (!Double.isNaN(z)) {
+                assertEquals(300, i);
+                assertTrue(z > 5);
+                flagged++;
+            }
+        }
+        assertEquals(1, flagged);
+        // The spike is clipped before updating, so the baseline stays near the signal
+        assertEquals(20, state.getMean(), 3);
+    }
+
+    @Test
+    void noFlagsDuringWarmupOrAfterGap() {
+        AnomalyDetector.SeriesState state = new AnomalyDetector.SeriesState();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(Double.isNaN(state.update(i * MINUTE, i == 5 ? 500 : 10, settings)));
+        }
+        for (int i = 10; i < 100; i++) state.update(i * MINUTE, 10, settings);
+
+        // After a day without data the series is learned again from scratch
+        long later = 100 * MINUTE + 25 * 3_600_000L;
+        assertTrue(Double.isNaN(state.update(later, 80, settings)));
+        assertEquals(80, state.getMean(), 1e-9);
+    }
+}
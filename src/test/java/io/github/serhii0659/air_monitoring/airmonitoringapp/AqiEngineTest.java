@@ -0,0 +1,44 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AqiEngineTest {
+    private final AqiEngine engine = AqiEngine.from(new AirQualityCategories(Map.of(
+            "PM25", List.of(
+                    new AirQualityCategories.Band("Добре", 0, 12),
+                    new AirQualityCategories.Band("Помірно", 12, 35.4),
+                    new AirQualityCategories.Band("Шкідливо", 35.4, Double.POSITIVE_INFINITY)),
+            "CO", List.of(
+                    new AirQualityCategories.Band("Добре", 0, 4),
+                    new AirQualityCategories.Band("Погано", 5, 10)))));
+
+    @Test
+    void interpolatesWithinCategories() {
+        int pm = engine.unitIndex("PM25");
+        assertEquals(0, engine.subIndex(pm, 0), 1e-9);
+        assertEquals(25, engine.subIndex(pm, 6), 1e-9);
+        assertEquals(50, engine.subIndex(pm, 12), 1e-9);
+        assertEquals(75, engine.subIndex(pm, 23.7), 1e-9);
+        // Open top category continues with the width of the category below (23.4)
+        assertEquals(100, engine.subIndex(pm, 35.4), 1e-9);
+        assertEquals(125, engine.subIndex(pm, 35.4 + 11.7), 1e-9);
+    }
+
+    @Test
+    void gapsAndOverflow() {
+        int co = engine.unitIndex("CO");
+        assertEquals(50, engine.subIndex(co, 4.5), 1e-9);   // gap 4..5 starts the next category
+        assertEquals(75, engine.subIndex(co, 7.5), 1e-9);
+        assertEquals(100, engine.subIndex(co, 10), 1e-9);
+        // Above the last closed category: slope of 5..10 continues, 10 index points per unit
+        assertEquals(150, engine.subIndex(co, 15), 1e-9);
+        assertEquals(400, engine.subIndex(co, 40), 1e-9);
+        assertEquals(-1, engine.unitIndex("SO2"));
+        assertEquals("Шкідливо", ReportGenerator.aqiCategory(engine, "PM25", 130));
+    }
+}
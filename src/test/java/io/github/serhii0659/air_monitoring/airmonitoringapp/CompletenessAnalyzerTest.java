@@ -0,0 +1,73 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletenessAnalyzerTest {
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 1440 * MINUTE;
+
+    @Test
+    void findsGapsDuplicatesAndExpectedInterval() {
+        CompletenessAnalyzer.Accumulator acc = new CompletenessAnalyzer.Accumulator("S1", "PM25", 0, 2);
+        for (long t = 0; t < 2 * DAY; t += 10 * MINUTE) {
+            if (t >= 500 * MINUTE && t < 800 * MINUTE) continue; // 5 hours missing
+            acc.add(t);
+            if (t == 1000 * MINUTE) acc.add(t); // duplicate timestamp
+        }
+
+        CompletenessAnalyzer.Result result = new CompletenessAnalyzer.Result(java.time.LocalDate.EPOCH, 2);
+        acc.finish(result, 2 * DAY, 3);
+
+        CompletenessAnalyzer.SeriesSummary summary = result.getSeries().get(0);
+        assertEquals(10 * MINUTE, summary.getExpectedMillis());
+        assertEquals(1, summary.getDuplicates());
+        assertEquals(1, result.getGaps().size());
+
+        CompletenessAnalyzer.Gap gap = result.getGaps().get(0);
+        assertEquals(490 * MINUTE, gap.getStart());
+        assertEquals(800 * MINUTE, gap.getEnd());
+        assertEquals(30, gap.getMissingSamples());
+        assertEquals(1.0, summary.dayCompleteness(1), 1e-9);
+        assertEquals(114 / 144.0, summary.dayCompleteness(0), 1e-9);
+    }
+
+    @Test
+    void stoppedStationEndsWithTrailingGap() {
+        CompletenessAnalyzer.Accumulator acc = new CompletenessAnalyzer.Accumulator("S1", "CO", 0, 1);
+        for (long t = 0; t <= 600 * MINUTE; t += 60 * MINUTE) acc.add(t);
+
+        CompletenessAnalyzer.Result result = new CompletenessAnalyzer.Result(java.time.LocalDate.EPOCH, 1);
+        acc.finish(result, DAY, 3);
+
+        assertEquals(1, result.getGaps().size());
+        assertEquals(600 * MINUTE, result.getGaps().get(0).getStart());
+        assertEquals(DAY, result.getGaps().get(0).getEnd());
+        assertEquals("13 год 0 хв", CompletenessAnalyzer.formatDuration(DAY - 660 * MINUTE));
+    }
+
+    @Test
+    void candidatesArePrunedOnceTheModeSettles() {
+        CompletenessAnalyzer.Accumulator acc = new CompletenessAnalyzer.Accumulator("S1", "NO2", 0, 2);
+        for (long t = 0; t < 2 * DAY; t += 10 * MINUTE) {
+            if (t >= 500 * MINUTE && t < 800 * MINUTE) continue;
+            acc.add(t);
+        }
+        assertEquals(1, acc.candidateCount());
+    }
+
+    @Test
+    void silentSeriesIsOneFullPeriodGap() {
+        CompletenessAnalyzer.Result result = new CompletenessAnalyzer.Result(java.time.LocalDate.EPOCH, 1);
+        CompletenessAnalyzer.addSilentSeries(result, "S1", "SO2", 0, DAY, 60 * MINUTE);
+
+        CompletenessAnalyzer.SeriesSummary summary = result.getSeries().get(0);
+        assertEquals(0, summary.getRows());
+        assertEquals(0.0, summary.getCompleteness());
+        assertEquals(0.0, summary.dayCompleteness(0));
+        assertEquals(1, result.getGaps().size());
+        assertEquals(DAY, result.getGaps().get(0).getDurationMillis());
+        assertEquals(24, result.getGaps().get(0).getMissingSamples());
+    }
+}
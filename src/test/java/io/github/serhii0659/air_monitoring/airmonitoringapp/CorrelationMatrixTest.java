@@ -0,0 +1,41 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorrelationMatrixTest {
+
+    @Test
+    void mergedPartsEqualSinglePass() {
+        Random random = new Random(11);
+        CorrelationMatrix whole = new CorrelationMatrix(3);
+        CorrelationMatrix first = new CorrelationMatrix(3);
+        CorrelationMatrix second = new CorrelationMatrix(3);
+        for (int i = 0; i < 2000; i++) {
+            double pm25 = random.nextGaussian() * 10 + 30;
+            double[] cell = {
+                    pm25,
+                    pm25 * 1.6 + random.nextGaussian() * 4,         // follows PM2.5
+                    i % 7 == 0 ? Double.NaN : random.nextGaussian() // independent, partly missing
+            };
+            whole.add(cell);
+            (i < 700 ? first : second).add(cell);
+        }
+        CorrelationMatrix merged = CorrelationMatrix.mergeAll(List.of(first, second), 3);
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(whole.count(i, j), merged.count(i, j));
+                assertEquals(whole.correlation(i, j), merged.correlation(i, j), 1e-9);
+            }
+        }
+        assertTrue(whole.correlation(0, 1) > 0.9);
+        assertEquals(0, whole.correlation(0, 2), 0.1);
+        assertEquals(1, whole.correlation(2, 2), 1e-9);
+        assertEquals(2000 - 286, whole.count(1, 2));
+    }
+}
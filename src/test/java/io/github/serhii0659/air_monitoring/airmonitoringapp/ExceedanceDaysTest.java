@@ -0,0 +1,29 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExceedanceDaysTest {
+    @Test
+    void countsDistinctDaysPerMonthRange() {
+        ExceedanceDays.StationDays days = new ExceedanceDays.StationDays();
+        // Every day of January and March 2024, each twice, plus 31 December 2023
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (int d = 1; d <= 31; d++) {
+                days.add(LocalDate.of(2024, 1, d).toEpochDay());
+                days.add(LocalDate.of(2024, 3, d).toEpochDay());
+            }
+        }
+        days.add(LocalDate.of(2023, 12, 31).toEpochDay());
+
+        assertEquals(63, days.count(null, null));
+        assertEquals(31, days.count(YearMonth.of(2024, 1), YearMonth.of(2024, 2)));
+        assertEquals(62, days.count(YearMonth.of(2024, 1), null));
+        assertEquals(32, days.count(null, YearMonth.of(2024, 2)));
+        assertEquals(0, days.count(YearMonth.of(2024, 2), YearMonth.of(2024, 2)));
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ForecasterTest {
+    private static final Forecaster.Settings SETTINGS = new Forecaster.Settings(0.2, 0.01, 0.1, 0.98);
+
+    private static double truth(long hour) {
+        return 30 + 10 * Math.sin(2 * Math.PI * (hour % 24) / 24.0);
+    }
+
+    @Test
+    void learnsDailySeasonality() {
+        Random random = new Random(3);
+        Forecaster.Model model = new Forecaster.Model();
+        long start = 480_000;
+        for (long h = start; h < start + 24 * 14; h++) {
+            model.update(h, truth(h) + random.nextGaussian(), SETTINGS);
+        }
+        assertTrue(model.isReady());
+
+        Forecaster.Forecast forecast = model.forecast("1", "3", 24, SETTINGS);
+        assertEquals(start + 24 * 14, forecast.getFirstHour());
+        for (int h = 0; h < 24; h++) {
+            double expected = truth(forecast.getFirstHour() + h);
+            assertEquals(expected, forecast.getMean()[h], 2.5, "hour " + h);
+            assertTrue(forecast.getLower()[h] <= forecast.getMean()[h]);
+            assertTrue(forecast.getUpper()[h] >= forecast.getMean()[h]);
+        }
+        // Bands widen with the horizon
+        assertTrue(forecast.getUpper()[23] - forecast.getLower()[23] > forecast.getUpper()[0] - forecast.getLower()[0]);
+    }
+
+    @Test
+    void incrementalUpdatesIgnoreConsumedHours() {
+        Forecaster.Model model = new Forecaster.Model();
+        for (long h = 0; h < 24 * 5; h++) model.update(h, truth(h), SETTINGS);
+        double level = model.level;
+        model.update(24 * 5 - 10, 500, SETTINGS); // late value for an hour already consumed
+        assertEquals(level, model.level);
+        assertEquals(24 * 5 - 1, model.getLastHour());
+    }
+
+    @Test
+    void spikesAreClippedAndLongOutagesRestartWarmup() {
+        Forecaster.Model model = new Forecaster.Model();
+        long h = 0;
+        for (; h < 24 * 7; h++) model.update(h, truth(h), SETTINGS);
+        double before = model.forecast("1", "3", 1, SETTINGS).getMean()[0];
+        model.update(h++, 5000, SETTINGS);
+        double after = model.forecast("1", "3", 1, SETTINGS).getMean()[0];
+        assertTrue(after - before < 10, "one spike must not drag the level");
+
+        model.update(h + 100, 30, SETTINGS);
+        assertFalse(model.isReady());
+    }
+
+    @Test
+    void shortWarmupGapsAreCarriedForward() {
+        Forecaster.Model model = new Forecaster.Model();
+        for (long h = 0; h < 48; h++) {
+            if (h == 10 || h == 11) continue;
+            model.update(h, truth(h), SETTINGS);
+        }
+        assertTrue(model.isReady());
+    }
+}
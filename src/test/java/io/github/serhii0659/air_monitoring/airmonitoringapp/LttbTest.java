@@ -0,0 +1,54 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LttbTest {
+    @Test
+    void keepsEndpointsAndPeaks() {
+        int n = 100_000;
+        long[] x = new long[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 60_000L * i;
+            y[i] = Math.sin(i / 500.0) * 10;
+        }
+        y[42_317] = 500;   // single spike must survive
+        y[77_001] = -300;
+
+        int[] kept = Lttb.downsample(x, y, 0, n, 800);
+
+        assertEquals(800, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indices must be ascending");
+        }
+        assertTrue(contains(kept, 42_317));
+        assertTrue(contains(kept, 77_001));
+    }
+
+    @Test
+    void rangeAndSmallInputs() {
+        long[] x = { 0, 10, 20, 30, 40, 50, 60, 70, 80, 90 };
+        double[] y = { 1, 2, 3, 9, 5, 6, 7, 8, 9, 10 };
+
+        assertArrayEquals(new int[] { 2, 3, 4 }, Lttb.downsample(x, y, 2, 5, 10));
+        assertEquals(0, Lttb.downsample(x, y, 5, 5, 10).length);
+
+        int[] kept = Lttb.downsample(x, y, 1, 9, 4);
+        assertEquals(4, kept.length);
+        assertEquals(1, kept[0]);
+        assertEquals(8, kept[3]);
+
+        assertEquals(3, Lttb.lowerBound(x, x.length, 25));
+        assertEquals(3, Lttb.lowerBound(x, x.length, 30));
+        assertEquals(10, Lttb.lowerBound(x, x.length, 1000));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) if (v == value) return true;
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeasurementBlockTest {
+    @Test
+    void roundTripKeepsAllColumns() throws Exception {
+        int n = MeasurementBlock.MAX_ROWS;
+        long[] ids = new long[n];
+        long[] times = new long[n];
+        short[] units = new short[n];
+        double[] values = new double[n];
+        Random random = new Random(42);
+
+        // Three hourly series (one row per unit per hour) with occasional jitter and repeats
+        long time = 1_700_000_000_000L;
+        double[] level = { 25.0, 40.0, 1.2 };
+        for (int i = 0; i < n; i++) {
+            ids[i] = 1000 + i + (i % 100 == 0 ? 7 : 0);
+            units[i] = (short) (i % 3);
+            if (units[i] == 0) time += 3_600_000L + (i % 50 == 0 ? random.nextInt(5000) - 2500 : 0);
+            times[i] = time;
+            if (i % 4 != 0) level[units[i]] = Math.max(0, Math.round((level[units[i]] + random.nextGaussian()) * 10) / 10.0);
+            values[i] = level[units[i]];
+        }
+        values[5] = -0.0;
+        values[8] = Double.NaN;
+
+        byte[] block = MeasurementBlock.encode(ids, times, units, values, List.of("PM25", "PM10", "CO"), 0, n);
+        ByteBuffer buf = ByteBuffer.wrap(block);
+        MeasurementBlock.Header header = MeasurementBlock.readHeader(buf, 0);
+        MeasurementBlock.Columns columns = new MeasurementBlock.Columns();
+        MeasurementBlock.decode(buf, header, columns);
+
+        assertEquals(n, header.getRowCount());
+        assertEquals(block.length, MeasurementBlock.blockLength(header, 0));
+        assertEquals(times[0], header.getMinTime());
+        assertEquals(times[n - 1], header.getMaxTime());
+        for (int i = 0; i < n; i++) {
+            assertEquals(ids[i], columns.ids[i], "id " + i);
+            assertEquals(times[i], columns.times[i], "time " + i);
+            assertEquals(units[i], columns.units[i], "unit " + i);
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(columns.values[i]), "value " + i);
+        }
+        // Regular hourly series must take far less than raw 26 bytes/row
+        assertTrue(block.length < n * 26 / 4, "block size " + block.length);
+    }
+}
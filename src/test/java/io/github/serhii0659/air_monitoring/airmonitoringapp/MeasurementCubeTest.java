@@ -0,0 +1,122 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeasurementCubeTest {
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+
+    /**
+     * Two stations in Kyiv and one in Lviv, PM2.5 with two bands and CO, ten days
+     */
+    private static MeasurementCube sample() {
+        MeasurementCube.Builder b = new MeasurementCube.Builder();
+        int kyiv1 = b.stationIndex("1", "Центр", "Київ");
+        int kyiv2 = b.stationIndex("2", "Поділ", "Київ");
+        int lviv = b.stationIndex("3", "Ринок", "Львів");
+        int pm25 = b.unitIndex("10", "PM2.5", "μg/m³");
+        int co = b.unitIndex("11", "CO", "mg/m³");
+        b.addBand(pm25, new MeasurementCube.Band("Добре", 0, 35.4));
+        b.addBand(pm25, new MeasurementCube.Band("Шкідливо", 35.4, Double.POSITIVE_INFINITY));
+
+        // Days are added in reverse to check that the cube sorts them
+        for (int d = 9; d >= 0; d--) {
+            int day = (int) START.plusDays(d).toEpochDay();
+            for (int s : new int[] { kyiv1, kyiv2, lviv }) {
+                double high = 10 + d + s * 20;
+                int cell = b.add(s, pm25, day, 5, high, 24 * (high + 5) / 2, 24);
+                b.addBandCount(cell, high > 35.4 ? 1 : 0, 24);
+                b.add(s, co, day, 0.1, 0.5, 24 * 0.3, 24);
+            }
+        }
+        // A second partial aggregate of the same cell is merged
+        b.add(kyiv1, pm25, (int) START.toEpochDay(), 2, 80, 82, 2);
+        return b.build(0);
+    }
+
+    /**
+     * Builder on top of a cube with the bands re-read, as a refresh does
+     */
+    private static MeasurementCube.Builder refreshBuilder(MeasurementCube cube) {
+        MeasurementCube.Builder b = new MeasurementCube.Builder(cube);
+        for (MeasurementCube.Band band : cube.bands("10")) b.addBand(b.unitIndex("10", null, null), band);
+        assertTrue(b.sameBands(cube));
+        return b;
+    }
+
+    @Test
+    void slicesByStationUnitAndPeriod() {
+        MeasurementCube cube = sample();
+        assertEquals(60, cube.size());
+
+        BitSet cells = cube.select("1", null, "10", START.plusDays(2), START.plusDays(4));
+        assertEquals(3, cells.cardinality());
+        MeasurementCube.Aggregate total = cube.aggregate(cells);
+        assertEquals(72, total.getCount());
+        assertEquals(5, total.getMin());
+        assertEquals(14, total.getMax());
+
+        assertEquals(0, cube.select("99", null, null, null, null).cardinality());
+        assertEquals(0, cube.select(null, null, "10", START.plusDays(20), null).cardinality());
+    }
+
+    @Test
+    void rollsUpByCity() {
+        MeasurementCube cube = sample();
+        Map<String, MeasurementCube.Aggregate> byCity = cube.rollUp(
+                cube.select(null, null, "10", START, START.plusDays(9)), MeasurementCube.Dimension.CITY);
+        assertEquals(List.of("Київ", "Львів"), List.copyOf(byCity.keySet()));
+        assertEquals(80, byCity.get("Київ").getMax()); // merged partial aggregate
+        assertEquals(20, byCity.get("Київ").getCells());
+        assertEquals(59, byCity.get("Львів").getMax());
+
+        MeasurementCube.Aggregate first = cube.aggregate(cube.select("1", "Київ", "10", START, START));
+        assertEquals(26, first.getCount());
+        assertEquals(2, first.getMin());
+    }
+
+    @Test
+    void countsValuesPerBand() {
+        MeasurementCube cube = sample();
+        assertEquals(List.of("Добре", "Шкідливо"),
+                cube.bands("10").stream().map(MeasurementCube.Band::getDesignation).toList());
+        MeasurementCube.Aggregate kyiv2 = cube.aggregate(cube.select("2", null, "10", null, null));
+        // Station 2: daily max 30..39, above 35.4 from day 6
+        assertEquals(6 * 24, kyiv2.getBandCount(0));
+        assertEquals(4 * 24, kyiv2.getBandCount(1));
+        assertEquals(List.of("10"), cube.unitIdsByTitle("PM2.5"));
+        assertEquals("Поділ (Київ)", cube.stationLabels().get("2"));
+    }
+
+    @Test
+    void appendsNewRowsWithoutCopyingHistory() {
+        MeasurementCube cube = sample();
+        MeasurementCube.Builder b = refreshBuilder(cube);
+        int kyiv1 = b.stationIndex("1", null, null);
+        int pm25 = b.unitIndex("10", null, null);
+        int newStation = b.stationIndex("4", "Нова", "Одеса");
+        b.add(kyiv1, pm25, (int) START.plusDays(9).toEpochDay(), 1, 90, 91, 2); // recent day
+        b.add(newStation, pm25, (int) START.plusDays(10).toEpochDay(), 3, 3, 3, 1);
+        MeasurementCube recent = cube.append(b, 1);
+        assertEquals(61, recent.size());
+        MeasurementCube.Aggregate day9 = recent.aggregate(recent.select("1", null, "10", START.plusDays(9), null));
+        assertEquals(26, day9.getCount());
+        assertEquals(90, day9.getMax());
+        assertEquals(1, recent.select(null, "Одеса", null, null, null).cardinality());
+
+        // Late data for the first day goes through a history rebuild
+        MeasurementCube.Builder late = refreshBuilder(recent);
+        late.add(late.stationIndex("3", null, null), late.unitIndex("11", null, null), (int) START.toEpochDay(), 0.05, 0.05, 0.05, 1);
+        MeasurementCube merged = recent.append(late, 2);
+        assertEquals(61, merged.size());
+        assertEquals(0.05, merged.aggregate(merged.select("3", null, "11", START, START)).getMin());
+        assertEquals(25, merged.aggregate(merged.select("3", null, "11", START, START)).getCount());
+        assertEquals(26, merged.aggregate(merged.select("1", null, "10", START.plusDays(9), null)).getCount());
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodComparisonTest {
+    @Test
+    void referencePeriods() {
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+
+        assertArrayEquals(new LocalDate[] { LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31) },
+                PeriodComparison.Mode.YEAR_OVER_YEAR.reference(start, end));
+        // Month shift clamps to the shorter month
+        assertArrayEquals(new LocalDate[] { LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29) },
+                PeriodComparison.Mode.MONTH_OVER_MONTH.reference(start, end));
+
+        // A quarter shifted by one month would overlap: the preceding 91 days are used instead
+        LocalDate[] quarter = PeriodComparison.Mode.MONTH_OVER_MONTH.reference(start, LocalDate.of(2024, 5, 30));
+        assertEquals(LocalDate.of(2024, 2, 29), quarter[1]);
+        assertEquals(LocalDate.of(2023, 12, 1), quarter[0]);
+    }
+
+    @Test
+    void deltaAndPercentChange() {
+        PeriodComparison.Row row = new PeriodComparison.Row("S1", "Station", "City", "PM2.5", "μg/m³");
+        row.getCurrent().add(30, 10, 50, 10);
+        row.getCurrent().add(60, 40, 90, 20);   // mean of both batches: 50
+        row.getReference().add(40, 5, 70, 5);
+
+        assertEquals(50, row.getCurrent().getMean(), 1e-9);
+        assertEquals(90, row.getCurrent().getMax(), 1e-9);
+        assertEquals(30, row.getCurrent().getCount());
+        assertEquals(10, row.getDelta(), 1e-9);
+        assertEquals(25, row.getPercentChange(), 1e-9);
+
+        PeriodComparison.Row missing = new PeriodComparison.Row("S2", "Station", "City", "CO", "mg/m³");
+        missing.getCurrent().add(1, 1, 1, 1);
+        assertTrue(Double.isNaN(missing.getDelta()));
+        assertTrue(Double.isNaN(missing.getPercentChange()));
+    }
+}
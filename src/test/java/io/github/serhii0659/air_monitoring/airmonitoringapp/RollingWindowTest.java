@@ -0,0 +1,89 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingWindowTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void evictsSamplesOlderThanWindow() {
+        RollingWindow window = new RollingWindow(8 * HOUR);
+        for (int h = 0; h < 8; h++) window.add(h * HOUR, h);
+        assertEquals(8, window.count());
+        assertEquals(3.5, window.mean(), 1e-9);
+
+        // Window is (t - 8h, t]: the sample at hour 0 leaves when hour 8 arrives
+        window.add(8 * HOUR, 8);
+        assertEquals(8, window.count());
+        assertEquals(4.5, window.mean(), 1e-9);
+
+        window.add(20 * HOUR, 2);
+        assertEquals(1, window.count());
+        assertEquals(2, window.mean(), 1e-9);
+    }
+
+    @Test
+    void matchesBruteForceOverMinuteSeries() {
+        long minute = 60_000L;
+        int n = 3 * 24 * 60;
+        double[] values = new double[n];
+        RollingWindow window = new RollingWindow(24 * HOUR);
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < n; i++) {
+            // Gaps of a few hours exercise eviction of several samples at once
+            values[i] = i % 1000 < 800 ? random.nextDouble() * 100 : Double.NaN;
+            if (Double.isNaN(values[i])) continue;
+            window.add(i * minute, values[i]);
+
+            double sum = 0;
+            int count = 0;
+            for (int j = Math.max(0, i - 24 * 60 + 1); j <= i; j++) {
+                if (!Double.isNaN(values[j])) {
+                    sum += values[j];
+                    count++;
+                }
+            }
+            assertEquals(count, window.count());
+            assertEquals(sum / count, window.mean(), 1e-6);
+        }
+    }
+
+    @Test
+    void coverageCountsHoursWithSamples() {
+        RollingWindow window = new RollingWindow(24 * HOUR);
+        // Four samples in one hour cover 1 of 24 hours
+        for (int i = 0; i < 4; i++) window.add(i * 15 * 60_000L, 10);
+        assertEquals(1 / 24.0, window.coverage(), 1e-9);
+
+        for (int h = 1; h < 18; h++) window.add(h * HOUR, 10);
+        assertEquals(0.75, window.coverage(), 1e-9);
+
+        // After a 30-hour gap only the new hour is covered
+        window.add(48 * HOUR, 10);
+        assertEquals(1 / 24.0, window.coverage(), 1e-9);
+        assertEquals(1, window.count());
+
+        // Evicting the first sample of an hour keeps the hour while later samples remain
+        window.clear();
+        window.add(0, 1);
+        window.add(30 * 60_000L, 1);
+        window.add(24 * HOUR, 1);
+        assertEquals(2 / 24.0, window.coverage(), 1e-9);
+        window.add(24 * HOUR + 30 * 60_000L, 1);
+        assertEquals(1 / 24.0, window.coverage(), 1e-9);
+    }
+
+    @Test
+    void summaryTracksExceedances() {
+        RollingWindow.Summary summary = new RollingWindow.Summary();
+        summary.add(1, 10, false);
+        summary.add(2, 40, true);
+        summary.add(3, 30, false);
+        assertEquals(3, summary.getSamples());
+        assertEquals(1, summary.getExceeded());
+        assertEquals(40, summary.getMaxMean(), 1e-9);
+        assertEquals(2, summary.getMaxTime());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StationRankingTest {
+    @Test
+    void pagesMatchFullSort() {
+        int n = 500;
+        Integer[] order = new Integer[n];
+        double[] values = new double[n];
+        Random random = new Random(11);
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            values[i] = random.nextInt(200); // plenty of ties
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -values[i]).thenComparing(StationRankingTest::id));
+
+        for (int offset : new int[] { 0, 20, 480, 490 }) {
+            StationRanking.TopK top = new StationRanking.TopK(offset + 20, true);
+            for (int i = 0; i < n; i++) top.offer(id(i), values[i]);
+            top.offer("nan", Double.NaN);
+
+            List<StationRanking.Entry> page = top.page(offset);
+            assertEquals(n, top.offered());
+            assertEquals(Math.min(20, n - offset), page.size());
+            for (int r = 0; r < page.size(); r++) {
+                assertEquals(offset + r + 1, page.get(r).getRank());
+                assertEquals(id(order[offset + r]), page.get(r).getStationId());
+            }
+        }
+    }
+
+    @Test
+    void ascendingKeepsLowest() {
+        StationRanking.TopK bottom = new StationRanking.TopK(2, false);
+        bottom.offer("a", 5);
+        bottom.offer("b", 1);
+        bottom.offer("c", 3);
+        bottom.offer("d", 0.5);
+
+        List<StationRanking.Entry> page = bottom.page(0);
+        assertEquals(2, page.size());
+        assertEquals("d", page.get(0).getStationId());
+        assertEquals("b", page.get(1).getStationId());
+        assertEquals(4, bottom.offered());
+    }
+
+    private static String id(int i) {
+        return String.format("S%04d", i);
+    }
+}
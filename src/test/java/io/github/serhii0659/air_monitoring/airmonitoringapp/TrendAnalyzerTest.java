@@ -0,0 +1,71 @@
+package io.github.serhii0659.air_monitoring.airmonitoringapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendAnalyzerTest {
+
+    @Test
+    void slopeIgnoresOutliers() {
+        int n = 200;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 40 - 0.05 * i + (i % 20 == 0 ? 500 : 0); // wildfire days
+        }
+        TrendAnalyzer.Trend trend = TrendAnalyzer.theilSen(x, y);
+        assertEquals(-0.05, trend.getSlope(), 1e-9);
+        assertEquals(40, trend.getIntercept(), 1e-9);
+        assertTrue(trend.isSignificant());
+        assertTrue(trend.getZ() < 0);
+    }
+
+    @Test
+    void noiseIsNotSignificant() {
+        Random random = new Random(5);
+        double[] x = new double[300];
+        double[] y = new double[300];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+            y[i] = 25 + random.nextGaussian() * 5;
+        }
+        TrendAnalyzer.Trend trend = TrendAnalyzer.theilSen(x, y);
+        assertFalse(trend.isSignificant());
+        assertEquals(0, trend.getSlope(), 0.02);
+    }
+
+    @Test
+    void sampledPairsStayCloseToExactSlope() {
+        int n = 3000; // ~4.5M pairs, above the exact limit
+        Random random = new Random(9);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 10 + 0.01 * i + random.nextGaussian();
+        }
+        TrendAnalyzer.Trend trend = TrendAnalyzer.theilSen(x, y);
+        assertEquals(0.01, trend.getSlope(), 5e-4);
+        assertTrue(trend.isSignificant());
+    }
+
+    @Test
+    void resultSkipsMissingDays() {
+        double[] daily = new double[60];
+        Arrays.fill(daily, Double.NaN);
+        for (int d = 0; d < daily.length; d += 2) daily[d] = 30 + 0.1 * d;
+        TrendAnalyzer.Result result = new TrendAnalyzer.Result("1", "3", LocalDate.of(2024, 1, 1),
+                daily, new double[24], new double[7]);
+
+        assertEquals(30, result.getDays());
+        assertEquals(0.1 * 365.25, result.getSlopePerYear(), 1e-9);
+        assertEquals("📈 Погіршення", result.getVerdict());
+        assertEquals(32.9, result.getMean(), 1e-9);
+    }
+}